@@ -17,6 +17,10 @@ import android.hardware.usb.UsbDevice;
 import android.hardware.usb.UsbEndpoint;
 import android.hardware.usb.UsbInterface;
 import android.hardware.usb.UsbManager;
+import android.net.ConnectivityManager;
+import android.net.LinkProperties;
+import android.net.Network;
+import android.net.RouteInfo;
 import android.os.Build;
 import android.util.Log;
 
@@ -32,13 +36,41 @@ import com.getcapacitor.annotation.ActivityCallback;
 import com.getcapacitor.annotation.CapacitorPlugin;
 import com.getcapacitor.annotation.Permission;
 import com.getcapacitor.annotation.PermissionCallback;
+import com.getcapacitor.community.escposprinter.document.Codepage;
+import com.getcapacitor.community.escposprinter.document.CodepageTextEncoder;
+import com.getcapacitor.community.escposprinter.document.DocumentCompiler;
+import com.getcapacitor.community.escposprinter.document.PrinterProfile;
+import com.getcapacitor.community.escposprinter.document.TextEncoder;
+import com.getcapacitor.community.escposprinter.image.BitmapImageDecoder;
+import com.getcapacitor.community.escposprinter.image.GraphicsStorage;
+import com.getcapacitor.community.escposprinter.image.RasterCache;
+import com.getcapacitor.community.escposprinter.image.RasterImageResolver;
+import com.getcapacitor.community.escposprinter.image.StoredGraphics;
+import com.getcapacitor.community.escposprinter.payload.BytePool;
+import com.getcapacitor.community.escposprinter.payload.GrowableByteBuffer;
+import com.getcapacitor.community.escposprinter.payload.Payload;
+import com.getcapacitor.community.escposprinter.printers.AddressCache;
+import com.getcapacitor.community.escposprinter.printers.AsbParser;
 import com.getcapacitor.community.escposprinter.printers.BasePrinter;
 import com.getcapacitor.community.escposprinter.printers.BluetoothPrinter;
+import com.getcapacitor.community.escposprinter.printers.DiscoveryCache;
+import com.getcapacitor.community.escposprinter.printers.FlowControl;
+import com.getcapacitor.community.escposprinter.printers.NeighborTable;
 import com.getcapacitor.community.escposprinter.printers.NetworkAddress;
 import com.getcapacitor.community.escposprinter.printers.NetworkPrinter;
+import com.getcapacitor.community.escposprinter.printers.NetworkScanTargets;
+import com.getcapacitor.community.escposprinter.printers.NetworkScanner;
+import com.getcapacitor.community.escposprinter.printers.PrintJob;
+import com.getcapacitor.community.escposprinter.printers.PrinterIdentifier;
+import com.getcapacitor.community.escposprinter.printers.PrinterStatus;
+import com.getcapacitor.community.escposprinter.printers.RttEstimator;
+import com.getcapacitor.community.escposprinter.printers.StatusFlag;
+import com.getcapacitor.community.escposprinter.printers.StatusMonitor;
+import com.getcapacitor.community.escposprinter.printers.ThroughputModel;
 import com.getcapacitor.community.escposprinter.printers.UsbPrinter;
 import com.getcapacitor.community.escposprinter.printers.exceptions.PrinterException;
 
+import org.json.JSONArray;
 import org.json.JSONException;
 
 import java.io.IOException;
@@ -47,25 +79,35 @@ import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.net.Inet4Address;
 import java.net.InetAddress;
+import java.net.InterfaceAddress;
 import java.net.InetSocketAddress;
 import java.net.NetworkInterface;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 @SuppressWarnings("unused")
 @CapacitorPlugin(
@@ -96,15 +138,53 @@ public class EscPosPrinterPlugin extends Plugin {
      * Probes are interactive-only (add/open/test), so a generous reply window
      * is cheap. 300ms proved too tight on jittery links (emulator NAT, busy
      * Wi-Fi): late replies caused false "no DLE EOT support" negatives.
+     * Printers with a known RTT get a window from it instead, within
+     * [NETWORK_PROBE_MIN_REPLY_WINDOW_MS, NETWORK_PROBE_REPLY_WINDOW_MS]:
+     * the RTT variation is what covers the jitter there.
      */
     private static final int NETWORK_PROBE_REPLY_WINDOW_MS = 1500;
+    private static final int NETWORK_PROBE_MIN_REPLY_WINDOW_MS = 500;
     private static final int NETWORK_SCAN_DEFAULT_PORT = 9100;
     private static final int NETWORK_SCAN_DEFAULT_TIMEOUT_MS = 500;
-    private static final int NETWORK_SCAN_CONCURRENCY = 64;
+    /** Connect timeout of the first pass over known and ARP-resolved hosts: they are alive, if anything. */
+    private static final int NETWORK_SCAN_LIKELY_TIMEOUT_MS = 200;
+    /**
+     * Reply window of each scan identification request (GS I / DLE EOT):
+     * the printer just answered a connect, so it is close. A silent printer
+     * costs one window per GS I request.
+     */
+    private static final int NETWORK_SCAN_IDENTIFY_WINDOW_MS = 500;
+    /** Event carrying each device of a running network scan as soon as it answers. */
+    private static final String EVENT_NETWORK_DEVICE_FOUND = "networkDeviceFound";
+    /** Event carrying a cached network printer whenever what is known about it changes. */
+    private static final String EVENT_CACHED_NETWORK_PRINTER_CHANGED = "cachedNetworkPrinterChanged";
+
+    /**
+     * Reply window of each DLE EOT n of a status poll. Polls run between
+     * jobs, so a silent printer only delays the next job by this, once.
+     */
+    private static final int STATUS_POLL_REPLY_WINDOW_MS = 500;
+    /** Event carrying a monitored printer's status whenever it changes. */
+    private static final String EVENT_PRINTER_STATUS_CHANGED = "printerStatusChanged";
+
+    private static final String PREFERENCES_NAME = "EscPosPrinter";
+    private static final String PREFERENCES_THROUGHPUT = "throughput";
+    private static final String PREFERENCES_DISCOVERY = "discovery";
+    /** PC850 prints Spanish and Portuguese; PC437 adds its box drawing and Greek. */
+    private static final Codepage[] DEFAULT_CODEPAGES = { Codepage.PC850, Codepage.PC437 };
 
     private BluetoothAdapter bluetoothAdapter;
     private final Map<String, BasePrinter> printersMap = new ConcurrentHashMap<>();
 
+    /**
+     * Stable identity of the physical printer behind each hashKey
+     * ("type:address"), for state that must outlive a hashKey.
+     */
+    private final Map<String, String> printerIds = new ConcurrentHashMap<>();
+
+    /** Document compile options per hashKey, from createPrinter(). */
+    private final Map<String, PrinterProfile> printerProfiles = new ConcurrentHashMap<>();
+
     /**
      * Per-printer single-thread executors.
      *
@@ -114,7 +194,7 @@ public class EscPosPrinterPlugin extends Plugin {
      *
      * Keyed by the Capacitor printer hashKey (created by createPrinter()).
      */
-    private final Map<String, ExecutorService> printerExecutors = new ConcurrentHashMap<>();
+    private final Map<String, ThreadPoolExecutor> printerExecutors = new ConcurrentHashMap<>();
     
     // USB permission request tracking
     private final Map<String, PluginCall> pendingUsbPermissionCalls = new ConcurrentHashMap<>();
@@ -133,10 +213,77 @@ public class EscPosPrinterPlugin extends Plugin {
         return t;
     });
 
-    /** Only one network scan may run at a time (each opens up to 64 sockets). */
-    private final AtomicBoolean networkScanRunning = new AtomicBoolean(false);
+    /**
+     * The one thread that times the status polls of every monitored printer
+     * (the polls themselves run on each printer's executor).
+     */
+    private final ScheduledExecutorService statusScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r);
+        t.setName("EscPosPrinter-status");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Printers monitored by startStatusMonitor, keyed by hashKey. */
+    private final StatusMonitor statusMonitor = new StatusMonitor(statusScheduler,
+            (hashKey, status) -> onPrinterStatusChanged(hashKey, status, "poll"));
+
+    /**
+     * Last status each printer reported, by poll or automatic status back,
+     * keyed by hashKey; absent while unknown or unreachable.
+     */
+    private final Map<String, PrinterStatus> currentStatus = new ConcurrentHashMap<>();
+
+    /** Open chunked jobs, keyed by printer hashKey (at most one per printer). */
+    private final Map<String, PrintJob> openJobs = new ConcurrentHashMap<>();
+
+    /** Graphics defined on each physical printer (GS ( L), keyed by printerIds. */
+    private final StoredGraphics storedGraphics = new StoredGraphics();
+
+    /** Encoded image rasters, shared by all printers (logos repeat across tickets). */
+    private final RasterCache imageCache = new RasterCache(RasterCache.DEFAULT_MAX_BYTES);
+
+    /**
+     * One document compiler (and so one reusable output buffer) per printer
+     * executor thread, together with its image resolver; both die with the
+     * executor on dispose.
+     */
+    private final ThreadLocal<RasterImageResolver> imageResolvers = ThreadLocal.withInitial(
+            () -> new RasterImageResolver(new BitmapImageDecoder(), imageCache)
+    );
+    private final ThreadLocal<DocumentCompiler> documentCompilers = ThreadLocal.withInitial(
+            () -> new DocumentCompiler(TextEncoder.ASCII, imageResolvers.get())
+    );
+
+    /**
+     * Learned bytes-per-second of each physical printer (keyed by
+     * printerIds), kept in SharedPreferences across app restarts. Created in
+     * load(), which needs the context.
+     */
+    private ThroughputModel throughputModel;
+
+    /**
+     * Network printers found by scans and probes, kept across app restarts:
+     * returned at once by getCachedNetworkPrinters and probed first by the
+     * next scan. Created in load().
+     */
+    private DiscoveryCache discoveryCache;
+
+    /** Whether a getCachedNetworkPrinters revalidation is running (at most one at a time). */
+    private final AtomicBoolean discoveryRevalidating = new AtomicBoolean();
+
+    /** sendToPrinter payload buffers, shared by all printers. */
+    private final BytePool payloadPool = new BytePool();
 
-    private ExecutorService getOrCreatePrinterExecutor(String hashKey) {
+    /** The running network scan; only one may run at a time (each keeps up to 256 connects in flight). */
+    private final AtomicReference<NetworkScanSession> networkScan = new AtomicReference<>();
+
+    /**
+     * A single-thread executor whose queue stays reachable, so a network
+     * session can take the jobs queued right behind it (see
+     * {@link NetworkSessionTask}).
+     */
+    private ThreadPoolExecutor getOrCreatePrinterExecutor(String hashKey) {
         return printerExecutors.computeIfAbsent(hashKey, (key) -> {
             final String suffix = key.length() > 8 ? key.substring(0, 8) : key;
             ThreadFactory tf = r -> {
@@ -145,10 +292,116 @@ public class EscPosPrinterPlugin extends Plugin {
                 t.setDaemon(true);
                 return t;
             };
-            return Executors.newSingleThreadExecutor(tf);
+            return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), tf);
         });
     }
 
+    /**
+     * Runs a network job and takes the network jobs queued right behind it
+     * into the same connection (NetworkPrinter.sendSession). It only ever
+     * takes from the head of the printer's executor queue, so the order of
+     * everything sent to the printer is unchanged; a job taken this way is
+     * removed from the queue and never runs as a task of its own.
+     */
+    private static final class NetworkSessionTask implements Runnable {
+        final NetworkPrinter printer;
+        final ThreadPoolExecutor executor;
+        final CallJob job;
+
+        NetworkSessionTask(NetworkPrinter printer, ThreadPoolExecutor executor, CallJob job) {
+            this.printer = printer;
+            this.executor = executor;
+            this.job = job;
+        }
+
+        @Override
+        public void run() {
+            final List<CallJob> taken = new ArrayList<>();
+            try {
+                printer.sendSession(() -> {
+                    CallJob next = null;
+                    if (taken.isEmpty()) {
+                        next = job;
+                    } else {
+                        Runnable head = executor.getQueue().peek();
+                        if (head instanceof NetworkSessionTask && executor.getQueue().remove(head)) {
+                            next = ((NetworkSessionTask) head).job;
+                        }
+                    }
+                    if (next != null) {
+                        taken.add(next);
+                    }
+                    return next;
+                });
+            } catch (Exception e) {
+                for (CallJob callJob : taken) {
+                    callJob.fail(e.getMessage() != null ? e.getMessage() : "Unknown error");
+                }
+            }
+        }
+    }
+
+    /**
+     * A network job settling one plugin call. Subclasses produce the bytes
+     * in prepare() and clean up in the hooks; the call is resolved/rejected
+     * here, exactly once.
+     */
+    private abstract class CallJob extends NetworkPrinter.Job {
+        final PluginCall call;
+        private boolean done;
+
+        CallJob(PluginCall call) {
+            this.call = call;
+        }
+
+        /** After the job was sent. */
+        void onSent() {
+        }
+
+        /** After the job failed, before the call is rejected. */
+        void onFailed(PrinterException e) {
+        }
+
+        @Override
+        protected final void sent() {
+            done = true;
+            onSent();
+            call.resolve();
+        }
+
+        @Override
+        protected final void failed(PrinterException e) {
+            done = true;
+            onFailed(e);
+            rejectWithPrinterException(call, e);
+        }
+
+        /** Rejects the call with a plain message (failures outside the printer's phases). */
+        final void fail(String message) {
+            if (done) {
+                return;
+            }
+            abandon();
+            call.reject(message);
+        }
+
+        /** For prepare(): the call was already rejected, only clean up. */
+        final void abandon() {
+            done = true;
+            onFailed(null);
+        }
+    }
+
+    /** Queues job on the printer's executor; rejects it if the executor is gone. */
+    private void submitNetworkJob(String hashKey, NetworkPrinter printer, CallJob job) {
+        var executor = getOrCreatePrinterExecutor(hashKey);
+        try {
+            executor.execute(new NetworkSessionTask(printer, executor, job));
+        } catch (RejectedExecutionException e) {
+            job.fail("Printer executor is shutting down.");
+        }
+    }
+
     // ==========================================================================
     // Plugin Lifecycle
     // ==========================================================================
@@ -157,6 +410,31 @@ public class EscPosPrinterPlugin extends Plugin {
     public void load() {
         super.load();
         registerUsbPermissionReceiver();
+
+        var preferences = getContext().getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+        throughputModel = new ThroughputModel(new ThroughputModel.Store() {
+            @Override
+            public String load() {
+                return preferences.getString(PREFERENCES_THROUGHPUT, null);
+            }
+
+            @Override
+            public void save(String snapshot) {
+                preferences.edit().putString(PREFERENCES_THROUGHPUT, snapshot).apply();
+            }
+        });
+        discoveryCache = new DiscoveryCache(new DiscoveryCache.Store() {
+            @Override
+            public String load() {
+                return preferences.getString(PREFERENCES_DISCOVERY, null);
+            }
+
+            @Override
+            public void save(String snapshot) {
+                preferences.edit().putString(PREFERENCES_DISCOVERY, snapshot).apply();
+            }
+        });
+        discoveryCache.setListener(entry -> notifyListeners(EVENT_CACHED_NETWORK_PRINTER_CHANGED, toCachedDevice(entry)));
     }
 
     @Override
@@ -174,11 +452,23 @@ public class EscPosPrinterPlugin extends Plugin {
         }
         printerExecutors.clear();
 
+        var scan = networkScan.get();
+        if (scan != null) {
+            scan.cancel();
+        }
+
         try {
             networkProbeExecutor.shutdownNow();
         } catch (Exception ignored) {
             // ignore
         }
+        try {
+            statusScheduler.shutdownNow();
+        } catch (Exception ignored) {
+            // ignore
+        }
+        payloadPool.clear();
+        imageCache.clear();
 
         // Clear any pending permission calls
         for (PluginCall call : pendingUsbPermissionCalls.values()) {
@@ -596,7 +886,24 @@ public class EscPosPrinterPlugin extends Plugin {
         var address = call.getString("address");
         var connectionType = call.getString("connectionType", "bluetooth");
 
+        TextEncoder textEncoder;
+        try {
+            textEncoder = parseTextEncoder(call.getArray("codepages"));
+        } catch (IllegalArgumentException | JSONException e) {
+            call.reject("Invalid codepages: " + e.getMessage());
+            return;
+        }
+
+        FlowControl flowControl;
+        try {
+            flowControl = FlowControl.fromName(call.getString("flowControl", FlowControl.HEURISTIC.jsName));
+        } catch (IllegalArgumentException e) {
+            call.reject("Invalid flowControl: " + e.getMessage());
+            return;
+        }
+
         BasePrinter printer;
+        String printerId;
 
         switch (connectionType) {
             case "bluetooth": {
@@ -604,6 +911,7 @@ public class EscPosPrinterPlugin extends Plugin {
                     return;
                 }
                 printer = new BluetoothPrinter(bluetoothAdapter, address);
+                printerId = "bluetooth:" + address;
                 break;
             }
             case "usb": {
@@ -612,16 +920,24 @@ public class EscPosPrinterPlugin extends Plugin {
                     return;
                 }
                 printer = new UsbPrinter(getContext(), address);
+                printerId = "usb:" + address;
                 break;
             }
             case "network": {
                 var networkAddress = NetworkAddress.parse(address);
                 if (networkAddress == null) {
-                    call.reject("Invalid network address (expected host[:port]): " + address);
+                    call.reject("Invalid network address (expected host[:port] or [ipv6][:port]): " + address);
                     return;
                 }
                 var statusCheck = Boolean.TRUE.equals(call.getBoolean("statusCheck", false));
-                printer = new NetworkPrinter(networkAddress.host, networkAddress.port, statusCheck);
+                var keepAliveMs = call.getInt("keepAliveMs", 0);
+                printer = new NetworkPrinter(
+                        networkAddress.host,
+                        networkAddress.port,
+                        statusCheck,
+                        keepAliveMs != null ? keepAliveMs : 0
+                );
+                printerId = "network:" + networkAddress;
                 break;
             }
             default: {
@@ -630,13 +946,35 @@ public class EscPosPrinterPlugin extends Plugin {
             }
         }
 
+        printer.setFlowControl(flowControl);
+        printer.setThroughputModel(throughputModel, printerId);
         printersMap.put(hashKey, printer);
+        printerIds.put(hashKey, printerId);
+        printerProfiles.put(hashKey, new PrinterProfile(
+                Boolean.TRUE.equals(call.getBoolean("compactRaster", false)),
+                textEncoder
+        ));
 
         var data = new JSObject();
         data.put("value", hashKey);
         call.resolve(data);
     }
 
+    /** Code pages from createPrinter(); an empty list keeps text 7-bit ASCII. */
+    private static TextEncoder parseTextEncoder(JSArray names) throws JSONException {
+        if (names == null) {
+            return new CodepageTextEncoder(DEFAULT_CODEPAGES);
+        }
+        if (names.length() == 0) {
+            return TextEncoder.ASCII;
+        }
+        var codepages = new Codepage[names.length()];
+        for (int i = 0; i < codepages.length; i++) {
+            codepages[i] = Codepage.fromName(names.getString(i));
+        }
+        return new CodepageTextEncoder(codepages);
+    }
+
     @SuppressWarnings("unused")
     @PluginMethod
     public void disposePrinter(PluginCall call) {
@@ -647,7 +985,11 @@ public class EscPosPrinterPlugin extends Plugin {
         }
 
         // Prevent new operations from being enqueued for this printer.
+        statusMonitor.unsubscribe(hashKey);
+        currentStatus.remove(hashKey);
         var printer = printersMap.remove(hashKey);
+        printerIds.remove(hashKey);
+        printerProfiles.remove(hashKey);
         final boolean hasPrinter = printer != null;
 
         // Serialize dispose after any in-flight sends for this same printer.
@@ -657,6 +999,7 @@ public class EscPosPrinterPlugin extends Plugin {
         try {
             executor.execute(() -> {
                 try {
+                    abortOpenJob(hashKey, false);
                     if (finalPrinter != null) {
                         finalPrinter.disconnect();
                     }
@@ -679,6 +1022,7 @@ public class EscPosPrinterPlugin extends Plugin {
             });
         } catch (Exception e) {
             // Executor rejected (already shutting down): fallback to best-effort direct cleanup.
+            abortOpenJob(hashKey, false);
             try {
                 if (finalPrinter != null) {
                     finalPrinter.disconnect();
@@ -784,6 +1128,8 @@ public class EscPosPrinterPlugin extends Plugin {
         try {
             executor.execute(() -> {
                 try {
+                    // The stream a streaming job writes to is going away.
+                    abortOpenJob(hashKey, true);
                     finalPrinter.disconnect();
                     call.resolve();
                 } catch (Exception e) {
@@ -817,251 +1163,1238 @@ public class EscPosPrinterPlugin extends Plugin {
         }
 
         var waitingTime = call.getInt("waitingTime", 0);
-        var data = call.getArray("data");
-        if (data == null) {
-            call.reject("data is required.");
+        var payload = readPayload(call);
+        if (payload == null) {
             return;
         }
 
-        byte[] bytesArray = new byte[data.length()];
-        for (var i = 0; i < bytesArray.length; i++) {
-            bytesArray[i] = (byte)data.optInt(i);
-        }
-
         // Serialize per-printer sends, but allow concurrency across printers.
         // This prevents long ticket prints from blocking label printers.
         final int finalWaitingTime = waitingTime != null ? waitingTime : 0;
-        final byte[] finalBytes = bytesArray;
+
+        if (printer instanceof NetworkPrinter) {
+            submitNetworkJob(hashKey, (NetworkPrinter) printer, new CallJob(call) {
+                @Override
+                protected boolean prepare() {
+                    if (rejectIfStreamingJobOpen(hashKey, call)) {
+                        abandon();
+                        return false;
+                    }
+                    setData(payload.buffer, 0, payload.length, finalWaitingTime);
+                    return true;
+                }
+
+                @Override
+                void onSent() {
+                    payload.release();
+                }
+
+                @Override
+                void onFailed(PrinterException e) {
+                    payload.release();
+                }
+            });
+            return;
+        }
 
         var executor = getOrCreatePrinterExecutor(hashKey);
 
         try {
             executor.execute(() -> {
                 try {
-                    printer.send(finalBytes, finalWaitingTime);
+                    if (rejectIfStreamingJobOpen(hashKey, call)) {
+                        return;
+                    }
+                    printer.send(payload.buffer, 0, payload.length, finalWaitingTime);
                     call.resolve();
                 } catch (PrinterException e) {
                     rejectWithPrinterException(call, e);
                 } catch (Exception e) {
                     call.reject(e.getMessage() != null ? e.getMessage() : "Unknown error");
+                } finally {
+                    payload.release();
                 }
             });
         } catch (RejectedExecutionException e) {
+            payload.release();
             call.reject("Printer executor is shutting down.");
         } catch (Exception e) {
+            payload.release();
             call.reject(e.getMessage() != null ? e.getMessage() : "Unknown error");
         }
     }
 
     /**
-     * Read available data from the printer.
-     * 
-     * Note: For USB printers, this is best-effort and may return empty arrays
-     * if no data is available. Not all USB printers support read operations.
+     * Compiles a structured document (see DocumentCompiler) into ESC/POS
+     * bytes on the printer's executor and sends it, so receipts cross the
+     * bridge as a compact description instead of raw bytes.
      */
     @SuppressWarnings("unused")
     @PluginMethod
-    public void readFromPrinter(PluginCall call) {
+    public void printDocument(PluginCall call) {
+        var hashKey = call.getString("hashKey");
         var printer = getGuardedPrinterByHash(call);
         if (printer == null) {
             return;
         }
-
-        try {
-            var bytes = printer.read();
-            var bytesArray = new JSArray();
-            for (var i = 0; i < bytes.length; i++) {
-                try {
-                    bytesArray.put(i, bytes[i]);
-                } catch (JSONException e) {
-                    // Ignore JSON errors for individual bytes
-                }
-            }
-
-            var data = new JSObject();
-            data.put("value", bytesArray);
-            call.resolve(data);
-        } catch (PrinterException e) {
-            rejectWithPrinterException(call, e);
+        var document = call.getArray("document");
+        if (document == null) {
+            call.reject("document is required.");
+            return;
         }
+        compileAndSend(call, hashKey, printer, document);
     }
 
-    // ==========================================================================
-    // Network Methods
-    // ==========================================================================
-
     /**
-     * Setup/monitoring probe for a network printer (port of the desktop
-     * bridge's probeTcpPrinter): TCP connect + optional status request.
-     *
-     * Never rejects for unreachable devices — reachability is the result:
-     * { reachable, supportsDleEot, statusDetail }.
-     *
-     * `probeBytes` defaults to DLE EOT n=1 (0x10 0x04 0x01); the reply byte is
-     * decoded as DLE EOT status flags (OFFLINE / PAPER_OUT / ERROR).
+     * Encodes an image (PNG/JPEG or raw RGBA) natively: scale to the printer
+     * width, grayscale, dither, raster. Same options as a document "image"
+     * operation, sent through the same executor path as printDocument.
      */
     @SuppressWarnings("unused")
     @PluginMethod
-    public void probeNetworkPrinter(PluginCall call) {
-        var address = call.getString("address");
-        var networkAddress = NetworkAddress.parse(address);
-        if (networkAddress == null) {
-            call.reject("Invalid network address (expected host[:port]): " + address);
+    public void printImage(PluginCall call) {
+        var hashKey = call.getString("hashKey");
+        var printer = getGuardedPrinterByHash(call);
+        if (printer == null) {
             return;
         }
+        var operation = call.getData();
+        operation.put("type", "image");
+        compileAndSend(call, hashKey, printer, new JSArray().put(operation));
+    }
 
-        byte[] probeBytes = NetworkPrinter.DLE_EOT_PROBE;
-        var probeArray = call.getArray("probeBytes", null);
-        if (probeArray != null && probeArray.length() > 0) {
-            probeBytes = new byte[probeArray.length()];
-            for (var i = 0; i < probeBytes.length; i++) {
-                probeBytes[i] = (byte) probeArray.optInt(i);
-            }
-        }
-
-        final byte[] finalProbeBytes = probeBytes;
-
-        try {
-            networkProbeExecutor.execute(() -> {
-                var result = new JSObject();
-                Socket socket = new Socket();
-                try {
-                    socket.connect(
-                            new InetSocketAddress(networkAddress.host, networkAddress.port),
-                            NETWORK_PROBE_CONNECT_TIMEOUT_MS
-                    );
-
-                    result.put("reachable", true);
-
-                    OutputStream out = socket.getOutputStream();
-                    out.write(finalProbeBytes);
-                    out.flush();
+    /** Compiles a document on the printer's executor and sends the result. */
+    private void compileAndSend(PluginCall call, String hashKey, BasePrinter printer, JSONArray document) {
+        var printerId = printerIds.get(hashKey);
+        var profile = printerProfiles.getOrDefault(hashKey, PrinterProfile.DEFAULT);
+        var waitingTime = call.getInt("waitingTime", 0);
+        final int finalWaitingTime = waitingTime != null ? waitingTime : 0;
 
-                    socket.setSoTimeout(NETWORK_PROBE_REPLY_WINDOW_MS);
-                    InputStream in = socket.getInputStream();
-                    int status;
+        if (printer instanceof NetworkPrinter) {
+            // Compiled when the session reaches the job: the compiler's
+            // buffer is reused by the next job, which is only compiled once
+            // this one was sent.
+            var graphics = storedGraphics.session(printerId);
+            submitNetworkJob(hashKey, (NetworkPrinter) printer, new CallJob(call) {
+                @Override
+                protected boolean prepare() {
+                    if (rejectIfStreamingJobOpen(hashKey, call)) {
+                        abandon();
+                        return false;
+                    }
+                    GrowableByteBuffer bytes;
                     try {
-                        status = in.read();
-                    } catch (SocketTimeoutException e) {
-                        status = -1;
+                        bytes = documentCompilers.get().compile(document, profile, graphics);
+                    } catch (IllegalArgumentException e) {
+                        fail("Invalid document: " + e.getMessage());
+                        return false;
+                    } catch (Exception e) {
+                        fail(e.getMessage() != null ? e.getMessage() : "Unknown error");
+                        return false;
                     }
+                    setData(bytes.array(), 0, bytes.size(), finalWaitingTime);
+                    return true;
+                }
 
-                    if (status < 0) {
-                        result.put("supportsDleEot", false);
-                    } else {
-                        result.put("supportsDleEot", true);
-                        var detailArray = new JSArray();
-                        for (String flag : NetworkPrinter.decodeDleEotStatus(status)) {
-                            detailArray.put(flag);
-                        }
-                        result.put("statusDetail", detailArray);
+                @Override
+                void onSent() {
+                    graphics.commit();
+                }
+
+                @Override
+                void onFailed(PrinterException e) {
+                    if (e != null) {
+                        // The printer may have reset: define RAM graphics again next time.
+                        storedGraphics.invalidate(printerId, false);
                     }
-                } catch (IOException e) {
-                    result.put("reachable", false);
-                    result.put("supportsDleEot", false);
-                } finally {
-                    try {
-                        socket.close();
-                    } catch (IOException ignored) {
-                        // ignore
+                }
+            });
+            return;
+        }
+
+        var executor = getOrCreatePrinterExecutor(hashKey);
+        try {
+            executor.execute(() -> {
+                try {
+                    if (rejectIfStreamingJobOpen(hashKey, call)) {
+                        return;
                     }
+                    var graphics = storedGraphics.session(printerId);
+                    var bytes = documentCompilers.get().compile(document, profile, graphics);
+                    printer.send(bytes.array(), 0, bytes.size(), finalWaitingTime);
+                    graphics.commit();
+                    call.resolve();
+                } catch (IllegalArgumentException e) {
+                    call.reject("Invalid document: " + e.getMessage());
+                } catch (PrinterException e) {
+                    // The printer may have reset: define RAM graphics again next time.
+                    storedGraphics.invalidate(printerId, false);
+                    rejectWithPrinterException(call, e);
+                } catch (Exception e) {
+                    call.reject(e.getMessage() != null ? e.getMessage() : "Unknown error");
                 }
-                call.resolve(result);
             });
         } catch (RejectedExecutionException e) {
-            call.reject("Plugin is shutting down.");
+            call.reject("Printer executor is shutting down.");
         }
     }
 
+    // ==========================================================================
+    // Image Cache Methods
+    // ==========================================================================
+
     /**
-     * Discovers network printers by sweeping each local /24 subnet on the
-     * given port (default 9100), a port of the desktop bridge's tcp-scan.
-     * Only one scan may run at a time.
+     * Encodes an image (same options as printImage) into the raster cache
+     * and resolves its content id: later documents reference it as
+     * {"type":"image","imageId":...} instead of resending the pixels. Runs on
+     * the printer's executor, so it is ordered with that printer's jobs.
      */
     @SuppressWarnings("unused")
     @PluginMethod
-    public void getNetworkPrinterDevices(PluginCall call) {
-        var portOption = call.getInt("port", NETWORK_SCAN_DEFAULT_PORT);
-        var timeoutOption = call.getInt("timeoutMs", NETWORK_SCAN_DEFAULT_TIMEOUT_MS);
-        final int port = portOption != null ? portOption : NETWORK_SCAN_DEFAULT_PORT;
-        final int timeoutMs = timeoutOption != null ? timeoutOption : NETWORK_SCAN_DEFAULT_TIMEOUT_MS;
-
-        if (port < 1 || port > 65535) {
-            call.reject("Invalid port: " + port);
-            return;
+    public void cacheImage(PluginCall call) {
+        var hashKey = call.getString("hashKey");
+        var printer = getGuardedPrinterByHash(call);
+        if (printer == null) {
+            return;
+        }
+        var operation = call.getData();
+
+        var executor = getOrCreatePrinterExecutor(hashKey);
+        try {
+            executor.execute(() -> {
+                try {
+                    var data = new JSObject();
+                    data.put("imageId", imageResolvers.get().store(operation));
+                    call.resolve(data);
+                } catch (IllegalArgumentException e) {
+                    call.reject("Invalid image: " + e.getMessage());
+                } catch (Exception e) {
+                    call.reject(e.getMessage() != null ? e.getMessage() : "Unknown error");
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            call.reject("Printer executor is shutting down.");
+        }
+    }
+
+    /** Raster cache size and hit/miss/eviction counters, for sizing maxBytes. */
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void getImageCacheStats(PluginCall call) {
+        var stats = imageCache.stats();
+        var data = new JSObject();
+        data.put("entries", stats.entries);
+        data.put("bytes", stats.bytes);
+        data.put("maxBytes", stats.maxBytes);
+        data.put("hits", stats.hits);
+        data.put("misses", stats.misses);
+        data.put("evictions", stats.evictions);
+        call.resolve(data);
+    }
+
+    /** Sets the raster cache budget (bytes of 1-bit raster data); 0 disables caching. */
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void configureImageCache(PluginCall call) {
+        var maxBytes = call.getInt("maxBytes");
+        if (maxBytes == null || maxBytes < 0) {
+            call.reject("maxBytes must be a non-negative number.");
+            return;
+        }
+        imageCache.setMaxBytes(maxBytes);
+        call.resolve();
+    }
+
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void clearImageCache(PluginCall call) {
+        imageCache.clear();
+        call.resolve();
+    }
+
+    // ==========================================================================
+    // Stored Graphics Methods
+    // ==========================================================================
+
+    /**
+     * Defines an image on the printer (GS ( L download or NV graphics) under
+     * a two-character key, so jobs print it with {"type":"storedImage"} in
+     * 11 bytes. Tracked per physical printer: storing the same image again
+     * is a no-op while the printer still holds it, and jobs define it again
+     * lazily after a failure suggests the printer reset.
+     */
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void storeImage(PluginCall call) {
+        var hashKey = call.getString("hashKey");
+        var printer = getGuardedPrinterByHash(call);
+        if (printer == null) {
+            return;
+        }
+        var printerId = printerIds.get(hashKey);
+        var key = call.getString("key");
+        var operation = call.getData();
+
+        var executor = getOrCreatePrinterExecutor(hashKey);
+        try {
+            executor.execute(() -> {
+                try {
+                    if (rejectIfStreamingJobOpen(hashKey, call)) {
+                        return;
+                    }
+                    var storage = GraphicsStorage.fromName(call.getString("storage", GraphicsStorage.DOWNLOAD.jsName));
+                    var image = imageResolvers.get().resolve(operation);
+                    storedGraphics.register(printerId, key, storage, image);
+
+                    var graphics = storedGraphics.session(printerId);
+                    var bytes = new GrowableByteBuffer();
+                    if (graphics.writeDefineIfNeeded(key, bytes)) {
+                        printer.send(bytes.array(), 0, bytes.size(), 0);
+                        graphics.commit();
+                    }
+                    call.resolve();
+                } catch (IllegalArgumentException e) {
+                    call.reject("Invalid image: " + e.getMessage());
+                } catch (PrinterException e) {
+                    storedGraphics.invalidate(printerId, false);
+                    rejectWithPrinterException(call, e);
+                } catch (Exception e) {
+                    call.reject(e.getMessage() != null ? e.getMessage() : "Unknown error");
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            call.reject("Printer executor is shutting down.");
+        }
+    }
+
+    /** Deletes a stored image from the printer and stops tracking it. */
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void removeStoredImage(PluginCall call) {
+        var hashKey = call.getString("hashKey");
+        var printer = getGuardedPrinterByHash(call);
+        if (printer == null) {
+            return;
+        }
+        var printerId = printerIds.get(hashKey);
+        var key = call.getString("key");
+
+        var executor = getOrCreatePrinterExecutor(hashKey);
+        try {
+            executor.execute(() -> {
+                try {
+                    if (rejectIfStreamingJobOpen(hashKey, call)) {
+                        return;
+                    }
+                    var storage = storedGraphics.unregister(printerId, key);
+                    if (storage != null) {
+                        var bytes = new GrowableByteBuffer();
+                        storage.writeDelete(bytes, key);
+                        printer.send(bytes.array(), 0, bytes.size(), 0);
+                    }
+                    var data = new JSObject();
+                    data.put("value", storage != null);
+                    call.resolve(data);
+                } catch (PrinterException e) {
+                    rejectWithPrinterException(call, e);
+                } catch (Exception e) {
+                    call.reject(e.getMessage() != null ? e.getMessage() : "Unknown error");
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            call.reject("Printer executor is shutting down.");
+        }
+    }
+
+    /**
+     * Tells the plugin the printer lost its graphics (e.g. it was switched
+     * off, or its NV memory was cleared): the next jobs define them again.
+     */
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void invalidateStoredImages(PluginCall call) {
+        var hashKey = call.getString("hashKey");
+        var printer = getGuardedPrinterByHash(call);
+        if (printer == null) {
+            return;
+        }
+        var includeNv = Boolean.TRUE.equals(call.getBoolean("includeNv", false));
+        storedGraphics.invalidate(printerIds.get(hashKey), includeNv);
+        call.resolve();
+    }
+
+    // ==========================================================================
+    // Chunked Job Methods
+    // ==========================================================================
+
+    /**
+     * Opens a chunked job on a printer (one open job per printer). Printers
+     * with a persistent connection stream each chunk straight to the device;
+     * the others stage chunks and send them on commitJob.
+     */
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void beginJob(PluginCall call) {
+        var hashKey = call.getString("hashKey");
+        var printer = getGuardedPrinterByHash(call);
+        if (printer == null) {
+            return;
+        }
+
+        var job = new PrintJob(UUID.randomUUID().toString(), printer);
+        if (openJobs.putIfAbsent(hashKey, job) != null) {
+            call.reject("A job is already open on this printer.");
+            return;
+        }
+
+        var executor = getOrCreatePrinterExecutor(hashKey);
+        try {
+            // Start on the executor so the mode reflects the connection
+            // state after every previously queued operation.
+            executor.execute(() -> {
+                job.start();
+                var data = new JSObject();
+                data.put("jobId", job.id);
+                data.put("streaming", job.isStreaming());
+                call.resolve(data);
+            });
+        } catch (RejectedExecutionException e) {
+            openJobs.remove(hashKey, job);
+            call.reject("Printer executor is shutting down.");
+        }
+    }
+
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void appendJobChunk(PluginCall call) {
+        var hashKey = call.getString("hashKey");
+        var job = getGuardedJob(call);
+        if (job == null) {
+            return;
+        }
+        var payload = readPayload(call);
+        if (payload == null) {
+            return;
+        }
+
+        var executor = getOrCreatePrinterExecutor(hashKey);
+        try {
+            executor.execute(() -> {
+                try {
+                    if (openJobs.get(hashKey) != job) {
+                        call.reject("Job " + job.id + " is no longer open.");
+                        return;
+                    }
+                    job.append(payload.buffer, 0, payload.length);
+                    call.resolve();
+                } catch (PrinterException e) {
+                    // A failed write leaves the job unusable: close it so
+                    // later chunks fail fast instead of half-printing.
+                    openJobs.remove(hashKey, job);
+                    job.abort();
+                    rejectWithPrinterException(call, e);
+                } catch (Exception e) {
+                    openJobs.remove(hashKey, job);
+                    job.abort();
+                    call.reject(e.getMessage() != null ? e.getMessage() : "Unknown error");
+                } finally {
+                    payload.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            payload.release();
+            call.reject("Printer executor is shutting down.");
+        }
+    }
+
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void commitJob(PluginCall call) {
+        var hashKey = call.getString("hashKey");
+        var job = getGuardedJob(call);
+        if (job == null) {
+            return;
+        }
+        var waitingTime = call.getInt("waitingTime", 0);
+        final int finalWaitingTime = waitingTime != null ? waitingTime : 0;
+
+        var executor = getOrCreatePrinterExecutor(hashKey);
+        try {
+            executor.execute(() -> {
+                if (!openJobs.remove(hashKey, job)) {
+                    call.reject("Job " + job.id + " is no longer open.");
+                    return;
+                }
+                try {
+                    job.commit(finalWaitingTime);
+                    call.resolve();
+                } catch (PrinterException e) {
+                    rejectWithPrinterException(call, e);
+                } catch (Exception e) {
+                    call.reject(e.getMessage() != null ? e.getMessage() : "Unknown error");
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            call.reject("Printer executor is shutting down.");
+        }
+    }
+
+    /**
+     * Discards an open job. Staged bytes are dropped; bytes already streamed
+     * to the printer can't be recalled.
+     */
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void abortJob(PluginCall call) {
+        var hashKey = call.getString("hashKey");
+        var job = getGuardedJob(call);
+        if (job == null) {
+            return;
+        }
+
+        var executor = getOrCreatePrinterExecutor(hashKey);
+        try {
+            executor.execute(() -> {
+                var removed = openJobs.remove(hashKey, job);
+                job.abort();
+                var data = new JSObject();
+                data.put("value", removed);
+                call.resolve(data);
+            });
+        } catch (RejectedExecutionException e) {
+            openJobs.remove(hashKey, job);
+            job.abort();
+            call.reject("Printer executor is shutting down.");
+        }
+    }
+
+    // ==========================================================================
+    // Diagnostics Methods
+    // ==========================================================================
+
+    /**
+     * Learned throughput of every known printer, or only of the given
+     * printer's address; a printer getting slower than its peers is due for
+     * a head cleaning or a check.
+     */
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void getPrinterThroughput(PluginCall call) {
+        var hashKey = call.getString("hashKey");
+        List<ThroughputModel.Estimate> estimates;
+        if (hashKey != null) {
+            var printerId = printerIds.get(hashKey);
+            if (printerId == null) {
+                call.reject("Printer with hash " + hashKey + " not found.");
+                return;
+            }
+            var estimate = throughputModel.get(printerId);
+            estimates = estimate != null
+                    ? Collections.singletonList(estimate)
+                    : Collections.emptyList();
+        } else {
+            estimates = throughputModel.all();
+        }
+
+        var printers = new JSArray();
+        for (ThroughputModel.Estimate estimate : estimates) {
+            var item = new JSObject();
+            item.put("printerId", estimate.printerId);
+            item.put("bytesPerSecond", Math.round(estimate.bytesPerSecond));
+            item.put("samples", estimate.samples);
+            item.put("updatedAt", estimate.updatedAt);
+            printers.put(item);
+        }
+        var data = new JSObject();
+        data.put("printers", printers);
+        call.resolve(data);
+    }
+
+    /**
+     * Read available data from the printer.
+     * 
+     * Note: For USB printers, this is best-effort and may return empty arrays
+     * if no data is available. Not all USB printers support read operations.
+     */
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void readFromPrinter(PluginCall call) {
+        var printer = getGuardedPrinterByHash(call);
+        if (printer == null) {
+            return;
+        }
+
+        try {
+            var bytes = printer.read();
+            var bytesArray = new JSArray();
+            for (var i = 0; i < bytes.length; i++) {
+                try {
+                    bytesArray.put(i, bytes[i]);
+                } catch (JSONException e) {
+                    // Ignore JSON errors for individual bytes
+                }
+            }
+
+            var data = new JSObject();
+            data.put("value", bytesArray);
+            call.resolve(data);
+        } catch (PrinterException e) {
+            rejectWithPrinterException(call, e);
+        }
+    }
+
+    // ==========================================================================
+    // Status Monitor Methods
+    // ==========================================================================
+
+    /**
+     * Polls the printer's status (DLE EOT n=1..4) every intervalMs in the
+     * background and pushes each change as a printerStatusChanged event, so
+     * an out-of-paper printer is noticed before a job fails on it. Polls
+     * are skipped while the printer is busy with jobs; an unreachable
+     * printer is polled less and less often (see {@link StatusMonitor}).
+     * Calling it again changes the interval.
+     */
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void startStatusMonitor(PluginCall call) {
+        var printer = getGuardedPrinterByHash(call);
+        if (printer == null) {
+            return;
+        }
+        var hashKey = call.getString("hashKey");
+        var intervalOption = call.getInt("intervalMs", StatusMonitor.DEFAULT_INTERVAL_MS);
+        final int intervalMs = intervalOption != null ? intervalOption : StatusMonitor.DEFAULT_INTERVAL_MS;
+        if (intervalMs < StatusMonitor.MIN_INTERVAL_MS) {
+            call.reject("Invalid intervalMs (minimum " + StatusMonitor.MIN_INTERVAL_MS + "): " + intervalMs);
+            return;
+        }
+
+        statusMonitor.subscribe(hashKey, intervalMs, new StatusMonitor.Target() {
+            @Override
+            public boolean busy() {
+                var executor = printerExecutors.get(hashKey);
+                var openJob = openJobs.get(hashKey);
+                return (executor != null && (executor.getActiveCount() > 0 || !executor.getQueue().isEmpty()))
+                        || (openJob != null && openJob.isStreaming());
+            }
+
+            @Override
+            public void poll(StatusMonitor.Callback callback) {
+                var current = printersMap.get(hashKey);
+                if (current == null) {
+                    statusMonitor.unsubscribe(hashKey); // disposed
+                    return;
+                }
+                try {
+                    getOrCreatePrinterExecutor(hashKey).execute(() -> {
+                        PrinterStatus status = null;
+                        try {
+                            status = current.readStatus(STATUS_POLL_REPLY_WINDOW_MS);
+                        } catch (PrinterException e) {
+                            Log.d(TAG, "status poll failed for " + hashKey + ": " + e.getMessage());
+                        }
+                        callback.done(status);
+                    });
+                } catch (RejectedExecutionException e) {
+                    callback.done(null);
+                }
+            }
+        });
+        call.resolve();
+    }
+
+    /** Stops monitoring the printer's status; resolves false if it wasn't monitored. */
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void stopStatusMonitor(PluginCall call) {
+        var hashKey = call.getString("hashKey");
+        if (hashKey == null) {
+            call.reject("hashKey is required.");
+            return;
+        }
+        var data = new JSObject();
+        data.put("value", statusMonitor.unsubscribe(hashKey));
+        call.resolve(data);
+    }
+
+    /**
+     * Subscribes to the printer's automatic status back (GS a): it pushes
+     * its status itself whenever it changes, reported as printerStatusChanged
+     * events without polling. Bluetooth and USB printers read it off their
+     * connection in the background (from the next connect on if not
+     * connected); network printers enable it on each new connection and
+     * report it between jobs only with keepAlive. Needs a printer that
+     * supports GS a.
+     */
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void setAutomaticStatusBack(PluginCall call) {
+        var printer = getGuardedPrinterByHash(call);
+        if (printer == null) {
+            return;
+        }
+        var hashKey = call.getString("hashKey");
+        var enabled = call.getBoolean("enabled", true);
+        final AsbParser.Listener listener = enabled != null && enabled
+                ? status -> onAutomaticStatusBack(hashKey, status)
+                : null;
+
+        try {
+            getOrCreatePrinterExecutor(hashKey).execute(() -> {
+                try {
+                    printer.setAutomaticStatusBack(listener);
+                    call.resolve();
+                } catch (PrinterException e) {
+                    rejectWithPrinterException(call, e);
+                } catch (Exception e) {
+                    call.reject(e.getMessage() != null ? e.getMessage() : "Unknown error");
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            call.reject("Printer executor is shutting down.");
+        }
+    }
+
+    /**
+     * The printer's last known status, from the status monitor or automatic
+     * status back, without asking the printer: { status } or {} while
+     * unknown or unreachable.
+     */
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void getCurrentPrinterStatus(PluginCall call) {
+        var hashKey = call.getString("hashKey");
+        if (hashKey == null) {
+            call.reject("hashKey is required.");
+            return;
+        }
+        var data = new JSObject();
+        var status = currentStatus.get(hashKey);
+        if (status != null) {
+            data.put("status", toStatusEvent(hashKey, status, null));
+        }
+        call.resolve(data);
+    }
+
+    /** Pushed blocks repeat the status when any ASB bit changes (drawer, ...): only changes are events. */
+    private void onAutomaticStatusBack(String hashKey, PrinterStatus status) {
+        if (!printersMap.containsKey(hashKey) || status.equals(currentStatus.get(hashKey))) {
+            return;
+        }
+        onPrinterStatusChanged(hashKey, status, "asb");
+    }
+
+    private void onPrinterStatusChanged(String hashKey, PrinterStatus status, String source) {
+        if (status != null) {
+            currentStatus.put(hashKey, status);
+        } else {
+            currentStatus.remove(hashKey);
         }
+        notifyListeners(EVENT_PRINTER_STATUS_CHANGED, toStatusEvent(hashKey, status, source));
+    }
 
-        if (!networkScanRunning.compareAndSet(false, true)) {
-            call.reject("A network scan is already in progress.");
+    private static JSObject toStatusEvent(String hashKey, PrinterStatus status, String source) {
+        var data = new JSObject();
+        data.put("hashKey", hashKey);
+        if (source != null) {
+            data.put("source", source);
+        }
+        data.put("reachable", status != null);
+        if (status != null) {
+            var replies = new JSArray();
+            for (int n = 1; n <= 4; n++) {
+                replies.put(status.reply(n));
+            }
+            data.put("statusBytes", replies);
+            data.put("statusDetail", toStatusDetail(status.flags()));
+        }
+        return data;
+    }
+
+    /** {@link StatusFlag} names of the flags set, in declaration order. */
+    private static JSArray toStatusDetail(int flags) {
+        var detail = new JSArray();
+        for (StatusFlag flag : StatusFlag.values()) {
+            if ((flags & flag.bit) != 0) {
+                detail.put(flag.name());
+            }
+        }
+        return detail;
+    }
+
+    // ==========================================================================
+    // Network Methods
+    // ==========================================================================
+
+    /**
+     * Setup/monitoring probe for a network printer (port of the desktop
+     * bridge's probeTcpPrinter): TCP connect + optional status request.
+     *
+     * Never rejects for unreachable devices — reachability is the result:
+     * { reachable, supportsDleEot, statusDetail }.
+     *
+     * `probeBytes` defaults to DLE EOT n=1 (0x10 0x04 0x01); the reply byte is
+     * decoded into {@link StatusFlag} names (OFFLINE / PAPER_OUT / ERROR / DRAWER_SIGNAL).
+     */
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void probeNetworkPrinter(PluginCall call) {
+        var address = call.getString("address");
+        var networkAddress = NetworkAddress.parse(address);
+        if (networkAddress == null) {
+            call.reject("Invalid network address (expected host[:port] or [ipv6][:port]): " + address);
             return;
         }
 
-        // Coordinator thread: enumerates targets, fans out to a bounded worker
-        // pool and resolves the call when the sweep completes.
-        Thread coordinator = new Thread(() -> {
-            try {
-                List<String> targets = collectNetworkScanTargets();
-                Log.d(TAG, "network scan: sweeping " + targets.size() + " hosts on port " + port);
-
-                List<String> foundHosts = Collections.synchronizedList(new ArrayList<>());
-                AtomicInteger nextIndex = new AtomicInteger(0);
-
-                int workerCount = Math.min(NETWORK_SCAN_CONCURRENCY, Math.max(targets.size(), 1));
-                List<Thread> workers = new ArrayList<>(workerCount);
-                for (var w = 0; w < workerCount; w++) {
-                    Thread worker = new Thread(() -> {
-                        for (;;) {
-                            int i = nextIndex.getAndIncrement();
-                            if (i >= targets.size()) {
-                                return;
-                            }
-                            String host = targets.get(i);
-                            if (probeScanHost(host, port, timeoutMs)) {
-                                foundHosts.add(host);
-                            }
+        byte[] probeBytes = NetworkPrinter.DLE_EOT_PROBE;
+        var probeArray = call.getArray("probeBytes", null);
+        if (probeArray != null && probeArray.length() > 0) {
+            probeBytes = new byte[probeArray.length()];
+            for (var i = 0; i < probeBytes.length; i++) {
+                probeBytes[i] = (byte) probeArray.optInt(i);
+            }
+        }
+
+        final byte[] finalProbeBytes = probeBytes;
+        // Only a DLE EOT probe tells whether the printer supports DLE EOT.
+        final boolean dleEotProbe = Arrays.equals(probeBytes, NetworkPrinter.DLE_EOT_PROBE);
+
+        try {
+            networkProbeExecutor.execute(() -> {
+                var result = new JSObject();
+                Socket socket = new Socket();
+                RttEstimator rtt = RttEstimator.shared();
+                String rttKey = NetworkAddress.format(networkAddress.host, networkAddress.port);
+                try {
+                    // Resolved first: a DNS lookup is not part of the round-trip.
+                    var target = new InetSocketAddress(networkAddress.host, networkAddress.port);
+                    long start = System.nanoTime();
+                    socket.connect(target, NETWORK_PROBE_CONNECT_TIMEOUT_MS);
+                    rtt.sample(rttKey, (System.nanoTime() - start) / 1_000_000L);
+
+                    result.put("reachable", true);
+
+                    int replyWindowMs = rtt.timeoutMs(rttKey, NETWORK_PROBE_MIN_REPLY_WINDOW_MS, NETWORK_PROBE_REPLY_WINDOW_MS);
+                    start = System.nanoTime();
+                    OutputStream out = socket.getOutputStream();
+                    out.write(finalProbeBytes);
+                    out.flush();
+
+                    socket.setSoTimeout(replyWindowMs);
+                    InputStream in = socket.getInputStream();
+                    int status;
+                    try {
+                        status = in.read();
+                        if (status >= 0 && dleEotProbe) {
+                            rtt.sample(rttKey, (System.nanoTime() - start) / 1_000_000L);
                         }
-                    });
-                    worker.setName("EscPosPrinter-net-scan-" + w);
-                    worker.setDaemon(true);
-                    workers.add(worker);
-                    worker.start();
+                    } catch (SocketTimeoutException e) {
+                        status = -1;
+                        if (dleEotProbe) {
+                            rtt.timedOut(rttKey);
+                        }
+                    }
+
+                    if (status < 0) {
+                        result.put("supportsDleEot", false);
+                        discoveryCache.probed(networkAddress.host, networkAddress.port, true, dleEotProbe ? Boolean.FALSE : null);
+                    } else {
+                        discoveryCache.probed(networkAddress.host, networkAddress.port, true, dleEotProbe ? Boolean.TRUE : null);
+                        result.put("supportsDleEot", true);
+                        // Problems only: a drawer signal is not a fault.
+                        result.put("statusDetail", toStatusDetail(PrinterStatus.decode(1, status) & StatusFlag.PROBLEMS));
+                    }
+                } catch (IOException e) {
+                    result.put("reachable", false);
+                    result.put("supportsDleEot", false);
+                    discoveryCache.probed(networkAddress.host, networkAddress.port, false, null);
+                } finally {
+                    try {
+                        socket.close();
+                    } catch (IOException ignored) {
+                        // ignore
+                    }
+                }
+                call.resolve(result);
+            });
+        } catch (RejectedExecutionException e) {
+            call.reject("Plugin is shutting down.");
+        }
+    }
+
+    /**
+     * Discovers network printers by sweeping each local IPv4 subnet on the
+     * given port (default 9100), a port of the desktop bridge's tcp-scan.
+     * Hosts where printers were found before and ARP neighbors are probed
+     * first, with a short timeout; then the rest, nearest to the device and
+     * the gateway first. Networks larger than a /22 are only swept around
+     * them.
+     * Each device is also pushed as a networkDeviceFound event as soon as it
+     * answers, or with identify once it told its model (see
+     * {@link NetworkScanSession}). Only one scan may run at a time.
+     */
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void getNetworkPrinterDevices(PluginCall call) {
+        var portOption = call.getInt("port", NETWORK_SCAN_DEFAULT_PORT);
+        var timeoutOption = call.getInt("timeoutMs", NETWORK_SCAN_DEFAULT_TIMEOUT_MS);
+        var maxDevicesOption = call.getInt("maxDevices", 0);
+        var maxDurationOption = call.getInt("maxDurationMs", 0);
+        var identify = call.getBoolean("identify", false);
+        final int port = portOption != null ? portOption : NETWORK_SCAN_DEFAULT_PORT;
+        final int timeoutMs = timeoutOption != null ? timeoutOption : NETWORK_SCAN_DEFAULT_TIMEOUT_MS;
+        final int maxDevices = maxDevicesOption != null ? maxDevicesOption : 0;
+        final int maxDurationMs = maxDurationOption != null ? maxDurationOption : 0;
+
+        if (port < 1 || port > 65535) {
+            call.reject("Invalid port: " + port);
+            return;
+        }
+        if (maxDevices < 0) {
+            call.reject("Invalid maxDevices: " + maxDevices);
+            return;
+        }
+        if (maxDurationMs < 0) {
+            call.reject("Invalid maxDurationMs: " + maxDurationMs);
+            return;
+        }
+
+        var session = new NetworkScanSession(call, port, timeoutMs, maxDevices, maxDurationMs, Boolean.TRUE.equals(identify));
+        if (!networkScan.compareAndSet(null, session)) {
+            call.reject("A network scan is already in progress.");
+            return;
+        }
+        session.start();
+    }
+
+    /**
+     * Stops the running network scan, if any. Its getNetworkPrinterDevices
+     * call resolves with the devices found so far and cancelled: true.
+     */
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void cancelNetworkScan(PluginCall call) {
+        var session = networkScan.get();
+        if (session != null) {
+            session.cancel();
+        }
+        var result = new JSObject();
+        result.put("value", session != null);
+        call.resolve(result);
+    }
+
+    /**
+     * Returns the network printers found before (by scans and probes, across
+     * app restarts) at once, most recently seen first. With revalidate (the
+     * default), each is then checked in the background with a quick connect;
+     * changes come as cachedNetworkPrinterChanged events.
+     */
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void getCachedNetworkPrinters(PluginCall call) {
+        var revalidate = call.getBoolean("revalidate", true);
+        List<DiscoveryCache.Entry> entries = discoveryCache.all();
+
+        var devices = new JSArray();
+        for (DiscoveryCache.Entry entry : entries) {
+            devices.put(toCachedDevice(entry));
+        }
+        var result = new JSObject();
+        result.put("devices", devices);
+        call.resolve(result);
+
+        if (Boolean.FALSE.equals(revalidate) || entries.isEmpty() || !discoveryRevalidating.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            networkProbeExecutor.execute(() -> {
+                try {
+                    revalidateDiscoveryCache(entries);
+                } finally {
+                    discoveryRevalidating.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            discoveryRevalidating.set(false);
+        }
+    }
+
+    /** Forgets every cached network printer. */
+    @SuppressWarnings("unused")
+    @PluginMethod
+    public void clearNetworkPrinterCache(PluginCall call) {
+        discoveryCache.clear();
+        call.resolve();
+    }
+
+    /**
+     * Connects to each cached printer (one sweep per port, short timeout,
+     * then the full timeout for those that didn't answer) and records who
+     * answered; the cache reports the changes. Hostnames are left to the
+     * next probe: a sweep only takes IP literals.
+     */
+    private void revalidateDiscoveryCache(List<DiscoveryCache.Entry> entries) {
+        Map<Integer, List<String>> hostsByPort = new HashMap<>();
+        for (DiscoveryCache.Entry entry : entries) {
+            if (!AddressCache.isLiteral(entry.host)) {
+                continue;
+            }
+            List<String> hosts = hostsByPort.get(entry.port);
+            if (hosts == null) {
+                hosts = new ArrayList<>();
+                hostsByPort.put(entry.port, hosts);
+            }
+            hosts.add(entry.host);
+        }
+        try {
+            for (Map.Entry<Integer, List<String>> group : hostsByPort.entrySet()) {
+                int port = group.getKey();
+                List<String> answered = NetworkScanner.scan(group.getValue(), port, NETWORK_SCAN_LIKELY_TIMEOUT_MS);
+                List<String> retries = new ArrayList<>(group.getValue());
+                retries.removeAll(answered);
+                if (!retries.isEmpty()) {
+                    // Only a miss with the full timeout makes a printer unreachable.
+                    answered.addAll(NetworkScanner.scan(retries, port, NETWORK_SCAN_DEFAULT_TIMEOUT_MS));
                 }
-                for (Thread worker : workers) {
-                    worker.join();
+                for (String host : group.getValue()) {
+                    if (answered.contains(host)) {
+                        discoveryCache.seen(host, port);
+                    } else {
+                        discoveryCache.unreachable(host, port);
+                    }
                 }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // plugin shutting down
+        } catch (IOException e) {
+            Log.w(TAG, "discovery cache revalidation failed", e);
+        }
+    }
+
+    private static JSObject toCachedDevice(DiscoveryCache.Entry entry) {
+        var device = toNetworkDevice(entry.host, entry.port, entry.model, entry.firmware, entry.supportsDleEot);
+        device.put("lastSeen", entry.lastSeen);
+        device.put("reachable", entry.reachable);
+        return device;
+    }
+
+    /** A NetworkDeviceInfo; model, firmware and supportsDleEot are left out when null. */
+    private static JSObject toNetworkDevice(String host, int port, String model, String firmware, Boolean supportsDleEot) {
+        var device = new JSObject();
+        device.put("id", NetworkAddress.format(host, port));
+        device.put("name", (model != null ? model : "Impresora de red") + " (" + host + ")");
+        device.put("ip", host);
+        device.put("port", port);
+        if (model != null) {
+            device.put("model", model);
+        }
+        if (firmware != null) {
+            device.put("firmware", firmware);
+        }
+        if (supportsDleEot != null) {
+            device.put("supportsDleEot", supportsDleEot.booleanValue());
+        }
+        return device;
+    }
 
-                var devicesArray = new JSArray();
-                for (String host : foundHosts) {
-                    var deviceObject = new JSObject();
-                    deviceObject.put("id", host + ":" + port);
-                    deviceObject.put("name", "Impresora de red (" + host + ")");
-                    deviceObject.put("ip", host);
-                    deviceObject.put("port", port);
-                    devicesArray.put(deviceObject);
+    /**
+     * A running network scan, on its own thread: enumerates the targets,
+     * sweeps them from one selector ({@link NetworkScanner}) and resolves
+     * the call when the sweep completes, runs out of budget or is cancelled.
+     *
+     * With identify, each host that answers goes on to a second stage on
+     * networkProbeExecutor (so at most its 8 threads at once) that asks it
+     * who it is ({@link PrinterIdentifier}) while the sweep goes on; hosts
+     * identified lately are taken from the discovery cache instead. A
+     * device is reported once its identity is known.
+     */
+    private final class NetworkScanSession implements NetworkScanner.Listener {
+        private final PluginCall call;
+        private final int port;
+        private final int timeoutMs;
+        private final int maxDevices;
+        private final int maxDurationMs;
+        private final boolean identify;
+        private final Thread thread;
+        /** Guarded by itself: identification reports from the probe threads. */
+        private final JSArray devices = new JSArray();
+        /** Hosts that answered; only touched by the scan thread. */
+        private int answered;
+        /** Identifications in flight; only touched by the scan thread. */
+        private final List<Future<?>> identifications = new ArrayList<>();
+        /** Guarded by devices: nothing is reported once the call resolved. */
+        private boolean finished;
+        private volatile boolean cancelled;
+
+        NetworkScanSession(PluginCall call, int port, int timeoutMs, int maxDevices, int maxDurationMs, boolean identify) {
+            this.call = call;
+            this.port = port;
+            this.timeoutMs = timeoutMs;
+            this.maxDevices = maxDevices;
+            this.maxDurationMs = maxDurationMs;
+            this.identify = identify;
+            thread = new Thread(this::run, "EscPosPrinter-net-scan");
+            thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        /** Interrupting wakes the scanner's selector right away. */
+        void cancel() {
+            cancelled = true;
+            thread.interrupt();
+        }
+
+        @Override
+        public boolean found(String host) {
+            answered++;
+            discoveryCache.seen(host, port);
+            DiscoveryCache.Entry known = identify ? discoveryCache.recentlyIdentified(host, port) : null;
+            if (!identify) {
+                report(toNetworkDevice(host, port, null, null, null));
+            } else if (known != null) {
+                report(toNetworkDevice(host, port, known.model, known.firmware, known.supportsDleEot));
+            } else {
+                try {
+                    identifications.add(networkProbeExecutor.submit(() -> identify(host)));
+                } catch (RejectedExecutionException e) {
+                    report(toNetworkDevice(host, port, null, null, null));
                 }
+            }
+            return wantsMore();
+        }
 
-                Log.d(TAG, "network scan: found " + foundHosts.size() + " devices");
+        /** Runs on networkProbeExecutor. */
+        private void identify(String host) {
+            try {
+                PrinterIdentifier.Identity identity = PrinterIdentifier.identify(
+                        host, port, Math.max(timeoutMs, NETWORK_SCAN_IDENTIFY_WINDOW_MS), NETWORK_SCAN_IDENTIFY_WINDOW_MS);
+                discoveryCache.identified(host, port, identity);
+                report(toNetworkDevice(host, port, identity.label(), identity.firmware, identity.supportsDleEot));
+            } catch (IOException e) {
+                // Answered the sweep but not a second connect: report it as found.
+                report(toNetworkDevice(host, port, null, null, null));
+            }
+        }
 
-                var data = new JSObject();
-                data.put("devices", devicesArray);
-                call.resolve(data);
+        private void report(JSObject device) {
+            synchronized (devices) {
+                if (finished) {
+                    return;
+                }
+                devices.put(device);
+            }
+            notifyListeners(EVENT_NETWORK_DEVICE_FOUND, device);
+        }
+
+        private void run() {
+            try {
+                List<NetworkScanTargets.Subnet> subnets = collectNetworkScanSubnets();
+                long start = System.nanoTime();
+
+                // Pass 1: where printers were found before and what the kernel
+                // saw alive lately; they answer fast, so a short timeout.
+                Set<String> cached = new LinkedHashSet<>();
+                for (DiscoveryCache.Entry entry : discoveryCache.all()) {
+                    if (entry.port == port && inside(subnets, entry.host)) {
+                        cached.add(entry.host);
+                    }
+                }
+                Set<String> likely = new LinkedHashSet<>(cached);
+                for (String host : NeighborTable.read()) {
+                    if (inside(subnets, host)) {
+                        likely.add(host);
+                    }
+                }
+                Log.d(TAG, "network scan: " + likely.size() + " likely hosts first, port " + port);
+                List<String> answeredFirst = NetworkScanner.scan(likely.iterator(), port,
+                        Math.min(timeoutMs, NETWORK_SCAN_LIKELY_TIMEOUT_MS), NetworkScanner.MAX_IN_FLIGHT, maxDurationMs, this);
+
+                // Pass 2: the rest of the subnets, unless the budget is spent.
+                // Pass-1 hosts that didn't answer go first, with the full
+                // timeout: a printer waking from power save may take longer.
+                long remainingMs = maxDurationMs - (System.nanoTime() - start) / 1_000_000L;
+                if (wantsMore() && (maxDurationMs == 0 || remainingMs > 0)) {
+                    List<String> retries = new ArrayList<>(likely);
+                    retries.removeAll(answeredFirst);
+                    Iterator<String> rest = NetworkScanTargets.nearestFirst(retries, subnets, NetworkScanTargets.MAX_HOSTS, likely);
+                    List<String> answeredRest = NetworkScanner.scan(rest, port, timeoutMs, NetworkScanner.MAX_IN_FLIGHT,
+                            maxDurationMs == 0 ? 0 : remainingMs, this);
+
+                    // Pass 2 ran to the end: cached printers that didn't
+                    // answer the full-timeout retry either are gone. A miss
+                    // of the short pass 1 alone only means slow.
+                    remainingMs = maxDurationMs - (System.nanoTime() - start) / 1_000_000L;
+                    if (wantsMore() && (maxDurationMs == 0 || remainingMs > 0)) {
+                        cached.removeAll(answeredFirst);
+                        cached.removeAll(answeredRest);
+                        for (String host : cached) {
+                            discoveryCache.unreachable(host, port);
+                        }
+                    }
+                }
+                for (Future<?> identification : identifications) {
+                    try {
+                        identification.get();
+                    } catch (ExecutionException e) {
+                        Log.w(TAG, "network scan: identification failed", e.getCause());
+                    }
+                }
+                Log.d(TAG, "network scan: found " + this.answered + " devices");
+                finish();
             } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                call.reject("Network scan interrupted.");
+                for (Future<?> identification : identifications) {
+                    identification.cancel(true);
+                }
+                if (cancelled) {
+                    finish();
+                } else {
+                    call.reject("Network scan interrupted.");
+                }
             } catch (Exception e) {
                 call.reject(e.getMessage() != null ? e.getMessage() : "Network scan failed.");
             } finally {
-                networkScanRunning.set(false);
+                networkScan.compareAndSet(this, null);
             }
-        });
-        coordinator.setName("EscPosPrinter-net-scan");
-        coordinator.setDaemon(true);
-        coordinator.start();
+        }
+
+        private boolean wantsMore() {
+            return maxDevices == 0 || answered < maxDevices;
+        }
+
+        private boolean inside(List<NetworkScanTargets.Subnet> subnets, String host) {
+            for (NetworkScanTargets.Subnet subnet : subnets) {
+                if (subnet.contains(host)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void finish() {
+            var data = new JSObject();
+            synchronized (devices) {
+                finished = true;
+                data.put("devices", devices);
+            }
+            data.put("cancelled", cancelled);
+            call.resolve(data);
+        }
     }
 
-    /** All /24 host addresses of active non-loopback IPv4 interfaces (own IPs excluded). */
-    private List<String> collectNetworkScanTargets() {
-        Set<String> targets = new LinkedHashSet<>();
+    /**
+     * Subnets of active non-loopback IPv4 interfaces, by their real prefix
+     * length, seen from the device and the gateway (see
+     * {@link NetworkScanTargets}). IPv6 is left out on purpose: a /64 can't
+     * be swept, and IPv6-only printers are added by address or hostname
+     * instead.
+     */
+    private List<NetworkScanTargets.Subnet> collectNetworkScanSubnets() {
+        List<NetworkScanTargets.Subnet> subnets = new ArrayList<>();
+        Inet4Address gateway = defaultGateway();
         try {
             var interfaces = NetworkInterface.getNetworkInterfaces();
             while (interfaces != null && interfaces.hasMoreElements()) {
@@ -1073,49 +2406,46 @@ public class EscPosPrinterPlugin extends Plugin {
                 } catch (SocketException e) {
                     continue;
                 }
-                var addresses = networkInterface.getInetAddresses();
-                while (addresses.hasMoreElements()) {
-                    InetAddress inetAddress = addresses.nextElement();
+                for (InterfaceAddress interfaceAddress : networkInterface.getInterfaceAddresses()) {
+                    InetAddress inetAddress = interfaceAddress.getAddress();
                     if (!(inetAddress instanceof Inet4Address) || inetAddress.isLoopbackAddress()) {
                         continue;
                     }
-                    String ownAddress = inetAddress.getHostAddress();
-                    if (ownAddress == null) {
-                        continue;
-                    }
-                    var parts = ownAddress.split("\\.");
-                    if (parts.length != 4) {
-                        continue;
-                    }
-                    String prefix = parts[0] + "." + parts[1] + "." + parts[2];
-                    for (var host = 1; host <= 254; host++) {
-                        String candidate = prefix + "." + host;
-                        if (!candidate.equals(ownAddress)) {
-                            targets.add(candidate);
-                        }
+                    var subnet = NetworkScanTargets.Subnet.of(
+                            (Inet4Address) inetAddress,
+                            interfaceAddress.getNetworkPrefixLength(),
+                            gateway
+                    );
+                    if (subnet != null) {
+                        subnets.add(subnet);
+                        Log.d(TAG, "network scan: " + inetAddress.getHostAddress() + "/" + interfaceAddress.getNetworkPrefixLength());
                     }
                 }
             }
         } catch (SocketException e) {
             Log.w(TAG, "network scan: could not enumerate interfaces: " + e.getMessage());
         }
-        return new ArrayList<>(targets);
+        return subnets;
     }
 
-    private boolean probeScanHost(String host, int port, int timeoutMs) {
-        Socket socket = new Socket();
+    /** IPv4 default gateway of the active network, or null if unknown. */
+    private Inet4Address defaultGateway() {
         try {
-            socket.connect(new InetSocketAddress(host, port), timeoutMs);
-            return true;
-        } catch (IOException e) {
-            return false;
-        } finally {
-            try {
-                socket.close();
-            } catch (IOException ignored) {
-                // ignore
+            ConnectivityManager connectivity = getContext().getSystemService(ConnectivityManager.class);
+            Network network = connectivity != null ? connectivity.getActiveNetwork() : null;
+            LinkProperties link = network != null ? connectivity.getLinkProperties(network) : null;
+            if (link == null) {
+                return null;
             }
+            for (RouteInfo route : link.getRoutes()) {
+                if (route.isDefaultRoute() && route.getGateway() instanceof Inet4Address) {
+                    return (Inet4Address) route.getGateway();
+                }
+            }
+        } catch (SecurityException e) {
+            Log.w(TAG, "network scan: no gateway (ACCESS_NETWORK_STATE denied)");
         }
+        return null;
     }
 
     // ==========================================================================
@@ -1139,6 +2469,22 @@ public class EscPosPrinterPlugin extends Plugin {
         features.put("networkScan");
         features.put("networkProbe");
         features.put("dleEotStatusCheck");
+        features.put("binaryPayload");
+        features.put("chunkedJobs");
+        features.put("documentCompiler");
+        features.put("imageEncoder");
+        features.put("imageCache");
+        features.put("storedGraphics");
+        features.put("compactRaster");
+        features.put("codepages");
+        features.put("networkKeepAlive");
+        features.put("flowControl");
+        features.put("throughputModel");
+        features.put("networkScanEvents");
+        features.put("discoveryCache");
+        features.put("printerIdentification");
+        features.put("statusMonitor");
+        features.put("automaticStatusBack");
 
         var data = new JSObject();
         data.put("nativeVersion", NATIVE_VERSION);
@@ -1214,6 +2560,69 @@ public class EscPosPrinterPlugin extends Plugin {
         return printer;
     }
 
+    /**
+     * Whole-job sends can't run while a streaming job is open on the same
+     * printer: their bytes would land in the middle of it. Call on the
+     * executor, where job state changes, so a job begun after the caller was
+     * queued can't slip in.
+     */
+    private boolean rejectIfStreamingJobOpen(String hashKey, PluginCall call) {
+        var openJob = openJobs.get(hashKey);
+        if (openJob != null && openJob.isStreaming()) {
+            call.reject("A streaming job is open on this printer; commit or abort it first.");
+            return true;
+        }
+        return false;
+    }
+
+    private void abortOpenJob(String hashKey, boolean streamingOnly) {
+        var job = openJobs.get(hashKey);
+        if (job != null && (!streamingOnly || job.isStreaming()) && openJobs.remove(hashKey, job)) {
+            job.abort();
+        }
+    }
+
+    private PrintJob getGuardedJob(PluginCall call) {
+        var printer = getGuardedPrinterByHash(call);
+        if (printer == null) {
+            return null;
+        }
+        var jobId = call.getString("jobId");
+        if (jobId == null) {
+            call.reject("jobId is required.");
+            return null;
+        }
+        var job = openJobs.get(call.getString("hashKey"));
+        if (job == null || !job.id.equals(jobId)) {
+            call.reject("Job " + jobId + " not found.");
+            return null;
+        }
+        return job;
+    }
+
+    /**
+     * Decodes the call's job bytes into a pooled buffer: "dataBase64"
+     * (binary mode, preferred) or the legacy "data" number array.
+     * Returns null after rejecting the call.
+     */
+    private Payload readPayload(PluginCall call) {
+        var base64 = call.getString("dataBase64");
+        if (base64 != null) {
+            try {
+                return Payload.fromBase64(payloadPool, base64);
+            } catch (IllegalArgumentException e) {
+                call.reject("Invalid dataBase64: " + e.getMessage());
+                return null;
+            }
+        }
+        var data = call.getArray("data");
+        if (data == null) {
+            call.reject("data is required.");
+            return null;
+        }
+        return Payload.fromJsonArray(payloadPool, data);
+    }
+
     private void rejectWithPrinterException(PluginCall call, PrinterException e) {
         var data = new JSObject();
         data.put("code", e.getErrorCode());
@@ -0,0 +1,97 @@
+package com.getcapacitor.community.escposprinter.document;
+
+import com.getcapacitor.community.escposprinter.payload.GrowableByteBuffer;
+
+/**
+ * Transcodes text to the printer's single-byte code pages, switching with
+ * ESC t as needed.
+ *
+ * ASCII is the same in every supported code page, so it never causes a
+ * switch. For a char the current code page can't print, the encoder picks
+ * the candidate that prints the longest stretch of text from there on
+ * (furthest-reach greedy, which minimizes the number of switches); ties go
+ * to the earlier candidate. Chars no candidate can print become '?'.
+ *
+ * Stateful: it remembers the selected code page across the text operations
+ * of a document. Like the compiler using it, an instance belongs to one
+ * thread.
+ */
+public class CodepageTextEncoder implements TextEncoder {
+    private static final int ESC = 0x1B;
+
+    private final Codepage[] candidates;
+    /** Code page selected on the printer, null = unknown. */
+    private Codepage current;
+
+    /** @param candidates code pages the printer supports, in order of preference */
+    public CodepageTextEncoder(Codepage... candidates) {
+        if (candidates.length == 0) {
+            throw new IllegalArgumentException("at least one codepage is required");
+        }
+        this.candidates = candidates.clone();
+    }
+
+    @Override
+    public void encode(CharSequence text, GrowableByteBuffer out) {
+        final int length = text.length();
+        // Write through the backing array: one byte per char except for
+        // switches, which re-reserve space for the rest of the text.
+        int pos = out.size();
+        out.ensureCapacity(pos + length);
+        byte[] buffer = out.array();
+        Codepage selected = current;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                buffer[pos++] = (byte) c;
+                continue;
+            }
+            int b = selected != null ? selected.encode(c) : 0;
+            if (b == 0) {
+                Codepage next = select(text, i);
+                if (next == null) {
+                    buffer[pos++] = '?';
+                    continue;
+                }
+                out.setSize(pos);
+                out.ensureCapacity(pos + 3 + length - i);
+                buffer = out.array();
+                buffer[pos++] = ESC;
+                buffer[pos++] = 't';
+                buffer[pos++] = (byte) next.escT;
+                selected = next;
+                b = next.encode(c);
+            }
+            buffer[pos++] = (byte) b;
+        }
+        out.setSize(pos);
+        current = selected;
+    }
+
+    /** ESC @ resets the code table to the printer's configured default, which may be any page. */
+    @Override
+    public void resetState() {
+        current = null;
+    }
+
+    /** The candidate printing the most text from index start on, or null if none prints text[start]. */
+    private Codepage select(CharSequence text, int start) {
+        Codepage best = null;
+        int bestReach = start;
+        for (Codepage candidate : candidates) {
+            int reach = start;
+            while (reach < text.length()) {
+                char c = text.charAt(reach);
+                if (c >= 0x80 && candidate.encode(c) == 0) {
+                    break;
+                }
+                reach++;
+            }
+            if (reach > bestReach) {
+                best = candidate;
+                bestReach = reach;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,542 @@
+package com.getcapacitor.community.escposprinter.document;
+
+import com.getcapacitor.community.escposprinter.image.RasterImage;
+import com.getcapacitor.community.escposprinter.payload.GrowableByteBuffer;
+import com.getcapacitor.community.escposprinter.payload.PayloadDecoder;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Compiles a structured job description into ESC/POS bytes.
+ *
+ * The description is a JSON array of operations, e.g.
+ * <pre>
+ * [{"type":"init"},
+ *  {"type":"storedImage","key":"L1","align":"center"},
+ *  {"type":"text","value":"TOTAL 12.50\n","bold":true,"align":"center","width":2},
+ *  {"type":"qr","data":"https://example.com","size":6},
+ *  {"type":"image","dataBase64":"iVBORw0...","width":576,"dither":"atkinson"},
+ *  {"type":"cut","feed":3}]
+ * </pre>
+ * It is a fraction of the size of the raw bytes (no per-byte JSON numbers,
+ * no repeated style prefixes) and compiling happens on the printer executor
+ * instead of the WebView's JS thread.
+ *
+ * Single pass, straight into one {@link GrowableByteBuffer}: text is encoded
+ * char by char without intermediate Strings and style commands are only
+ * emitted when the requested style differs from the current one. Instances
+ * are meant to be reused by one thread (see {@link #compile}).
+ */
+public class DocumentCompiler {
+    /** A buffer that grew past this after a big job is not kept for the next one. */
+    private static final int MAX_RETAINED_BYTES = 256 * 1024;
+
+    private static final int ESC = 0x1B;
+    private static final int GS = 0x1D;
+    private static final int LF = 0x0A;
+
+    private final GrowableByteBuffer out = new GrowableByteBuffer();
+    /** Decoded pre-encoded rasters, when they are compacted before output. */
+    private final GrowableByteBuffer scratch = new GrowableByteBuffer();
+    private final TextEncoder textEncoder;
+    private final ImageResolver imageResolver;
+    private PrinterProfile profile = PrinterProfile.DEFAULT;
+    private TextEncoder text;
+    private GraphicsStore graphics = GraphicsStore.NONE;
+
+    // Printer state as of the bytes emitted so far (-1 = unknown).
+    private int align;
+    private int bold;
+    private int underline;
+    private int invert;
+    private int size;
+
+    public DocumentCompiler() {
+        this(TextEncoder.ASCII, ImageResolver.UNSUPPORTED);
+    }
+
+    public DocumentCompiler(TextEncoder textEncoder, ImageResolver imageResolver) {
+        this.textEncoder = textEncoder;
+        this.imageResolver = imageResolver;
+    }
+
+    /**
+     * Compiles document into this compiler's reused buffer and returns it;
+     * the bytes are valid until the next compile() call.
+     *
+     * @throws IllegalArgumentException naming the offending operation index
+     */
+    public GrowableByteBuffer compile(JSONArray document) {
+        return compile(document, PrinterProfile.DEFAULT, GraphicsStore.NONE);
+    }
+
+    /**
+     * Like {@link #compile(JSONArray)}, for a specific printer: profile
+     * tunes the output and "storedImage" operations resolve against graphics.
+     */
+    public GrowableByteBuffer compile(JSONArray document, PrinterProfile profile, GraphicsStore graphics) {
+        this.profile = profile;
+        this.graphics = graphics;
+        this.text = profile.textEncoder != null ? profile.textEncoder : textEncoder;
+        out.reset(MAX_RETAINED_BYTES);
+        forgetState();
+        for (int i = 0; i < document.length(); i++) {
+            JSONObject op = document.optJSONObject(i);
+            if (op == null) {
+                throw new IllegalArgumentException("document[" + i + "]: operation must be an object");
+            }
+            try {
+                compileOperation(op);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("document[" + i + "]: " + e.getMessage(), e);
+            }
+        }
+        return out;
+    }
+
+    private void compileOperation(JSONObject op) {
+        String type = op.optString("type", "");
+        switch (type) {
+            case "init":
+                out.write(ESC);
+                out.write('@');
+                resetState();
+                break;
+            case "text":
+                applyStyle(op);
+                text.encode(requireString(op, "value"), out);
+                if (op.optBoolean("newline", false)) {
+                    out.write(LF);
+                }
+                break;
+            case "style":
+                applyStyle(op);
+                break;
+            case "align":
+                setAlign(parseAlign(requireString(op, "value")));
+                break;
+            case "feed":
+                compileFeed(op);
+                break;
+            case "cut":
+                compileCut(op);
+                break;
+            case "barcode":
+                applyAlign(op);
+                compileBarcode(op);
+                break;
+            case "qr":
+                applyAlign(op);
+                compileQr(op);
+                break;
+            case "raster":
+                applyAlign(op);
+                compileRaster(op);
+                break;
+            case "image":
+                applyAlign(op);
+                compileImage(op);
+                break;
+            case "storedImage":
+                applyAlign(op);
+                graphics.writePrint(requireString(op, "key"), out);
+                break;
+            case "raw":
+                compileRaw(op);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown operation type '" + type + "'");
+        }
+    }
+
+    // --------------------------------------------------------------------------
+    // Style state
+    // --------------------------------------------------------------------------
+
+    /** After ESC @ the printer is back at its power-on defaults. */
+    private void resetState() {
+        align = 0;
+        bold = 0;
+        underline = 0;
+        invert = 0;
+        size = 0;
+        text.resetState();
+    }
+
+    /** Without an init the starting state is unknown: emit every first change. */
+    private void forgetState() {
+        align = -1;
+        bold = -1;
+        underline = -1;
+        invert = -1;
+        size = -1;
+        text.resetState();
+    }
+
+    /** Graphics only take alignment ("height" means symbol height there). */
+    private void applyAlign(JSONObject op) {
+        if (op.has("align")) {
+            setAlign(parseAlign(op.optString("align")));
+        }
+    }
+
+    private void applyStyle(JSONObject op) {
+        applyAlign(op);
+        if (op.has("bold")) {
+            int value = op.optBoolean("bold") ? 1 : 0;
+            if (value != bold) {
+                out.write(ESC);
+                out.write('E');
+                out.write(value);
+                bold = value;
+            }
+        }
+        if (op.has("underline")) {
+            int value = clamp(op.optInt("underline"), 0, 2);
+            if (value != underline) {
+                out.write(ESC);
+                out.write('-');
+                out.write(value);
+                underline = value;
+            }
+        }
+        if (op.has("invert")) {
+            int value = op.optBoolean("invert") ? 1 : 0;
+            if (value != invert) {
+                out.write(GS);
+                out.write('B');
+                out.write(value);
+                invert = value;
+            }
+        }
+        if (op.has("width") || op.has("height")) {
+            int width = clamp(op.optInt("width", 1), 1, 8);
+            int height = clamp(op.optInt("height", 1), 1, 8);
+            int value = ((width - 1) << 4) | (height - 1);
+            if (value != size) {
+                out.write(GS);
+                out.write('!');
+                out.write(value);
+                size = value;
+            }
+        }
+    }
+
+    private void setAlign(int value) {
+        if (value != align) {
+            out.write(ESC);
+            out.write('a');
+            out.write(value);
+            align = value;
+        }
+    }
+
+    private static int parseAlign(String value) {
+        switch (value) {
+            case "left":
+                return 0;
+            case "center":
+                return 1;
+            case "right":
+                return 2;
+            default:
+                throw new IllegalArgumentException("invalid align '" + value + "'");
+        }
+    }
+
+    // --------------------------------------------------------------------------
+    // Paper handling
+    // --------------------------------------------------------------------------
+
+    private void compileFeed(JSONObject op) {
+        if (op.has("dots")) {
+            // ESC J n: feed n motion units (dots on most printers)
+            int dots = Math.max(0, op.optInt("dots"));
+            while (dots > 0) {
+                int step = Math.min(dots, 255);
+                out.write(ESC);
+                out.write('J');
+                out.write(step);
+                dots -= step;
+            }
+            return;
+        }
+        int lines = Math.max(0, op.optInt("lines", 1));
+        while (lines > 0) {
+            int step = Math.min(lines, 255);
+            out.write(ESC);
+            out.write('d');
+            out.write(step);
+            lines -= step;
+        }
+    }
+
+    private void compileCut(JSONObject op) {
+        boolean partial = op.optBoolean("partial", false);
+        out.write(GS);
+        out.write('V');
+        if (op.has("feed")) {
+            // GS V 65/66 n: feed n lines then cut
+            out.write(partial ? 66 : 65);
+            out.write(clamp(op.optInt("feed"), 0, 255));
+        } else {
+            out.write(partial ? 1 : 0);
+        }
+    }
+
+    // --------------------------------------------------------------------------
+    // Barcodes
+    // --------------------------------------------------------------------------
+
+    private void compileBarcode(JSONObject op) {
+        String data = requireString(op, "data");
+        int system = barcodeSystem(op.optString("symbology", "CODE128"));
+
+        out.write(GS);
+        out.write('h');
+        out.write(clamp(op.optInt("height", 80), 1, 255));
+        out.write(GS);
+        out.write('w');
+        out.write(clamp(op.optInt("moduleWidth", 2), 2, 6));
+        out.write(GS);
+        out.write('H');
+        out.write(hriPosition(op.optString("hri", "none")));
+
+        // CODE128 needs an explicit code set; default to set B (printable ASCII).
+        boolean prefix = system == 73 && !data.startsWith("{");
+        int length = data.length() + (prefix ? 2 : 0);
+        if (length > 255) {
+            throw new IllegalArgumentException("barcode data too long");
+        }
+        out.write(GS);
+        out.write('k');
+        out.write(system);
+        out.write(length);
+        if (prefix) {
+            out.write('{');
+            out.write('B');
+        }
+        for (int i = 0; i < data.length(); i++) {
+            char c = data.charAt(i);
+            if (c > 0x7F) {
+                throw new IllegalArgumentException("barcode data must be ASCII");
+            }
+            out.write(c);
+        }
+    }
+
+    private static int barcodeSystem(String symbology) {
+        switch (symbology) {
+            case "UPC_A":
+                return 65;
+            case "UPC_E":
+                return 66;
+            case "EAN13":
+                return 67;
+            case "EAN8":
+                return 68;
+            case "CODE39":
+                return 69;
+            case "ITF":
+                return 70;
+            case "CODABAR":
+                return 71;
+            case "CODE93":
+                return 72;
+            case "CODE128":
+                return 73;
+            default:
+                throw new IllegalArgumentException("unknown barcode symbology '" + symbology + "'");
+        }
+    }
+
+    private static int hriPosition(String hri) {
+        switch (hri) {
+            case "none":
+                return 0;
+            case "above":
+                return 1;
+            case "below":
+                return 2;
+            case "both":
+                return 3;
+            default:
+                throw new IllegalArgumentException("invalid hri '" + hri + "'");
+        }
+    }
+
+    // --------------------------------------------------------------------------
+    // QR codes (GS ( k, model 2)
+    // --------------------------------------------------------------------------
+
+    private void compileQr(JSONObject op) {
+        String data = requireString(op, "data");
+        int size = clamp(op.optInt("size", 6), 1, 16);
+        int errorCorrection = qrErrorCorrection(op.optString("errorCorrection", "M"));
+
+        // Select model 2
+        qrFunction(0x41, 4);
+        out.write(0x32);
+        out.write(0x00);
+        // Module size
+        qrFunction(0x43, 3);
+        out.write(size);
+        // Error correction level
+        qrFunction(0x45, 3);
+        out.write(errorCorrection);
+
+        // Store data: length is only known after encoding, so reserve the
+        // header and patch pL/pH afterwards instead of encoding twice.
+        int header = out.size();
+        qrFunction(0x50, 0);
+        out.write(0x30);
+        int start = out.size();
+        // Byte mode: UTF-8, not the printer's code pages (whose switches
+        // would end up in the symbol).
+        TextEncoder.UTF8.encode(data, out);
+        int stored = out.size() - start + 3;
+        if (stored > 0xFFFF) {
+            throw new IllegalArgumentException("qr data too long");
+        }
+        out.array()[header + 3] = (byte) stored;
+        out.array()[header + 4] = (byte) (stored >> 8);
+
+        // Print stored symbol
+        qrFunction(0x51, 3);
+        out.write(0x30);
+    }
+
+    /** GS ( k pL pH cn=49 fn; pL/pH count the bytes after themselves. */
+    private void qrFunction(int fn, int length) {
+        out.write(GS);
+        out.write('(');
+        out.write('k');
+        out.write(length);
+        out.write(length >> 8);
+        out.write(49);
+        out.write(fn);
+    }
+
+    private static int qrErrorCorrection(String level) {
+        switch (level) {
+            case "L":
+                return 48;
+            case "M":
+                return 49;
+            case "Q":
+                return 50;
+            case "H":
+                return 51;
+            default:
+                throw new IllegalArgumentException("invalid errorCorrection '" + level + "'");
+        }
+    }
+
+    // --------------------------------------------------------------------------
+    // Raster images and raw bytes
+    // --------------------------------------------------------------------------
+
+    /** Pre-encoded 1-bit raster (MSB = leftmost dot, rows padded to whole bytes). */
+    private void compileRaster(JSONObject op) {
+        int widthBytes = op.optInt("widthBytes", 0);
+        int height = op.optInt("height", 0);
+        if (widthBytes < 1 || widthBytes > 0xFFFF || height < 1 || height > 0xFFFF) {
+            throw new IllegalArgumentException("invalid raster size");
+        }
+        String base64 = requireString(op, "dataBase64");
+        int mode = op.optInt("mode", 0) & 0x03;
+
+        if (profile.compactRaster && mode == 0) {
+            try {
+                scratch.ensureCapacity(PayloadDecoder.maxDecodedLength(base64));
+                int written = PayloadDecoder.decodeBase64(base64, scratch.array());
+                checkRasterLength(written, widthBytes, height);
+                new RasterImage(widthBytes * 8, height, scratch.array()).writeGsV0Compact(out, align == 0);
+            } finally {
+                scratch.reset(MAX_RETAINED_BYTES);
+            }
+            return;
+        }
+
+        out.write(GS);
+        out.write('v');
+        out.write('0');
+        out.write(mode);
+        out.write(widthBytes);
+        out.write(widthBytes >> 8);
+        out.write(height);
+        out.write(height >> 8);
+        checkRasterLength(decodeBase64Into(base64), widthBytes, height);
+    }
+
+    private static void checkRasterLength(int written, int widthBytes, int height) {
+        if (written != widthBytes * height) {
+            throw new IllegalArgumentException("raster data is " + written + " bytes, expected " + (widthBytes * height));
+        }
+    }
+
+    /**
+     * Encoded by the image resolver; "format" picks GS v 0 (default) or ESC *.
+     * Compacted per the printer profile; white columns are only trimmed when
+     * the image is known to be left-aligned.
+     */
+    private void compileImage(JSONObject op) {
+        String format = op.optString("format", "gsv0");
+        if (!format.equals("gsv0") && !format.equals("escStar")) {
+            throw new IllegalArgumentException("invalid image format '" + format + "'");
+        }
+        RasterImage image = imageResolver.resolve(op);
+        boolean trimRight = align == 0;
+        if (format.equals("escStar")) {
+            if (profile.compactRaster) {
+                image.writeEscStarCompact(out, trimRight);
+            } else {
+                image.writeEscStar(out);
+            }
+        } else if (profile.compactRaster) {
+            image.writeGsV0Compact(out, trimRight);
+        } else {
+            image.writeGsV0(out);
+        }
+    }
+
+    private void compileRaw(JSONObject op) {
+        if (op.has("dataBase64")) {
+            decodeBase64Into(op.optString("dataBase64"));
+            return;
+        }
+        JSONArray data = op.optJSONArray("data");
+        if (data == null) {
+            throw new IllegalArgumentException("raw requires data or dataBase64");
+        }
+        for (int i = 0; i < data.length(); i++) {
+            out.write(data.optInt(i));
+        }
+    }
+
+    /** Decodes base64 straight into the output buffer and returns the byte count. */
+    private int decodeBase64Into(String base64) {
+        int start = out.size();
+        out.ensureCapacity(start + PayloadDecoder.maxDecodedLength(base64));
+        int written = PayloadDecoder.decodeBase64(base64, out.array(), start);
+        out.setSize(start + written);
+        return written;
+    }
+
+    // --------------------------------------------------------------------------
+    // Helpers
+    // --------------------------------------------------------------------------
+
+    private static String requireString(JSONObject op, String key) {
+        Object value = op.opt(key);
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException("'" + key + "' must be a string");
+        }
+        return (String) value;
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
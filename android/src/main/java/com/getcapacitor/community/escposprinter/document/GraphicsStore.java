@@ -0,0 +1,18 @@
+package com.getcapacitor.community.escposprinter.document;
+
+import com.getcapacitor.community.escposprinter.payload.GrowableByteBuffer;
+
+/** Printer-resident graphics available to one compiled job ("storedImage" operations). */
+public interface GraphicsStore {
+    GraphicsStore NONE = (key, out) -> {
+        throw new IllegalArgumentException("no stored image '" + key + "' on this printer");
+    };
+
+    /**
+     * Writes the command printing the graphic stored under key, preceded by
+     * its definition if the printer may not hold it.
+     *
+     * @throws IllegalArgumentException for keys that were never stored
+     */
+    void writePrint(String key, GrowableByteBuffer out);
+}
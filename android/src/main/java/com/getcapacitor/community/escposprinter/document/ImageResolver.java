@@ -0,0 +1,15 @@
+package com.getcapacitor.community.escposprinter.document;
+
+import com.getcapacitor.community.escposprinter.image.RasterImage;
+
+import org.json.JSONObject;
+
+/** Turns an "image" document operation into raster data. */
+public interface ImageResolver {
+    ImageResolver UNSUPPORTED = op -> {
+        throw new IllegalArgumentException("images are not supported by this compiler");
+    };
+
+    /** @throws IllegalArgumentException for invalid or undecodable image operations */
+    RasterImage resolve(JSONObject op);
+}
@@ -0,0 +1,26 @@
+package com.getcapacitor.community.escposprinter.document;
+
+/** Per-printer compile options, set when the printer is created. */
+public final class PrinterProfile {
+    public static final PrinterProfile DEFAULT = new PrinterProfile(false, null);
+
+    /**
+     * Send rasters without their white space (ESC J feeds for blank rows,
+     * stripes trimmed to the last black dot). Off by default: ESC J moves in
+     * the printer's motion unit, often 1/360" rather than the dot pitch, so
+     * only printers known to feed one dot per unit can take it.
+     */
+    public final boolean compactRaster;
+
+    /**
+     * Text encoding for this printer (e.g. a {@link CodepageTextEncoder} for
+     * its code pages), or null for the compiler's default. Stateful encoders
+     * make a profile single-threaded: use it from the printer's executor only.
+     */
+    public final TextEncoder textEncoder;
+
+    public PrinterProfile(boolean compactRaster, TextEncoder textEncoder) {
+        this.compactRaster = compactRaster;
+        this.textEncoder = textEncoder;
+    }
+}
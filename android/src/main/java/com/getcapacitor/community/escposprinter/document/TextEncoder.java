@@ -0,0 +1,57 @@
+package com.getcapacitor.community.escposprinter.document;
+
+import com.getcapacitor.community.escposprinter.payload.GrowableByteBuffer;
+
+/**
+ * Writes text into an ESC/POS byte stream. Implementations append directly
+ * to the output buffer; no intermediate String or byte[] per run.
+ */
+public interface TextEncoder {
+    /**
+     * 7-bit ASCII, anything else becomes '?'. Safe on every printer
+     * regardless of the selected code page.
+     */
+    TextEncoder ASCII = (text, out) -> {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            out.write(c < 0x80 ? c : '?');
+        }
+    };
+
+    /**
+     * UTF-8, for bytes that are not printed as text: QR symbols store them
+     * as is and readers decode them as UTF-8. Unpaired surrogates become '?'.
+     */
+    TextEncoder UTF8 = (text, out) -> {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                out.write(c);
+            } else if (c < 0x800) {
+                out.write(0xC0 | c >> 6);
+                out.write(0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                out.write(0xF0 | codePoint >> 18);
+                out.write(0x80 | codePoint >> 12 & 0x3F);
+                out.write(0x80 | codePoint >> 6 & 0x3F);
+                out.write(0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                out.write('?');
+            } else {
+                out.write(0xE0 | c >> 12);
+                out.write(0x80 | c >> 6 & 0x3F);
+                out.write(0x80 | c & 0x3F);
+            }
+        }
+    };
+
+    void encode(CharSequence text, GrowableByteBuffer out);
+
+    /**
+     * The printer's text state is unknown again (start of a document, or
+     * after ESC @): stateful encoders must not assume earlier selections.
+     */
+    default void resetState() {}
+}
@@ -0,0 +1,43 @@
+package com.getcapacitor.community.escposprinter.image;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+/** PNG/JPEG decoding through BitmapFactory. */
+public class BitmapImageDecoder implements CompressedImageDecoder {
+
+    @Override
+    public PixelSource decode(byte[] data, int offset, int length, int targetWidth) {
+        var bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(data, offset, length, bounds);
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IllegalArgumentException("image data is not a decodable PNG/JPEG");
+        }
+
+        // Subsample by powers of two while staying at least twice the target
+        // width: a 4000px photo for a 576-dot head never needs full decoding,
+        // and the remaining downscale still gets the encoder's box filter.
+        var options = new BitmapFactory.Options();
+        options.inSampleSize = 1;
+        if (targetWidth > 0) {
+            while (bounds.outWidth / (options.inSampleSize * 2) >= targetWidth * 2) {
+                options.inSampleSize *= 2;
+            }
+        }
+
+        Bitmap bitmap = BitmapFactory.decodeByteArray(data, offset, length, options);
+        if (bitmap == null) {
+            throw new IllegalArgumentException("image data is not a decodable PNG/JPEG");
+        }
+        try {
+            int width = bitmap.getWidth();
+            int height = bitmap.getHeight();
+            int[] pixels = new int[width * height];
+            bitmap.getPixels(pixels, 0, width, 0, 0, width, height);
+            return PixelSource.argb(pixels, width, height);
+        } finally {
+            bitmap.recycle();
+        }
+    }
+}
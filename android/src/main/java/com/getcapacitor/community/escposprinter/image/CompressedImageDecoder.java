@@ -0,0 +1,14 @@
+package com.getcapacitor.community.escposprinter.image;
+
+/**
+ * Decodes PNG/JPEG bytes. Platform-specific (see BitmapImageDecoder) so the
+ * rest of the raster pipeline stays plain Java.
+ */
+public interface CompressedImageDecoder {
+    /**
+     * @param targetWidth the width the image will be scaled to (0 = as is);
+     *                    decoders may subsample large images down towards it
+     * @throws IllegalArgumentException if the bytes are not a decodable image
+     */
+    PixelSource decode(byte[] data, int offset, int length, int targetWidth);
+}
@@ -0,0 +1,29 @@
+package com.getcapacitor.community.escposprinter.image;
+
+/** How gray levels are reduced to black/white dots. */
+public enum DitherMode {
+    /** Plain threshold: crisp for logos and text, posterizes photos. */
+    THRESHOLD("threshold"),
+    /** Error diffusion to 4 neighbours; best tonal fidelity. */
+    FLOYD_STEINBERG("floyd-steinberg"),
+    /** Diffuses 6/8 of the error; higher contrast, suits thermal heads. */
+    ATKINSON("atkinson"),
+    /** 8x8 Bayer matrix; no error state, so no artifacts between bands. */
+    ORDERED("ordered");
+
+    public final String jsName;
+
+    DitherMode(String jsName) {
+        this.jsName = jsName;
+    }
+
+    /** @throws IllegalArgumentException for unknown names */
+    public static DitherMode fromName(String name) {
+        for (DitherMode mode : values()) {
+            if (mode.jsName.equals(name)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("unknown dither mode '" + name + "'");
+    }
+}
@@ -0,0 +1,116 @@
+package com.getcapacitor.community.escposprinter.image;
+
+import com.getcapacitor.community.escposprinter.payload.GrowableByteBuffer;
+
+/**
+ * Printer-resident graphics areas addressed by GS ( L / GS 8 L, with the
+ * commands to define, print and delete a monochrome raster under a
+ * two-character key code.
+ *
+ * - NV graphics survive power cycles but live in flash with a limited
+ *   number of write cycles: define them once, not per job.
+ * - Download graphics live in RAM and are lost when the printer is reset or
+ *   switched off.
+ */
+public enum GraphicsStorage {
+    NV("nv", 67, 69, 66),
+    DOWNLOAD("download", 83, 85, 82);
+
+    private static final int GS = 0x1D;
+    /** GS ( L parameter counts are 16-bit; bigger definitions use GS 8 L. */
+    private static final int MAX_SHORT_PARAMS = 0xFFFF;
+
+    public final String jsName;
+    private final int defineFn;
+    private final int printFn;
+    private final int deleteFn;
+
+    GraphicsStorage(String jsName, int defineFn, int printFn, int deleteFn) {
+        this.jsName = jsName;
+        this.defineFn = defineFn;
+        this.printFn = printFn;
+        this.deleteFn = deleteFn;
+    }
+
+    public static GraphicsStorage fromName(String name) {
+        for (GraphicsStorage storage : values()) {
+            if (storage.jsName.equals(name)) {
+                return storage;
+            }
+        }
+        throw new IllegalArgumentException("invalid storage '" + name + "'");
+    }
+
+    /** Key codes are two printable ASCII characters (32-126), e.g. "L1". */
+    public static void checkKey(String key) {
+        if (key == null || key.length() != 2 || !isKeyChar(key.charAt(0)) || !isKeyChar(key.charAt(1))) {
+            throw new IllegalArgumentException("key must be two printable ASCII characters, got '" + key + "'");
+        }
+    }
+
+    private static boolean isKeyChar(char c) {
+        return c >= 32 && c <= 126;
+    }
+
+    /** Stores image under key (fn 67 / 83, raster format, one color). */
+    public void writeDefine(GrowableByteBuffer out, String key, RasterImage image) {
+        long params = 11L + image.byteCount();
+        out.ensureCapacity(out.size() + (int) params + 7);
+        out.write(GS);
+        if (params <= MAX_SHORT_PARAMS) {
+            out.write('(');
+            out.write('L');
+            out.write((int) params);
+            out.write((int) (params >> 8));
+        } else {
+            out.write('8');
+            out.write('L');
+            out.write((int) params);
+            out.write((int) (params >> 8));
+            out.write((int) (params >> 16));
+            out.write((int) (params >> 24));
+        }
+        out.write(48);
+        out.write(defineFn);
+        out.write(48); // a: raster format
+        writeKey(out, key);
+        out.write(1); // b: number of colors
+        out.write(image.width);
+        out.write(image.width >> 8);
+        out.write(image.height);
+        out.write(image.height >> 8);
+        out.write(49); // c: color 1
+        out.write(image.data, 0, image.byteCount());
+    }
+
+    /** Prints the graphic stored under key at normal size (fn 69 / 85). */
+    public void writePrint(GrowableByteBuffer out, String key) {
+        out.write(GS);
+        out.write('(');
+        out.write('L');
+        out.write(6);
+        out.write(0);
+        out.write(48);
+        out.write(printFn);
+        writeKey(out, key);
+        out.write(1); // x scale
+        out.write(1); // y scale
+    }
+
+    /** Deletes the graphic stored under key (fn 66 / 82). */
+    public void writeDelete(GrowableByteBuffer out, String key) {
+        out.write(GS);
+        out.write('(');
+        out.write('L');
+        out.write(4);
+        out.write(0);
+        out.write(48);
+        out.write(deleteFn);
+        writeKey(out, key);
+    }
+
+    private static void writeKey(GrowableByteBuffer out, String key) {
+        out.write(key.charAt(0));
+        out.write(key.charAt(1));
+    }
+}
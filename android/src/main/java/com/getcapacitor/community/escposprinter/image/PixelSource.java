@@ -0,0 +1,67 @@
+package com.getcapacitor.community.escposprinter.image;
+
+/**
+ * Row-wise access to source pixels as packed ARGB (0xAARRGGBB), so the
+ * encoder can work from decoded bitmaps and raw RGBA buffers alike without
+ * converting the whole image first.
+ */
+public interface PixelSource {
+    int getWidth();
+
+    int getHeight();
+
+    /** Fills row[0, getWidth()) with row y. Must be safe to call from several threads. */
+    void readRow(int y, int[] row);
+
+    /** Packed ARGB pixels, row-major (e.g. from Bitmap.getPixels). */
+    static PixelSource argb(int[] pixels, int width, int height) {
+        if (width < 1 || height < 1 || pixels.length < width * height) {
+            throw new IllegalArgumentException("pixel buffer does not match " + width + "x" + height);
+        }
+        return new PixelSource() {
+            @Override
+            public int getWidth() {
+                return width;
+            }
+
+            @Override
+            public int getHeight() {
+                return height;
+            }
+
+            @Override
+            public void readRow(int y, int[] row) {
+                System.arraycopy(pixels, y * width, row, 0, width);
+            }
+        };
+    }
+
+    /** Byte-wise RGBA (canvas ImageData layout) starting at offset. */
+    static PixelSource rgba(byte[] data, int offset, int width, int height) {
+        if (width < 1 || height < 1 || data.length - offset < (long) width * height * 4) {
+            throw new IllegalArgumentException("RGBA buffer does not match " + width + "x" + height);
+        }
+        return new PixelSource() {
+            @Override
+            public int getWidth() {
+                return width;
+            }
+
+            @Override
+            public int getHeight() {
+                return height;
+            }
+
+            @Override
+            public void readRow(int y, int[] row) {
+                int p = offset + y * width * 4;
+                for (int x = 0; x < width; x++, p += 4) {
+                    row[x] = (data[p + 3] & 0xFF) << 24
+                            | (data[p] & 0xFF) << 16
+                            | (data[p + 1] & 0xFF) << 8
+                            | (data[p + 2] & 0xFF);
+                }
+            }
+        };
+    }
+}
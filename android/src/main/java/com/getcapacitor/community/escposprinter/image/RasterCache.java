@@ -0,0 +1,185 @@
+package com.getcapacitor.community.escposprinter.image;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of encoded rasters, bounded by the total size of their bit data.
+ *
+ * Entries are content-addressed: the id is a hash of the source bytes plus
+ * every parameter that changes the encoded result (see {@link #key}), so the
+ * same logo sent twice with the same options maps to the same entry, and a
+ * changed logo can never be served from a stale one.
+ *
+ * Entries come in two classes sharing one budget: images stored explicitly
+ * (see {@link #store}), whose ids callers hold on to, and images cached as a
+ * side effect of printing them inline. Making room always evicts inline
+ * entries first, so one-off images never push out a stored logo; stored
+ * entries only evict each other.
+ *
+ * Shared by all printer executors; every method is synchronized (lookups are
+ * a map access, the expensive encode happens outside the lock).
+ */
+public final class RasterCache {
+    /** Room for a couple of dozen full-width logos. */
+    public static final long DEFAULT_MAX_BYTES = 1024 * 1024;
+
+    /** Counters for sizing the budget; a snapshot, not live. */
+    public static final class Stats {
+        public final int entries;
+        public final long bytes;
+        public final long maxBytes;
+        public final long hits;
+        public final long misses;
+        public final long evictions;
+
+        Stats(int entries, long bytes, long maxBytes, long hits, long misses, long evictions) {
+            this.entries = entries;
+            this.bytes = bytes;
+            this.maxBytes = maxBytes;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+    }
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    /** 128 bits of SHA-256: collisions are not a practical concern for a cache. */
+    private static final int KEY_BYTES = 16;
+
+    private final LinkedHashMap<String, RasterImage> inline = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, RasterImage> stored = new LinkedHashMap<>(16, 0.75f, true);
+    private long maxBytes;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public RasterCache(long maxBytes) {
+        setMaxBytes(maxBytes);
+    }
+
+    /**
+     * Content hash of a source image plus its encode parameters.
+     *
+     * @param kind distinguishes source formats whose bytes could coincide
+     *             (e.g. "rgba:200x80" vs "file")
+     */
+    public static String key(byte[] data, int offset, int length, String kind, int width, DitherMode dither, int threshold) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // mandatory on every Java/Android platform
+        }
+        digest.update(data, offset, length);
+        String params = kind + '|' + width + '|' + dither.jsName + '|' + threshold;
+        for (int i = 0; i < params.length(); i++) {
+            digest.update((byte) params.charAt(i));
+        }
+        byte[] hash = digest.digest();
+        char[] hex = new char[KEY_BYTES * 2];
+        for (int i = 0; i < KEY_BYTES; i++) {
+            hex[i * 2] = HEX[(hash[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[hash[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    /** Returns the entry (marking it most recently used) or null. */
+    public synchronized RasterImage get(String id) {
+        RasterImage image = stored.get(id);
+        if (image == null) {
+            image = inline.get(id);
+        }
+        if (image != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return image;
+    }
+
+    /**
+     * Caches an inline image, evicting least recently used inline entries
+     * (stored ones only if there are no inline ones left) to stay within the
+     * budget. Returns false (and caches nothing) for an image larger than the
+     * whole budget; an id that is already stored stays stored.
+     */
+    public synchronized boolean put(String id, RasterImage image) {
+        if (image.byteCount() > maxBytes) {
+            return false;
+        }
+        if (stored.containsKey(id)) {
+            bytes -= stored.put(id, image).byteCount();
+        } else {
+            RasterImage previous = inline.put(id, image);
+            if (previous != null) {
+                bytes -= previous.byteCount();
+            }
+        }
+        bytes += image.byteCount();
+        trim();
+        return true;
+    }
+
+    /**
+     * Stores an image whose id is handed out: inline images never evict it,
+     * only other stored images do once they fill the budget on their own.
+     * Returns false (and stores nothing) for an image larger than the whole
+     * budget.
+     */
+    public synchronized boolean store(String id, RasterImage image) {
+        if (image.byteCount() > maxBytes) {
+            return false;
+        }
+        RasterImage previous = inline.remove(id);
+        if (previous == null) {
+            previous = stored.get(id);
+        }
+        if (previous != null) {
+            bytes -= previous.byteCount();
+        }
+        stored.put(id, image);
+        bytes += image.byteCount();
+        trim();
+        return true;
+    }
+
+    /** Changes the budget, evicting immediately if it shrank. */
+    public synchronized void setMaxBytes(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes < 0: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        trim();
+    }
+
+    /** Drops every entry; counters are kept (they describe the whole session). */
+    public synchronized void clear() {
+        inline.clear();
+        stored.clear();
+        bytes = 0;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(inline.size() + stored.size(), bytes, maxBytes, hits, misses, evictions);
+    }
+
+    private void trim() {
+        trim(inline);
+        trim(stored);
+    }
+
+    private void trim(LinkedHashMap<String, RasterImage> entries) {
+        Iterator<Map.Entry<String, RasterImage>> it = entries.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            bytes -= it.next().getValue().byteCount();
+            it.remove();
+            evictions++;
+        }
+    }
+}
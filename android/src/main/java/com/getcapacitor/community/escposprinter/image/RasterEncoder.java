@@ -0,0 +1,237 @@
+package com.getcapacitor.community.escposprinter.image;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Turns source pixels into a printable 1-bit {@link RasterImage}: scale to
+ * the target width (box filter down, nearest neighbour up), composite alpha
+ * on white, convert to luminance and dither.
+ *
+ * The image is processed in independent horizontal bands of
+ * {@link #BAND_ROWS} rows on a shared fork-join pool. Each band owns its
+ * output rows and its dither error state, so bands never synchronize. Error
+ * diffusion therefore restarts at each band boundary; at 64 rows per band
+ * the seam is invisible on thermal paper, and ordered/threshold modes are
+ * unaffected.
+ */
+public final class RasterEncoder {
+    public static final int DEFAULT_THRESHOLD = 128;
+    static final int BAND_ROWS = 64;
+
+    /** Daemon workers (ForkJoinPool default); API 21 safe unlike commonPool(). */
+    private static final ForkJoinPool POOL = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+
+    private static final int[] BAYER_8X8 = {
+        0, 32, 8, 40, 2, 34, 10, 42,
+        48, 16, 56, 24, 50, 18, 58, 26,
+        12, 44, 4, 36, 14, 46, 6, 38,
+        60, 28, 52, 20, 62, 30, 54, 22,
+        3, 35, 11, 43, 1, 33, 9, 41,
+        51, 19, 59, 27, 49, 17, 57, 25,
+        15, 47, 7, 39, 13, 45, 5, 37,
+        63, 31, 55, 23, 61, 29, 53, 21,
+    };
+
+    private final int targetWidth;
+    private final DitherMode mode;
+    private final int threshold;
+    private final boolean parallel;
+
+    /**
+     * @param targetWidth output width in dots, or 0 to keep the source width
+     * @param threshold   0-255; gray levels below it print black (also
+     *                    biases ordered dithering)
+     */
+    public RasterEncoder(int targetWidth, DitherMode mode, int threshold) {
+        this(targetWidth, mode, threshold, true);
+    }
+
+    RasterEncoder(int targetWidth, DitherMode mode, int threshold, boolean parallel) {
+        if (targetWidth < 0 || targetWidth > 0xFFFF) {
+            throw new IllegalArgumentException("invalid width " + targetWidth);
+        }
+        if (threshold < 0 || threshold > 255) {
+            throw new IllegalArgumentException("invalid threshold " + threshold);
+        }
+        this.targetWidth = targetWidth;
+        this.mode = mode;
+        this.threshold = threshold;
+        this.parallel = parallel;
+    }
+
+    public RasterImage encode(PixelSource source) {
+        final int srcWidth = source.getWidth();
+        final int srcHeight = source.getHeight();
+        final int width = targetWidth > 0 ? targetWidth : srcWidth;
+        final int height = (int) Math.max(1, ((long) srcHeight * width + srcWidth / 2) / srcWidth);
+        if (height > 0xFFFF) {
+            throw new IllegalArgumentException("scaled image too tall (" + height + " rows)");
+        }
+
+        // Source column span of every output column, shared read-only by all bands.
+        final int[] spanStart = new int[width];
+        final int[] spanEnd = new int[width];
+        for (int x = 0; x < width; x++) {
+            spanStart[x] = (int) ((long) x * srcWidth / width);
+            spanEnd[x] = Math.max(spanStart[x] + 1, (int) ((long) (x + 1) * srcWidth / width));
+        }
+
+        final RasterImage image = new RasterImage(width, height, new byte[((width + 7) >> 3) * height]);
+        final Job job = new Job(source, image, spanStart, spanEnd);
+        final int bands = (height + BAND_ROWS - 1) / BAND_ROWS;
+        if (!parallel || bands == 1) {
+            for (int band = 0; band < bands; band++) {
+                job.encodeBand(band);
+            }
+        } else {
+            POOL.invoke(new BandTask(job, 0, bands));
+        }
+        return image;
+    }
+
+    private static final class BandTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Job job;
+        private final int from;
+        private final int to;
+
+        BandTask(Job job, int from, int to) {
+            this.job = job;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                job.encodeBand(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BandTask(job, from, mid), new BandTask(job, mid, to));
+        }
+    }
+
+    /** One encode() call; every band allocates its own scratch rows. */
+    private final class Job {
+        private final PixelSource source;
+        private final RasterImage image;
+        private final int[] spanStart;
+        private final int[] spanEnd;
+
+        Job(PixelSource source, RasterImage image, int[] spanStart, int[] spanEnd) {
+            this.source = source;
+            this.image = image;
+            this.spanStart = spanStart;
+            this.spanEnd = spanEnd;
+        }
+
+        void encodeBand(int band) {
+            final int width = image.width;
+            final int y0 = band * BAND_ROWS;
+            final int y1 = Math.min(image.height, y0 + BAND_ROWS);
+
+            final int[] srcRow = new int[source.getWidth()];
+            final int[] lumRow = new int[source.getWidth()];
+            final int[] sums = new int[width];
+            final int[] gray = new int[width];
+            // Error rows for y, y+1, y+2 (padded by 2 on each side).
+            int[] err0 = new int[width + 4];
+            int[] err1 = new int[width + 4];
+            int[] err2 = new int[width + 4];
+
+            for (int y = y0; y < y1; y++) {
+                scaleRow(y, srcRow, lumRow, sums, gray);
+                ditherRow(y, gray, err0, err1, err2);
+
+                int[] recycled = err0;
+                err0 = err1;
+                err1 = err2;
+                err2 = recycled;
+                Arrays.fill(err2, 0);
+            }
+        }
+
+        /** Box-filtered luminance of output row y into gray[0, width). */
+        private void scaleRow(int y, int[] srcRow, int[] lumRow, int[] sums, int[] gray) {
+            final int srcHeight = source.getHeight();
+            final int height = image.height;
+            final int sy0 = (int) ((long) y * srcHeight / height);
+            final int sy1 = Math.max(sy0 + 1, (int) ((long) (y + 1) * srcHeight / height));
+
+            Arrays.fill(sums, 0);
+            for (int sy = sy0; sy < sy1; sy++) {
+                source.readRow(sy, srcRow);
+                for (int x = 0; x < srcRow.length; x++) {
+                    lumRow[x] = luminance(srcRow[x]);
+                }
+                for (int x = 0; x < sums.length; x++) {
+                    int sum = 0;
+                    for (int sx = spanStart[x]; sx < spanEnd[x]; sx++) {
+                        sum += lumRow[sx];
+                    }
+                    sums[x] += sum;
+                }
+            }
+            final int rows = sy1 - sy0;
+            for (int x = 0; x < gray.length; x++) {
+                gray[x] = sums[x] / (rows * (spanEnd[x] - spanStart[x]));
+            }
+        }
+
+        private void ditherRow(int y, int[] gray, int[] err0, int[] err1, int[] err2) {
+            final byte[] data = image.data;
+            final int rowOffset = y * image.widthBytes;
+            final int width = gray.length;
+
+            for (int x = 0; x < width; x++) {
+                boolean black;
+                switch (mode) {
+                    case FLOYD_STEINBERG: {
+                        // Errors are kept in 1/16 units.
+                        int value = gray[x] + err0[x + 2] / 16;
+                        black = value < threshold;
+                        int error = value - (black ? 0 : 255);
+                        err0[x + 3] += error * 7;
+                        err1[x + 1] += error * 3;
+                        err1[x + 2] += error * 5;
+                        err1[x + 3] += error;
+                        break;
+                    }
+                    case ATKINSON: {
+                        // Errors are kept in 1/8 units; 2/8 are dropped by design.
+                        int value = gray[x] + err0[x + 2] / 8;
+                        black = value < threshold;
+                        int error = value - (black ? 0 : 255);
+                        err0[x + 3] += error;
+                        err0[x + 4] += error;
+                        err1[x + 1] += error;
+                        err1[x + 2] += error;
+                        err1[x + 3] += error;
+                        err2[x + 2] += error;
+                        break;
+                    }
+                    case ORDERED:
+                        black = gray[x] < BAYER_8X8[(y & 7) * 8 + (x & 7)] * 4 + 2 + (threshold - 128);
+                        break;
+                    default:
+                        black = gray[x] < threshold;
+                        break;
+                }
+                if (black) {
+                    data[rowOffset + (x >> 3)] |= (byte) (0x80 >> (x & 7));
+                }
+            }
+        }
+    }
+
+    /** Rec. 601 luma, alpha-composited onto white paper. */
+    static int luminance(int argb) {
+        int alpha = argb >>> 24;
+        int luma = (((argb >> 16) & 0xFF) * 299 + ((argb >> 8) & 0xFF) * 587 + (argb & 0xFF) * 114) / 1000;
+        return (luma * alpha + 255 * (255 - alpha)) / 255;
+    }
+}
@@ -0,0 +1,208 @@
+package com.getcapacitor.community.escposprinter.image;
+
+import com.getcapacitor.community.escposprinter.payload.GrowableByteBuffer;
+
+/**
+ * A 1-bit image in ESC/POS raster layout: rows of widthBytes bytes, MSB is
+ * the leftmost dot, 1 = black.
+ */
+public final class RasterImage {
+    /**
+     * GS v 0 images are sent in stripes of at most this many rows: several
+     * printers reject or garble a single huge raster command.
+     */
+    static final int MAX_STRIPE_ROWS = 256;
+
+    /** ESC J (3 bytes) plus the GS v 0 header (8 bytes) of the stripe after it. */
+    private static final int FEED_OVERHEAD_BYTES = 11;
+
+    public final int width;
+    public final int height;
+    public final int widthBytes;
+    public final byte[] data;
+
+    public RasterImage(int width, int height, byte[] data) {
+        this.width = width;
+        this.height = height;
+        this.widthBytes = (width + 7) >> 3;
+        if (data.length < widthBytes * height) {
+            throw new IllegalArgumentException("raster data too short");
+        }
+        this.data = data;
+    }
+
+    public boolean isBlack(int x, int y) {
+        return (data[y * widthBytes + (x >> 3)] & (0x80 >> (x & 7))) != 0;
+    }
+
+    /** Size of the raster data itself, without command headers. */
+    public int byteCount() {
+        return widthBytes * height;
+    }
+
+    /** GS v 0 (raster bit image), the format of every current ESC/POS printer. */
+    public void writeGsV0(GrowableByteBuffer out) {
+        out.ensureCapacity(out.size() + byteCount() + 8 * (height / MAX_STRIPE_ROWS + 1));
+        for (int y = 0; y < height; y += MAX_STRIPE_ROWS) {
+            int rows = Math.min(MAX_STRIPE_ROWS, height - y);
+            out.write(0x1D);
+            out.write('v');
+            out.write('0');
+            out.write(0);
+            out.write(widthBytes);
+            out.write(widthBytes >> 8);
+            out.write(rows);
+            out.write(rows >> 8);
+            out.write(data, y * widthBytes, rows * widthBytes);
+        }
+    }
+
+    /**
+     * GS v 0 without most of the white space, which makes up the bulk of a
+     * typical receipt image:
+     * - runs of blank rows are fed with ESC J instead of being sent as zero
+     *   bytes (when that is shorter than the rows themselves), and
+     * - with trimRight, each stripe is only as wide as its rightmost black
+     *   dot. Only valid for left-aligned images: trimming moves centered or
+     *   right-aligned ones.
+     * ESC J feeds in vertical motion units, which default to the dot pitch.
+     */
+    public void writeGsV0Compact(GrowableByteBuffer out, boolean trimRight) {
+        int[] rowWidths = rowWidths();
+        out.ensureCapacity(out.size() + byteCount() + 8 * (height / MAX_STRIPE_ROWS + 1));
+        int y = 0;
+        while (y < height) {
+            int blank = feedableBlankRun(rowWidths, y);
+            if (blank > 0) {
+                writeFeed(out, blank);
+                y += blank;
+                continue;
+            }
+            int end = y;
+            int stripeWidth = 0;
+            while (end < height && end - y < MAX_STRIPE_ROWS && (end == y || feedableBlankRun(rowWidths, end) == 0)) {
+                stripeWidth = Math.max(stripeWidth, rowWidths[end]);
+                end++;
+            }
+            if (!trimRight) {
+                stripeWidth = widthBytes;
+            } else if (stripeWidth == 0) {
+                stripeWidth = 1; // short blank run kept as raster
+            }
+            int rows = end - y;
+            out.write(0x1D);
+            out.write('v');
+            out.write('0');
+            out.write(0);
+            out.write(stripeWidth);
+            out.write(stripeWidth >> 8);
+            out.write(rows);
+            out.write(rows >> 8);
+            for (int row = y; row < end; row++) {
+                out.write(data, row * widthBytes, stripeWidth);
+            }
+            y = end;
+        }
+    }
+
+    /**
+     * ESC * 33 (24-dot double density column format) for older printers
+     * without GS v 0. Line spacing is set to 24 dots for the stripes and
+     * restored to the default afterwards.
+     */
+    public void writeEscStar(GrowableByteBuffer out) {
+        writeEscStar(out, false, false);
+    }
+
+    /**
+     * ESC * with white space removed: blank stripes become a bare line feed
+     * and, with trimRight (left-aligned images only), each stripe stops at
+     * its rightmost black dot.
+     */
+    public void writeEscStarCompact(GrowableByteBuffer out, boolean trimRight) {
+        writeEscStar(out, true, trimRight);
+    }
+
+    private void writeEscStar(GrowableByteBuffer out, boolean compact, boolean trimRight) {
+        int[] rowWidths = compact ? rowWidths() : null;
+        out.ensureCapacity(out.size() + width * 3 * ((height + 23) / 24) + 8 * ((height + 23) / 24) + 6);
+        out.write(0x1B);
+        out.write('3');
+        out.write(24);
+        for (int y = 0; y < height; y += 24) {
+            int columns = width;
+            if (compact) {
+                int stripeBytes = 0;
+                for (int row = y; row < Math.min(y + 24, height); row++) {
+                    stripeBytes = Math.max(stripeBytes, rowWidths[row]);
+                }
+                if (stripeBytes == 0) {
+                    out.write(0x0A);
+                    continue;
+                }
+                if (trimRight) {
+                    columns = Math.min(width, stripeBytes * 8);
+                }
+            }
+            out.write(0x1B);
+            out.write('*');
+            out.write(33);
+            out.write(columns);
+            out.write(columns >> 8);
+            for (int x = 0; x < columns; x++) {
+                for (int slice = 0; slice < 3; slice++) {
+                    int column = 0;
+                    for (int bit = 0; bit < 8; bit++) {
+                        int row = y + slice * 8 + bit;
+                        if (row < height && isBlack(x, row)) {
+                            column |= 0x80 >> bit;
+                        }
+                    }
+                    out.write(column);
+                }
+            }
+            out.write(0x0A);
+        }
+        out.write(0x1B);
+        out.write('2');
+    }
+
+    /** Per row: bytes up to and including the last one with a black dot (0 = blank row). */
+    private int[] rowWidths() {
+        int[] widths = new int[height];
+        for (int y = 0; y < height; y++) {
+            int rowStart = y * widthBytes;
+            int last = widthBytes;
+            while (last > 0 && data[rowStart + last - 1] == 0) {
+                last--;
+            }
+            widths[y] = last;
+        }
+        return widths;
+    }
+
+    /**
+     * Length of the blank row run starting at y if feeding it is shorter
+     * than sending it as raster (a feed also costs the next stripe's
+     * header), else 0.
+     */
+    private int feedableBlankRun(int[] rowWidths, int y) {
+        int end = y;
+        while (end < height && rowWidths[end] == 0) {
+            end++;
+        }
+        int run = end - y;
+        return (long) run * widthBytes > FEED_OVERHEAD_BYTES ? run : 0;
+    }
+
+    /** ESC J n, in steps of at most 255 dots. */
+    private static void writeFeed(GrowableByteBuffer out, int dots) {
+        while (dots > 0) {
+            int step = Math.min(dots, 255);
+            out.write(0x1B);
+            out.write('J');
+            out.write(step);
+            dots -= step;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.getcapacitor.community.escposprinter.image;
+
+import com.getcapacitor.community.escposprinter.document.ImageResolver;
+import com.getcapacitor.community.escposprinter.payload.GrowableByteBuffer;
+import com.getcapacitor.community.escposprinter.payload.PayloadDecoder;
+
+import org.json.JSONObject;
+
+/**
+ * Resolves "image" document operations by encoding their pixels:
+ * <pre>
+ * {"type":"image", "dataBase64":"&lt;PNG/JPEG&gt;", "width":576, "dither":"floyd-steinberg"}
+ * {"type":"image", "rgbaBase64":"...", "pixelWidth":200, "pixelHeight":80, "threshold":100}
+ * {"type":"image", "imageId":"3f2a..."}
+ * </pre>
+ * Encoded results go through a {@link RasterCache}: repeating the same source
+ * with the same options skips decoding and dithering, and an id returned by
+ * {@link #store} lets later documents reference the raster without sending
+ * the source again (the encode options were fixed when it was stored).
+ * Stored rasters are kept apart from inline ones in the cache, so printing
+ * large one-off images does not evict them.
+ *
+ * Like the compiler that owns it, an instance is used by one thread only;
+ * the cache may be shared.
+ */
+public class RasterImageResolver implements ImageResolver {
+    /** Decoded image file bytes; reused across images, dropped when huge. */
+    private static final int MAX_RETAINED_SCRATCH_BYTES = 512 * 1024;
+
+    private final CompressedImageDecoder decoder;
+    private final RasterCache cache;
+    private final GrowableByteBuffer scratch = new GrowableByteBuffer();
+
+    // Result of the last lookupOrEncode() call.
+    private String resolvedId;
+    private RasterImage resolvedImage;
+
+    /** A resolver without caching. */
+    public RasterImageResolver(CompressedImageDecoder decoder) {
+        this(decoder, new RasterCache(0));
+    }
+
+    public RasterImageResolver(CompressedImageDecoder decoder, RasterCache cache) {
+        this.decoder = decoder;
+        this.cache = cache;
+    }
+
+    @Override
+    public RasterImage resolve(JSONObject op) {
+        String id = op.optString("imageId", null);
+        if (id != null) {
+            RasterImage cached = cache.get(id);
+            if (cached == null) {
+                throw new IllegalArgumentException("image '" + id + "' is not cached (evicted or cleared), store it again");
+            }
+            return cached;
+        }
+        if (lookupOrEncode(op)) {
+            cache.put(resolvedId, resolvedImage);
+        }
+        return resolvedImage;
+    }
+
+    /**
+     * Encodes (unless already cached) and stores an image operation's source,
+     * returning the id to reference it by.
+     *
+     * @throws IllegalArgumentException when the raster alone exceeds the cache budget
+     */
+    public String store(JSONObject op) {
+        lookupOrEncode(op);
+        if (!cache.store(resolvedId, resolvedImage)) {
+            throw new IllegalArgumentException("image raster (" + resolvedImage.byteCount() + " bytes) exceeds the cache budget");
+        }
+        return resolvedId;
+    }
+
+    /** Looks up or encodes the operation's source; true when it was encoded (not cached yet). */
+    private boolean lookupOrEncode(JSONObject op) {
+        int width = op.optInt("width", 0);
+        var dither = DitherMode.fromName(op.optString("dither", DitherMode.FLOYD_STEINBERG.jsName));
+        int threshold = op.optInt("threshold", RasterEncoder.DEFAULT_THRESHOLD);
+        try {
+            String rgba = op.optString("rgbaBase64", null);
+            String encoded = op.optString("dataBase64", null);
+            int length;
+            String kind;
+            int pixelWidth = 0;
+            int pixelHeight = 0;
+            if (rgba != null) {
+                length = decodeToScratch(rgba);
+                pixelWidth = op.optInt("pixelWidth", 0);
+                pixelHeight = op.optInt("pixelHeight", 0);
+                if (pixelWidth < 1 || pixelHeight < 1 || (long) pixelWidth * pixelHeight * 4 != length) {
+                    throw new IllegalArgumentException("rgbaBase64 must hold pixelWidth * pixelHeight * 4 bytes");
+                }
+                kind = "rgba:" + pixelWidth + "x" + pixelHeight;
+            } else if (encoded != null) {
+                length = decodeToScratch(encoded);
+                kind = "file";
+            } else {
+                throw new IllegalArgumentException("image requires dataBase64, rgbaBase64 or imageId");
+            }
+
+            resolvedId = RasterCache.key(scratch.array(), 0, length, kind, width, dither, threshold);
+            resolvedImage = cache.get(resolvedId);
+            if (resolvedImage == null) {
+                PixelSource pixels = rgba != null
+                        ? PixelSource.rgba(scratch.array(), 0, pixelWidth, pixelHeight)
+                        : decoder.decode(scratch.array(), 0, length, width);
+                resolvedImage = new RasterEncoder(width, dither, threshold).encode(pixels);
+                return true;
+            }
+            return false;
+        } finally {
+            scratch.reset(MAX_RETAINED_SCRATCH_BYTES);
+        }
+    }
+
+    private int decodeToScratch(String base64) {
+        scratch.ensureCapacity(PayloadDecoder.maxDecodedLength(base64));
+        int length = PayloadDecoder.decodeBase64(base64, scratch.array());
+        scratch.setSize(length);
+        return length;
+    }
+}
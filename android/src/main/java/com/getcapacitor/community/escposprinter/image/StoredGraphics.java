@@ -0,0 +1,158 @@
+package com.getcapacitor.community.escposprinter.image;
+
+import com.getcapacitor.community.escposprinter.document.GraphicsStore;
+import com.getcapacitor.community.escposprinter.payload.GrowableByteBuffer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks which graphics are stored on which physical printer.
+ *
+ * Keyed by printer identity (connection type + address), not by the
+ * plugin's hashKey: a hashKey only lives until the JS side disposes its
+ * printer object, while a logo stays in the printer across app restarts
+ * and reconnections.
+ *
+ * Each entry keeps its raster so it can be defined again lazily: a job
+ * printing a graphic the printer may not hold (never uploaded, or the
+ * printer may have reset) carries the definition in front of the print
+ * command. Entries are only marked resident after the job was sent.
+ */
+public final class StoredGraphics {
+
+    private static final class Entry {
+        final GraphicsStorage storage;
+        final RasterImage image;
+        boolean resident;
+
+        Entry(GraphicsStorage storage, RasterImage image) {
+            this.storage = storage;
+            this.image = image;
+        }
+
+        boolean sameAs(GraphicsStorage storage, RasterImage image) {
+            if (this.storage != storage || this.image.width != image.width || this.image.height != image.height) {
+                return false;
+            }
+            // Arrays.equals with ranges needs API 33.
+            for (int i = image.byteCount() - 1; i >= 0; i--) {
+                if (this.image.data[i] != image.data[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The graphics of one printer as seen by one job. Definitions written
+     * during the job only count once {@link #commit} confirms it was sent.
+     */
+    public final class Session implements GraphicsStore {
+        private final String printerId;
+        private final List<Entry> defined = new ArrayList<>();
+
+        private Session(String printerId) {
+            this.printerId = printerId;
+        }
+
+        @Override
+        public void writePrint(String key, GrowableByteBuffer out) {
+            Entry entry;
+            boolean resident;
+            synchronized (StoredGraphics.this) {
+                entry = find(printerId, key);
+                resident = entry != null && entry.resident;
+            }
+            if (entry == null) {
+                GraphicsStore.NONE.writePrint(key, out);
+                return;
+            }
+            if (!resident && !defined.contains(entry)) {
+                entry.storage.writeDefine(out, key, entry.image);
+                defined.add(entry);
+            }
+            entry.storage.writePrint(out, key);
+        }
+
+        /** Writes the definition of key unless the printer already holds it; returns whether it did. */
+        public boolean writeDefineIfNeeded(String key, GrowableByteBuffer out) {
+            Entry entry;
+            synchronized (StoredGraphics.this) {
+                entry = find(printerId, key);
+                if (entry == null) {
+                    throw new IllegalArgumentException("no stored image '" + key + "' on this printer");
+                }
+                if (entry.resident) {
+                    return false;
+                }
+            }
+            entry.storage.writeDefine(out, key, entry.image);
+            defined.add(entry);
+            return true;
+        }
+
+        /** The job was sent: every graphic it defined is now on the printer. */
+        public void commit() {
+            synchronized (StoredGraphics.this) {
+                for (Entry entry : defined) {
+                    entry.resident = true;
+                }
+            }
+            defined.clear();
+        }
+    }
+
+    private final Map<String, Map<String, Entry>> printers = new HashMap<>();
+
+    public Session session(String printerId) {
+        return new Session(printerId);
+    }
+
+    /**
+     * Registers (or replaces) the graphic under key. Re-registering the same
+     * raster with the same storage keeps its resident state, so apps can
+     * call this on every start without re-uploading.
+     */
+    public synchronized void register(String printerId, String key, GraphicsStorage storage, RasterImage image) {
+        GraphicsStorage.checkKey(key);
+        var graphics = printers.computeIfAbsent(printerId, id -> new HashMap<>());
+        Entry existing = graphics.get(key);
+        if (existing != null && existing.sameAs(storage, image)) {
+            return;
+        }
+        graphics.put(key, new Entry(storage, image));
+    }
+
+    /** Forgets key; returns its storage (to send the delete command) or null. */
+    public synchronized GraphicsStorage unregister(String printerId, String key) {
+        var graphics = printers.get(printerId);
+        Entry removed = graphics != null ? graphics.remove(key) : null;
+        return removed != null ? removed.storage : null;
+    }
+
+    /**
+     * The printer may have lost graphics (reset, power cycle, failed job):
+     * download graphics are defined again by the next job using them, and
+     * NV graphics as well when includeNv is set.
+     */
+    public synchronized void invalidate(String printerId, boolean includeNv) {
+        var graphics = printers.get(printerId);
+        if (graphics == null) {
+            return;
+        }
+        for (Entry entry : graphics.values()) {
+            if (includeNv || entry.storage == GraphicsStorage.DOWNLOAD) {
+                entry.resident = false;
+            }
+        }
+    }
+
+    private Entry find(String printerId, String key) {
+        var graphics = printers.get(printerId);
+        return graphics != null ? graphics.get(key) : null;
+    }
+}
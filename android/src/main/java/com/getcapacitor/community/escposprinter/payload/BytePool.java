@@ -0,0 +1,78 @@
+package com.getcapacitor.community.escposprinter.payload;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Small shared pool of job payload buffers.
+ *
+ * Every sendToPrinter call needs a byte[] that lives until its per-printer
+ * executor has written it, so buffers are acquired on the bridge thread and
+ * released from the executor thread. Capacities are rounded up to a power of
+ * two so a 180 KB and a 200 KB receipt land on the same 256 KB buffer.
+ *
+ * The pool only retains a handful of buffers up to {@link #MAX_POOLED_CAPACITY}:
+ * an occasional oversized job gets a plain allocation that is left to the GC
+ * instead of pinning megabytes for the lifetime of the app.
+ */
+public final class BytePool {
+    static final int MIN_CAPACITY = 4 * 1024;
+    static final int MAX_POOLED_CAPACITY = 1024 * 1024;
+    static final int MAX_POOLED_BUFFERS = 4;
+
+    private final List<byte[]> free = new ArrayList<>(MAX_POOLED_BUFFERS);
+
+    /**
+     * Returns a buffer of at least minLength bytes. Contents are undefined:
+     * callers must track the valid length themselves.
+     */
+    public byte[] acquire(int minLength) {
+        if (minLength < 0) {
+            throw new IllegalArgumentException("minLength < 0: " + minLength);
+        }
+        synchronized (free) {
+            // Best fit: the smallest free buffer that is large enough.
+            int bestIndex = -1;
+            for (int i = 0; i < free.size(); i++) {
+                byte[] candidate = free.get(i);
+                if (candidate.length >= minLength && (bestIndex < 0 || candidate.length < free.get(bestIndex).length)) {
+                    bestIndex = i;
+                }
+            }
+            if (bestIndex >= 0) {
+                return free.remove(bestIndex);
+            }
+        }
+        return new byte[roundCapacity(minLength)];
+    }
+
+    /** Hands a buffer back; oversized buffers and overflow are dropped. */
+    public void release(byte[] buffer) {
+        if (buffer == null || buffer.length > MAX_POOLED_CAPACITY) {
+            return;
+        }
+        synchronized (free) {
+            if (free.size() < MAX_POOLED_BUFFERS) {
+                free.add(buffer);
+            }
+        }
+    }
+
+    /** Drops every retained buffer (plugin teardown). */
+    public void clear() {
+        synchronized (free) {
+            free.clear();
+        }
+    }
+
+    static int roundCapacity(int minLength) {
+        if (minLength <= MIN_CAPACITY) {
+            return MIN_CAPACITY;
+        }
+        if (minLength > MAX_POOLED_CAPACITY) {
+            // Not poolable anyway: don't waste up to 2x memory on rounding.
+            return minLength;
+        }
+        return Integer.highestOneBit(minLength - 1) << 1;
+    }
+}
@@ -0,0 +1,88 @@
+package com.getcapacitor.community.escposprinter.payload;
+
+import java.util.Arrays;
+
+/**
+ * Append-only byte buffer that doubles its backing array on demand.
+ *
+ * Unlike ByteArrayOutputStream it is unsynchronized, exposes its backing
+ * array (so the printer can write [0, size) without a defensive copy) and
+ * can be reset and reused across jobs.
+ */
+public final class GrowableByteBuffer {
+    private static final int DEFAULT_CAPACITY = 4 * 1024;
+
+    private byte[] buffer;
+    private int size;
+
+    public GrowableByteBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public GrowableByteBuffer(int initialCapacity) {
+        buffer = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Backing array; only [0, size()) is valid and it changes on growth. */
+    public byte[] array() {
+        return buffer;
+    }
+
+    /**
+     * Sets the valid length after writing into {@link #array()} directly
+     * (after {@link #ensureCapacity}).
+     */
+    public void setSize(int newSize) {
+        if (newSize < 0 || newSize > buffer.length) {
+            throw new IndexOutOfBoundsException("size " + newSize + " outside [0, " + buffer.length + "]");
+        }
+        size = newSize;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    public void write(int b) {
+        ensureCapacity(size + 1);
+        buffer[size++] = (byte) b;
+    }
+
+    public void write(byte[] data) {
+        write(data, 0, data.length);
+    }
+
+    public void write(byte[] data, int offset, int length) {
+        ensureCapacity(size + length);
+        System.arraycopy(data, offset, buffer, size, length);
+        size += length;
+    }
+
+    /**
+     * Empties the buffer for reuse. A backing array that grew past
+     * maxRetainedCapacity is dropped so one huge job doesn't pin its memory.
+     */
+    public void reset(int maxRetainedCapacity) {
+        size = 0;
+        if (buffer.length > maxRetainedCapacity) {
+            buffer = new byte[DEFAULT_CAPACITY];
+        }
+    }
+
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity < 0) {
+            throw new OutOfMemoryError("Buffer size overflow");
+        }
+        if (minCapacity > buffer.length) {
+            int newCapacity = Math.max(buffer.length << 1, minCapacity);
+            if (newCapacity < 0) {
+                newCapacity = minCapacity;
+            }
+            buffer = Arrays.copyOf(buffer, newCapacity);
+        }
+    }
+}
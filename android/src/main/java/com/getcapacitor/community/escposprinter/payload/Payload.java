@@ -0,0 +1,45 @@
+package com.getcapacitor.community.escposprinter.payload;
+
+import org.json.JSONArray;
+
+/**
+ * A decoded job payload: [0, length) of a buffer borrowed from a
+ * {@link BytePool}. Whoever finishes with it must call {@link #release()}.
+ */
+public final class Payload {
+    public final byte[] buffer;
+    public final int length;
+    private final BytePool pool;
+
+    Payload(BytePool pool, byte[] buffer, int length) {
+        this.pool = pool;
+        this.buffer = buffer;
+        this.length = length;
+    }
+
+    /**
+     * Decodes a base64 payload into a pooled buffer.
+     *
+     * @throws IllegalArgumentException on malformed base64 (the buffer is
+     *         already back in the pool).
+     */
+    public static Payload fromBase64(BytePool pool, String base64) {
+        byte[] buffer = pool.acquire(PayloadDecoder.maxDecodedLength(base64));
+        try {
+            return new Payload(pool, buffer, PayloadDecoder.decodeBase64(base64, buffer));
+        } catch (IllegalArgumentException e) {
+            pool.release(buffer);
+            throw e;
+        }
+    }
+
+    /** Copies a legacy JSON number array into a pooled buffer. */
+    public static Payload fromJsonArray(BytePool pool, JSONArray array) {
+        byte[] buffer = pool.acquire(array.length());
+        return new Payload(pool, buffer, PayloadDecoder.decodeJsonArray(array, buffer));
+    }
+
+    public void release() {
+        pool.release(buffer);
+    }
+}
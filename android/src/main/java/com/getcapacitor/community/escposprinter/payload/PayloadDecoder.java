@@ -0,0 +1,118 @@
+package com.getcapacitor.community.escposprinter.payload;
+
+import org.json.JSONArray;
+
+import java.util.Arrays;
+
+/**
+ * Decodes sendToPrinter payloads into a caller-supplied buffer.
+ *
+ * Two wire forms are accepted:
+ * - base64 string (binary mode): ~1.33 bytes of JSON per payload byte and a
+ *   table lookup per character on the bridge thread.
+ * - JSON array of numbers (legacy form): up to 4 bytes of JSON per payload
+ *   byte plus a boxed number per element.
+ *
+ * The base64 decoder is hand-rolled on purpose: java.util.Base64 needs API 26
+ * (minSdk is 23) and android.util.Base64 always allocates its own result
+ * array, which would defeat the {@link BytePool}.
+ */
+public final class PayloadDecoder {
+    private static final byte[] DECODE_TABLE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE_TABLE, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODE_TABLE[alphabet.charAt(i)] = (byte) i;
+        }
+        // URL-safe variants decode to the same values.
+        DECODE_TABLE['-'] = 62;
+        DECODE_TABLE['_'] = 63;
+    }
+
+    private PayloadDecoder() {}
+
+    /**
+     * Upper bound of the decoded size of a base64 string. Exact for unpadded
+     * or padded input without whitespace; whitespace only makes it larger.
+     */
+    public static int maxDecodedLength(String base64) {
+        return (int) (((long) base64.length() * 3 + 3) / 4);
+    }
+
+    /**
+     * Decodes base64 (standard or URL-safe alphabet, padding optional,
+     * whitespace ignored) into dst and returns the number of bytes written.
+     *
+     * @throws IllegalArgumentException on characters outside the alphabet,
+     *         data after padding or a dangling single character.
+     */
+    public static int decodeBase64(String base64, byte[] dst) {
+        return decodeBase64(base64, dst, 0);
+    }
+
+    /** Like {@link #decodeBase64(String, byte[])}, writing from dst[offset]. */
+    public static int decodeBase64(String base64, byte[] dst, int offset) {
+        int out = offset;
+        int accumulator = 0;
+        int pending = 0;
+        int padding = 0;
+        final int length = base64.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = base64.charAt(i);
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                continue;
+            }
+            if (c == '=') {
+                padding++;
+                continue;
+            }
+            int value = c < 128 ? DECODE_TABLE[c] : -1;
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid base64 character at index " + i);
+            }
+            if (padding > 0) {
+                throw new IllegalArgumentException("Invalid base64: data after padding");
+            }
+
+            accumulator = (accumulator << 6) | value;
+            pending++;
+            if (pending == 4) {
+                dst[out++] = (byte) (accumulator >> 16);
+                dst[out++] = (byte) (accumulator >> 8);
+                dst[out++] = (byte) accumulator;
+                accumulator = 0;
+                pending = 0;
+            }
+        }
+
+        switch (pending) {
+            case 0:
+                break;
+            case 2:
+                dst[out++] = (byte) (accumulator >> 4);
+                break;
+            case 3:
+                dst[out++] = (byte) (accumulator >> 10);
+                dst[out++] = (byte) (accumulator >> 2);
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid base64: truncated input");
+        }
+        return out - offset;
+    }
+
+    /**
+     * Legacy form: copies a JSON array of numbers into dst (each element is
+     * truncated to its low byte, as before) and returns the element count.
+     */
+    public static int decodeJsonArray(JSONArray array, byte[] dst) {
+        final int length = array.length();
+        for (int i = 0; i < length; i++) {
+            dst[i] = (byte) array.optInt(i);
+        }
+        return length;
+    }
+}
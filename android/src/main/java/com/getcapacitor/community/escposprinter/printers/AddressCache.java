@@ -0,0 +1,177 @@
+package com.getcapacitor.community.escposprinter.printers;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Resolved addresses of network printers configured by hostname, shared by
+ * every {@link NetworkPrinter}, so a job never waits on a DNS lookup the
+ * previous job already did:
+ * - Hits are served until the TTL is over; past {@link #REFRESH_AFTER} of it
+ *   a background lookup replaces the entry, so a printer in regular use
+ *   keeps hitting.
+ * - Failed lookups are cached for a short time too: a misspelled or
+ *   unplugged printer fails fast instead of paying the resolver's timeout
+ *   on every job.
+ * - IP literals bypass the cache: they never reach the resolver.
+ *
+ * Connect failures {@link #invalidate} the host, in case the printer moved
+ * (DHCP lease + DNS update) while its old address was cached.
+ */
+public final class AddressCache {
+    static final long TTL_MS = 60000;
+    static final long NEGATIVE_TTL_MS = 5000;
+    /** Fraction of the TTL after which a hit also refreshes the entry in the background. */
+    static final double REFRESH_AFTER = 0.75;
+
+    private static final String THREAD_NAME = "EscPosPrinter-dns";
+
+    private static AddressCache shared;
+
+    /** The blocking lookup; InetAddress.getAllByName outside tests. */
+    public interface Resolver {
+        InetAddress[] resolve(String host) throws UnknownHostException;
+    }
+
+    /** Milliseconds on a monotonic clock; System.nanoTime outside tests. */
+    public interface Clock {
+        long nowMs();
+    }
+
+    private static final Clock SYSTEM_CLOCK = () -> System.nanoTime() / 1_000_000L;
+
+    private static final class Entry {
+        /** Null for a cached failure. */
+        final InetAddress[] addresses;
+        final long resolvedAt;
+        final long expiresAt;
+        boolean refreshing;
+
+        Entry(InetAddress[] addresses, long resolvedAt, long ttlMs) {
+            this.addresses = addresses;
+            this.resolvedAt = resolvedAt;
+            this.expiresAt = resolvedAt + ttlMs;
+        }
+    }
+
+    private final Resolver resolver;
+    private final long ttlMs;
+    private final long negativeTtlMs;
+    private final Clock clock;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private ExecutorService refresher;
+
+    /** The process-wide cache, created on first use. */
+    public static synchronized AddressCache shared() {
+        if (shared == null) {
+            shared = new AddressCache(InetAddress::getAllByName, TTL_MS, NEGATIVE_TTL_MS);
+        }
+        return shared;
+    }
+
+    public AddressCache(Resolver resolver, long ttlMs, long negativeTtlMs) {
+        this(resolver, ttlMs, negativeTtlMs, SYSTEM_CLOCK);
+    }
+
+    public AddressCache(Resolver resolver, long ttlMs, long negativeTtlMs, Clock clock) {
+        this.resolver = resolver;
+        this.ttlMs = ttlMs;
+        this.negativeTtlMs = negativeTtlMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Every address of host, from the cache when possible. Throws
+     * UnknownHostException for hosts that don't resolve (cached or not).
+     */
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        if (isLiteral(host)) {
+            return InetAddress.getAllByName(host);
+        }
+        long now = now();
+        synchronized (this) {
+            Entry entry = entries.get(host);
+            if (entry != null && now < entry.expiresAt) {
+                if (entry.addresses == null) {
+                    throw new UnknownHostException(host);
+                }
+                if (!entry.refreshing && now - entry.resolvedAt >= (long) (ttlMs * REFRESH_AFTER)) {
+                    entry.refreshing = true;
+                    refreshLater(host);
+                }
+                return entry.addresses;
+            }
+        }
+        // Expired or never resolved: this caller has to wait for the lookup.
+        // Concurrent misses for the same host may both look it up; the last
+        // answer wins, which is as good as any.
+        return lookup(host);
+    }
+
+    /** Forgets host, so the next job resolves it again. */
+    public synchronized void invalidate(String host) {
+        entries.remove(host);
+    }
+
+    /** Dotted IPv4 or (anything with a colon) IPv6: no lookup involved. */
+    public static boolean isLiteral(String host) {
+        if (host.indexOf(':') >= 0) {
+            return true;
+        }
+        for (int i = 0; i < host.length(); i++) {
+            char c = host.charAt(i);
+            if (c != '.' && (c < '0' || c > '9')) {
+                return false;
+            }
+        }
+        return !host.isEmpty();
+    }
+
+    private InetAddress[] lookup(String host) throws UnknownHostException {
+        try {
+            InetAddress[] addresses = resolver.resolve(host);
+            store(host, new Entry(addresses, now(), ttlMs));
+            return addresses;
+        } catch (UnknownHostException e) {
+            store(host, new Entry(null, now(), negativeTtlMs));
+            throw e;
+        }
+    }
+
+    private synchronized void store(String host, Entry entry) {
+        entries.put(host, entry);
+    }
+
+    private synchronized void refreshLater(String host) {
+        if (refresher == null) {
+            refresher = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        refresher.execute(() -> {
+            try {
+                store(host, new Entry(resolver.resolve(host), now(), ttlMs));
+            } catch (UnknownHostException e) {
+                // Keep serving the old addresses until they expire: a
+                // resolver hiccup must not fail jobs to a printer that
+                // still answers there.
+                synchronized (this) {
+                    Entry entry = entries.get(host);
+                    if (entry != null) {
+                        entry.refreshing = false;
+                    }
+                }
+            }
+        });
+    }
+
+    private long now() {
+        return clock.nowMs();
+    }
+}
@@ -0,0 +1,80 @@
+package com.getcapacitor.community.escposprinter.printers;
+
+/**
+ * Picks automatic status back (GS a) blocks out of a printer's input: 4
+ * bytes, the first matching 0xx1xx00 and the others 0xx0xxxx. Each block is
+ * reported as a {@link PrinterStatus}; every other byte (DLE EOT replies,
+ * GS I "_...NUL" blocks) passes through to the {@link Passthrough}
+ * untouched, in order.
+ *
+ * Not thread-safe: feed it from one reader at a time.
+ */
+public final class AsbParser implements NetworkIoLoop.Receiver {
+    /** GS a 0x0F: report drawer, online, error and paper sensor changes. */
+    public static final byte[] ENABLE = new byte[] { 0x1D, 0x61, 0x0F };
+    /** GS a 0: stop reporting. */
+    public static final byte[] DISABLE = new byte[] { 0x1D, 0x61, 0x00 };
+
+    public interface Listener {
+        void status(PrinterStatus status);
+    }
+
+    public interface Passthrough {
+        void data(int b);
+    }
+
+    private final Listener listener;
+    private final Passthrough passthrough;
+    private final int[] block = new int[4];
+    private int length;
+    /** Inside a "_...NUL" reply block, where text bytes may look like headers. */
+    private boolean text;
+
+    /** @param passthrough where other bytes go; null discards them */
+    public AsbParser(Listener listener, Passthrough passthrough) {
+        this.listener = listener;
+        this.passthrough = passthrough;
+    }
+
+    public void feed(int b) {
+        if (length > 0) {
+            if ((b & 0x90) == 0) {
+                block[length++] = b;
+                if (length == block.length) {
+                    length = 0;
+                    listener.status(PrinterStatus.fromAsb(block[0], block[1], block[2]));
+                }
+                return;
+            }
+            // Not a block after all: its bytes were data.
+            for (int i = 0; i < length; i++) {
+                pass(block[i]);
+            }
+            length = 0;
+        }
+        if (text) {
+            text = b != 0;
+            pass(b);
+        } else if (b == '_') {
+            text = true;
+            pass(b);
+        } else if ((b & 0x93) == 0x10) {
+            block[length++] = b;
+        } else {
+            pass(b);
+        }
+    }
+
+    @Override
+    public void received(byte[] data, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            feed(data[i] & 0xFF);
+        }
+    }
+
+    private void pass(int b) {
+        if (passthrough != null) {
+            passthrough.data(b);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.getcapacitor.community.escposprinter.printers;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a connection's input on a thread of its own while automatic status
+ * back is on: status blocks go to the listener as they arrive, whether or
+ * not anyone is reading, and the remaining bytes (replies to requests) are
+ * queued for the printer, which reads them through this stream as before.
+ *
+ * Closing it closes the source and ends the thread; a source that ends on
+ * its own ends this stream too.
+ */
+final class AsbReader extends InputStream implements Runnable {
+    private static final String THREAD_NAME = "EscPosPrinter-asb";
+    /** Replies nobody reads are dropped past this many bytes (oldest first). */
+    private static final int MAX_QUEUED_BYTES = 1024;
+
+    private final InputStream source;
+    private final AsbParser parser;
+    private final byte[] queue = new byte[MAX_QUEUED_BYTES];
+    private int head;
+    private int size;
+    private boolean ended;
+    private volatile boolean closed;
+
+    AsbReader(InputStream source, AsbParser.Listener listener) {
+        this.source = source;
+        this.parser = new AsbParser(listener, this::enqueue);
+        Thread thread = new Thread(this, THREAD_NAME);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        byte[] buffer = new byte[64];
+        try {
+            while (!closed) {
+                int n = source.read(buffer, 0, buffer.length);
+                if (n < 0) {
+                    break;
+                }
+                parser.received(buffer, 0, n); // 0: a timed read (USB) came back empty
+            }
+        } catch (IOException e) {
+            // closed under the read, or the connection broke
+        }
+        synchronized (this) {
+            ended = true;
+            notifyAll();
+        }
+    }
+
+    private synchronized void enqueue(int b) {
+        if (size == queue.length) {
+            head = (head + 1) % queue.length;
+            size--;
+        }
+        queue[(head + size) % queue.length] = (byte) b;
+        size++;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized int available() {
+        return size;
+    }
+
+    /** Blocks until a byte is queued; -1 once the source ended or this was closed. */
+    @Override
+    public synchronized int read() throws IOException {
+        while (size == 0) {
+            if (ended || closed) {
+                return -1;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted");
+            }
+        }
+        int b = queue[head] & 0xFF;
+        head = (head + 1) % queue.length;
+        size--;
+        return b;
+    }
+
+    @Override
+    public synchronized int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        int first = read();
+        if (first < 0) {
+            return -1;
+        }
+        buffer[offset] = (byte) first;
+        int n = 1;
+        while (n < length && size > 0) {
+            buffer[offset + n++] = (byte) read();
+        }
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        synchronized (this) {
+            notifyAll();
+        }
+        source.close();
+    }
+}
@@ -11,9 +11,35 @@ import java.io.OutputStream;
 import java.util.Arrays;
 
 public abstract class BasePrinter {
+    /** DLE EOT n=1: transmit printer status (real-time, answered even mid-job). */
+    public static final byte[] DLE_EOT_PROBE = new byte[] { 0x10, 0x04, 0x01 };
+    /**
+     * Bytes written between readiness checks with {@link FlowControl#STATUS}.
+     * Fits the smallest common receive buffers, so a window never has to
+     * wait on itself.
+     */
+    static final int FLOW_WINDOW_BYTES = 4096;
+    /**
+     * Longest wait for a readiness answer. Long enough for a full window of
+     * raster to print on a slow head; a printer silent for that long does
+     * not answer DLE EOT at all.
+     */
+    static final int FLOW_READY_TIMEOUT_MS = 3000;
+
     protected InputStream inputStream;
     protected OutputStream outputStream;
 
+    protected FlowControl flowControl = FlowControl.HEURISTIC;
+    /** Set once the printer left a readiness check unanswered: it paces by heuristic from then on. */
+    private boolean statusUnanswered;
+
+    private ThroughputModel throughput;
+    private String throughputId;
+
+    private volatile AsbParser.Listener asbListener;
+    /** Reads the connection's input while automatic status back is on; it is then the inputStream. */
+    private AsbReader asbReader;
+
     public abstract void connect() throws PrinterException;
 
     public boolean isConnected() {
@@ -21,6 +47,7 @@ public abstract class BasePrinter {
     }
 
     public void disconnect() {
+        asbReader = null; // closed with the inputStream it stands in for
         if (inputStream != null) {
             try {
                 inputStream.close();
@@ -39,32 +66,305 @@ public abstract class BasePrinter {
         }
     }
 
+    /**
+     * Subscribes listener to automatic status back (GS a): the printer pushes
+     * its status whenever it changes (cover opened, paper out, back online),
+     * read off the connection in the background. Kept across reconnects;
+     * null unsubscribes. Takes effect now if connected, else on connect.
+     */
+    public void setAutomaticStatusBack(AsbParser.Listener listener) throws PrinterException {
+        asbListener = listener;
+        if (isConnected()) {
+            startAutomaticStatusBack();
+        }
+    }
+
+    public boolean hasAutomaticStatusBack() {
+        return asbListener != null;
+    }
+
+    /**
+     * Applies the subscription to the open connection; transports call it
+     * at the end of connect(). The background reader stays until disconnect
+     * even when unsubscribing, so status blocks already on their way are
+     * still kept out of replies.
+     */
+    protected void startAutomaticStatusBack() throws PrinterException {
+        if (asbListener == null && asbReader == null) {
+            return;
+        }
+        if (asbReader == null) {
+            asbReader = new AsbReader(inputStream, status -> {
+                AsbParser.Listener listener = asbListener;
+                if (listener != null) {
+                    listener.status(status);
+                }
+            });
+            inputStream = asbReader;
+        }
+        write(asbListener != null ? AsbParser.ENABLE : AsbParser.DISABLE, 0, 3);
+    }
+
+    /** Whether input is read in the background, so replies must be read through inputStream. */
+    protected boolean readsInBackground() {
+        return asbReader != null;
+    }
+
     public void send(byte[] data, int addWaitingTime) throws PrinterException {
+        send(data, 0, data.length, addWaitingTime);
+    }
+
+    /**
+     * Sends data[offset, offset + length). Lets callers hand in pooled
+     * buffers that are larger than the job itself.
+     */
+    public void send(byte[] data, int offset, int length, int addWaitingTime) throws PrinterException {
+        long start = System.nanoTime();
+        writePaced(data, offset, length);
+        if (!isPacedByStatus() && writeTakesPrinterPace()) {
+            recordThroughput(length, start);
+        }
+        awaitPrinted(length, addWaitingTime, start);
+    }
+
+    /**
+     * Lets the printer learn its bytes-per-second under printerId and use it
+     * for the post-send wait instead of the length/16 ms heuristic.
+     */
+    public void setThroughputModel(ThroughputModel throughput, String printerId) {
+        this.throughput = throughput;
+        this.throughputId = printerId;
+    }
+
+    /**
+     * Whether a write only completes as fast as the printer takes the bytes
+     * in (USB bulk transfers), which makes its duration a throughput sample.
+     * Buffered streams (Bluetooth) complete long before.
+     */
+    protected boolean writeTakesPrinterPace() {
+        return false;
+    }
+
+    /** Adds "the printer took in length bytes since startNanos" to the learned throughput. */
+    protected void recordThroughput(long length, long startNanos) {
+        recordThroughput(length, startNanos, System.nanoTime());
+    }
+
+    protected void recordThroughput(long length, long startNanos, long endNanos) {
+        if (throughput != null && startNanos >= 0) {
+            throughput.record(throughputId, length, (endNanos - startNanos) / 1_000_000L);
+        }
+    }
+
+    /**
+     * What is left of the learned print time of a job started at startNanos,
+     * or -1 while nothing was learned (or the start is unknown).
+     */
+    protected long learnedWaitMs(long length, long startNanos) {
+        if (throughput == null || startNanos < 0) {
+            return -1;
+        }
+        long printMs = throughput.printTimeMs(throughputId, length);
+        if (printMs < 0) {
+            return -1;
+        }
+        return Math.max(0, printMs - (System.nanoTime() - startNanos) / 1_000_000L);
+    }
+
+    public FlowControl getFlowControl() {
+        return flowControl;
+    }
+
+    public void setFlowControl(FlowControl flowControl) {
+        this.flowControl = flowControl;
+        this.statusUnanswered = false;
+    }
+
+    /** Whether this printer is (still) paced by DLE EOT readiness checks. */
+    public boolean isPacedByStatus() {
+        return flowControl == FlowControl.STATUS && !statusUnanswered;
+    }
+
+    /**
+     * Gives up on status pacing for this printer: it left a readiness check
+     * unanswered, so every later one would only add the full timeout.
+     */
+    protected void markStatusUnanswered() {
+        statusUnanswered = true;
+    }
+
+    /**
+     * Whether job bytes can be written to the open connection as they arrive
+     * (see {@link PrintJob}). Transports without a persistent connection
+     * must stage the whole job and send it at once instead.
+     */
+    public boolean supportsStreaming() {
+        return isConnected();
+    }
+
+    /** Writes and flushes bytes to the open connection, without any wait. */
+    public void write(byte[] data, int offset, int length) throws PrinterException {
         if(!this.isConnected()) {
             this.disconnect();
 
             throw new PrinterException(PrinterErrorCode.NOT_CONENCTED, "Printer not connected.");
         }
         try {
-            this.outputStream.write(data);
+            this.outputStream.write(data, offset, length);
             this.outputStream.flush();
+        } catch (IOException e) {
+            failSend(e);
+        }
+    }
+
+    /**
+     * Writes like {@link #write}, but with status pacing the bytes go out in
+     * windows, each after the printer proved it has room for it.
+     */
+    public void writePaced(byte[] data, int offset, int length) throws PrinterException {
+        int end = offset + length;
+        int pos = offset;
+        while (isPacedByStatus() && end - pos > FLOW_WINDOW_BYTES) {
+            write(data, pos, FLOW_WINDOW_BYTES);
+            pos += FLOW_WINDOW_BYTES;
+            awaitReady();
+        }
+        // The last window, or everything once pacing is off.
+        write(data, pos, end - pos);
+    }
 
-            int waitingTime = addWaitingTime + data.length / 16;
-            if(waitingTime > 0) {
+    /** {@link #awaitPrinted(long, int, long)} for a job whose start is unknown (streamed chunks). */
+    protected void awaitPrinted(long length, int addWaitingTime) throws PrinterException {
+        awaitPrinted(length, addWaitingTime, -1);
+    }
+
+    /**
+     * Post-write wait. With status pacing: a last readiness check (the
+     * printer took in the whole job, which also makes the job a throughput
+     * sample) plus addWaitingTime. Otherwise addWaitingTime plus what is
+     * left of the learned print time, or a length/16 ms heuristic while
+     * nothing was learned, so slow serial-ish transports can print what was
+     * written before the next job.
+     *
+     * @param startNanos System.nanoTime() before the first byte, or -1
+     */
+    protected void awaitPrinted(long length, int addWaitingTime, long startNanos) throws PrinterException {
+        if (isPacedByStatus() && awaitReady()) {
+            recordThroughput(length, startNanos);
+            sleep(addWaitingTime);
+            return;
+        }
+        long learned = learnedWaitMs(length, startNanos);
+        sleep(addWaitingTime + (learned >= 0 ? learned : length / 16));
+    }
+
+    private void sleep(long waitingTime) throws PrinterException {
+        if(waitingTime > 0) {
+            try {
                 Thread.sleep(waitingTime);
+            } catch (InterruptedException e) {
+                failSend(e);
+            }
+        }
+    }
+
+    /**
+     * DLE EOT round-trip: returns true once the printer answered, false (and
+     * stops status pacing) if it stayed silent.
+     */
+    protected boolean awaitReady() throws PrinterException {
+        try {
+            // Unsolicited bytes (ASB, a late answer) must not count as this answer.
+            drainInput();
+            outputStream.write(DLE_EOT_PROBE);
+            outputStream.flush();
+            if (readReply(FLOW_READY_TIMEOUT_MS) >= 0) {
+                return true;
+            }
+        } catch (IOException e) {
+            failSend(e);
+        }
+        markStatusUnanswered();
+        return false;
+    }
+
+    /**
+     * DLE EOT n=1..4 round-trips on the open connection. Returns null when
+     * the printer leaves n=1 unanswered within timeoutMs (it doesn't speak
+     * DLE EOT, or is gone); later n it doesn't answer are -1.
+     */
+    public PrinterStatus readStatus(int timeoutMs) throws PrinterException {
+        if(!this.isConnected()) {
+            this.disconnect();
+
+            throw new PrinterException(PrinterErrorCode.NOT_CONENCTED, "Printer not connected.");
+        }
+        try {
+            // Unsolicited bytes (ASB, a late answer) must not count as an answer.
+            drainInput();
+            int[] replies = new int[4];
+            for (int n = 1; n <= 4; n++) {
+                outputStream.write(new byte[] { 0x10, 0x04, (byte) n });
+                outputStream.flush();
+                replies[n - 1] = readReply(timeoutMs);
+                if (n == 1 && replies[0] < 0) {
+                    return null;
+                }
             }
-        } catch (IOException | InterruptedException e) {
+            return new PrinterStatus(replies);
+        } catch (IOException e) {
             e.printStackTrace();
+            this.disconnect();
+
+            throw new PrinterException(PrinterErrorCode.READ, e.getMessage());
+        }
+    }
 
-            if (e instanceof InterruptedException) {
+    /**
+     * Discards what the printer already sent, before a request whose reply
+     * must not be confused with it. Goes by available(); transports whose
+     * stream can't tell override it.
+     */
+    protected void drainInput() throws IOException {
+        while (inputStream.available() > 0) {
+            if (inputStream.read() < 0) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * First byte the printer sends within timeoutMs, or -1. Polls
+     * available() so it never blocks past the deadline on streams without a
+     * read timeout (Bluetooth); transports with a timed read override it.
+     */
+    protected int readReply(int timeoutMs) throws IOException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (inputStream.available() <= 0) {
+            if (System.currentTimeMillis() >= deadline) {
+                return -1;
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
+                return -1;
             }
+        }
+        return inputStream.read();
+    }
 
-            // Self-heal: ensure subsequent sends reconnect with a fresh connection.
-            this.disconnect();
+    private void failSend(Exception e) throws PrinterException {
+        e.printStackTrace();
 
-            throw new PrinterException(PrinterErrorCode.SEND, e.getMessage());
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
         }
+
+        // Self-heal: ensure subsequent sends reconnect with a fresh connection.
+        this.disconnect();
+
+        throw new PrinterException(PrinterErrorCode.SEND, e.getMessage());
     }
 
     public byte[] read() throws PrinterException {
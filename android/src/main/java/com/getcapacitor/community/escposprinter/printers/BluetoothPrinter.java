@@ -62,6 +62,7 @@ public class BluetoothPrinter extends BasePrinter {
 
             throw new PrinterException(PrinterErrorCode.CONNECT, "Unable to connect to bluetooth device.");
         }
+        startAutomaticStatusBack();
     }
 
     @Override
@@ -0,0 +1,283 @@
+package com.getcapacitor.community.escposprinter.printers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Network printers seen before (by scans, probes and revalidations), kept
+ * across app runs through {@link Store}: what the app can show at once on
+ * start, and what a scan probes first.
+ *
+ * Keyed by "host:port" ({@link NetworkAddress#format}). Bounded to
+ * {@link #MAX_ENTRIES}; entries unseen for {@link #MAX_AGE_MS} are dropped
+ * on load, the least recently seen when full.
+ *
+ * Identification results ({@link PrinterIdentifier}) are kept for
+ * {@link #IDENTITY_TTL_MS}, so a rescan doesn't query printers again that
+ * were identified lately.
+ *
+ * The {@link Listener} hears about changes that matter to a UI: a new
+ * printer, reachability flips, DLE EOT support or identity becoming known.
+ * A fresher lastSeen alone is not a change. Every method is synchronized; the
+ * listener is called outside the lock.
+ */
+public final class DiscoveryCache {
+    static final int MAX_ENTRIES = 64;
+    static final long MAX_AGE_MS = 30L * 24 * 60 * 60 * 1000;
+    /** Printers keep their model; a week still catches a swapped one at the same address. */
+    static final long IDENTITY_TTL_MS = 7L * 24 * 60 * 60 * 1000;
+
+    /** Where the entries are kept between app runs. */
+    public interface Store {
+        /** The last saved snapshot, or null. */
+        String load();
+
+        void save(String snapshot);
+    }
+
+    public interface Listener {
+        void changed(Entry entry);
+    }
+
+    /** One printer; a snapshot, not live. */
+    public static final class Entry {
+        public final String host;
+        public final int port;
+        /** Wall clock time the printer last answered (ms since the epoch). */
+        public final long lastSeen;
+        /** Whether it answered at the last check. */
+        public final boolean reachable;
+        /** Null until a DLE EOT probe ran. */
+        public final Boolean supportsDleEot;
+        /** Null until the printer was identified, or if it didn't tell. */
+        public final String model;
+        /** Null until the printer was identified, or if it didn't tell. */
+        public final String firmware;
+        /** Wall clock time the printer was last identified, 0 if never. */
+        public final long identifiedAt;
+
+        Entry(String host, int port, long lastSeen, boolean reachable, Boolean supportsDleEot,
+              String model, String firmware, long identifiedAt) {
+            this.host = host;
+            this.port = port;
+            this.lastSeen = lastSeen;
+            this.reachable = reachable;
+            this.supportsDleEot = supportsDleEot;
+            this.model = model;
+            this.firmware = firmware;
+            this.identifiedAt = identifiedAt;
+        }
+
+        public String id() {
+            return key(host, port);
+        }
+
+        /** Whether a listener should hear about going from this to next. */
+        boolean differsFrom(Entry next) {
+            return reachable != next.reachable
+                    || !same(supportsDleEot, next.supportsDleEot)
+                    || !same(model, next.model)
+                    || !same(firmware, next.firmware);
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Store store;
+    private volatile Listener listener;
+
+    /** @param store persistence, or null to keep the entries in memory only */
+    public DiscoveryCache(Store store) {
+        this.store = store;
+        if (store != null) {
+            restore(store.load(), System.currentTimeMillis());
+        }
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /** Most recently seen first. */
+    public synchronized List<Entry> all() {
+        List<Entry> all = new ArrayList<>(entries.values());
+        Collections.sort(all, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry a, Entry b) {
+                return Long.compare(b.lastSeen, a.lastSeen);
+            }
+        });
+        return all;
+    }
+
+    public synchronized Entry get(String host, int port) {
+        return entries.get(key(host, port));
+    }
+
+    /** The entry of host:port if it was identified within {@link #IDENTITY_TTL_MS}, else null. */
+    public synchronized Entry recentlyIdentified(String host, int port) {
+        Entry entry = entries.get(key(host, port));
+        if (entry == null || entry.identifiedAt == 0
+                || System.currentTimeMillis() - entry.identifiedAt > IDENTITY_TTL_MS) {
+            return null;
+        }
+        return entry;
+    }
+
+    /** The printer answered a connect (scan or revalidation). */
+    public void seen(String host, int port) {
+        update(host, port, true, null, null, 0);
+    }
+
+    /** The printer did not answer; only known printers are recorded. */
+    public void unreachable(String host, int port) {
+        update(host, port, false, null, null, 0);
+    }
+
+    /** Outcome of a probe; supportsDleEot null when the probe said nothing about it. */
+    public void probed(String host, int port, boolean reachable, Boolean supportsDleEot) {
+        update(host, port, reachable, supportsDleEot, null, 0);
+    }
+
+    /** The printer answered {@link PrinterIdentifier}. */
+    public void identified(String host, int port, PrinterIdentifier.Identity identity) {
+        update(host, port, true, identity.supportsDleEot, identity, System.currentTimeMillis());
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        save();
+    }
+
+    /**
+     * Merges what was just learned; null arguments keep what was known. An
+     * identity replaces the previous one (its null fields too).
+     */
+    private void update(String host, int port, boolean reachable, Boolean supportsDleEot,
+                        PrinterIdentifier.Identity identity, long identifiedAt) {
+        Entry changed;
+        synchronized (this) {
+            String key = key(host, port);
+            Entry previous = entries.get(key);
+            if (previous == null && !reachable) {
+                return;
+            }
+            Entry next = new Entry(
+                    host,
+                    port,
+                    reachable ? System.currentTimeMillis() : previous.lastSeen,
+                    reachable,
+                    supportsDleEot != null ? supportsDleEot : previous != null ? previous.supportsDleEot : null,
+                    identity != null ? sanitize(identity.label()) : previous != null ? previous.model : null,
+                    identity != null ? sanitize(identity.firmware) : previous != null ? previous.firmware : null,
+                    identity != null ? identifiedAt : previous != null ? previous.identifiedAt : 0
+            );
+            entries.put(key, next);
+            if (previous == null) {
+                evictOverflow();
+            }
+            // Saved under the lock, so snapshots can't reach the store out of
+            // order (SharedPreferences.apply() only queues the write).
+            save();
+            changed = previous == null || previous.differsFrom(next) ? next : null;
+        }
+        Listener current = listener;
+        if (changed != null && current != null) {
+            current.changed(changed);
+        }
+    }
+
+    private void evictOverflow() {
+        while (entries.size() > MAX_ENTRIES) {
+            Entry oldest = null;
+            for (Entry entry : entries.values()) {
+                if (oldest == null || entry.lastSeen < oldest.lastSeen) {
+                    oldest = entry;
+                }
+            }
+            entries.remove(oldest.id());
+        }
+    }
+
+    private void save() {
+        if (store != null) {
+            store.save(serialize());
+        }
+    }
+
+    /**
+     * One line per printer, tab separated: host, port, lastSeen, reachable,
+     * supportsDleEot, model, firmware, identifiedAt.
+     */
+    synchronized String serialize() {
+        StringBuilder out = new StringBuilder();
+        for (Entry entry : entries.values()) {
+            out.append(entry.host).append('\t')
+                    .append(entry.port).append('\t')
+                    .append(entry.lastSeen).append('\t')
+                    .append(entry.reachable).append('\t')
+                    .append(entry.supportsDleEot != null ? entry.supportsDleEot.toString() : "").append('\t')
+                    .append(entry.model != null ? entry.model : "").append('\t')
+                    .append(entry.firmware != null ? entry.firmware : "").append('\t')
+                    .append(entry.identifiedAt).append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * Loads a serialize() snapshot; malformed lines are skipped (it's only a
+     * cache). Lines without the identity fields (older snapshots) load as
+     * never identified.
+     */
+    private void restore(String snapshot, long now) {
+        if (snapshot == null) {
+            return;
+        }
+        for (String line : snapshot.split("\n")) {
+            String[] fields = line.split("\t", -1);
+            if ((fields.length != 6 && fields.length != 8) || fields[0].isEmpty()) {
+                continue;
+            }
+            try {
+                long lastSeen = Long.parseLong(fields[2]);
+                if (now - lastSeen > MAX_AGE_MS) {
+                    continue;
+                }
+                Entry entry = new Entry(
+                        fields[0],
+                        Integer.parseInt(fields[1]),
+                        lastSeen,
+                        Boolean.parseBoolean(fields[3]),
+                        fields[4].isEmpty() ? null : Boolean.valueOf(fields[4]),
+                        fields[5].isEmpty() ? null : fields[5],
+                        fields.length < 8 || fields[6].isEmpty() ? null : fields[6],
+                        fields.length < 8 ? 0 : Long.parseLong(fields[7])
+                );
+                entries.put(entry.id(), entry);
+            } catch (NumberFormatException ignored) {
+                // skip
+            }
+        }
+        evictOverflow();
+    }
+
+    private static String key(String host, int port) {
+        return NetworkAddress.format(host, port);
+    }
+
+    /** Identities come from the printer: keep them to one field of the snapshot format. */
+    private static String sanitize(String text) {
+        if (text == null) {
+            return null;
+        }
+        String line = text.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ').trim();
+        return line.isEmpty() ? null : line;
+    }
+
+    private static boolean same(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,34 @@
+package com.getcapacitor.community.escposprinter.printers;
+
+/** How a printer paces the bytes of a job. */
+public enum FlowControl {
+    /**
+     * Write everything at once, then sleep addWaitingTime plus length/16 ms.
+     * Works with any printer, but over-waits on fast ones and under-waits on
+     * slow ones.
+     */
+    HEURISTIC("heuristic"),
+    /**
+     * Write in windows and wait for a DLE EOT round-trip between them: a
+     * printer whose receive buffer is full stops reading, so its answer only
+     * comes back once it has room. The job runs at the printer's real drain
+     * rate. Printers that never answer fall back to HEURISTIC.
+     */
+    STATUS("status");
+
+    public final String jsName;
+
+    FlowControl(String jsName) {
+        this.jsName = jsName;
+    }
+
+    /** @throws IllegalArgumentException for unknown names */
+    public static FlowControl fromName(String name) {
+        for (FlowControl mode : values()) {
+            if (mode.jsName.equals(name)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("unknown flow control '" + name + "'");
+    }
+}
@@ -0,0 +1,58 @@
+package com.getcapacitor.community.escposprinter.printers;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * IPv4 neighbors the kernel already resolved (ARP), from /proc/net/arp:
+ * hosts that were alive on the LAN moments ago, so they are worth probing
+ * before the rest of a sweep. The file is unreadable for apps on Android 10
+ * and later; then there are simply no neighbors.
+ */
+public final class NeighborTable {
+    private static final String PROC_NET_ARP = "/proc/net/arp";
+    /** ATF_COM: the entry has a resolved hardware address. */
+    private static final int FLAG_COMPLETE = 0x2;
+
+    private NeighborTable() {}
+
+    /** Resolved neighbors, or an empty list when the table can't be read. */
+    public static List<String> read() {
+        try (Reader reader = new FileReader(PROC_NET_ARP)) {
+            return parse(reader);
+        } catch (IOException | SecurityException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Parses the /proc/net/arp format: a header line, then
+     * "IP address  HW type  Flags  HW address  Mask  Device" per entry.
+     * Incomplete entries (a failed ARP query: nobody there) are skipped.
+     */
+    public static List<String> parse(Reader table) throws IOException {
+        List<String> neighbors = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(table);
+        String line = reader.readLine(); // header
+        while (line != null && (line = reader.readLine()) != null) {
+            String[] fields = line.trim().split("\\s+");
+            if (fields.length < 4) {
+                continue;
+            }
+            int flags;
+            try {
+                flags = Integer.decode(fields[2]);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if ((flags & FLAG_COMPLETE) != 0 && !"00:00:00:00:00:00".equals(fields[3])) {
+                neighbors.add(fields[0]);
+            }
+        }
+        return neighbors;
+    }
+}
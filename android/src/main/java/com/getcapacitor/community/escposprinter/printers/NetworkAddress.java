@@ -1,7 +1,7 @@
 package com.getcapacitor.community.escposprinter.printers;
 
 /**
- * Parsed "host[:port]" network printer address. Kept as a tiny static helper
+ * Parsed "host[:port]" (or "[ipv6][:port]") network printer address. Kept as a tiny static helper
  * so the parsing rules are unit-testable without Android dependencies.
  */
 public final class NetworkAddress {
@@ -16,8 +16,9 @@ public final class NetworkAddress {
     }
 
     /**
-     * Parses "host" or "host:port" (port 1-65535, default 9100).
-     * Returns null for malformed input.
+     * Parses "host", "host:port", "[ipv6]" or "[ipv6]:port" (port 1-65535,
+     * default 9100). Returns null for malformed input, including unbracketed
+     * IPv6 literals: in "fe80::1:9100" the port can't be told apart.
      */
     public static NetworkAddress parse(String address) {
         if (address == null) {
@@ -29,18 +30,42 @@ public final class NetworkAddress {
         }
 
         String host = trimmed;
-        int port = DEFAULT_PORT;
+        String portPart = null;
 
-        int colonIndex = trimmed.lastIndexOf(':');
-        if (colonIndex >= 0) {
-            // More than one colon would be an IPv6 literal, which this simple
-            // "host:port" format does not support.
-            if (trimmed.indexOf(':') != colonIndex) {
+        if (trimmed.startsWith("[")) {
+            int closing = trimmed.indexOf(']');
+            if (closing < 0) {
+                return null;
+            }
+            host = trimmed.substring(1, closing).trim();
+            // Brackets are only for IPv6 literals (optionally with a %zone).
+            if (host.indexOf(':') < 0) {
                 return null;
             }
-            host = trimmed.substring(0, colonIndex).trim();
-            String portPart = trimmed.substring(colonIndex + 1).trim();
-            if (host.isEmpty() || portPart.isEmpty()) {
+            String rest = trimmed.substring(closing + 1);
+            if (!rest.isEmpty()) {
+                if (!rest.startsWith(":")) {
+                    return null;
+                }
+                portPart = rest.substring(1).trim();
+            }
+        } else {
+            int colonIndex = trimmed.lastIndexOf(':');
+            if (colonIndex >= 0) {
+                if (trimmed.indexOf(':') != colonIndex) {
+                    return null;
+                }
+                host = trimmed.substring(0, colonIndex).trim();
+                portPart = trimmed.substring(colonIndex + 1).trim();
+            }
+        }
+
+        if (host.isEmpty()) {
+            return null;
+        }
+        int port = DEFAULT_PORT;
+        if (portPart != null) {
+            if (portPart.isEmpty()) {
                 return null;
             }
             try {
@@ -58,6 +83,12 @@ public final class NetworkAddress {
 
     @Override
     public String toString() {
-        return host + ":" + port;
+        return format(host, port);
+    }
+
+    /** "host:port", parseable again. */
+    public static String format(String host, int port) {
+        // Brackets keep the port separable from an IPv6 literal.
+        return (host.indexOf(':') >= 0 ? "[" + host + "]" : host) + ":" + port;
     }
 }
@@ -0,0 +1,534 @@
+package com.getcapacitor.community.escposprinter.printers;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One selector thread driving the non-blocking sockets of every network
+ * printer: connects, writes and status reads are registered here and
+ * completed (or timed out) by the loop, so a wedged printer costs a
+ * selection key and a deadline instead of a blocked socket plus a watchdog
+ * task.
+ *
+ * The calls are blocking for their caller (the printer's executor thread
+ * waits for its own operation) but never block in socket I/O on it: they
+ * try the non-blocking call once and hand the rest to the loop. A channel
+ * has at most one operation in flight, which the per-printer executors
+ * already guarantee.
+ */
+public final class NetworkIoLoop {
+    private static final String THREAD_NAME = "EscPosPrinter-net-io";
+
+    private static NetworkIoLoop shared;
+
+    private enum Kind { CONNECT, WRITE, READ, PARK }
+
+    /** Takes input nobody asked for: unsolicited status bytes. */
+    public interface Receiver {
+        void received(byte[] data, int offset, int length);
+    }
+
+    /** A registered operation; completed exactly once by the loop thread. */
+    private static final class Op {
+        final Kind kind;
+        final SocketChannel channel;
+        final ByteBuffer buffer;
+        final long deadline;
+        final CountDownLatch done = new CountDownLatch(1);
+        /** PARK only: set by whoever gets the channel (the next job, or the loop to close it). */
+        final AtomicBoolean claimed = new AtomicBoolean();
+        /** CONNECT only, when racing: where the loop reports the attempt once it is over. */
+        BlockingQueue<Op> finished;
+        /** PARK only, optional: gets what arrives while parked. */
+        Receiver receiver;
+        int result;
+        IOException error;
+
+        Op(Kind kind, SocketChannel channel, ByteBuffer buffer, long timeoutMs) {
+            this.kind = kind;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.deadline = System.nanoTime() + timeoutMs * 1_000_000L;
+        }
+    }
+
+    /**
+     * An idle channel waiting for the next job. Exactly one side wins it:
+     * {@link #take} before the idle time is over, or the loop, which closes
+     * it at the deadline.
+     */
+    public static final class Parked {
+        private final Op op;
+
+        private Parked(Op op) {
+            this.op = op;
+        }
+
+        /**
+         * The channel, or null if the loop already closed it. Once this
+         * returns, the loop no longer reads from it.
+         */
+        public SocketChannel take() {
+            synchronized (op) {
+                return op.claimed.compareAndSet(false, true) ? op.channel : null;
+            }
+        }
+    }
+
+    private final Selector selector;
+    private final ConcurrentLinkedQueue<Op> submitted = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<SocketChannel> closing = new ConcurrentLinkedQueue<>();
+    /** Operations registered with the selector; only touched by the loop thread. */
+    private final List<Op> active = new ArrayList<>();
+
+    private NetworkIoLoop() throws IOException {
+        selector = Selector.open();
+        Thread thread = new Thread(this::run, THREAD_NAME);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** The process-wide loop, started on first use. */
+    public static synchronized NetworkIoLoop shared() throws IOException {
+        if (shared == null) {
+            shared = new NetworkIoLoop();
+        }
+        return shared;
+    }
+
+    /** Opens a connection; SocketTimeoutException past timeoutMs. */
+    public SocketChannel connect(InetSocketAddress address, int timeoutMs) throws IOException {
+        if (address.isUnresolved()) {
+            throw new UnknownHostException(address.getHostString());
+        }
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            if (!channel.connect(address)) {
+                await(submit(new Op(Kind.CONNECT, channel, null, timeoutMs)));
+            }
+            return channel;
+        } catch (IOException e) {
+            close(channel);
+            throw e;
+        }
+    }
+
+    /**
+     * Races connection attempts to addresses (in the order given), starting
+     * the next one every staggerMs or as soon as the previous one fails, and
+     * returns the first channel to connect; the others are closed. This is
+     * RFC 8305 "happy eyeballs": an address family that silently drops
+     * packets costs one stagger instead of the whole timeout. Fails with the
+     * last attempt's error once every address failed or timeoutMs is over.
+     */
+    public SocketChannel connectAny(List<InetSocketAddress> addresses, int staggerMs, int timeoutMs) throws IOException {
+        if (addresses.size() == 1) {
+            return connect(addresses.get(0), timeoutMs);
+        }
+        long deadline = System.nanoTime() + timeoutMs * 1_000_000L;
+        BlockingQueue<Op> finished = new LinkedBlockingQueue<>();
+        List<Op> pending = new ArrayList<>();
+        IOException lastError = new SocketTimeoutException("connect timed out");
+        int next = 0;
+        boolean startNext = true;
+        try {
+            while (true) {
+                if (startNext && next < addresses.size()) {
+                    startNext = false;
+                    long remainingMs = (deadline - System.nanoTime()) / 1_000_000L;
+                    if (remainingMs <= 0) {
+                        break;
+                    }
+                    try {
+                        pending.add(startConnect(addresses.get(next++), remainingMs, finished));
+                    } catch (IOException e) {
+                        lastError = e; // e.g. no route for this family: on to the next one now
+                        startNext = true;
+                        continue;
+                    }
+                }
+                if (pending.isEmpty()) {
+                    break;
+                }
+                long waitMs = next < addresses.size()
+                        ? staggerMs
+                        : Math.max(1, (deadline - System.nanoTime()) / 1_000_000L);
+                Op op = finished.poll(waitMs, TimeUnit.MILLISECONDS);
+                if (op == null) {
+                    if (next >= addresses.size()) {
+                        break; // deadline over; the loop fails the stragglers on its own
+                    }
+                    startNext = true; // stagger over: start the next attempt alongside
+                    continue;
+                }
+                pending.remove(op);
+                if (op.error == null) {
+                    return op.channel;
+                }
+                lastError = op.error;
+                close(op.channel);
+                startNext = true;
+            }
+            throw lastError;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted");
+        } finally {
+            for (Op loser : pending) {
+                close(loser.channel);
+            }
+        }
+    }
+
+    /**
+     * Orders addresses for {@link #connectAny}: families alternate, starting
+     * with the family of the resolver's first answer (RFC 8305 section 4).
+     */
+    public static List<InetSocketAddress> interleaveFamilies(InetAddress[] addresses, int port) {
+        List<InetAddress> first = new ArrayList<>();
+        List<InetAddress> second = new ArrayList<>();
+        boolean firstIsV6 = addresses.length > 0 && addresses[0] instanceof Inet6Address;
+        for (InetAddress address : addresses) {
+            ((address instanceof Inet6Address) == firstIsV6 ? first : second).add(address);
+        }
+        List<InetSocketAddress> ordered = new ArrayList<>(addresses.length);
+        for (int i = 0; i < Math.max(first.size(), second.size()); i++) {
+            if (i < first.size()) {
+                ordered.add(new InetSocketAddress(first.get(i), port));
+            }
+            if (i < second.size()) {
+                ordered.add(new InetSocketAddress(second.get(i), port));
+            }
+        }
+        return ordered;
+    }
+
+    /** Starts one raced attempt, which reports to finished once it is over. */
+    private Op startConnect(InetSocketAddress address, long timeoutMs, BlockingQueue<Op> finished) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Op op = new Op(Kind.CONNECT, channel, null, timeoutMs);
+            op.finished = finished;
+            if (channel.connect(address)) {
+                op.done.countDown(); // connected at once (loopback, mostly)
+                finished.add(op);
+            } else {
+                submit(op);
+            }
+            return op;
+        } catch (IOException e) {
+            close(channel);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes every remaining byte of buffer; SocketTimeoutException if the
+     * peer stops reading for longer than timeoutMs in total.
+     */
+    public void write(SocketChannel channel, ByteBuffer buffer, int timeoutMs) throws IOException {
+        channel.write(buffer); // most jobs fit the socket buffer: no round-trip through the loop
+        if (buffer.hasRemaining()) {
+            await(submit(new Op(Kind.WRITE, channel, buffer, timeoutMs)));
+        }
+    }
+
+    /**
+     * Reads what arrives within timeoutMs: the byte count, 0 when nothing
+     * arrived (silence is an answer here, not an error) or -1 at end of
+     * stream.
+     */
+    public int read(SocketChannel channel, ByteBuffer buffer, int timeoutMs) throws IOException {
+        int n = channel.read(buffer);
+        if (n != 0) {
+            return n;
+        }
+        return await(submit(new Op(Kind.READ, channel, buffer, timeoutMs)));
+    }
+
+    /** Keeps channel open for idleMs for a later {@link Parked#take}, then closes it. */
+    public Parked park(SocketChannel channel, int idleMs) {
+        return park(channel, idleMs, null);
+    }
+
+    /**
+     * {@link #park(SocketChannel, int)}, handing what arrives meanwhile to
+     * receiver (on the loop thread: it must not block). The peer closing
+     * the connection closes the parked channel early.
+     */
+    public Parked park(SocketChannel channel, int idleMs, Receiver receiver) {
+        Op op = new Op(Kind.PARK, channel, receiver != null ? ByteBuffer.allocate(64) : null, idleMs);
+        op.receiver = receiver;
+        return new Parked(submit(op));
+    }
+
+    /** Discards input that is already buffered (stale or unsolicited status bytes). */
+    public static void drain(SocketChannel channel) throws IOException {
+        drain(channel, null);
+    }
+
+    /** Hands input that is already buffered to receiver, or discards it if null. */
+    public static void drain(SocketChannel channel, Receiver receiver) throws IOException {
+        ByteBuffer scratch = ByteBuffer.allocate(64);
+        int n;
+        while ((n = channel.read(scratch)) > 0) {
+            if (receiver != null) {
+                receiver.received(scratch.array(), 0, n);
+            }
+            scratch.clear();
+        }
+    }
+
+    /**
+     * Closes channel. Goes through the loop: a channel registered with a
+     * selector only releases its socket once the selector deregisters it,
+     * which must not wait for the next unrelated wakeup.
+     */
+    public void close(SocketChannel channel) {
+        closing.add(channel);
+        selector.wakeup();
+    }
+
+    private Op submit(Op op) {
+        submitted.add(op);
+        selector.wakeup();
+        return op;
+    }
+
+    private int await(Op op) throws IOException {
+        try {
+            op.done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close(op.channel); // fails the operation on the loop side
+            throw new InterruptedIOException("interrupted");
+        }
+        if (op.error != null) {
+            throw op.error;
+        }
+        return op.result;
+    }
+
+    private void run() {
+        while (true) {
+            try {
+                selector.select(nextTimeoutMs());
+                processClosing();
+                processSubmitted();
+                processReady();
+                processDeadlines();
+            } catch (IOException | RuntimeException e) {
+                // A failure here must not kill the thread every printer depends
+                // on; the operations involved time out through their deadlines.
+            }
+        }
+    }
+
+    private long nextTimeoutMs() {
+        if (active.isEmpty()) {
+            return 0; // no deadline: sleep until woken
+        }
+        long nearest = Long.MAX_VALUE;
+        for (Op op : active) {
+            nearest = Math.min(nearest, op.deadline);
+        }
+        return Math.max(1, (nearest - System.nanoTime() + 999_999) / 1_000_000L);
+    }
+
+    private void processClosing() {
+        boolean closed = false;
+        SocketChannel channel;
+        while ((channel = closing.poll()) != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // ignore
+            }
+            closed = true;
+        }
+        if (!closed) {
+            return;
+        }
+        // Fail the operations of channels closed from outside (interrupt, close).
+        for (Iterator<Op> it = active.iterator(); it.hasNext(); ) {
+            Op op = it.next();
+            if (!op.channel.isOpen()) {
+                it.remove();
+                fail(op, new IOException("socket closed"));
+            }
+        }
+        try {
+            selector.selectNow(); // flush cancelled keys so closed sockets are released now
+        } catch (IOException ignored) {
+            // ignore
+        }
+    }
+
+    private void processSubmitted() {
+        Op op;
+        while ((op = submitted.poll()) != null) {
+            if (op.kind == Kind.PARK && op.receiver == null) {
+                active.add(op); // deadline only: the channel stays quiet until taken
+                continue;
+            }
+            int interest = op.kind == Kind.CONNECT ? SelectionKey.OP_CONNECT
+                    : op.kind == Kind.WRITE ? SelectionKey.OP_WRITE
+                    : SelectionKey.OP_READ;
+            try {
+                SelectionKey key = op.channel.keyFor(selector);
+                if (key != null && key.isValid()) {
+                    key.interestOps(interest);
+                    key.attach(op);
+                } else {
+                    op.channel.register(selector, interest, op);
+                }
+                active.add(op);
+            } catch (IOException | CancelledKeyException e) {
+                fail(op, e instanceof IOException ? (IOException) e : new IOException("socket closed"));
+            }
+        }
+    }
+
+    private void processReady() {
+        for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext(); ) {
+            SelectionKey key = it.next();
+            it.remove();
+            Op op = (Op) key.attachment();
+            if (op == null) {
+                continue;
+            }
+            try {
+                switch (op.kind) {
+                    case CONNECT:
+                        if (op.channel.finishConnect()) {
+                            complete(key, op, 0);
+                        }
+                        break;
+                    case WRITE:
+                        op.channel.write(op.buffer);
+                        if (!op.buffer.hasRemaining()) {
+                            complete(key, op, 0);
+                        }
+                        break;
+                    case READ:
+                        int n = op.channel.read(op.buffer);
+                        if (n != 0) {
+                            complete(key, op, n);
+                        }
+                        break;
+                    case PARK:
+                        receiveParked(key, op);
+                        break;
+                }
+            } catch (IOException e) {
+                idle(key);
+                active.remove(op);
+                fail(op, e);
+            } catch (CancelledKeyException e) {
+                active.remove(op);
+                fail(op, new IOException("socket closed"));
+            }
+        }
+    }
+
+    private void processDeadlines() {
+        long now = System.nanoTime();
+        for (Iterator<Op> it = active.iterator(); it.hasNext(); ) {
+            Op op = it.next();
+            if (now - op.deadline < 0) {
+                continue;
+            }
+            it.remove();
+            if (op.kind == Kind.PARK) {
+                if (op.claimed.compareAndSet(false, true)) {
+                    close(op.channel);
+                }
+                continue;
+            }
+            SelectionKey key = op.channel.keyFor(selector);
+            if (key != null) {
+                idle(key);
+            }
+            if (op.kind == Kind.READ) {
+                op.result = 0; // window over without an answer
+                op.done.countDown();
+            } else {
+                fail(op, new SocketTimeoutException(op.kind == Kind.CONNECT ? "connect timed out" : "write timed out"));
+            }
+        }
+    }
+
+    /**
+     * Reads what arrived on a parked channel, under the op's lock so that a
+     * {@link Parked#take} never races a read for the taker's replies.
+     */
+    private void receiveParked(SelectionKey key, Op op) throws IOException {
+        synchronized (op) {
+            if (op.claimed.get()) {
+                idle(key); // taken: the taker's operations own the channel now
+                active.remove(op);
+                return;
+            }
+            op.buffer.clear();
+            int n = op.channel.read(op.buffer);
+            if (n > 0) {
+                op.receiver.received(op.buffer.array(), 0, n);
+            } else if (n < 0 && op.claimed.compareAndSet(false, true)) {
+                idle(key);
+                active.remove(op);
+                close(op.channel); // the printer hung up: nothing left to reuse
+            }
+        }
+    }
+
+    private void complete(SelectionKey key, Op op, int result) {
+        idle(key);
+        active.remove(op);
+        op.result = result;
+        op.done.countDown();
+        if (op.finished != null) {
+            op.finished.add(op);
+        }
+    }
+
+    /** Keeps the key registered (re-registering a cancelled key needs an extra select) but quiet. */
+    private static void idle(SelectionKey key) {
+        try {
+            key.interestOps(0);
+            key.attach(null);
+        } catch (CancelledKeyException ignored) {
+            // channel closed meanwhile
+        }
+    }
+
+    private static void fail(Op op, IOException error) {
+        op.error = error;
+        op.done.countDown();
+        if (op.finished != null) {
+            op.finished.add(op);
+        }
+    }
+}
@@ -6,25 +6,45 @@ import com.getcapacitor.community.escposprinter.printers.constants.PrinterErrorC
 import com.getcapacitor.community.escposprinter.printers.exceptions.PrinterException;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.InetSocketAddress;
-import java.net.Socket;
 import java.net.SocketTimeoutException;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 
 /**
  * TCP (port 9100 style) ESC/POS printer.
  *
  * Semantics mirror the desktop print bridge's TcpDriver:
- * - Connect-per-job sockets, never persistent: a write into a long-dead
- *   persistent connection "succeeds" into the kernel buffer, and most thermal
- *   printers only accept one TCP session at a time.
+ * - Connect-per-job sockets by default: a write into a long-dead persistent
+ *   connection "succeeds" into the kernel buffer, and most thermal printers
+ *   only accept one TCP session at a time.
+ * - Opt-in keepAlive: the socket of a successful job is parked for a bounded
+ *   idle time and reused by the next job only after it answers a DLE EOT
+ *   round-trip (which also rules out the dead-connection case above). Stale
+ *   sockets are replaced by a fresh connect, transparently. The idle bound
+ *   matters: while parked, the socket holds the printer's only session.
+ * - Jobs queued back to back share one connection ({@link #sendSession}),
+ *   within a byte and time budget; each job still succeeds or fails on its
+ *   own, with the phase attribution below.
+ * - Hostnames are resolved through the shared {@link AddressCache}, so DNS
+ *   is looked up once per TTL rather than once per job. IPv6 and IPv4
+ *   addresses of a dual-stack host are raced with a short stagger, so a
+ *   dead address family never costs the full connect timeout.
+ * - Non-blocking sockets driven by the shared {@link NetworkIoLoop}: connect,
+ *   write and status-read deadlines live in its selector, so a printer that
+ *   stops reading costs no extra thread or watchdog task.
+ * - Connect deadlines and the keepAlive liveness check adapt to each
+ *   printer's round-trip time ({@link RttEstimator}) between a floor and
+ *   the fixed ceilings below: fast printers don't wait out windows sized
+ *   for slow ones. Only idle round-trips are timed; one behind a job also
+ *   measures how long the printer took to read it.
+ * - Optional {@link FlowControl#STATUS} pacing: jobs go out in windows
+ *   separated by DLE EOT round-trips instead of relying on TCP
+ *   back-pressure, which only reflects the kernel buffers.
+ * - Optional automatic status back (GS a) over the keepAlive session: enabled
+ *   on each new connection; blocks are read while the socket is parked and
+ *   picked out of all other input too, DLE EOT replies included.
  * - Optional probe-gated DLE EOT status check after each send: catches
  *   paper-out/offline states that would otherwise be silent false successes.
  *   Only enabled for printers that proved DLE EOT support during an add-time
@@ -38,33 +58,114 @@ import java.util.concurrent.TimeUnit;
 public class NetworkPrinter extends BasePrinter {
     private static final String TAG = "NetworkPrinter";
 
+    /** Connect deadline of a printer whose RTT is not known yet, and the ceiling for the others. */
     static final int CONNECT_TIMEOUT_MS = 4000;
+    /**
+     * The kernel retransmits a lost SYN after 1 s: a connect deadline below
+     * that plus one RTO would fail connects that one lost packet delays.
+     */
+    static final int SYN_RETRANSMIT_MS = 1000;
+    /** Head start of each address of a dual-stack host over the next one (RFC 8305 suggests 250 ms). */
+    static final int CONNECT_STAGGER_MS = 250;
     /** A printer that accepts the connection but stops reading must not wedge its queue forever. */
-    static final int SEND_WATCHDOG_MS = 30000;
+    static final int SEND_TIMEOUT_MS = 30000;
+    /**
+     * DLE EOT reply window after a job. Fixed, not RTT-based: it starts when
+     * the kernel took the job, and a printer still reading a large one
+     * answers late. A late reply would turn paper-out into a silent success.
+     */
     static final int DLE_EOT_WINDOW_MS = 300;
-    /** DLE EOT n=1: transmit printer status. */
-    public static final byte[] DLE_EOT_PROBE = new byte[] { 0x10, 0x04, 0x01 };
+    /** Shortest keepAlive liveness reply window, however fast the printer answered so far. */
+    static final int MIN_DLE_EOT_WINDOW_MS = 50;
+    /**
+     * Reply window for the keepAlive liveness check. Short on purpose: a
+     * healthy printer answers within a few ms, and waiting longer than a
+     * fresh connect would take defeats the point of reusing the socket.
+     */
+    static final int KEEP_ALIVE_PROBE_WINDOW_MS = 150;
+    /**
+     * Session limits for coalesced jobs: the printer's only TCP session must
+     * come free for other clients now and then, and a huge burst is better
+     * split than delayed behind one long write.
+     */
+    static final long MAX_SESSION_BYTES = 512 * 1024;
+    static final long MAX_SESSION_MS = 10000;
 
     /**
-     * Shared watchdog scheduler for all network printers. Each task captures
-     * ITS OWN job's socket reference, so a late-firing watchdog can only ever
-     * close an already-closed per-job socket, never another job's live one.
+     * A job that can share a connection with the jobs queued behind it (see
+     * {@link #sendSession}). Called back on the sending thread.
      */
-    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(r -> {
-        Thread t = new Thread(r);
-        t.setName("EscPosPrinter-net-watchdog");
-        t.setDaemon(true);
-        return t;
-    });
+    public abstract static class Job {
+        private byte[] data;
+        private int offset;
+        private int length;
+        private int addWaitingTime;
+
+        /** For {@link #prepare}: the bytes to send and the wait after them. */
+        protected final void setData(byte[] data, int offset, int length, int addWaitingTime) {
+            this.data = data;
+            this.offset = offset;
+            this.length = length;
+            this.addWaitingTime = addWaitingTime;
+        }
+
+        /**
+         * Produces the job's bytes (via setData) right before it is sent.
+         * Returns false if the job failed before that, after reporting it.
+         */
+        protected abstract boolean prepare();
+
+        protected abstract void sent();
+
+        protected abstract void failed(PrinterException e);
+    }
+
+    /** Supplies the jobs of a session, in order. */
+    public interface JobQueue {
+        /** The next job to send, or null to end the session. */
+        Job next();
+    }
 
     private final String host;
     private final int port;
     private final boolean statusCheck;
+    /** Idle time a socket is kept for reuse; 0 = connect per job. */
+    private final int keepAliveMs;
+
+    /** The parked keepAlive channel, if any (guarded by idleLock). */
+    private final Object idleLock = new Object();
+    private NetworkIoLoop.Parked idle;
+
+    private volatile AsbParser.Listener asbListener;
+    /** Last byte {@link #input} passed through; -1 while none since the exchange began. */
+    private int reply = -1;
+    private final ByteBuffer replyBuffer = ByteBuffer.allocate(64);
+    /**
+     * Everything read from the printer goes through here: status blocks go
+     * to the subscription (if any) and never count as replies, whether they
+     * arrive while parked or in the middle of a DLE EOT exchange. Fed by one
+     * reader at a time (the session or the parked socket).
+     */
+    private final AsbParser input = new AsbParser(status -> {
+        AsbParser.Listener listener = asbListener;
+        if (listener != null) {
+            listener.status(status);
+        }
+    }, b -> reply = b);
+
+    private final RttEstimator rtt = RttEstimator.shared();
+    private final String rttKey;
 
     public NetworkPrinter(String host, int port, boolean statusCheck) {
+        this(host, port, statusCheck, 0);
+    }
+
+    public NetworkPrinter(String host, int port, boolean statusCheck, int keepAliveMs) {
         this.host = host;
         this.port = port;
+        this.rttKey = NetworkAddress.format(host, port);
         this.statusCheck = statusCheck;
+        this.keepAliveMs = Math.max(0, keepAliveMs);
     }
 
     /**
@@ -74,27 +175,84 @@ public class NetworkPrinter extends BasePrinter {
     @Override
     public void connect() throws PrinterException {
         try {
-            Socket socket = new Socket();
-            try {
-                socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
-            } finally {
-                closeQuietly(socket);
-            }
+            NetworkIoLoop io = NetworkIoLoop.shared();
+            io.close(connect(io));
         } catch (IOException e) {
             throw new PrinterException(PrinterErrorCode.CONNECT, "Could not connect to " + host + ":" + port);
         }
     }
 
+    /**
+     * Connects through the shared {@link AddressCache}, racing the addresses
+     * of dual-stack hosts; a failure forgets the cached addresses in case the
+     * printer moved.
+     */
+    private SocketChannel connect(NetworkIoLoop io) throws IOException {
+        AddressCache addresses = AddressCache.shared();
+        List<InetSocketAddress> candidates = NetworkIoLoop.interleaveFamilies(addresses.resolve(host), port);
+        long rto = rtt.rtoMs(rttKey);
+        int timeoutMs = rto < 0 ? CONNECT_TIMEOUT_MS : (int) Math.min(CONNECT_TIMEOUT_MS, SYN_RETRANSMIT_MS + rto);
+        long start = System.nanoTime();
+        try {
+            SocketChannel channel = io.connectAny(candidates, CONNECT_STAGGER_MS, timeoutMs);
+            if (candidates.size() == 1) {
+                // A raced connect also counts staggers and failed attempts: not a round-trip.
+                rtt.sample(rttKey, elapsedMs(start));
+            }
+            return channel;
+        } catch (SocketTimeoutException e) {
+            rtt.timedOut(rttKey);
+            addresses.invalidate(host);
+            throw e;
+        } catch (IOException e) {
+            addresses.invalidate(host);
+            throw e;
+        }
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+
+    /** Idle DLE EOT reply window from the printer's RTT, within [MIN_DLE_EOT_WINDOW_MS, ceilingMs]. */
+    private int dleEotWindowMs(int ceilingMs) {
+        return rtt.timeoutMs(rttKey, MIN_DLE_EOT_WINDOW_MS, ceilingMs);
+    }
+
+    /**
+     * Takes effect from the next connection on. Status arrives between jobs
+     * only with keepAlive (while the socket is parked); otherwise just what
+     * the printer sends during a session.
+     */
+    @Override
+    public void setAutomaticStatusBack(AsbParser.Listener listener) throws PrinterException {
+        super.setAutomaticStatusBack(listener);
+        asbListener = listener;
+    }
+
     /** Network printers hold no persistent connection. */
     @Override
     public boolean isConnected() {
         return false;
     }
 
-    /** No persistent connection to tear down. */
+    /** Connect-per-job: chunked jobs are staged and sent in one session. */
+    @Override
+    public boolean supportsStreaming() {
+        return false;
+    }
+
+    /** Closes the parked keepAlive socket, if any (dispose/disconnect). */
     @Override
     public void disconnect() {
-        // no-op
+        SocketChannel channel = takeIdle();
+        if (channel != null) {
+            try {
+                NetworkIoLoop.shared().close(channel);
+            } catch (IOException ignored) {
+                // unreachable: a parked channel implies a running loop
+            }
+        }
     }
 
     @Override
@@ -103,135 +261,369 @@ public class NetworkPrinter extends BasePrinter {
     }
 
     /**
-     * Fully self-contained send: connect -> write+flush -> optional DLE EOT
-     * status check -> wait -> close. Does NOT reuse BasePrinter.send(): the
-     * base class sleeps an extra data.length/16 ms which is meant for slow
-     * serial-ish transports; TCP flushes are effectively instant.
+     * DLE EOT n=1..4 on the parked keepAlive socket if there is one (parked
+     * again afterwards), else on a connection of its own.
      */
     @Override
-    public void send(byte[] data, int addWaitingTime) throws PrinterException {
-        final Socket socket = new Socket();
-        // The watchdog closes THIS job's socket if the peer accepts the
-        // connection but stops reading; closing unblocks the writer thread.
-        final ScheduledFuture<?> watchdog = WATCHDOG.schedule(
-                () -> closeQuietly(socket),
-                SEND_WATCHDOG_MS,
-                TimeUnit.MILLISECONDS
-        );
-
+    public PrinterStatus readStatus(int timeoutMs) throws PrinterException {
+        final NetworkIoLoop io;
         try {
-            // Phase 1: connect (no bytes left yet -> retry-safe failure)
+            io = NetworkIoLoop.shared();
+        } catch (IOException e) {
+            throw new PrinterException(PrinterErrorCode.CONNECT, "Could not connect to " + host + ":" + port);
+        }
+        SocketChannel channel = takeIdle();
+        if (channel != null) {
             try {
-                socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
-                socket.setTcpNoDelay(true);
+                PrinterStatus status = readStatus(io, channel, timeoutMs);
+                if (status != null) {
+                    park(io, channel);
+                    return status;
+                }
             } catch (IOException e) {
-                Log.w(TAG, "connect failed for " + host + ":" + port + ": " + e.getMessage());
-                throw new PrinterException(PrinterErrorCode.CONNECT, "Could not connect to " + host + ":" + port);
+                // stale: try a fresh connection
             }
+            io.close(channel);
+        }
+        try {
+            channel = connect(io);
+        } catch (IOException e) {
+            throw new PrinterException(PrinterErrorCode.CONNECT, "Could not connect to " + host + ":" + port);
+        }
+        try {
+            return readStatus(io, channel, timeoutMs);
+        } catch (IOException e) {
+            throw new PrinterException(PrinterErrorCode.READ, e.getMessage());
+        } finally {
+            io.close(channel);
+        }
+    }
 
-            // Phase 2: write (bytes may have left -> non-idempotent failure)
-            try {
-                OutputStream out = socket.getOutputStream();
-                out.write(data);
-                out.flush();
-            } catch (IOException e) {
-                Log.w(TAG, "send failed for " + host + ":" + port + ": " + e.getMessage());
-                throw new PrinterException(PrinterErrorCode.SEND, e.getMessage());
+    /** No job in flight: the n=1 round-trip is an RTT sample. */
+    private PrinterStatus readStatus(NetworkIoLoop io, SocketChannel channel, int timeoutMs) throws IOException {
+        NetworkIoLoop.drain(channel, input);
+        int[] replies = new int[4];
+        for (int n = 1; n <= 4; n++) {
+            long start = System.nanoTime();
+            io.write(channel, ByteBuffer.wrap(new byte[] { 0x10, 0x04, (byte) n }), timeoutMs);
+            replies[n - 1] = readReply(io, channel, timeoutMs);
+            if (n == 1) {
+                if (replies[0] >= 0) {
+                    rtt.sample(rttKey, elapsedMs(start));
+                } else {
+                    if (elapsedMs(start) >= timeoutMs) {
+                        rtt.timedOut(rttKey); // silent, rather than closed by the printer
+                    }
+                    return null;
+                }
             }
+        }
+        return new PrinterStatus(replies);
+    }
 
-            // Phase 3: device confirmation, only when the setup probe proved
-            // DLE EOT support (mirrors the bridge: probe right after the
-            // write, BEFORE any wait; silence is treated as success).
-            if (statusCheck) {
-                checkDleEotStatus(socket);
+    /**
+     * The reply to the request just written: the last byte {@link #input}
+     * passes through within timeoutMs, or -1 on silence or EOF. A status
+     * block arriving first is reported, and the read goes on for the reply.
+     */
+    private int readReply(NetworkIoLoop io, SocketChannel channel, int timeoutMs) throws IOException {
+        long deadline = System.nanoTime() + timeoutMs * 1_000_000L;
+        reply = -1;
+        while (true) {
+            int remainingMs = (int) ((deadline - System.nanoTime()) / 1_000_000L);
+            if (remainingMs <= 0) {
+                return -1;
+            }
+            replyBuffer.clear();
+            int n = io.read(channel, replyBuffer, remainingMs);
+            if (n <= 0) {
+                return -1;
             }
+            input.received(replyBuffer.array(), 0, n);
+            if (reply >= 0) {
+                return reply;
+            }
+        }
+    }
 
-            // Phase 4: wait. Plain addWaitingTime, deliberately WITHOUT the
-            // base class's data.length/16 addend.
-            if (addWaitingTime > 0) {
-                try {
-                    Thread.sleep(addWaitingTime);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
+    /**
+     * Fully self-contained send: connect (or reuse a live keepAlive socket)
+     * -> write+flush -> optional DLE EOT status check -> wait -> close (or
+     * park). Does NOT reuse BasePrinter.send(): the base class sleeps an
+     * extra data.length/16 ms which is meant for slow serial-ish transports;
+     * TCP flushes are effectively instant. Only a learned throughput (see
+     * {@link ThroughputModel}) extends the wait.
+     */
+    @Override
+    public void send(byte[] data, int offset, int length, int addWaitingTime) throws PrinterException {
+        final PrinterException[] failure = new PrinterException[1];
+        Job job = new Job() {
+            @Override
+            protected boolean prepare() {
+                setData(data, offset, length, addWaitingTime);
+                return true;
+            }
+
+            @Override
+            protected void sent() {
+            }
+
+            @Override
+            protected void failed(PrinterException e) {
+                failure[0] = e;
+            }
+        };
+        sendSession(new JobQueue() {
+            boolean taken;
+
+            @Override
+            public Job next() {
+                if (taken) {
+                    return null;
                 }
+                taken = true;
+                return job;
             }
-        } finally {
-            watchdog.cancel(false);
-            closeQuietly(socket);
+        });
+        if (failure[0] != null) {
+            throw failure[0];
         }
     }
 
     /**
-     * Writes the DLE EOT n=1 probe and reads one status byte within a short
-     * window. No reply -> success (transient silence must never fail a
-     * healthy job). A reply with problem bits set -> STATUS failure.
+     * Sends queued jobs through one connection, so a burst of tickets pays
+     * for one connect instead of one each. Every job still goes through the
+     * phases of {@link #send} and is reported on its own, as soon as it is
+     * done.
+     *
+     * The session asks the queue for the next job only after the previous
+     * one was sent, and stops asking past {@link #MAX_SESSION_BYTES} or
+     * {@link #MAX_SESSION_MS}. It also ends at the first failed job: jobs not
+     * taken yet stay queued and get a connection of their own.
      */
-    private void checkDleEotStatus(Socket socket) throws PrinterException {
+    public void sendSession(JobQueue queue) {
+        Job job = nextPrepared(queue);
+        if (job == null) {
+            return;
+        }
+        final NetworkIoLoop io;
+        try {
+            io = NetworkIoLoop.shared();
+        } catch (IOException e) {
+            job.failed(new PrinterException(PrinterErrorCode.CONNECT, "Could not connect to " + host + ":" + port));
+            return;
+        }
+        SocketChannel channel = keepAliveMs > 0 ? reuseIdle(io) : null;
+        boolean keep = false;
         try {
-            InputStream in = socket.getInputStream();
-
-            // Drain any pending input first: some printers emit unsolicited
-            // ASB (auto status back) bytes that would be mistaken for the
-            // probe's answer.
-            int available = in.available();
-            while (available > 0) {
-                long skipped = in.skip(available);
-                if (skipped <= 0) {
+            // Phase 1: connect (no bytes left yet -> retry-safe failure).
+            // A reused channel already proved itself with a DLE EOT reply.
+            if (channel == null) {
+                try {
+                    channel = connect(io);
+                    if (asbListener != null) {
+                        io.write(channel, ByteBuffer.wrap(AsbParser.ENABLE), DLE_EOT_WINDOW_MS);
+                    }
+                } catch (IOException e) {
+                    Log.w(TAG, "connect failed for " + host + ":" + port + ": " + e.getMessage());
+                    job.failed(new PrinterException(PrinterErrorCode.CONNECT, "Could not connect to " + host + ":" + port));
+                    return;
+                }
+            }
+
+            final long sessionStart = System.nanoTime();
+            long sessionBytes = 0;
+            while (true) {
+                try {
+                    sendJob(io, channel, job);
+                } catch (PrinterException e) {
+                    job.failed(e);
+                    return;
+                }
+                job.sent();
+                sessionBytes += job.length;
+                if (sessionBytes >= MAX_SESSION_BYTES
+                        || (System.nanoTime() - sessionStart) / 1_000_000L >= MAX_SESSION_MS) {
+                    break;
+                }
+                job = nextPrepared(queue);
+                if (job == null) {
                     break;
                 }
-                available = in.available();
             }
+            keep = keepAliveMs > 0;
+        } finally {
+            // Only a channel that just completed a job cleanly is worth parking.
+            if (channel != null) {
+                if (keep && channel.isOpen()) {
+                    park(io, channel);
+                } else {
+                    io.close(channel);
+                }
+            }
+        }
+    }
 
-            OutputStream out = socket.getOutputStream();
-            out.write(DLE_EOT_PROBE);
-            out.flush();
+    /** Phases 2-4 of one job on an open connection. */
+    private void sendJob(NetworkIoLoop io, SocketChannel channel, Job job) throws PrinterException {
+        // Phase 2: write (bytes may have left -> non-idempotent failure).
+        // The deadline replaces the old watchdog: a peer that accepts the
+        // connection but stops reading fails the job instead of wedging it.
+        long writeStart = System.nanoTime();
+        try {
+            writeWindows(io, channel, job.data, job.offset, job.length, writeStart);
+        } catch (IOException e) {
+            Log.w(TAG, "send failed for " + host + ":" + port + ": " + e.getMessage());
+            throw new PrinterException(PrinterErrorCode.SEND, e.getMessage());
+        }
+
+        // Phase 3: device confirmation, only when the setup probe proved
+        // DLE EOT support (mirrors the bridge: probe right after the
+        // write, BEFORE any wait; silence is treated as success).
+        if (statusCheck) {
+            checkDleEotStatus(io, channel);
+        }
 
-            socket.setSoTimeout(DLE_EOT_WINDOW_MS);
-            int status;
+        // Phase 4: wait. addWaitingTime, deliberately WITHOUT the base
+        // class's data.length/16 addend; what is left of the learned
+        // print time once known, unless status pacing already waited.
+        long waitingTime = job.addWaitingTime;
+        if (!isPacedByStatus()) {
+            waitingTime += Math.max(0, learnedWaitMs(job.length, writeStart));
+        }
+        if (waitingTime > 0) {
             try {
-                status = in.read();
-            } catch (SocketTimeoutException e) {
-                return; // silence -> success
+                Thread.sleep(waitingTime);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-            if (status < 0) {
-                return; // stream ended without an answer -> success
+        }
+    }
+
+    /** The next job that has bytes to send; jobs failing to prepare reported that themselves. */
+    private static Job nextPrepared(JobQueue queue) {
+        Job job;
+        while ((job = queue.next()) != null) {
+            if (job.prepare()) {
+                return job;
             }
+        }
+        return null;
+    }
 
-            List<String> detail = decodeDleEotStatus(status);
-            if (!detail.isEmpty()) {
-                Log.w(TAG, "printer reported status problem: " + detail + " (" + host + ":" + port + ")");
-                throw new PrinterException(
-                        PrinterErrorCode.STATUS,
-                        "La impresora reportó un problema (papel/estado)"
-                );
+    /**
+     * With status pacing, writes in windows separated by DLE EOT round-trips
+     * (TCP back-pressure alone only says the kernel took the bytes); else in
+     * one go. A printer that leaves a round-trip unanswered gets the rest
+     * unpaced, and later jobs too. The last answer is a throughput sample:
+     * the printer took in everything before it.
+     */
+    private void writeWindows(NetworkIoLoop io, SocketChannel channel, byte[] data, int offset, int length, long startNanos) throws IOException {
+        int end = offset + length;
+        int pos = offset;
+        long answeredAt = -1;
+        while (isPacedByStatus() && end - pos > FLOW_WINDOW_BYTES) {
+            io.write(channel, ByteBuffer.wrap(data, pos, FLOW_WINDOW_BYTES), SEND_TIMEOUT_MS);
+            pos += FLOW_WINDOW_BYTES;
+            if (answersDleEot(io, channel, FLOW_READY_TIMEOUT_MS)) {
+                answeredAt = System.nanoTime();
+            } else {
+                markStatusUnanswered();
             }
-        } catch (IOException e) {
-            // The job bytes were already flushed; a failed status read must
-            // not fail the job (parity with the bridge's silent tolerance).
-            Log.w(TAG, "DLE EOT status check failed: " + e.getMessage());
         }
+        if (answeredAt >= 0 && isPacedByStatus()) {
+            recordThroughput(pos - offset, startNanos, answeredAt);
+        }
+        io.write(channel, ByteBuffer.wrap(data, pos, end - pos), SEND_TIMEOUT_MS);
     }
 
-    /** Decode the DLE EOT n=1 status byte into human flags. */
-    public static List<String> decodeDleEotStatus(int statusByte) {
-        List<String> detail = new ArrayList<>();
-        if ((statusByte & 0x08) != 0) {
-            detail.add("OFFLINE");
+    // --------------------------------------------------------------------------
+    // keepAlive
+    // --------------------------------------------------------------------------
+
+    /** The parked channel if it is still alive, else null (a stale one is closed). */
+    private SocketChannel reuseIdle(NetworkIoLoop io) {
+        SocketChannel channel = takeIdle();
+        if (channel == null) {
+            return null;
         }
-        if ((statusByte & 0x20) != 0) {
-            detail.add("PAPER_OUT");
+        int windowMs = dleEotWindowMs(KEEP_ALIVE_PROBE_WINDOW_MS);
+        long start = System.nanoTime();
+        try {
+            if (answersDleEot(io, channel, windowMs)) {
+                rtt.sample(rttKey, elapsedMs(start));
+                return channel;
+            }
+            if (elapsedMs(start) >= windowMs) {
+                rtt.timedOut(rttKey); // silent, rather than closed by the printer
+            }
+        } catch (IOException e) {
+            // stale
         }
-        if ((statusByte & 0x40) != 0) {
-            detail.add("ERROR");
+        io.close(channel);
+        return null;
+    }
+
+    /**
+     * DLE EOT round-trip: any reply proves the session still reaches a
+     * printer with room to read (problem bits are the status check's
+     * business). Silence or EOF -> false.
+     */
+    private boolean answersDleEot(NetworkIoLoop io, SocketChannel channel, int timeoutMs) throws IOException {
+        NetworkIoLoop.drain(channel, input);
+        io.write(channel, ByteBuffer.wrap(DLE_EOT_PROBE), timeoutMs);
+        return readReply(io, channel, timeoutMs) >= 0;
+    }
+
+    private SocketChannel takeIdle() {
+        NetworkIoLoop.Parked parked;
+        synchronized (idleLock) {
+            parked = idle;
+            idle = null;
         }
-        return detail;
+        return parked != null ? parked.take() : null;
     }
 
-    private static void closeQuietly(Socket socket) {
+    /** Parks channel for the next job; the loop closes it if nobody takes it within keepAliveMs. */
+    private void park(NetworkIoLoop io, SocketChannel channel) {
+        NetworkIoLoop.Parked parked = io.park(channel, keepAliveMs, asbListener != null ? input : null);
+        synchronized (idleLock) {
+            idle = parked;
+        }
+    }
+
+    /**
+     * Writes the DLE EOT n=1 probe and reads one status byte within
+     * {@link #DLE_EOT_WINDOW_MS}. No reply -> success (transient silence
+     * must never fail a healthy job). A reply with problem bits set ->
+     * STATUS failure. Not an RTT sample: the reply also waits for the job.
+     */
+    private void checkDleEotStatus(NetworkIoLoop io, SocketChannel channel) throws PrinterException {
         try {
-            socket.close();
-        } catch (IOException ignored) {
-            // ignore
+            // Drain any pending input first: a stale reply would be taken
+            // for the probe's answer. ASB (auto status back) blocks, here or
+            // mid-exchange, are reported instead.
+            NetworkIoLoop.drain(channel, input);
+
+            io.write(channel, ByteBuffer.wrap(DLE_EOT_PROBE), DLE_EOT_WINDOW_MS);
+
+            int status = readReply(io, channel, DLE_EOT_WINDOW_MS);
+            if (status < 0) {
+                return; // silence or stream ended -> success
+            }
+
+            int flags = PrinterStatus.decode(1, status) & StatusFlag.PROBLEMS;
+            if (flags != 0) {
+                Log.w(TAG, "printer reported status problem: " + StatusFlag.of(flags) + " (" + host + ":" + port + ")");
+                throw new PrinterException(
+                        PrinterErrorCode.STATUS,
+                        "La impresora reportó un problema (papel/estado)"
+                );
+            }
+        } catch (IOException e) {
+            // The job bytes were already flushed; a failed status read must
+            // not fail the job (parity with the bridge's silent tolerance).
+            Log.w(TAG, "DLE EOT status check failed: " + e.getMessage());
         }
     }
 }
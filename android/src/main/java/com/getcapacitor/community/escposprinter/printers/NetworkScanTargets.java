@@ -0,0 +1,242 @@
+package com.getcapacitor.community.escposprinter.printers;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Hosts to sweep for a network scan, generated lazily from each interface's
+ * real prefix length instead of an assumed /24: a /22 store network is
+ * covered in full, a /26 costs 62 probes instead of 253.
+ *
+ * Within a subnet, hosts go out nearest-first: alternating around the
+ * device's own address and the gateway (printers are usually given
+ * addresses next to one or the other), so they answer early in a streamed
+ * scan. Several subnets are walked round-robin, and the whole sweep is
+ * capped at {@link #MAX_HOSTS} for large networks, where it becomes "the
+ * nearest MAX_HOSTS hosts".
+ */
+public final class NetworkScanTargets {
+    /** A /22 in full; larger networks are only swept around the device and the gateway. */
+    public static final int MAX_HOSTS = 1024;
+
+    /** An IPv4 subnet to sweep, seen from one of the device's addresses. */
+    public static final class Subnet {
+        final long first;
+        final long last;
+        final long own;
+        /** -1 when unknown or outside the subnet. */
+        final long gateway;
+
+        private Subnet(long first, long last, long own, long gateway) {
+            this.first = first;
+            this.last = last;
+            this.own = own;
+            this.gateway = gateway;
+        }
+
+        /**
+         * The subnet of own/prefixLength, or null when it has no other hosts
+         * (/31, /32) or the prefix is invalid. gateway may be null.
+         */
+        public static Subnet of(Inet4Address own, int prefixLength, Inet4Address gateway) {
+            if (prefixLength < 1 || prefixLength > 30) {
+                return null;
+            }
+            long mask = (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+            long address = toLong(own);
+            long network = address & mask;
+            long broadcast = network | (~mask & 0xFFFFFFFFL);
+            long gw = gateway != null ? toLong(gateway) : -1;
+            if (gw <= network || gw >= broadcast || gw == address) {
+                gw = -1;
+            }
+            return new Subnet(network + 1, broadcast - 1, address, gw);
+        }
+
+        /** Whether the dotted IPv4 host is one of this subnet's hosts. */
+        public boolean contains(String host) {
+            long address = parseDotted(host);
+            return address >= first && address <= last && address != own;
+        }
+
+        /** Same sweep: the same network seen from the same address. */
+        boolean sameAs(Subnet other) {
+            return first == other.first && last == other.last && own == other.own;
+        }
+    }
+
+    private NetworkScanTargets() {}
+
+    /** Dotted hosts of subnets, nearest first, at most maxHosts in total. */
+    public static Iterator<String> nearestFirst(List<Subnet> subnets, int maxHosts) {
+        return nearestFirst(subnets, maxHosts, Collections.<String>emptySet());
+    }
+
+    /**
+     * Like {@link #nearestFirst(List, int)}, leaving out the hosts of skip
+     * (already probed in an earlier pass; they don't count against maxHosts).
+     */
+    public static Iterator<String> nearestFirst(List<Subnet> subnets, int maxHosts, Set<String> skip) {
+        List<Walk> walks = new ArrayList<>();
+        for (Subnet subnet : subnets) {
+            boolean duplicate = false;
+            for (Walk walk : walks) {
+                duplicate |= walk.subnet.sameAs(subnet);
+            }
+            if (!duplicate) {
+                walks.add(new Walk(subnet));
+            }
+        }
+        return new Iterator<String>() {
+            private int emitted;
+            private int turn;
+            private long next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public String next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                String host = toDotted(next);
+                emitted++;
+                next = advance();
+                return host;
+            }
+
+            /** The next host of the next subnet with hosts left, round-robin; -1 at the end. */
+            private long advance() {
+                if (emitted >= maxHosts) {
+                    return -1;
+                }
+                for (int i = 0; i < walks.size(); i++) {
+                    Walk walk = walks.get(turn);
+                    long host;
+                    do {
+                        host = walk.next();
+                    } while (host >= 0 && !skip.isEmpty() && skip.contains(toDotted(host)));
+                    turn = (turn + 1) % walks.size();
+                    if (host >= 0) {
+                        return host;
+                    }
+                }
+                return -1;
+            }
+        };
+    }
+
+    /**
+     * The hosts of first (e.g. retries of an earlier pass), then those of
+     * {@link #nearestFirst(List, int, Set)}; skip should hold first too.
+     */
+    public static Iterator<String> nearestFirst(List<String> first, List<Subnet> subnets, int maxHosts, Set<String> skip) {
+        final Iterator<String> retries = first.iterator();
+        final Iterator<String> rest = nearestFirst(subnets, maxHosts, skip);
+        return new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return retries.hasNext() || rest.hasNext();
+            }
+
+            @Override
+            public String next() {
+                return retries.hasNext() ? retries.next() : rest.next();
+            }
+        };
+    }
+
+    /**
+     * Expanding rings around the own address and the gateway: at distance d,
+     * own-d, own+d, gateway-d, gateway+d. A host is emitted by the ring it
+     * is nearest to (the own ring on a tie), so each comes out exactly once
+     * without remembering what was emitted.
+     */
+    private static final class Walk {
+        final Subnet subnet;
+        final long total;
+        long emitted;
+        long distance;
+        int slot;
+
+        Walk(Subnet subnet) {
+            this.subnet = subnet;
+            boolean ownInside = subnet.own >= subnet.first && subnet.own <= subnet.last;
+            total = subnet.last - subnet.first + 1 - (ownInside ? 1 : 0);
+        }
+
+        /** The next host, or -1 once every host of the subnet was emitted. */
+        long next() {
+            while (emitted < total) {
+                long d = distance;
+                int s = slot;
+                if (++slot == 4) {
+                    slot = 0;
+                    distance++;
+                }
+                boolean ownRing = s < 2;
+                long center = ownRing ? subnet.own : subnet.gateway;
+                if (center < 0 || (d == 0 && (s & 1) == 1)) {
+                    continue; // no gateway, or +0 repeating -0
+                }
+                long host = (s & 1) == 0 ? center - d : center + d;
+                if (host < subnet.first || host > subnet.last || host == subnet.own) {
+                    continue;
+                }
+                if (ownRing
+                        ? subnet.gateway >= 0 && Math.abs(host - subnet.gateway) < d
+                        : Math.abs(host - subnet.own) <= d) {
+                    continue; // the other ring has it
+                }
+                emitted++;
+                return host;
+            }
+            return -1;
+        }
+    }
+
+    private static long toLong(InetAddress address) {
+        byte[] b = address.getAddress();
+        return ((b[0] & 0xFFL) << 24) | ((b[1] & 0xFFL) << 16) | ((b[2] & 0xFFL) << 8) | (b[3] & 0xFFL);
+    }
+
+    /** The address of a dotted IPv4 literal, or -1. */
+    private static long parseDotted(String host) {
+        String[] parts = host.split("\\.", -1);
+        if (parts.length != 4) {
+            return -1;
+        }
+        long address = 0;
+        for (String part : parts) {
+            if (part.isEmpty() || part.length() > 3) {
+                return -1;
+            }
+            int octet = 0;
+            for (int i = 0; i < part.length(); i++) {
+                char c = part.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                octet = octet * 10 + (c - '0');
+            }
+            if (octet > 255) {
+                return -1;
+            }
+            address = (address << 8) | octet;
+        }
+        return address;
+    }
+
+    private static String toDotted(long host) {
+        return ((host >> 24) & 0xFF) + "." + ((host >> 16) & 0xFF) + "." + ((host >> 8) & 0xFF) + "." + (host & 0xFF);
+    }
+}
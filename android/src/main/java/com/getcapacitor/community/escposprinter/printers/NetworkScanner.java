@@ -0,0 +1,205 @@
+package com.getcapacitor.community.escposprinter.printers;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * TCP connect sweep over many hosts on one port, driven by a single
+ * selector on the calling thread: hundreds of non-blocking connects are in
+ * flight at once, each with its own deadline, instead of one blocked
+ * thread per connect.
+ *
+ * A host counts as found when its connect completes; the connection is
+ * closed right away without sending anything. Hosts are reported to the
+ * {@link Listener} as they answer, and the sweep can stop early: when the
+ * listener has seen enough, when its time budget is over, or when the
+ * scanning thread is interrupted.
+ */
+public final class NetworkScanner {
+    /**
+     * Connects in flight at once. Well below the usual 1024 descriptors per
+     * process, which the app's own sockets and files share.
+     */
+    public static final int MAX_IN_FLIGHT = 256;
+
+    /** Called on the scanning thread for each host as soon as it answers. */
+    public interface Listener {
+        /** Returns false to stop the sweep (e.g. enough printers found). */
+        boolean found(String host);
+    }
+
+    /** A connect in flight; the queue is in start order, so also in deadline order. */
+    private static final class Attempt {
+        final String host;
+        final SocketChannel channel;
+        final long deadline;
+        boolean done;
+
+        Attempt(String host, SocketChannel channel, long deadline) {
+            this.host = host;
+            this.channel = channel;
+            this.deadline = deadline;
+        }
+    }
+
+    private NetworkScanner() {}
+
+    public static List<String> scan(List<String> hosts, int port, int timeoutMs) throws IOException, InterruptedException {
+        return scan(hosts.iterator(), port, timeoutMs, MAX_IN_FLIGHT, 0, null);
+    }
+
+    public static List<String> scan(List<String> hosts, int port, int timeoutMs, int maxInFlight)
+            throws IOException, InterruptedException {
+        return scan(hosts.iterator(), port, timeoutMs, maxInFlight, 0, null);
+    }
+
+    /**
+     * Connects to every host (IP literals: nothing is resolved) on port and
+     * returns those that accepted within timeoutMs, in the order they
+     * answered. hosts is only consumed as connects are started, so it can
+     * be generated lazily. Stops early once budgetMs (if > 0) is over or listener (if
+     * any) returns false; InterruptedException if the thread is interrupted,
+     * after the listener saw everything found until then.
+     */
+    public static List<String> scan(Iterator<String> hosts, int port, int timeoutMs, int maxInFlight,
+                                    long budgetMs, Listener listener) throws IOException, InterruptedException {
+        List<String> found = new ArrayList<>();
+        ArrayDeque<Attempt> inFlight = new ArrayDeque<>();
+        long budgetDeadline = System.nanoTime() + budgetMs * 1_000_000L;
+        int open = 0;
+        try (Selector selector = Selector.open()) {
+            try {
+                while (hosts.hasNext() || open > 0) {
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                    if (budgetMs > 0 && System.nanoTime() - budgetDeadline >= 0) {
+                        break;
+                    }
+                    boolean more = true;
+                    while (more && hosts.hasNext() && open < maxInFlight) {
+                        String host = hosts.next();
+                        Attempt attempt = start(selector, host, port, timeoutMs);
+                        if (attempt == null) {
+                            continue; // refused or unroutable on the spot
+                        }
+                        if (attempt.done) {
+                            more = report(found, host, listener); // connected on the spot (loopback)
+                            continue;
+                        }
+                        inFlight.add(attempt);
+                        open++;
+                    }
+                    if (!more) {
+                        break;
+                    }
+
+                    long waitMs = selectTimeoutMs(inFlight);
+                    if (budgetMs > 0) {
+                        waitMs = Math.min(waitMs, Math.max(1, (budgetDeadline - System.nanoTime() + 999_999) / 1_000_000L));
+                    }
+                    selector.select(waitMs);
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        Attempt attempt = (Attempt) key.attachment();
+                        try {
+                            if (attempt.channel.finishConnect()) {
+                                finish(attempt);
+                                open--;
+                                if (more) {
+                                    more = report(found, attempt.host, listener);
+                                }
+                            }
+                        } catch (IOException e) {
+                            finish(attempt);
+                            open--;
+                        }
+                    }
+                    selector.selectedKeys().clear();
+                    if (!more) {
+                        break;
+                    }
+
+                    // Retire finished attempts and expire overdue ones from the head.
+                    long now = System.nanoTime();
+                    while (!inFlight.isEmpty()) {
+                        Attempt head = inFlight.peek();
+                        if (!head.done) {
+                            if (now - head.deadline < 0) {
+                                break;
+                            }
+                            finish(head);
+                            open--;
+                        }
+                        inFlight.poll();
+                    }
+                }
+            } finally {
+                for (Attempt attempt : inFlight) {
+                    if (!attempt.done) {
+                        finish(attempt);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Starts a connect: null if it failed at once, a done attempt if it
+     * connected at once, else one registered with selector.
+     */
+    private static Attempt start(Selector selector, String host, int port, int timeoutMs) {
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            Attempt attempt = new Attempt(host, channel, System.nanoTime() + timeoutMs * 1_000_000L);
+            if (channel.connect(new InetSocketAddress(host, port))) {
+                finish(attempt);
+            } else {
+                channel.register(selector, SelectionKey.OP_CONNECT, attempt);
+            }
+            return attempt;
+        } catch (IOException | RuntimeException e) {
+            // RuntimeException: UnresolvedAddressException for a bad target
+            closeQuietly(channel);
+            return null;
+        }
+    }
+
+    private static boolean report(List<String> found, String host, Listener listener) {
+        found.add(host);
+        return listener == null || listener.found(host);
+    }
+
+    private static long selectTimeoutMs(ArrayDeque<Attempt> inFlight) {
+        Attempt head = inFlight.peek();
+        if (head == null) {
+            return 1; // only instant results so far: loop right back
+        }
+        return Math.max(1, (head.deadline - System.nanoTime() + 999_999) / 1_000_000L);
+    }
+
+    private static void finish(Attempt attempt) {
+        attempt.done = true;
+        closeQuietly(attempt.channel);
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // ignore
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.getcapacitor.community.escposprinter.printers;
+
+import com.getcapacitor.community.escposprinter.payload.GrowableByteBuffer;
+import com.getcapacitor.community.escposprinter.printers.exceptions.PrinterException;
+
+/**
+ * A chunked print job (beginJob / appendJobChunk / commitJob).
+ *
+ * Two modes, picked when the job starts:
+ * - streaming: printers with an open persistent connection (USB, Bluetooth)
+ *   get every chunk written straight to their output stream, so neither
+ *   side ever holds the whole job and the first lines print while later
+ *   chunks are still being rendered.
+ * - staged: everything else (network printers connect per job) accumulates
+ *   chunks and sends them in one {@link BasePrinter#send} on commit.
+ *
+ * Not thread-safe: all calls must come from the printer's executor, which is
+ * also what keeps a streaming job from interleaving with other sends.
+ */
+public class PrintJob {
+    public final String id;
+    private final BasePrinter printer;
+    private boolean streaming;
+    private GrowableByteBuffer staged;
+    private long totalBytes;
+
+    public PrintJob(String id, BasePrinter printer) {
+        this.id = id;
+        this.printer = printer;
+    }
+
+    /** Decides the mode; call on the executor, before the first chunk. */
+    public void start() {
+        streaming = printer.supportsStreaming();
+        if (!streaming) {
+            staged = new GrowableByteBuffer();
+        }
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void append(byte[] data, int offset, int length) throws PrinterException {
+        if (streaming) {
+            printer.writePaced(data, offset, length);
+        } else {
+            staged.write(data, offset, length);
+        }
+        totalBytes += length;
+    }
+
+    /**
+     * Streaming: applies the post-send wait for the whole job (chunks were
+     * already paced as they were written, see {@link BasePrinter#writePaced}). Staged: sends
+     * the accumulated bytes with the printer's normal send semantics.
+     */
+    public void commit(int addWaitingTime) throws PrinterException {
+        try {
+            if (streaming) {
+                printer.awaitPrinted(totalBytes, addWaitingTime);
+            } else {
+                printer.send(staged.array(), 0, staged.size(), addWaitingTime);
+            }
+        } finally {
+            abort();
+        }
+    }
+
+    /** Drops staged bytes. Streamed bytes have already left and can't be recalled. */
+    public void abort() {
+        staged = null;
+    }
+}
@@ -0,0 +1,149 @@
+package com.getcapacitor.community.escposprinter.printers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Asks a network printer who it is over one short-lived connection: maker,
+ * model and firmware (GS I n=66, 67, 65) and whether it answers DLE EOT.
+ *
+ * GS I answers are "_...NUL" blocks that don't say which request they
+ * answer, and many printers answer only some of them (older Epson models
+ * only the firmware). So each GS I request goes out after the previous one
+ * was answered or left silent for a reply window. The DLE EOT status byte
+ * may come at any point; it can't be confused with a block: a DLE EOT
+ * status byte has bit 0 clear, '_' (0x5F) has it set. Printers without
+ * GS I n=65..67 (older and many clone models) stay silent, and the fields
+ * stay null.
+ */
+public final class PrinterIdentifier {
+    /** DLE EOT n=1: printer status. */
+    static final byte[] STATUS_QUERY = { 0x10, 0x04, 0x01 };
+    /** GS I n=66 (manufacturer), 67 (model), 65 (firmware version), asked one at a time. */
+    static final byte[][] QUERIES = {
+            { 0x1D, 0x49, 0x42 },
+            { 0x1D, 0x49, 0x43 },
+            { 0x1D, 0x49, 0x41 },
+    };
+    /** A printer can't have more to say than this; anything longer is not a printer. */
+    private static final int MAX_REPLY_BYTES = 256;
+
+    /** What a printer said about itself; null fields were not answered. */
+    public static final class Identity {
+        public final String maker;
+        public final String model;
+        public final String firmware;
+        public final boolean supportsDleEot;
+
+        public Identity(String maker, String model, String firmware, boolean supportsDleEot) {
+            this.maker = maker;
+            this.model = model;
+            this.firmware = firmware;
+            this.supportsDleEot = supportsDleEot;
+        }
+
+        /** "Maker Model" for display (the maker is left out when the model already names it), or null. */
+        public String label() {
+            if (model == null) {
+                return maker;
+            }
+            if (maker == null || model.toUpperCase().startsWith(maker.toUpperCase())) {
+                return model;
+            }
+            return maker + " " + model;
+        }
+    }
+
+    private PrinterIdentifier() {}
+
+    /**
+     * Connects to host:port (an IP literal), sends the requests and reads
+     * their answers, each within replyWindowMs. IOException when the
+     * printer can't be reached.
+     */
+    public static Identity identify(String host, int port, int connectTimeoutMs, int replyWindowMs) throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), connectTimeoutMs);
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(replyWindowMs);
+            return ask(socket.getOutputStream(), socket.getInputStream());
+        }
+    }
+
+    /** Sends each GS I request once the previous one was answered or timed out; in has a read timeout. */
+    static Identity ask(OutputStream out, InputStream in) throws IOException {
+        Replies replies = new Replies(in);
+        String[] blocks = new String[QUERIES.length];
+        out.write(STATUS_QUERY);
+        for (int i = 0; i < QUERIES.length && !replies.ended; i++) {
+            out.write(QUERIES[i]);
+            out.flush();
+            blocks[i] = replies.next(true);
+        }
+        if (!replies.status && !replies.ended) {
+            replies.next(false);
+        }
+        return new Identity(blocks[0], blocks[1], blocks[2], replies.status);
+    }
+
+    /** The printer's input, read up to the next block or status byte. */
+    private static final class Replies {
+        final InputStream in;
+        final byte[] block = new byte[MAX_REPLY_BYTES];
+        int total;
+        boolean status;
+        /** End of stream, or more than a printer would say: nothing more to ask. */
+        boolean ended;
+
+        Replies(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Reads until a whole block arrived (returned as text, null if
+         * blank), or with wantBlock false until the status byte did. Null
+         * when the printer went quiet for a whole reply window.
+         */
+        String next(boolean wantBlock) throws IOException {
+            int blockLength = -1; // -1: not inside a "_...NUL" block
+            try {
+                while (true) {
+                    if (total++ >= MAX_REPLY_BYTES) {
+                        ended = true;
+                        return null;
+                    }
+                    int b = in.read();
+                    if (b < 0) {
+                        ended = true;
+                        return null;
+                    }
+                    if (blockLength >= 0) {
+                        if (b == 0) {
+                            return text(block, blockLength);
+                        }
+                        block[blockLength++] = (byte) b;
+                    } else if (b == 0x5F) {
+                        blockLength = 0;
+                    } else if ((b & 0x93) == 0x12) {
+                        status = true; // fixed bits of a DLE EOT n=1 reply: 0xx1xx10
+                        if (!wantBlock) {
+                            return null;
+                        }
+                    }
+                }
+            } catch (SocketTimeoutException e) {
+                return null; // quiet for a whole reply window: no answer to this one
+            }
+        }
+    }
+
+    private static String text(byte[] bytes, int length) {
+        String text = new String(bytes, 0, length, StandardCharsets.ISO_8859_1).trim();
+        return text.isEmpty() ? null : text;
+    }
+}
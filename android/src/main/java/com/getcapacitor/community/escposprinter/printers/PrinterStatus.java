@@ -0,0 +1,128 @@
+package com.getcapacitor.community.escposprinter.printers;
+
+import java.util.Arrays;
+
+/**
+ * Real-time status of a printer: its replies to DLE EOT n=1 (printer),
+ * n=2 (offline cause), n=3 (error cause) and n=4 (paper sensors). Only n=1
+ * is answered by every DLE EOT printer; the others are -1 when the printer
+ * stayed silent.
+ *
+ * {@link #flags()} packs what the replies say into {@link StatusFlag} bits,
+ * decoded once; {@link #decode} does the same for a single reply without
+ * building a status (the post-job check reads n=1 only, so n=1 bit 6 is
+ * all it has to tell an error by).
+ */
+public final class PrinterStatus {
+    private final int[] replies;
+    private final int flags;
+
+    /** @param replies the reply bytes to n=1..4, -1 for no reply */
+    public PrinterStatus(int[] replies) {
+        if (replies.length != 4) {
+            throw new IllegalArgumentException("Expected 4 replies, got " + replies.length);
+        }
+        this.replies = replies.clone();
+        int flags = decode(1, replies[0]);
+        if (replies[1] >= 0) {
+            // n=1 bit 6 is the feed button on Epson: ERROR comes from n=2 when it answered.
+            flags &= ~StatusFlag.ERROR.bit;
+        }
+        for (int n = 2; n <= 4; n++) {
+            flags |= decode(n, replies[n - 1]);
+        }
+        this.flags = flags;
+    }
+
+    /** {@link StatusFlag} bits of the reply to DLE EOT n (1..4); 0 for -1 (no reply). */
+    public static int decode(int n, int reply) {
+        if (reply < 0) {
+            return 0;
+        }
+        int flags = 0;
+        switch (n) {
+            case 1:
+                flags |= (reply & 0x04) != 0 ? StatusFlag.DRAWER_SIGNAL.bit : 0;
+                flags |= (reply & 0x08) != 0 ? StatusFlag.OFFLINE.bit : 0;
+                flags |= (reply & 0x20) != 0 ? StatusFlag.PAPER_OUT.bit : 0;
+                flags |= (reply & 0x40) != 0 ? StatusFlag.ERROR.bit : 0;
+                break;
+            case 2:
+                flags |= (reply & 0x04) != 0 ? StatusFlag.COVER_OPEN.bit : 0;
+                flags |= (reply & 0x08) != 0 ? StatusFlag.FEED_BUTTON.bit : 0;
+                flags |= (reply & 0x20) != 0 ? StatusFlag.PAPER_OUT.bit : 0;
+                flags |= (reply & 0x40) != 0 ? StatusFlag.ERROR.bit : 0;
+                break;
+            case 3:
+                flags |= (reply & 0x04) != 0 ? StatusFlag.MECHANICAL_ERROR.bit : 0;
+                flags |= (reply & 0x08) != 0 ? StatusFlag.CUTTER_ERROR.bit : 0;
+                flags |= (reply & 0x20) != 0 ? StatusFlag.UNRECOVERABLE_ERROR.bit : 0;
+                flags |= (reply & 0x40) != 0 ? StatusFlag.AUTO_RECOVERABLE_ERROR.bit : 0;
+                break;
+            case 4:
+                flags |= (reply & 0x0C) != 0 ? StatusFlag.PAPER_NEAR_END.bit : 0;
+                flags |= (reply & 0x60) != 0 ? StatusFlag.PAPER_OUT.bit : 0;
+                break;
+            default:
+                throw new IllegalArgumentException("DLE EOT n must be 1..4, got " + n);
+        }
+        return flags;
+    }
+
+    /**
+     * The status carried by a 4-byte automatic status back block (GS a),
+     * mapped onto the DLE EOT replies it is equivalent to, so both sources
+     * compare equal and decode alike. ASB has no "waiting for online
+     * recovery" bit (n=1 bit 5 stays clear), and its fourth byte holds
+     * nothing DLE EOT reports.
+     */
+    public static PrinterStatus fromAsb(int b1, int b2, int b3) {
+        int printer = 0x12 | (b1 & 0x4C); // drawer, offline, feed button
+        int offline = 0x12
+                | (b1 & 0x20) >> 3 // cover open
+                | (b1 & 0x40) >> 3 // paper fed by button
+                | ((b3 & 0x0C) != 0 ? 0x20 : 0) // stopped at paper end
+                | ((b2 & 0x6C) != 0 ? 0x40 : 0); // error
+        int error = 0x12 | (b2 & 0x6C); // mechanical, cutter, unrecoverable, auto-recoverable
+        int paper = 0x12 | (b3 & 0x03) << 2 | (b3 & 0x0C) << 3; // near end, end
+        return new PrinterStatus(new int[] { printer, offline, error, paper });
+    }
+
+    /** Reply byte to DLE EOT n (1..4), or -1. */
+    public int reply(int n) {
+        return replies[n - 1];
+    }
+
+    /** Everything the replies report, as {@link StatusFlag} bits. */
+    public int flags() {
+        return flags;
+    }
+
+    /**
+     * Whether the printer reports something that stops it from printing.
+     * Offline only while paper is fed with the button is not a problem: it
+     * prints on once the button is released.
+     */
+    public boolean hasProblem() {
+        int problems = flags & StatusFlag.PROBLEMS;
+        if (problems == StatusFlag.OFFLINE.bit && (flags & StatusFlag.FEED_BUTTON.bit) != 0) {
+            return false;
+        }
+        return problems != 0;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof PrinterStatus && Arrays.equals(replies, ((PrinterStatus) other).replies);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(replies);
+    }
+
+    @Override
+    public String toString() {
+        return "PrinterStatus" + Arrays.toString(replies);
+    }
+}
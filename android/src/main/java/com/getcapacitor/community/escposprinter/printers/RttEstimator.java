@@ -0,0 +1,91 @@
+package com.getcapacitor.community.escposprinter.printers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Round-trip time of each network printer, estimated the way TCP does
+ * (RFC 6298): a smoothed RTT and its variation from every answered
+ * exchange on an idle connection (connects, DLE EOT replies), giving a
+ * retransmission-style timeout of SRTT + 4 * RTTVAR. Shared by every
+ * {@link NetworkPrinter} and the probe, keyed by host:port, so reply
+ * windows and connect deadlines follow what each printer actually takes:
+ * - A wired printer answering in 2 ms gets windows near the floor, and
+ *   a dead one is given up on sooner.
+ * - A printer behind Wi-Fi or a VPN gets the room it needs, up to the
+ *   ceiling.
+ * - Each timeout doubles the next one (up to {@link #MAX_BACKOFF}) until an
+ *   answer comes back: a printer that got slow is not cut off again and
+ *   again.
+ * - Unknown printers get the ceiling: the fixed timeouts from before.
+ *
+ * Thread-safe.
+ */
+public final class RttEstimator {
+    static final int MAX_ENTRIES = 256;
+    static final int MAX_BACKOFF = 8;
+
+    private static RttEstimator shared;
+
+    private static final class Entry {
+        double srttMs;
+        double rttvarMs;
+        int backoff = 1;
+    }
+
+    /** Least recently used first. */
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** The process-wide estimator, created on first use. */
+    public static synchronized RttEstimator shared() {
+        if (shared == null) {
+            shared = new RttEstimator();
+        }
+        return shared;
+    }
+
+    /** An answer came back rttMs after the request. */
+    public synchronized void sample(String key, long rttMs) {
+        double rtt = Math.max(0, rttMs);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry();
+            entry.srttMs = rtt;
+            entry.rttvarMs = rtt / 2;
+            entries.put(key, entry);
+            if (entries.size() > MAX_ENTRIES) {
+                entries.remove(entries.keySet().iterator().next());
+            }
+            return;
+        }
+        entry.rttvarMs = 0.75 * entry.rttvarMs + 0.25 * Math.abs(entry.srttMs - rtt);
+        entry.srttMs = 0.875 * entry.srttMs + 0.125 * rtt;
+        entry.backoff = 1;
+    }
+
+    /** A request went unanswered within the timeout it was given. */
+    public synchronized void timedOut(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.backoff = Math.min(entry.backoff * 2, MAX_BACKOFF);
+        }
+    }
+
+    /** SRTT + 4 * RTTVAR (at least 1 ms), times the backoff; -1 while no answer was timed. */
+    public synchronized long rtoMs(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return -1;
+        }
+        return Math.round(entry.srttMs + Math.max(1, 4 * entry.rttvarMs)) * entry.backoff;
+    }
+
+    /** {@link #rtoMs} within [floorMs, ceilingMs]; ceilingMs while unknown. */
+    public int timeoutMs(String key, int floorMs, int ceilingMs) {
+        long rto = rtoMs(key);
+        if (rto < 0) {
+            return ceilingMs;
+        }
+        return (int) Math.max(floorMs, Math.min(ceilingMs, rto));
+    }
+}
@@ -0,0 +1,63 @@
+package com.getcapacitor.community.escposprinter.printers;
+
+import java.util.EnumSet;
+
+/**
+ * One condition decoded from the DLE EOT status replies, as a bit of the
+ * packed flags of {@link PrinterStatus#flags()} and
+ * {@link PrinterStatus#decode}. Callers on a hot path test bits
+ * ({@code (flags & StatusFlag.COVER_OPEN.bit) != 0}); {@link #of} is the
+ * readable view.
+ */
+public enum StatusFlag {
+    /** n=1 bit 3. */
+    OFFLINE,
+    /**
+     * n=1 bit 5 ("waiting for online recovery", what most printers answer
+     * for a paper end), n=2 bit 5 (stopped at paper end) or n=4 bits 5-6
+     * (roll paper end sensor).
+     */
+    PAPER_OUT,
+    /**
+     * n=2 bit 6, or n=1 bit 6 when n=2 went unanswered (the feed button on
+     * Epson; reported as an error by many others).
+     */
+    ERROR,
+    /** n=2 bit 2. */
+    COVER_OPEN,
+    /** n=2 bit 3: paper is being fed with the feed button. Prints on. */
+    FEED_BUTTON,
+    /** n=3 bit 2: recoverable mechanical error (e.g. the head moved). */
+    MECHANICAL_ERROR,
+    /** n=3 bit 3: autocutter error, typically a paper jam in the cutter. */
+    CUTTER_ERROR,
+    /** n=3 bit 5. */
+    UNRECOVERABLE_ERROR,
+    /** n=3 bit 6: e.g. the head overheated; clears by itself. */
+    AUTO_RECOVERABLE_ERROR,
+    /** n=4 bits 2-3: roll paper near end sensor. Prints on. */
+    PAPER_NEAR_END,
+    /** n=1 bit 2: drawer kick-out connector pin 3 is high (open or closed depends on the drawer). */
+    DRAWER_SIGNAL;
+
+    /** Flags that stop the printer from printing; the others are informational. */
+    public static final int PROBLEMS = OFFLINE.bit | PAPER_OUT.bit | ERROR.bit | COVER_OPEN.bit
+            | MECHANICAL_ERROR.bit | CUTTER_ERROR.bit | UNRECOVERABLE_ERROR.bit | AUTO_RECOVERABLE_ERROR.bit;
+
+    public final int bit;
+
+    StatusFlag() {
+        bit = 1 << ordinal();
+    }
+
+    /** The flags set in a packed value. */
+    public static EnumSet<StatusFlag> of(int flags) {
+        EnumSet<StatusFlag> set = EnumSet.noneOf(StatusFlag.class);
+        for (StatusFlag flag : values()) {
+            if ((flags & flag.bit) != 0) {
+                set.add(flag);
+            }
+        }
+        return set;
+    }
+}
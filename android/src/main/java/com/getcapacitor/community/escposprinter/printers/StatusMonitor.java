@@ -0,0 +1,180 @@
+package com.getcapacitor.community.escposprinter.printers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the status of subscribed printers in the background, all from one
+ * scheduler thread, and reports changes to the {@link Listener}.
+ *
+ * The scheduler only keeps time: each poll is handed to the
+ * {@link Target}, which runs it wherever the printer's I/O belongs (its
+ * job executor) and reports back. Per printer:
+ * - Each poll is due an interval (with +-{@link #JITTER} jitter, so printers
+ *   subscribed together don't poll in lockstep) after the last one ended.
+ * - A busy printer (printing, or with jobs queued) is not polled: jobs come
+ *   first, and a failing job reports its status anyway. It is tried again
+ *   an interval later.
+ * - An unreachable printer is polled less and less often: the interval
+ *   doubles with each failure, up to {@link #MAX_BACKOFF_MS}.
+ *
+ * A change is a different {@link PrinterStatus}, or reachability flipping.
+ * The first poll always reports. Thread-safe.
+ */
+public final class StatusMonitor {
+    public static final int DEFAULT_INTERVAL_MS = 5000;
+    public static final int MIN_INTERVAL_MS = 1000;
+    static final int MAX_BACKOFF_MS = 60000;
+    static final double JITTER = 0.1;
+
+    /** A subscribed printer. */
+    public interface Target {
+        /** Whether the printer is busy with jobs; it is not polled then. */
+        boolean busy();
+
+        /**
+         * Reads the status off the scheduler thread and calls back exactly
+         * once: with the status, or null when the printer was unreachable
+         * or silent.
+         */
+        void poll(Callback callback);
+    }
+
+    public interface Callback {
+        void done(PrinterStatus status);
+    }
+
+    public interface Listener {
+        /** status is null when the printer became unreachable. */
+        void changed(String key, PrinterStatus status);
+    }
+
+    private final class Subscription implements Runnable, Callback {
+        final String key;
+        final int intervalMs;
+        final Target target;
+        int failures;
+        boolean reported;
+        PrinterStatus last;
+        ScheduledFuture<?> next;
+        boolean cancelled;
+
+        Subscription(String key, int intervalMs, Target target) {
+            this.key = key;
+            this.intervalMs = intervalMs;
+            this.target = target;
+        }
+
+        /** A poll is due (scheduler thread). */
+        @Override
+        public void run() {
+            synchronized (StatusMonitor.this) {
+                if (cancelled) {
+                    return;
+                }
+            }
+            if (target.busy()) {
+                schedule(this, delayMs(intervalMs));
+                return;
+            }
+            try {
+                target.poll(this);
+            } catch (RuntimeException e) {
+                done(null);
+            }
+        }
+
+        /** The poll ended (any thread). */
+        @Override
+        public void done(PrinterStatus status) {
+            boolean changed;
+            synchronized (StatusMonitor.this) {
+                if (cancelled) {
+                    return;
+                }
+                changed = !reported || (status == null ? last != null : !status.equals(last));
+                reported = true;
+                last = status;
+                failures = status == null ? Math.min(failures + 1, 16) : 0;
+            }
+            if (changed) {
+                listener.changed(key, status);
+            }
+            long backoff = status == null ? Math.min((long) intervalMs << failures, MAX_BACKOFF_MS) : intervalMs;
+            schedule(this, delayMs(backoff));
+        }
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final Listener listener;
+    private final Random random = new Random();
+    private final Map<String, Subscription> subscriptions = new HashMap<>();
+
+    public StatusMonitor(ScheduledExecutorService scheduler, Listener listener) {
+        this.scheduler = scheduler;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts polling target every intervalMs, the first poll right away.
+     * Replaces an earlier subscription under key.
+     */
+    public void subscribe(String key, int intervalMs, Target target) {
+        Subscription subscription = new Subscription(key, intervalMs, target);
+        synchronized (this) {
+            cancel(subscriptions.put(key, subscription));
+        }
+        schedule(subscription, 0);
+    }
+
+    /** Returns whether key was subscribed. */
+    public synchronized boolean unsubscribe(String key) {
+        Subscription subscription = subscriptions.remove(key);
+        cancel(subscription);
+        return subscription != null;
+    }
+
+    /** Last status polled for key: null while unknown or unreachable. */
+    public synchronized PrinterStatus current(String key) {
+        Subscription subscription = subscriptions.get(key);
+        return subscription != null ? subscription.last : null;
+    }
+
+    public synchronized boolean isSubscribed(String key) {
+        return subscriptions.containsKey(key);
+    }
+
+    private void cancel(Subscription subscription) {
+        if (subscription == null) {
+            return;
+        }
+        subscription.cancelled = true;
+        if (subscription.next != null) {
+            subscription.next.cancel(false);
+        }
+    }
+
+    private synchronized void schedule(Subscription subscription, long delayMs) {
+        if (subscription.cancelled) {
+            return;
+        }
+        try {
+            subscription.next = scheduler.schedule(subscription, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            subscription.cancelled = true; // scheduler shut down with the plugin
+        }
+    }
+
+    private long delayMs(long baseMs) {
+        double jitter;
+        synchronized (random) {
+            jitter = (random.nextDouble() * 2 - 1) * JITTER;
+        }
+        return Math.round(baseMs * (1 + jitter));
+    }
+}
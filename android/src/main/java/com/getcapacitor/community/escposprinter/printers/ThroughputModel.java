@@ -0,0 +1,147 @@
+package com.getcapacitor.community.escposprinter.printers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Learned bytes-per-second of each printer, as an exponentially weighted
+ * moving average of measured jobs.
+ *
+ * Keyed by printer identity (connection type + address) like the stored
+ * graphics, so what was learned survives disposing the JS printer object
+ * and, through {@link Store}, app restarts.
+ *
+ * A sample is the time a printer took to take in a job that overflows its
+ * receive buffer: the last DLE EOT answer of a status-paced job, or the
+ * completion of a USB bulk write (the printer NAKs while its buffer is
+ * full). Smaller jobs only measure the buffer, so they are ignored.
+ *
+ * Shared by all printer executors; every method is synchronized.
+ */
+public final class ThroughputModel {
+    /** Weight of a new sample: a few jobs are enough to follow a degrading printer. */
+    static final double ALPHA = 0.3;
+    /** Jobs below this mostly measure the printer's receive buffer, not its print rate. */
+    public static final long MIN_SAMPLE_BYTES = 16 * 1024;
+
+    /** Where the estimates are kept between app runs. */
+    public interface Store {
+        /** The last saved snapshot, or null. */
+        String load();
+
+        void save(String snapshot);
+    }
+
+    /** One printer's estimate; a snapshot, not live. */
+    public static final class Estimate {
+        public final String printerId;
+        public final double bytesPerSecond;
+        public final int samples;
+        /** Wall clock time of the last sample (ms since the epoch). */
+        public final long updatedAt;
+
+        Estimate(String printerId, double bytesPerSecond, int samples, long updatedAt) {
+            this.printerId = printerId;
+            this.bytesPerSecond = bytesPerSecond;
+            this.samples = samples;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    private final Map<String, Estimate> estimates = new HashMap<>();
+    private final Store store;
+
+    /** @param store persistence, or null to keep the estimates in memory only */
+    public ThroughputModel(Store store) {
+        this.store = store;
+        if (store != null) {
+            restore(store.load());
+        }
+    }
+
+    /**
+     * Adds a measurement: bytes taken in by the printer within elapsedMs.
+     * Returns false if the sample was too small (or too short) to count.
+     */
+    public boolean record(String printerId, long bytes, long elapsedMs) {
+        if (bytes < MIN_SAMPLE_BYTES || elapsedMs <= 0) {
+            return false;
+        }
+        double rate = bytes * 1000.0 / elapsedMs;
+        // Saved under the lock, so snapshots can't reach the store out of
+        // order (SharedPreferences.apply() only queues the write).
+        synchronized (this) {
+            Estimate previous = estimates.get(printerId);
+            Estimate next = previous == null
+                    ? new Estimate(printerId, rate, 1, System.currentTimeMillis())
+                    : new Estimate(
+                            printerId,
+                            previous.bytesPerSecond + ALPHA * (rate - previous.bytesPerSecond),
+                            previous.samples + 1,
+                            System.currentTimeMillis()
+                    );
+            estimates.put(printerId, next);
+            if (store != null) {
+                store.save(serialize());
+            }
+        }
+        return true;
+    }
+
+    /** Expected time for the printer to print bytes, or -1 while nothing was learned. */
+    public synchronized long printTimeMs(String printerId, long bytes) {
+        Estimate estimate = estimates.get(printerId);
+        if (estimate == null) {
+            return -1;
+        }
+        return (long) Math.ceil(bytes * 1000.0 / estimate.bytesPerSecond);
+    }
+
+    public synchronized Estimate get(String printerId) {
+        return estimates.get(printerId);
+    }
+
+    public synchronized List<Estimate> all() {
+        return new ArrayList<>(estimates.values());
+    }
+
+    /** One line per printer: id, bytes/s, samples, updatedAt, tab separated. */
+    synchronized String serialize() {
+        StringBuilder out = new StringBuilder();
+        for (Estimate estimate : estimates.values()) {
+            out.append(estimate.printerId).append('\t')
+                    .append(estimate.bytesPerSecond).append('\t')
+                    .append(estimate.samples).append('\t')
+                    .append(estimate.updatedAt).append('\n');
+        }
+        return out.toString();
+    }
+
+    /** Loads a serialize() snapshot; malformed lines are skipped (it's only a cache). */
+    private void restore(String snapshot) {
+        if (snapshot == null) {
+            return;
+        }
+        for (String line : snapshot.split("\n")) {
+            String[] fields = line.split("\t");
+            if (fields.length != 4) {
+                continue;
+            }
+            try {
+                double rate = Double.parseDouble(fields[1]);
+                if (rate > 0) {
+                    estimates.put(fields[0], new Estimate(
+                            fields[0],
+                            rate,
+                            Integer.parseInt(fields[2]),
+                            Long.parseLong(fields[3])
+                    ));
+                }
+            } catch (NumberFormatException ignored) {
+                // skip
+            }
+        }
+    }
+}
@@ -29,6 +29,10 @@ public class UsbPrinter extends BasePrinter {
     private static final String TAG = "UsbPrinter";
     private static final int BULK_TRANSFER_TIMEOUT_MS = 5000;
     private static final int BULK_TRANSFER_CHUNK_SIZE_BYTES = 1024;
+    /** A printer with nothing more to send leaves a read this short empty. */
+    private static final int DRAIN_READ_TIMEOUT_MS = 20;
+    /** Reads of a drain at most, in case a printer never goes quiet. */
+    private static final int MAX_DRAIN_READS = 16;
 
     private final Context context;
     private final String address;
@@ -39,6 +43,10 @@ public class UsbPrinter extends BasePrinter {
     private UsbInterface usbInterface;
     private UsbEndpoint outEndpoint;
     private UsbEndpoint inEndpoint;
+    /** The last IN packet of {@link #readReply}; its bytes from replyOffset on are still unread. */
+    private byte[] replyPacket;
+    private int replyOffset;
+    private int replyLength;
 
     /**
      * Creates a USB printer instance.
@@ -123,6 +131,7 @@ public class UsbPrinter extends BasePrinter {
             throw new PrinterException(PrinterErrorCode.CONNECT, 
                 "Error connecting to USB device: " + e.getMessage());
         }
+        startAutomaticStatusBack();
     }
 
     @Override
@@ -250,6 +259,65 @@ public class UsbPrinter extends BasePrinter {
         }
     }
 
+    /** Bulk OUT transfers complete at the printer's pace: it NAKs while its buffer is full. */
+    @Override
+    protected boolean writeTakesPrinterPace() {
+        return true;
+    }
+
+    /**
+     * Timed bulk read: UsbInputStream.available() can't tell whether a reply
+     * is pending. A packet may hold more than one reply: the rest is kept
+     * for the next call. With automatic status back on, the background
+     * reader owns the IN endpoint and queues replies instead.
+     */
+    @Override
+    protected int readReply(int timeoutMs) throws IOException {
+        if (readsInBackground()) {
+            return super.readReply(timeoutMs);
+        }
+        if (replyOffset < replyLength) {
+            return replyPacket[replyOffset++] & 0xFF; // coalesced with an earlier reply
+        }
+        if (connection == null || inEndpoint == null) {
+            return -1;
+        }
+        if (replyPacket == null || replyPacket.length != inEndpoint.getMaxPacketSize()) {
+            replyPacket = new byte[inEndpoint.getMaxPacketSize()];
+        }
+        int result = connection.bulkTransfer(inEndpoint, replyPacket, replyPacket.length, timeoutMs);
+        if (result <= 0) {
+            replyOffset = replyLength = 0;
+            return -1;
+        }
+        replyOffset = 1;
+        replyLength = result;
+        return replyPacket[0] & 0xFF;
+    }
+
+    /**
+     * UsbInputStream.available() is always 0: discards the unread bytes of
+     * the last reply packet, then reads the IN endpoint until a short read
+     * comes back empty.
+     */
+    @Override
+    protected void drainInput() throws IOException {
+        if (readsInBackground()) {
+            super.drainInput();
+            return;
+        }
+        replyOffset = replyLength = 0;
+        if (connection == null || inEndpoint == null) {
+            return;
+        }
+        byte[] buffer = new byte[inEndpoint.getMaxPacketSize()];
+        for (int i = 0; i < MAX_DRAIN_READS; i++) {
+            if (connection.bulkTransfer(inEndpoint, buffer, buffer.length, DRAIN_READ_TIMEOUT_MS) <= 0) {
+                break;
+            }
+        }
+    }
+
     /**
      * OutputStream implementation that writes to USB bulk OUT endpoint.
      */
@@ -347,10 +415,17 @@ public class UsbPrinter extends BasePrinter {
         @Override
         public int read(byte[] buffer, int offset, int length) throws IOException {
             byte[] tempBuffer = new byte[Math.min(length, maxPacketSize)];
+            long start = System.nanoTime();
             int result = connection.bulkTransfer(endpoint, tempBuffer, tempBuffer.length, BULK_TRANSFER_TIMEOUT_MS);
             if (result < 0) {
-                // No data available or error - return 0 (no bytes read)
-                return 0;
+                // bulkTransfer answers -1 for a timeout and an error alike;
+                // only an error (device detached, connection closed) comes
+                // back before the timeout is up. Readers looping on empty
+                // reads would otherwise spin on a dead device.
+                if ((System.nanoTime() - start) / 1_000_000L < BULK_TRANSFER_TIMEOUT_MS / 2) {
+                    throw new IOException("USB bulk read failed with result: " + result);
+                }
+                return 0; // timed out: no bytes read
             }
             System.arraycopy(tempBuffer, 0, buffer, offset, result);
             return result;
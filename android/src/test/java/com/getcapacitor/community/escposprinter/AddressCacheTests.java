@@ -0,0 +1,144 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.getcapacitor.community.escposprinter.printers.AddressCache;
+
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AddressCacheTests {
+    private static final String HOST = "printer.local";
+
+    /** Clock that only moves when told to. */
+    private static class ManualClock implements AddressCache.Clock {
+        volatile long nowMs;
+
+        @Override
+        public long nowMs() {
+            return nowMs;
+        }
+    }
+
+    /** Resolver counting its lookups; fails while failing is set. */
+    private static class CountingResolver implements AddressCache.Resolver {
+        final AtomicInteger lookups = new AtomicInteger();
+        volatile boolean failing;
+        volatile InetAddress address;
+
+        CountingResolver(String ip) throws UnknownHostException {
+            address = InetAddress.getByName(ip);
+        }
+
+        @Override
+        public InetAddress[] resolve(String host) throws UnknownHostException {
+            lookups.incrementAndGet();
+            if (failing) {
+                throw new UnknownHostException(host);
+            }
+            return new InetAddress[] { address };
+        }
+    }
+
+    /** Waits for the background refresh to call the resolver. */
+    private static void awaitLookups(CountingResolver resolver, int lookups) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (resolver.lookups.get() < lookups) {
+            assertTrue("refresh never ran", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void hitsAreServedFromTheCache() throws Exception {
+        CountingResolver resolver = new CountingResolver("10.0.0.5");
+        AddressCache cache = new AddressCache(resolver, 60000, 5000);
+
+        InetAddress[] first = cache.resolve(HOST);
+        assertSame(first, cache.resolve(HOST));
+        assertEquals(1, resolver.lookups.get());
+    }
+
+    @Test
+    public void failuresAreCachedBriefly() throws Exception {
+        CountingResolver resolver = new CountingResolver("10.0.0.5");
+        resolver.failing = true;
+        ManualClock clock = new ManualClock();
+        AddressCache cache = new AddressCache(resolver, 60000, 100, clock);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.resolve(HOST);
+                fail("expected UnknownHostException");
+            } catch (UnknownHostException expected) {
+                // cached the second time
+            }
+        }
+        assertEquals(1, resolver.lookups.get());
+
+        clock.nowMs += 150;
+        resolver.failing = false;
+        assertEquals("10.0.0.5", cache.resolve(HOST)[0].getHostAddress());
+        assertEquals(2, resolver.lookups.get());
+    }
+
+    @Test
+    public void agingEntriesAreRefreshedInTheBackground() throws Exception {
+        CountingResolver resolver = new CountingResolver("10.0.0.5");
+        ManualClock clock = new ManualClock();
+        AddressCache cache = new AddressCache(resolver, 400, 100, clock);
+        cache.resolve(HOST);
+
+        clock.nowMs += 320; // past 75% of the TTL
+        resolver.address = InetAddress.getByName("10.0.0.6");
+        // Still served the old address, without waiting for the lookup.
+        assertEquals("10.0.0.5", cache.resolve(HOST)[0].getHostAddress());
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!"10.0.0.6".equals(cache.resolve(HOST)[0].getHostAddress())) {
+            assertTrue("refresh never landed", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+        assertEquals(2, resolver.lookups.get());
+    }
+
+    @Test
+    public void failedRefreshKeepsTheOldAddress() throws Exception {
+        CountingResolver resolver = new CountingResolver("10.0.0.5");
+        ManualClock clock = new ManualClock();
+        AddressCache cache = new AddressCache(resolver, 400, 100, clock);
+        cache.resolve(HOST);
+
+        clock.nowMs += 320;
+        resolver.failing = true;
+        cache.resolve(HOST);
+        awaitLookups(resolver, 2);
+        assertEquals("10.0.0.5", cache.resolve(HOST)[0].getHostAddress());
+    }
+
+    @Test
+    public void invalidateForcesALookup() throws Exception {
+        CountingResolver resolver = new CountingResolver("10.0.0.5");
+        AddressCache cache = new AddressCache(resolver, 60000, 5000);
+        cache.resolve(HOST);
+        cache.invalidate(HOST);
+        cache.resolve(HOST);
+
+        assertEquals(2, resolver.lookups.get());
+    }
+
+    @Test
+    public void literalsBypassTheResolver() throws Exception {
+        CountingResolver resolver = new CountingResolver("10.0.0.5");
+        AddressCache cache = new AddressCache(resolver, 60000, 5000);
+
+        assertEquals("192.168.1.100", cache.resolve("192.168.1.100")[0].getHostAddress());
+        assertEquals(0, resolver.lookups.get());
+    }
+}
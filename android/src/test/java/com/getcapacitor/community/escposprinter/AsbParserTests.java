@@ -0,0 +1,124 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.getcapacitor.community.escposprinter.printers.AsbParser;
+import com.getcapacitor.community.escposprinter.printers.BasePrinter;
+import com.getcapacitor.community.escposprinter.printers.PrinterStatus;
+import com.getcapacitor.community.escposprinter.printers.exceptions.PrinterException;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class AsbParserTests {
+    private final List<PrinterStatus> statuses = new ArrayList<>();
+    private final List<Integer> data = new ArrayList<>();
+    private final AsbParser parser = new AsbParser(statuses::add, data::add);
+
+    private void feed(int... bytes) {
+        for (int b : bytes) {
+            parser.feed(b);
+        }
+    }
+
+    /** Printer whose connection is a loopback socket; the test holds the printer's end. */
+    private static class SocketPrinter extends BasePrinter {
+        final Socket socket;
+
+        SocketPrinter(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void connect() throws PrinterException {
+            try {
+                inputStream = socket.getInputStream();
+                outputStream = socket.getOutputStream();
+            } catch (IOException e) {
+                throw new PrinterException(0, e.getMessage());
+            }
+            startAutomaticStatusBack();
+        }
+    }
+
+    @Test
+    public void blocksAreReportedAndOtherBytesPassThrough() {
+        feed(0x12, 0x10, 0x00, 0x0C, 0x00, 0x16);
+
+        assertEquals(1, statuses.size());
+        assertEquals(new PrinterStatus(new int[] { 0x12, 0x32, 0x12, 0x72 }), statuses.get(0));
+        assertEquals(Arrays.asList(0x12, 0x16), data);
+    }
+
+    @Test
+    public void asbMapsOntoTheEquivalentDleEotReplies() {
+        // Drawer open, offline, cover open; cutter error; paper near end.
+        PrinterStatus status = PrinterStatus.fromAsb(0x3C, 0x08, 0x03);
+
+        assertEquals(0x1E, status.reply(1));
+        assertEquals(0x56, status.reply(2));
+        assertEquals(0x1A, status.reply(3));
+        assertEquals(0x1E, status.reply(4));
+    }
+
+    @Test
+    public void identityTextIsNotMistakenForAStatusBlock() {
+        byte[] reply = "_TM-P20\0".getBytes(StandardCharsets.ISO_8859_1); // 'P' looks like a block header
+        for (byte b : reply) {
+            parser.feed(b & 0xFF);
+        }
+
+        assertEquals(0, statuses.size());
+        assertEquals(reply.length, data.size());
+        assertEquals('P', (int) data.get(4));
+    }
+
+    @Test
+    public void brokenBlockFallsBackToData() {
+        feed(0x10, 0x00, 0xFF, 0x10, 0x00, 0x00, 0x00);
+
+        assertEquals(Arrays.asList(0x10, 0x00, 0xFF), data);
+        assertEquals(1, statuses.size());
+    }
+
+    @Test
+    public void connectedPrinterReadsStatusInTheBackground() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+             Socket client = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+             Socket device = server.accept()) {
+            List<PrinterStatus> pushed = Collections.synchronizedList(new ArrayList<>());
+            SocketPrinter printer = new SocketPrinter(client);
+            printer.setAutomaticStatusBack(pushed::add);
+            printer.connect();
+
+            InputStream fromPrinter = device.getInputStream();
+            byte[] enable = new byte[3];
+            for (int i = 0; i < enable.length; i++) {
+                enable[i] = (byte) fromPrinter.read();
+            }
+            device.getOutputStream().write(new byte[] { 0x30, 0x00, 0x00, 0x00, 0x12 });
+            long deadline = System.currentTimeMillis() + 2000;
+            while (pushed.isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            Thread.sleep(20);
+            byte[] unsolicited = printer.read();
+            printer.disconnect();
+
+            assertArrayEquals(AsbParser.ENABLE, enable);
+            assertEquals(0x16, pushed.get(0).reply(2));
+            assertArrayEquals(new byte[] { 0x12 }, unsolicited);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import com.getcapacitor.community.escposprinter.document.Codepage;
+import com.getcapacitor.community.escposprinter.document.CodepageTextEncoder;
+import com.getcapacitor.community.escposprinter.document.DocumentCompiler;
+import com.getcapacitor.community.escposprinter.document.GraphicsStore;
+import com.getcapacitor.community.escposprinter.document.PrinterProfile;
+import com.getcapacitor.community.escposprinter.payload.GrowableByteBuffer;
+
+import org.json.JSONArray;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+
+public class CodepageTextEncoderTests {
+
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+    private static byte[] encode(CodepageTextEncoder encoder, String text) {
+        GrowableByteBuffer out = new GrowableByteBuffer();
+        encoder.encode(text, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void asciiNeverSwitches() {
+        assertArrayEquals("Total: 12.50\n".getBytes(), encode(new CodepageTextEncoder(Codepage.PC850), "Total: 12.50\n"));
+    }
+
+    @Test
+    public void switchesOnceForSpanishText() {
+        CodepageTextEncoder encoder = new CodepageTextEncoder(Codepage.PC850, Codepage.PC437);
+        assertArrayEquals(bytes('A', 0x1B, 't', 2, 0xA4, 'o', ' ', 0xA8, 'q', 'u', 0x82, '?'),
+                encode(encoder, "Año ¿qué?"));
+        // Still selected for the next run of the same document.
+        assertArrayEquals(bytes(0x87, 0xC6), encode(encoder, "çã"));
+    }
+
+    @Test
+    public void picksTheCodepageCoveringTheLongestRun() {
+        CodepageTextEncoder encoder = new CodepageTextEncoder(Codepage.PC850, Codepage.PC858);
+        // PC850 has no euro sign: PC858 covers the whole line, so one switch.
+        assertArrayEquals(bytes(0x1B, 't', 19, 0xC6, ' ', 0xD5), encode(encoder, "ã €"));
+    }
+
+    @Test
+    public void switchesBetweenCodepagesWhenNeeded() {
+        CodepageTextEncoder encoder = new CodepageTextEncoder(Codepage.PC437, Codepage.WPC1252);
+        // "╣" only exists in PC437, "Š" only in WPC1252
+        assertArrayEquals(bytes(0x1B, 't', 0, 0xB9, 0x1B, 't', 16, 0x8A), encode(encoder, "╣Š"));
+    }
+
+    @Test
+    public void unmappableCharsBecomeQuestionMarks() {
+        assertArrayEquals(bytes('a', '?', 'b'), encode(new CodepageTextEncoder(Codepage.PC850), "a漢b"));
+    }
+
+    @Test
+    public void resetForgetsTheSelectedCodepage() {
+        CodepageTextEncoder encoder = new CodepageTextEncoder(Codepage.PC850);
+        encode(encoder, "ñ");
+        encoder.resetState();
+        assertArrayEquals(bytes(0x1B, 't', 2, 0xA4), encode(encoder, "ñ"));
+    }
+
+    @Test
+    public void compilerSelectsCodepageAgainAfterInit() {
+        PrinterProfile profile = new PrinterProfile(true, new CodepageTextEncoder(Codepage.PC850));
+        JSONArray document = new JSONArray("[{\"type\":\"text\",\"value\":\"ñ\"},{\"type\":\"init\"},"
+                + "{\"type\":\"text\",\"value\":\"ñ\"},{\"type\":\"qr\",\"data\":\"ñ\"}]");
+
+        byte[] actual = new DocumentCompiler().compile(document, profile, GraphicsStore.NONE).toByteArray();
+
+        byte[] expectedStart = bytes(0x1B, 't', 2, 0xA4, 0x1B, '@', 0x1B, 't', 2, 0xA4);
+        assertArrayEquals(expectedStart, java.util.Arrays.copyOf(actual, expectedStart.length));
+        // QR data is never transcoded (a switch would end up inside the symbol).
+        assertEquals(-1, indexOf(actual, expectedStart.length, (byte) 0xA4));
+    }
+
+    @Test
+    public void tablesMatchJdkCharsets() {
+        String[][] pairs = { { "cp437", "IBM437" }, { "cp850", "IBM850" }, { "cp858", "IBM00858" }, { "cp1252", "windows-1252" } };
+        for (String[] pair : pairs) {
+            assumeTrue(Charset.isSupported(pair[1]));
+            Codepage codepage = Codepage.fromName(pair[0]);
+            Charset charset = Charset.forName(pair[1]);
+            for (int b = 0x80; b < 0x100; b++) {
+                String decoded = new String(new byte[] { (byte) b }, charset);
+                if (decoded.charAt(0) == '�' || decoded.charAt(0) == b) {
+                    continue; // undefined in this code page
+                }
+                assertEquals(pair[0] + " 0x" + Integer.toHexString(b), b, codepage.encode(decoded.charAt(0)));
+            }
+        }
+    }
+
+    private static int indexOf(byte[] array, int from, byte value) {
+        for (int i = from; i < array.length; i++) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,126 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.getcapacitor.community.escposprinter.printers.DiscoveryCache;
+import com.getcapacitor.community.escposprinter.printers.PrinterIdentifier;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DiscoveryCacheTests {
+
+    /** Store keeping the last snapshot in memory. */
+    private static class MemoryStore implements DiscoveryCache.Store {
+        String snapshot;
+
+        @Override
+        public String load() {
+            return snapshot;
+        }
+
+        @Override
+        public void save(String snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+
+    @Test
+    public void entriesSurviveARestart() {
+        MemoryStore store = new MemoryStore();
+        DiscoveryCache cache = new DiscoveryCache(store);
+        cache.seen("192.168.1.120", 9100);
+        cache.probed("192.168.1.120", 9100, true, false);
+        cache.identified("192.168.1.120", 9100, new PrinterIdentifier.Identity("EPSON", "TM-T20II\n", "1.01\tESC/POS", true));
+
+        DiscoveryCache.Entry entry = new DiscoveryCache(store).get("192.168.1.120", 9100);
+        assertEquals("192.168.1.120:9100", entry.id());
+        assertTrue(entry.reachable);
+        assertEquals(Boolean.TRUE, entry.supportsDleEot);
+        assertEquals("EPSON TM-T20II", entry.model);
+        assertEquals("1.01 ESC/POS", entry.firmware);
+        assertTrue(entry.identifiedAt > 0);
+    }
+
+    @Test
+    public void unreachableKeepsWhatWasKnownAndIgnoresUnknownPrinters() {
+        DiscoveryCache cache = new DiscoveryCache(null);
+        cache.probed("192.168.1.120", 9100, true, true);
+        long lastSeen = cache.get("192.168.1.120", 9100).lastSeen;
+        cache.unreachable("192.168.1.120", 9100);
+        cache.unreachable("192.168.1.121", 9100);
+
+        DiscoveryCache.Entry entry = cache.get("192.168.1.120", 9100);
+        assertFalse(entry.reachable);
+        assertEquals(lastSeen, entry.lastSeen);
+        assertEquals(Boolean.TRUE, entry.supportsDleEot);
+        assertNull(cache.get("192.168.1.121", 9100));
+    }
+
+    @Test
+    public void listenerOnlyHearsAboutChanges() {
+        DiscoveryCache cache = new DiscoveryCache(null);
+        List<String> changes = new ArrayList<>();
+        cache.setListener(entry -> changes.add(entry.id() + " " + entry.reachable));
+
+        cache.seen("192.168.1.120", 9100);
+        cache.seen("192.168.1.120", 9100);
+        cache.unreachable("192.168.1.120", 9100);
+        cache.unreachable("192.168.1.120", 9100);
+        cache.seen("192.168.1.120", 9100);
+
+        List<String> expected = new ArrayList<>();
+        expected.add("192.168.1.120:9100 true");
+        expected.add("192.168.1.120:9100 false");
+        expected.add("192.168.1.120:9100 true");
+        assertEquals(expected, changes);
+    }
+
+    @Test
+    public void identityIsReusedUntilItExpires() {
+        MemoryStore store = new MemoryStore();
+        long now = System.currentTimeMillis();
+        store.snapshot = "192.168.1.120\t9100\t" + now + "\ttrue\ttrue\tTM-T20II\t\t" + now + "\n"
+                + "192.168.1.121\t9100\t" + now + "\ttrue\ttrue\tTM-T20II\t\t" + (now - 8L * 24 * 60 * 60 * 1000) + "\n"
+                + "192.168.1.122\t9100\t" + now + "\ttrue\ttrue\t\n";
+        DiscoveryCache cache = new DiscoveryCache(store);
+
+        assertEquals("TM-T20II", cache.recentlyIdentified("192.168.1.120", 9100).model);
+        assertNull(cache.recentlyIdentified("192.168.1.121", 9100));
+        assertNull(cache.recentlyIdentified("192.168.1.122", 9100));
+        assertEquals(3, cache.all().size());
+    }
+
+    @Test
+    public void malformedAndStaleLinesAreDropped() {
+        MemoryStore store = new MemoryStore();
+        long now = System.currentTimeMillis();
+        store.snapshot = "192.168.1.120\t9100\t" + now + "\ttrue\t\t\n"
+                + "garbage\n"
+                + "192.168.1.121\tport\t" + now + "\ttrue\t\t\n"
+                + "192.168.1.122\t9100\t" + (now - 40L * 24 * 60 * 60 * 1000) + "\ttrue\t\t\n";
+
+        List<DiscoveryCache.Entry> all = new DiscoveryCache(store).all();
+        assertEquals(1, all.size());
+        assertEquals("192.168.1.120", all.get(0).host);
+        assertNull(all.get(0).supportsDleEot);
+    }
+
+    @Test
+    public void leastRecentlySeenFallOff() throws InterruptedException {
+        DiscoveryCache cache = new DiscoveryCache(null);
+        cache.seen("10.0.0.0", 9100);
+        Thread.sleep(2);
+        for (int i = 1; i < 65; i++) {
+            cache.seen("10.0.0." + i, 9100);
+        }
+
+        assertEquals(64, cache.all().size());
+        assertNull(cache.get("10.0.0.0", 9100));
+    }
+}
@@ -0,0 +1,144 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.getcapacitor.community.escposprinter.document.DocumentCompiler;
+
+import org.json.JSONArray;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+
+public class DocumentCompilerTests {
+
+    private static byte[] compile(DocumentCompiler compiler, String json) {
+        return compiler.compile(new JSONArray(json)).toByteArray();
+    }
+
+    private static byte[] bytes(int... values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int v : values) {
+            out.write(v);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void compilesTextWithMinimalStyleChanges() {
+        byte[] actual = compile(new DocumentCompiler(),
+                "[{\"type\":\"init\"},"
+                        + "{\"type\":\"text\",\"value\":\"A\",\"bold\":true,\"align\":\"center\"},"
+                        + "{\"type\":\"text\",\"value\":\"B\",\"bold\":true,\"align\":\"center\",\"newline\":true},"
+                        + "{\"type\":\"text\",\"value\":\"C\",\"bold\":false,\"width\":2,\"height\":2}]");
+
+        assertArrayEquals(bytes(
+                0x1B, '@',
+                0x1B, 'a', 1, 0x1B, 'E', 1, 'A',
+                'B', 0x0A,
+                0x1B, 'E', 0, 0x1D, '!', 0x11, 'C'
+        ), actual);
+    }
+
+    @Test
+    public void emitsFirstStyleWithoutInit() {
+        // Unknown starting state: even "bold off" must be sent.
+        byte[] actual = compile(new DocumentCompiler(), "[{\"type\":\"style\",\"bold\":false}]");
+        assertArrayEquals(bytes(0x1B, 'E', 0), actual);
+    }
+
+    @Test
+    public void replacesNonAsciiTextByDefault() {
+        byte[] actual = compile(new DocumentCompiler(), "[{\"type\":\"text\",\"value\":\"añb\"}]");
+        assertArrayEquals(bytes('a', '?', 'b'), actual);
+    }
+
+    @Test
+    public void compilesFeedAndCut() {
+        byte[] actual = compile(new DocumentCompiler(),
+                "[{\"type\":\"feed\",\"lines\":3},{\"type\":\"feed\",\"dots\":300},"
+                        + "{\"type\":\"cut\"},{\"type\":\"cut\",\"partial\":true,\"feed\":4}]");
+        assertArrayEquals(bytes(
+                0x1B, 'd', 3,
+                0x1B, 'J', 255, 0x1B, 'J', 45,
+                0x1D, 'V', 0,
+                0x1D, 'V', 66, 4
+        ), actual);
+    }
+
+    @Test
+    public void compilesCode128WithDefaultCodeSet() {
+        byte[] actual = compile(new DocumentCompiler(),
+                "[{\"type\":\"barcode\",\"data\":\"AB1\",\"height\":50,\"hri\":\"below\"}]");
+        assertArrayEquals(bytes(
+                0x1D, 'h', 50, 0x1D, 'w', 2, 0x1D, 'H', 2,
+                0x1D, 'k', 73, 5, '{', 'B', 'A', 'B', '1'
+        ), actual);
+    }
+
+    @Test
+    public void compilesQrWithPatchedStoreLength() {
+        byte[] actual = compile(new DocumentCompiler(),
+                "[{\"type\":\"qr\",\"data\":\"hi\",\"size\":4,\"errorCorrection\":\"H\"}]");
+        assertArrayEquals(bytes(
+                0x1D, '(', 'k', 4, 0, 49, 0x41, 0x32, 0,
+                0x1D, '(', 'k', 3, 0, 49, 0x43, 4,
+                0x1D, '(', 'k', 3, 0, 49, 0x45, 51,
+                0x1D, '(', 'k', 5, 0, 49, 0x50, 0x30, 'h', 'i',
+                0x1D, '(', 'k', 3, 0, 49, 0x51, 0x30
+        ), actual);
+    }
+
+    @Test
+    public void storesQrDataAsUtf8() {
+        byte[] actual = compile(new DocumentCompiler(),
+                "[{\"type\":\"qr\",\"data\":\"Jos\u00e9 \u20ac\ud83d\ude00\"}]");
+        assertArrayEquals(bytes(
+                0x1D, '(', 'k', 4, 0, 49, 0x41, 0x32, 0,
+                0x1D, '(', 'k', 3, 0, 49, 0x43, 6,
+                0x1D, '(', 'k', 3, 0, 49, 0x45, 49,
+                0x1D, '(', 'k', 16, 0, 49, 0x50, 0x30,
+                'J', 'o', 's', 0xC3, 0xA9, ' ', 0xE2, 0x82, 0xAC, 0xF0, 0x9F, 0x98, 0x80,
+                0x1D, '(', 'k', 3, 0, 49, 0x51, 0x30
+        ), actual);
+    }
+
+    @Test
+    public void compilesRasterAndRaw() {
+        byte[] actual = compile(new DocumentCompiler(),
+                "[{\"type\":\"raster\",\"widthBytes\":1,\"height\":2,\"dataBase64\":\"//8=\"},"
+                        + "{\"type\":\"raw\",\"data\":[16,4,1]},{\"type\":\"raw\",\"dataBase64\":\"Cg==\"}]");
+        assertArrayEquals(bytes(
+                0x1D, 'v', '0', 0, 1, 0, 2, 0, 0xFF, 0xFF,
+                0x10, 0x04, 0x01,
+                0x0A
+        ), actual);
+    }
+
+    @Test
+    public void reusesBufferAcrossCompiles() {
+        DocumentCompiler compiler = new DocumentCompiler();
+        compile(compiler, "[{\"type\":\"text\",\"value\":\"first job\"}]");
+        byte[] second = compile(compiler, "[{\"type\":\"text\",\"value\":\"x\"}]");
+        assertArrayEquals(bytes('x'), second);
+    }
+
+    @Test
+    public void reportsOffendingOperation() {
+        try {
+            compile(new DocumentCompiler(), "[{\"type\":\"init\"},{\"type\":\"spin\"}]");
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("document[1]: unknown operation type"));
+        }
+        try {
+            compile(new DocumentCompiler(),
+                    "[{\"type\":\"raster\",\"widthBytes\":2,\"height\":2,\"dataBase64\":\"//8=\"}]");
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("document[0]: raster data is 2 bytes, expected 4", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.getcapacitor.community.escposprinter.printers.BasePrinter;
+import com.getcapacitor.community.escposprinter.printers.FlowControl;
+import com.getcapacitor.community.escposprinter.printers.NetworkPrinter;
+import com.getcapacitor.community.escposprinter.printers.PrintJob;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+public class FlowControlTests {
+
+    /** In-memory printer answering DLE EOT like a real one (or staying silent). */
+    private static class AnsweringPrinter extends BasePrinter {
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        final ArrayDeque<Integer> replies = new ArrayDeque<>();
+        final boolean answers;
+
+        AnsweringPrinter(boolean answers) {
+            this.answers = answers;
+        }
+
+        @Override
+        public void connect() {
+            inputStream = new InputStream() {
+                @Override
+                public int read() {
+                    Integer b = replies.poll();
+                    return b != null ? b : -1;
+                }
+
+                @Override
+                public int available() {
+                    return replies.size();
+                }
+            };
+            outputStream = new OutputStream() {
+                @Override
+                public void write(int b) {
+                    written.write(b);
+                }
+
+                @Override
+                public void write(byte[] data, int offset, int length) {
+                    written.write(data, offset, length);
+                    if (answers && length == DLE_EOT_PROBE.length
+                            && Arrays.equals(DLE_EOT_PROBE, Arrays.copyOfRange(data, offset, offset + length))) {
+                        replies.add(LoopbackPrinter.STATUS_OK);
+                    }
+                }
+            };
+        }
+    }
+
+    private static byte[] job(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) ('A' + i % 26);
+        }
+        return data;
+    }
+
+    /** The job with a DLE EOT probe after every 4096-byte window and at the end. */
+    private static byte[] paced(byte[] job) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int pos = 0; pos < job.length; pos += 4096) {
+            out.write(job, pos, Math.min(4096, job.length - pos));
+            out.write(BasePrinter.DLE_EOT_PROBE, 0, BasePrinter.DLE_EOT_PROBE.length);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void heuristicIsTheDefault() throws Exception {
+        AnsweringPrinter printer = new AnsweringPrinter(true);
+        printer.connect();
+        byte[] data = job(100);
+        printer.send(data, 0);
+
+        assertEquals(FlowControl.HEURISTIC, printer.getFlowControl());
+        assertArrayEquals(data, printer.written.toByteArray());
+    }
+
+    @Test
+    public void statusPacingSendsWindowsBetweenReadinessChecks() throws Exception {
+        AnsweringPrinter printer = new AnsweringPrinter(true);
+        printer.setFlowControl(FlowControl.STATUS);
+        printer.connect();
+        byte[] data = job(10000);
+
+        long start = System.nanoTime();
+        printer.send(data, 0);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+
+        assertArrayEquals(paced(data), printer.written.toByteArray());
+        // The heuristic alone would have slept 10000 / 16 = 625 ms.
+        assertTrue("took " + elapsedMs + " ms", elapsedMs < 300);
+        assertTrue(printer.isPacedByStatus());
+    }
+
+    @Test
+    public void streamingJobChunksArePaced() throws Exception {
+        AnsweringPrinter printer = new AnsweringPrinter(true);
+        printer.setFlowControl(FlowControl.STATUS);
+        printer.connect();
+        byte[] chunk = job(5000);
+
+        PrintJob job = new PrintJob("job-1", printer);
+        job.start();
+        job.append(chunk, 0, chunk.length);
+        job.commit(0);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(chunk, 0, 4096);
+        expected.write(BasePrinter.DLE_EOT_PROBE, 0, 3);
+        expected.write(chunk, 4096, chunk.length - 4096);
+        expected.write(BasePrinter.DLE_EOT_PROBE, 0, 3);
+        assertArrayEquals(expected.toByteArray(), printer.written.toByteArray());
+    }
+
+    @Test
+    public void silentPrinterFallsBackToHeuristic() throws Exception {
+        AnsweringPrinter printer = new AnsweringPrinter(false);
+        printer.setFlowControl(FlowControl.STATUS);
+        printer.connect();
+        byte[] data = job(10000);
+        printer.send(data, 0);
+
+        // One unanswered check, then the rest goes out unpaced.
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(data, 0, 4096);
+        expected.write(BasePrinter.DLE_EOT_PROBE, 0, 3);
+        expected.write(data, 4096, data.length - 4096);
+        assertArrayEquals(expected.toByteArray(), printer.written.toByteArray());
+        assertFalse(printer.isPacedByStatus());
+    }
+
+    @Test
+    public void networkPrinterPacesOverTheSocket() throws Exception {
+        try (LoopbackPrinter loopback = new LoopbackPrinter()) {
+            NetworkPrinter printer = new NetworkPrinter("127.0.0.1", loopback.port(), false);
+            printer.setFlowControl(FlowControl.STATUS);
+            byte[] data = job(10000);
+            printer.send(data, 0);
+
+            // No trailing check: the connection closes after the job.
+            byte[] paced = paced(data);
+            byte[] expected = Arrays.copyOf(paced, paced.length - BasePrinter.DLE_EOT_PROBE.length);
+            assertArrayEquals(expected, loopback.awaitReceived(expected.length));
+            assertTrue(printer.isPacedByStatus());
+        }
+    }
+}
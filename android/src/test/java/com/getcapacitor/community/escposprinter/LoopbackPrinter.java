@@ -0,0 +1,138 @@
+package com.getcapacitor.community.escposprinter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Raw TCP printer on 127.0.0.1: records every byte received and answers
+ * DLE EOT n with a "no problem" status byte, like a healthy printer.
+ */
+class LoopbackPrinter implements AutoCloseable {
+    /** DLE EOT reply with only the fixed bits set (bits 1 and 4). */
+    static final int STATUS_OK = 0x12;
+
+    private final ServerSocket server;
+    private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+    private final List<Socket> clients = new ArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile int status = STATUS_OK;
+    private volatile int replyDelayMs;
+    private volatile byte[] beforeReply;
+
+    LoopbackPrinter() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "loopback-printer");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return server.getLocalPort();
+    }
+
+    int connections() {
+        return connections.get();
+    }
+
+    /** Closes every open connection, like a printer rebooting. */
+    synchronized void dropConnections() throws IOException {
+        for (Socket client : clients) {
+            client.close();
+        }
+        clients.clear();
+    }
+
+    /** Sends bytes on every open connection, like a printer pushing its status. */
+    synchronized void push(byte[] bytes) throws IOException {
+        for (Socket client : clients) {
+            client.getOutputStream().write(bytes);
+        }
+    }
+
+    /** Answers DLE EOT with status from now on, replyDelayMs after the request, like a busy printer. */
+    void answer(int status, int replyDelayMs) {
+        this.status = status;
+        this.replyDelayMs = replyDelayMs;
+    }
+
+    /** Sends bytes right before the next DLE EOT reply, like a status block crossing the request. */
+    void beforeNextReply(byte[] bytes) {
+        beforeReply = bytes;
+    }
+
+    /** Waits until at least count bytes arrived (the client may return before the server read them). */
+    byte[] awaitReceived(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            synchronized (received) {
+                if (received.size() >= count || System.currentTimeMillis() > deadline) {
+                    return received.toByteArray();
+                }
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        dropConnections();
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket client = server.accept();
+                connections.incrementAndGet();
+                synchronized (this) {
+                    clients.add(client);
+                }
+                Thread reader = new Thread(() -> serve(client), "loopback-printer-client");
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket client) {
+        byte[] buffer = new byte[4096];
+        int previous = -1;
+        int beforePrevious = -1;
+        try (client) {
+            InputStream in = client.getInputStream();
+            int n;
+            while ((n = in.read(buffer)) >= 0) {
+                synchronized (received) {
+                    received.write(buffer, 0, n);
+                }
+                for (int i = 0; i < n; i++) {
+                    int b = buffer[i] & 0xFF;
+                    if (beforePrevious == 0x10 && previous == 0x04 && b >= 1 && b <= 4) {
+                        if (replyDelayMs > 0) {
+                            Thread.sleep(replyDelayMs);
+                        }
+                        byte[] before = beforeReply;
+                        if (before != null) {
+                            beforeReply = null;
+                            client.getOutputStream().write(before);
+                        }
+                        client.getOutputStream().write(status);
+                    }
+                    beforePrevious = previous;
+                    previous = b;
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // connection dropped
+        }
+    }
+}
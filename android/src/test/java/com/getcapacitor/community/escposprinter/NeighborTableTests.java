@@ -0,0 +1,35 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.getcapacitor.community.escposprinter.printers.NeighborTable;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+
+public class NeighborTableTests {
+
+    @Test
+    public void keepsResolvedEntriesOnly() throws Exception {
+        String table = "IP address       HW type     Flags       HW address            Mask     Device\n"
+                + "192.168.1.1      0x1         0x2         a4:91:b1:00:00:01     *        wlan0\n"
+                + "192.168.1.87     0x1         0x0         00:00:00:00:00:00     *        wlan0\n"
+                + "192.168.1.120    0x1         0x2         00:11:62:aa:bb:cc     *        wlan0\n"
+                + "192.168.1.121    0x1         0x6         00:11:62:aa:bb:cd     *        wlan0\n"
+                + "garbage\n";
+
+        assertEquals(
+                Arrays.asList("192.168.1.1", "192.168.1.120", "192.168.1.121"),
+                NeighborTable.parse(new StringReader(table))
+        );
+    }
+
+    @Test
+    public void emptyOrHeaderOnlyTablesHaveNoNeighbors() throws Exception {
+        assertTrue(NeighborTable.parse(new StringReader("")).isEmpty());
+        assertTrue(NeighborTable.parse(new StringReader("IP address HW type Flags HW address Mask Device\n")).isEmpty());
+    }
+}
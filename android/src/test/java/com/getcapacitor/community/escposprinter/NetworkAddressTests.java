@@ -3,15 +3,11 @@ package com.getcapacitor.community.escposprinter;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
-import static org.junit.Assert.assertTrue;
 
 import com.getcapacitor.community.escposprinter.printers.NetworkAddress;
-import com.getcapacitor.community.escposprinter.printers.NetworkPrinter;
 
 import org.junit.Test;
 
-import java.util.List;
-
 public class NetworkAddressTests {
 
     @Test
@@ -49,21 +45,26 @@ public class NetworkAddressTests {
         assertNull(NetworkAddress.parse("host:0"));
         assertNull(NetworkAddress.parse("host:65536"));
         assertNull(NetworkAddress.parse("host:-1"));
-        // IPv6 literals are unsupported by the host:port format
+        // Unbracketed IPv6: the port can't be told apart
         assertNull(NetworkAddress.parse("fe80::1:9100"));
+        assertNull(NetworkAddress.parse("[fe80::1"));
+        assertNull(NetworkAddress.parse("[fe80::1]9100"));
+        assertNull(NetworkAddress.parse("[fe80::1]:"));
+        assertNull(NetworkAddress.parse("[printer.local]:9100"));
+        assertNull(NetworkAddress.parse("[]:9100"));
     }
 
     @Test
-    public void decodesDleEotStatusFlags() {
-        assertTrue(NetworkPrinter.decodeDleEotStatus(0x16).isEmpty());
-
-        List<String> offline = NetworkPrinter.decodeDleEotStatus(0x16 | 0x08);
-        assertEquals(List.of("OFFLINE"), offline);
-
-        List<String> paperOut = NetworkPrinter.decodeDleEotStatus(0x16 | 0x20);
-        assertEquals(List.of("PAPER_OUT"), paperOut);
+    public void parsesBracketedIpv6Literals() {
+        NetworkAddress address = NetworkAddress.parse("[fe80::1]:9101");
+        assertNotNull(address);
+        assertEquals("fe80::1", address.host);
+        assertEquals(9101, address.port);
+        assertEquals("[fe80::1]:9101", address.toString());
 
-        List<String> all = NetworkPrinter.decodeDleEotStatus(0x08 | 0x20 | 0x40);
-        assertEquals(List.of("OFFLINE", "PAPER_OUT", "ERROR"), all);
+        NetworkAddress withZone = NetworkAddress.parse(" [fe80::1%wlan0] ");
+        assertNotNull(withZone);
+        assertEquals("fe80::1%wlan0", withZone.host);
+        assertEquals(9100, withZone.port);
     }
 }
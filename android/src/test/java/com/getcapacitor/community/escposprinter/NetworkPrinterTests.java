@@ -0,0 +1,399 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.getcapacitor.community.escposprinter.printers.AsbParser;
+import com.getcapacitor.community.escposprinter.printers.NetworkIoLoop;
+import com.getcapacitor.community.escposprinter.printers.NetworkPrinter;
+import com.getcapacitor.community.escposprinter.printers.PrinterStatus;
+import com.getcapacitor.community.escposprinter.printers.constants.PrinterErrorCode;
+import com.getcapacitor.community.escposprinter.printers.exceptions.PrinterException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class NetworkPrinterTests {
+    private static final byte[] JOB_A = { 0x1B, 0x40, 'A', '\n' };
+    private static final byte[] JOB_B = { 0x1B, 0x40, 'B', '\n' };
+
+    private LoopbackPrinter loopback;
+
+    @Before
+    public void setUp() throws Exception {
+        loopback = new LoopbackPrinter();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        loopback.close();
+    }
+
+    private NetworkPrinter printer(int keepAliveMs) {
+        return new NetworkPrinter("127.0.0.1", loopback.port(), false, keepAliveMs);
+    }
+
+    /** Records what happened to each job of a session. */
+    private static class RecordingJob extends NetworkPrinter.Job {
+        final byte[] data;
+        final List<String> events;
+        final String name;
+
+        RecordingJob(String name, byte[] data, List<String> events) {
+            this.name = name;
+            this.data = data;
+            this.events = events;
+        }
+
+        @Override
+        protected boolean prepare() {
+            if (data == null) {
+                events.add(name + ":skipped");
+                return false;
+            }
+            setData(data, 0, data.length, 0);
+            return true;
+        }
+
+        @Override
+        protected void sent() {
+            events.add(name + ":sent");
+        }
+
+        @Override
+        protected void failed(PrinterException e) {
+            events.add(name + ":" + e.getErrorCode());
+        }
+    }
+
+    private static NetworkPrinter.JobQueue queue(ArrayDeque<NetworkPrinter.Job> jobs) {
+        return jobs::poll;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.write(part, 0, part.length);
+        }
+        return out.toByteArray();
+    }
+
+    private static void awaitSize(List<?> list, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (list.size() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void connectsPerJobByDefault() throws Exception {
+        NetworkPrinter printer = printer(0);
+        printer.send(JOB_A, 0, JOB_A.length, 0);
+        loopback.awaitReceived(JOB_A.length); // per-connection readers: keep the jobs in order
+        printer.send(JOB_B, 0, JOB_B.length, 0);
+
+        assertArrayEquals(concat(JOB_A, JOB_B), loopback.awaitReceived(JOB_A.length + JOB_B.length));
+        assertEquals(2, loopback.connections());
+    }
+
+    @Test
+    public void keepAliveReusesCheckedConnection() throws Exception {
+        NetworkPrinter printer = printer(5000);
+        printer.send(JOB_A, 0, JOB_A.length, 0);
+        printer.send(JOB_B, 0, JOB_B.length, 0);
+        printer.disconnect();
+
+        byte[] expected = concat(JOB_A, NetworkPrinter.DLE_EOT_PROBE, JOB_B);
+        assertArrayEquals(expected, loopback.awaitReceived(expected.length));
+        assertEquals(1, loopback.connections());
+    }
+
+    @Test
+    public void staleConnectionIsReplacedTransparently() throws Exception {
+        NetworkPrinter printer = printer(5000);
+        printer.send(JOB_A, 0, JOB_A.length, 0);
+        loopback.awaitReceived(JOB_A.length);
+        loopback.dropConnections();
+
+        printer.send(JOB_B, 0, JOB_B.length, 0);
+        printer.disconnect();
+
+        byte[] received = loopback.awaitReceived(JOB_A.length + JOB_B.length);
+        byte[] tail = new byte[JOB_B.length];
+        System.arraycopy(received, received.length - JOB_B.length, tail, 0, JOB_B.length);
+        assertArrayEquals(JOB_B, tail);
+        assertEquals(2, loopback.connections());
+    }
+
+    @Test
+    public void idleConnectionIsClosedAfterKeepAlive() throws Exception {
+        NetworkPrinter printer = printer(50);
+        printer.send(JOB_A, 0, JOB_A.length, 0);
+        loopback.awaitReceived(JOB_A.length);
+        Thread.sleep(300);
+        printer.send(JOB_B, 0, JOB_B.length, 0);
+        printer.disconnect();
+
+        assertArrayEquals(concat(JOB_A, JOB_B), loopback.awaitReceived(JOB_A.length + JOB_B.length));
+        assertEquals(2, loopback.connections());
+    }
+
+    @Test
+    public void disconnectClosesParkedConnection() throws Exception {
+        NetworkPrinter printer = printer(5000);
+        printer.send(JOB_A, 0, JOB_A.length, 0);
+        loopback.awaitReceived(JOB_A.length);
+        printer.disconnect();
+        printer.send(JOB_B, 0, JOB_B.length, 0);
+        printer.disconnect();
+
+        assertArrayEquals(concat(JOB_A, JOB_B), loopback.awaitReceived(JOB_A.length + JOB_B.length));
+        assertEquals(2, loopback.connections());
+    }
+
+    @Test
+    public void largeJobIsWrittenThroughTheLoop() throws Exception {
+        // Far beyond the socket buffers: the write has to wait for the reader.
+        byte[] job = new byte[8 * 1024 * 1024];
+        for (int i = 0; i < job.length; i++) {
+            job[i] = (byte) i;
+        }
+        printer(0).send(job, 0, job.length, 0);
+
+        assertArrayEquals(job, loopback.awaitReceived(job.length));
+    }
+
+    @Test
+    public void statusCheckReadsPrinterReply() throws Exception {
+        NetworkPrinter printer = new NetworkPrinter("127.0.0.1", loopback.port(), true);
+        printer.send(JOB_A, 0, JOB_A.length, 0);
+
+        byte[] expected = concat(JOB_A, NetworkPrinter.DLE_EOT_PROBE);
+        assertArrayEquals(expected, loopback.awaitReceived(expected.length));
+    }
+
+    @Test
+    public void statusCheckWaitsForALateReplyWhateverTheRtt() throws Exception {
+        NetworkPrinter printer = new NetworkPrinter("127.0.0.1", loopback.port(), true);
+        printer.send(JOB_A, 0, JOB_A.length, 0); // loopback RTT: ~0 ms
+        loopback.answer(LoopbackPrinter.STATUS_OK | 0x20, 150); // paper end, still reading the job
+
+        try {
+            printer.send(JOB_B, 0, JOB_B.length, 0);
+            fail("expected a STATUS failure");
+        } catch (PrinterException e) {
+            assertEquals(PrinterErrorCode.STATUS, e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void readStatusAsksAllFourStatusesOnTheParkedConnection() throws Exception {
+        NetworkPrinter printer = printer(5000);
+        printer.send(JOB_A, 0, JOB_A.length, 0);
+        PrinterStatus status = printer.readStatus(1000);
+        printer.disconnect();
+
+        for (int n = 1; n <= 4; n++) {
+            assertEquals(LoopbackPrinter.STATUS_OK, status.reply(n));
+        }
+        assertEquals(1, loopback.connections());
+    }
+
+    @Test
+    public void automaticStatusBackIsReportedWhileParkedAndKeptOutOfReplies() throws Exception {
+        NetworkPrinter printer = printer(5000);
+        List<PrinterStatus> statuses = Collections.synchronizedList(new ArrayList<>());
+        printer.setAutomaticStatusBack(statuses::add);
+        printer.send(JOB_A, 0, JOB_A.length, 0);
+        loopback.awaitReceived(AsbParser.ENABLE.length + JOB_A.length);
+        loopback.push(new byte[] { 0x30, 0x00, 0x00, 0x00 }); // cover open
+        awaitSize(statuses, 1);
+        loopback.push(new byte[] { 0x10, 0x00, 0x0C, 0x00 }); // paper end
+        awaitSize(statuses, 2);
+        PrinterStatus status = printer.readStatus(1000);
+        printer.disconnect();
+
+        assertArrayEquals(concat(AsbParser.ENABLE, JOB_A), Arrays.copyOf(loopback.awaitReceived(0), 7));
+        assertEquals(0x16, statuses.get(0).reply(2));
+        assertEquals(2, statuses.size());
+        assertEquals(0x72, statuses.get(1).reply(4));
+        assertEquals(LoopbackPrinter.STATUS_OK, status.reply(1));
+        assertEquals(1, loopback.connections());
+    }
+
+    @Test
+    public void automaticStatusBackCrossingARequestIsNotTakenForItsReply() throws Exception {
+        NetworkPrinter printer = printer(5000);
+        List<PrinterStatus> statuses = Collections.synchronizedList(new ArrayList<>());
+        printer.setAutomaticStatusBack(statuses::add);
+        printer.send(JOB_A, 0, JOB_A.length, 0);
+        loopback.awaitReceived(AsbParser.ENABLE.length + JOB_A.length);
+        loopback.beforeNextReply(new byte[] { 0x30, 0x00, 0x00, 0x00 }); // cover open
+        PrinterStatus status = printer.readStatus(1000);
+        printer.disconnect();
+
+        for (int n = 1; n <= 4; n++) {
+            assertEquals(LoopbackPrinter.STATUS_OK, status.reply(n));
+        }
+        assertEquals(1, statuses.size());
+        assertEquals(0x16, statuses.get(0).reply(2));
+    }
+
+    @Test
+    public void loopReadReportsSilenceAsZero() throws Exception {
+        NetworkIoLoop io = NetworkIoLoop.shared();
+        SocketChannel channel = io.connect(new InetSocketAddress("127.0.0.1", loopback.port()), 1000);
+        try {
+            long start = System.nanoTime();
+            assertEquals(0, io.read(channel, ByteBuffer.allocate(1), 50));
+            assertTrue(System.nanoTime() - start >= 50_000_000L);
+
+            io.write(channel, ByteBuffer.wrap(NetworkPrinter.DLE_EOT_PROBE), 1000);
+            ByteBuffer reply = ByteBuffer.allocate(1);
+            assertEquals(1, io.read(channel, reply, 1000));
+            assertEquals(LoopbackPrinter.STATUS_OK, reply.get(0));
+        } finally {
+            io.close(channel);
+        }
+    }
+
+    @Test
+    public void sessionSendsQueuedJobsThroughOneConnection() throws Exception {
+        List<String> events = new ArrayList<>();
+        ArrayDeque<NetworkPrinter.Job> jobs = new ArrayDeque<>(Arrays.asList(
+                new RecordingJob("a", JOB_A, events),
+                new RecordingJob("invalid", null, events),
+                new RecordingJob("b", JOB_B, events)
+        ));
+        printer(0).sendSession(queue(jobs));
+
+        assertEquals(Arrays.asList("a:sent", "invalid:skipped", "b:sent"), events);
+        assertArrayEquals(concat(JOB_A, JOB_B), loopback.awaitReceived(JOB_A.length + JOB_B.length));
+        assertEquals(1, loopback.connections());
+    }
+
+    @Test
+    public void sessionStopsTakingJobsPastTheByteLimit() throws Exception {
+        List<String> events = new ArrayList<>();
+        byte[] big = new byte[300 * 1024];
+        ArrayDeque<NetworkPrinter.Job> jobs = new ArrayDeque<>(Arrays.asList(
+                new RecordingJob("a", big, events),
+                new RecordingJob("b", big, events),
+                new RecordingJob("c", JOB_A, events)
+        ));
+        NetworkPrinter printer = printer(0);
+        printer.sendSession(queue(jobs));
+
+        assertEquals(Arrays.asList("a:sent", "b:sent"), events);
+        assertEquals(1, jobs.size());
+
+        printer.sendSession(queue(jobs));
+        assertEquals("c:sent", events.get(2));
+        loopback.awaitReceived(big.length * 2 + JOB_A.length);
+        assertEquals(2, loopback.connections());
+    }
+
+    @Test
+    public void failedConnectOnlyFailsTheFirstJob() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        List<String> events = new ArrayList<>();
+        ArrayDeque<NetworkPrinter.Job> jobs = new ArrayDeque<>(Arrays.asList(
+                new RecordingJob("a", JOB_A, events),
+                new RecordingJob("b", JOB_B, events)
+        ));
+        new NetworkPrinter("127.0.0.1", closedPort, false).sendSession(queue(jobs));
+
+        // b stays queued and gets its own connection attempt.
+        assertEquals(Arrays.asList("a:" + PrinterErrorCode.CONNECT), events);
+        assertEquals(1, jobs.size());
+    }
+
+    @Test
+    public void interleavesAddressFamilies() throws Exception {
+        InetAddress[] addresses = {
+                InetAddress.getByName("2001:db8::1"),
+                InetAddress.getByName("2001:db8::2"),
+                InetAddress.getByName("10.0.0.1"),
+        };
+        List<InetSocketAddress> ordered = NetworkIoLoop.interleaveFamilies(addresses, 9100);
+
+        assertEquals(addresses[0], ordered.get(0).getAddress());
+        assertEquals(addresses[2], ordered.get(1).getAddress());
+        assertEquals(addresses[1], ordered.get(2).getAddress());
+        assertEquals(9100, ordered.get(2).getPort());
+    }
+
+    @Test
+    public void refusedAddressFallsThroughWithoutWaitingTheStagger() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        InetAddress localhost = InetAddress.getLoopbackAddress();
+        NetworkIoLoop io = NetworkIoLoop.shared();
+
+        long start = System.nanoTime();
+        SocketChannel channel = io.connectAny(Arrays.asList(
+                new InetSocketAddress(localhost, closedPort),
+                new InetSocketAddress(localhost, loopback.port())
+        ), 2000, 4000);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+        InetSocketAddress remote = (InetSocketAddress) channel.getRemoteAddress();
+        io.close(channel);
+
+        assertEquals(loopback.port(), remote.getPort());
+        assertTrue("took " + elapsedMs + " ms", elapsedMs < 1000);
+    }
+
+    @Test
+    public void silentAddressOnlyCostsTheStagger() throws Exception {
+        NetworkIoLoop io = NetworkIoLoop.shared();
+        long start = System.nanoTime();
+        SocketChannel channel = io.connectAny(Arrays.asList(
+                // TEST-NET-1: never answers (or has no route at all), like a
+                // blackholed address family
+                new InetSocketAddress("192.0.2.1", 9100),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), loopback.port())
+        ), 200, 4000);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+        InetSocketAddress remote = (InetSocketAddress) channel.getRemoteAddress();
+        io.close(channel);
+
+        assertEquals(loopback.port(), remote.getPort());
+        assertTrue("took " + elapsedMs + " ms", elapsedMs < 2000);
+    }
+
+    @Test
+    public void failsWhenEveryAddressFails() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        InetSocketAddress refused = new InetSocketAddress(InetAddress.getLoopbackAddress(), closedPort);
+        try {
+            NetworkIoLoop.shared().connectAny(Arrays.asList(refused, refused), 200, 4000);
+            fail("expected IOException");
+        } catch (IOException expected) {
+            // refused twice
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.getcapacitor.community.escposprinter.printers.NetworkScanTargets;
+
+import org.junit.Test;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+public class NetworkScanTargetsTests {
+
+    private static Inet4Address ip(String dotted) throws Exception {
+        return (Inet4Address) InetAddress.getByName(dotted);
+    }
+
+    private static List<String> drain(Iterator<String> hosts) {
+        List<String> out = new ArrayList<>();
+        while (hosts.hasNext()) {
+            out.add(hosts.next());
+        }
+        return out;
+    }
+
+    private static List<String> targets(int maxHosts, NetworkScanTargets.Subnet... subnets) {
+        return drain(NetworkScanTargets.nearestFirst(Arrays.asList(subnets), maxHosts));
+    }
+
+    @Test
+    public void startsAtTheGatewayAndTheOwnAddress() throws Exception {
+        List<String> hosts = targets(1024, NetworkScanTargets.Subnet.of(ip("192.168.1.50"), 24, ip("192.168.1.1")));
+
+        assertEquals(Arrays.asList(
+                "192.168.1.1",
+                "192.168.1.49", "192.168.1.51", "192.168.1.2",
+                "192.168.1.48", "192.168.1.52", "192.168.1.3"
+        ), hosts.subList(0, 7));
+    }
+
+    @Test
+    public void coversEveryHostOfTheSubnetOnce() throws Exception {
+        List<String> hosts = targets(1024, NetworkScanTargets.Subnet.of(ip("192.168.1.50"), 24, ip("192.168.1.1")));
+
+        assertEquals(253, hosts.size()); // .1-.254 without the own address
+        assertEquals(253, new HashSet<>(hosts).size());
+        assertFalse(hosts.contains("192.168.1.50"));
+        assertFalse(hosts.contains("192.168.1.0"));
+        assertFalse(hosts.contains("192.168.1.255"));
+    }
+
+    @Test
+    public void followsThePrefixLength() throws Exception {
+        List<String> wide = targets(4096, NetworkScanTargets.Subnet.of(ip("10.1.2.3"), 22, null));
+        assertEquals(1021, wide.size());
+        assertTrue(wide.contains("10.1.0.1"));
+        assertTrue(wide.contains("10.1.3.254"));
+        assertEquals(Arrays.asList("10.1.2.2", "10.1.2.4"), wide.subList(0, 2));
+
+        List<String> narrow = targets(4096, NetworkScanTargets.Subnet.of(ip("192.168.1.70"), 26, null));
+        assertEquals(61, narrow.size()); // .65-.126 without .70
+        assertTrue(narrow.contains("192.168.1.65"));
+        assertFalse(narrow.contains("192.168.1.127"));
+    }
+
+    @Test
+    public void largeNetworksAreCappedAroundTheDevice() throws Exception {
+        List<String> hosts = targets(1024, NetworkScanTargets.Subnet.of(ip("10.20.30.40"), 16, null));
+
+        assertEquals(1024, hosts.size());
+        assertTrue(hosts.contains("10.20.28.40")); // 512 below
+        assertFalse(hosts.contains("10.20.0.1"));
+    }
+
+    @Test
+    public void gatewayOutsideTheSubnetIsIgnored() throws Exception {
+        List<String> hosts = targets(1024, NetworkScanTargets.Subnet.of(ip("192.168.1.50"), 24, ip("10.0.0.1")));
+        assertEquals(Arrays.asList("192.168.1.49", "192.168.1.51"), hosts.subList(0, 2));
+    }
+
+    @Test
+    public void pointToPointLinksHaveNoTargets() throws Exception {
+        assertNull(NetworkScanTargets.Subnet.of(ip("10.0.0.1"), 31, null));
+        assertNull(NetworkScanTargets.Subnet.of(ip("10.0.0.1"), 32, null));
+    }
+
+    @Test
+    public void subnetsAreWalkedRoundRobin() throws Exception {
+        List<String> hosts = targets(4,
+                NetworkScanTargets.Subnet.of(ip("192.168.1.50"), 24, null),
+                NetworkScanTargets.Subnet.of(ip("10.0.0.10"), 24, null),
+                NetworkScanTargets.Subnet.of(ip("192.168.1.50"), 24, null)); // same interface twice
+
+        assertEquals(Arrays.asList("192.168.1.49", "10.0.0.9", "192.168.1.51", "10.0.0.11"), hosts);
+    }
+
+    @Test
+    public void skippedHostsAreLeftOutWithoutCountingAgainstTheCap() throws Exception {
+        NetworkScanTargets.Subnet subnet = NetworkScanTargets.Subnet.of(ip("192.168.1.50"), 24, null);
+        Iterator<String> hosts = NetworkScanTargets.nearestFirst(
+                Arrays.asList(subnet), 2, new HashSet<>(Arrays.asList("192.168.1.49", "192.168.1.52")));
+
+        assertEquals(Arrays.asList("192.168.1.51", "192.168.1.48"), drain(hosts));
+    }
+
+    @Test
+    public void retriesGoFirstAndAreNotSweptAgain() throws Exception {
+        NetworkScanTargets.Subnet subnet = NetworkScanTargets.Subnet.of(ip("192.168.1.50"), 24, null);
+        Iterator<String> hosts = NetworkScanTargets.nearestFirst(Arrays.asList("192.168.1.52"),
+                Arrays.asList(subnet), 2, new HashSet<>(Arrays.asList("192.168.1.49", "192.168.1.52")));
+
+        assertEquals(Arrays.asList("192.168.1.52", "192.168.1.51", "192.168.1.48"), drain(hosts));
+    }
+
+    @Test
+    public void subnetContainsItsHostsOnly() throws Exception {
+        NetworkScanTargets.Subnet subnet = NetworkScanTargets.Subnet.of(ip("192.168.1.50"), 24, null);
+
+        assertTrue(subnet.contains("192.168.1.120"));
+        assertFalse(subnet.contains("192.168.1.50")); // own address
+        assertFalse(subnet.contains("192.168.1.255"));
+        assertFalse(subnet.contains("192.168.2.120"));
+        assertFalse(subnet.contains("printer.local"));
+        assertFalse(subnet.contains("192.168.1.1200"));
+    }
+}
@@ -0,0 +1,134 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.getcapacitor.community.escposprinter.printers.NetworkScanner;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+public class NetworkScannerTests {
+    private final List<ServerSocket> listeners = new ArrayList<>();
+    private int port;
+
+    @Before
+    public void setUp() throws Exception {
+        // 127.0.0.2 and .4 listen; .3 and .5 refuse.
+        ServerSocket first = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.2"));
+        listeners.add(first);
+        port = first.getLocalPort();
+        listeners.add(new ServerSocket(port, 50, InetAddress.getByName("127.0.0.4")));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (ServerSocket listener : listeners) {
+            listener.close();
+        }
+    }
+
+    @Test
+    public void findsListeningHosts() throws Exception {
+        List<String> found = NetworkScanner.scan(
+                Arrays.asList("127.0.0.2", "127.0.0.3", "127.0.0.4", "127.0.0.5"), port, 500);
+
+        assertEquals(new HashSet<>(Arrays.asList("127.0.0.2", "127.0.0.4")), new HashSet<>(found));
+        assertEquals(2, found.size());
+    }
+
+    @Test
+    public void sweepsMoreHostsThanConnectsInFlight() throws Exception {
+        List<String> hosts = new ArrayList<>();
+        for (int host = 2; host <= 60; host++) {
+            hosts.add("127.0.0." + host);
+        }
+        List<String> found = NetworkScanner.scan(hosts, port, 500, 4);
+
+        Collections.sort(found);
+        assertEquals(Arrays.asList("127.0.0.2", "127.0.0.4"), found);
+    }
+
+    @Test
+    public void silentHostsExpireAtTheirDeadline() throws Exception {
+        // TEST-NET-1 never answers (or has no route at all).
+        List<String> hosts = Arrays.asList("192.0.2.1", "192.0.2.2", "192.0.2.3", "127.0.0.2");
+        long start = System.nanoTime();
+        List<String> found = NetworkScanner.scan(hosts, port, 300);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+
+        assertEquals(Collections.singletonList("127.0.0.2"), found);
+        assertTrue("took " + elapsedMs + " ms", elapsedMs < 1500);
+    }
+
+    @Test
+    public void malformedTargetsAreSkipped() throws Exception {
+        List<String> found = NetworkScanner.scan(Arrays.asList("", "127.0.0.2"), port, 300);
+        assertEquals(Collections.singletonList("127.0.0.2"), found);
+    }
+
+    @Test
+    public void listenerSeesHostsAsTheyAnswerAndCanStopTheSweep() throws Exception {
+        List<String> seen = new ArrayList<>();
+        List<String> found = NetworkScanner.scan(
+                Arrays.asList("127.0.0.2", "127.0.0.3", "127.0.0.4").iterator(), port, 500, 1, 0, host -> {
+                    seen.add(host);
+                    return false; // one is enough
+                });
+
+        assertEquals(Collections.singletonList("127.0.0.2"), seen);
+        assertEquals(seen, found);
+    }
+
+    @Test
+    public void budgetEndsTheSweepWithWhatWasFound() throws Exception {
+        List<String> hosts = new ArrayList<>(Arrays.asList("127.0.0.2"));
+        for (int host = 1; host <= 20; host++) {
+            hosts.add("192.0.2." + host);
+        }
+        long start = System.nanoTime();
+        List<String> found = NetworkScanner.scan(hosts.iterator(), port, 5000, 4, 300, null);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+
+        assertEquals(Collections.singletonList("127.0.0.2"), found);
+        assertTrue("took " + elapsedMs + " ms", elapsedMs < 2000);
+    }
+
+    @Test
+    public void interruptStopsTheSweep() throws Exception {
+        List<String> hosts = new ArrayList<>();
+        for (int host = 1; host <= 20; host++) {
+            hosts.add("192.0.2." + host);
+        }
+        Thread scanning = Thread.currentThread();
+        Thread canceller = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ignored) {
+                // ignore
+            }
+            scanning.interrupt();
+        });
+        canceller.start();
+        long start = System.nanoTime();
+        try {
+            NetworkScanner.scan(hosts.iterator(), port, 5000, 4, 0, null);
+            fail("expected InterruptedException");
+        } catch (InterruptedException expected) {
+            // cancelled
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+        canceller.join();
+        assertTrue("took " + elapsedMs + " ms", elapsedMs < 2000);
+    }
+}
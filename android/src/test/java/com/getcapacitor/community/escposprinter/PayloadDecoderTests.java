@@ -0,0 +1,107 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.getcapacitor.community.escposprinter.payload.BytePool;
+import com.getcapacitor.community.escposprinter.payload.PayloadDecoder;
+
+import org.json.JSONArray;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+public class PayloadDecoderTests {
+
+    @Test
+    public void decodesBase64LikeTheJdk() {
+        Random random = new Random(42);
+        for (int size = 0; size < 70; size++) {
+            byte[] expected = new byte[size];
+            random.nextBytes(expected);
+            String encoded = Base64.getEncoder().encodeToString(expected);
+
+            byte[] dst = new byte[PayloadDecoder.maxDecodedLength(encoded)];
+            int length = PayloadDecoder.decodeBase64(encoded, dst);
+
+            assertEquals(size, length);
+            assertArrayEquals(expected, Arrays.copyOf(dst, length));
+        }
+    }
+
+    @Test
+    public void acceptsUnpaddedUrlSafeAndWrappedInput() {
+        byte[] expected = new byte[] { (byte) 0xFB, (byte) 0xFF, 0x1B, 0x40 };
+        String urlSafe = Base64.getUrlEncoder().withoutPadding().encodeToString(expected);
+        String wrapped = "+/8b\nQA==\n";
+
+        byte[] dst = new byte[8];
+        assertEquals(4, PayloadDecoder.decodeBase64(urlSafe, dst));
+        assertArrayEquals(expected, Arrays.copyOf(dst, 4));
+        assertEquals(4, PayloadDecoder.decodeBase64(wrapped, dst));
+        assertArrayEquals(expected, Arrays.copyOf(dst, 4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidCharacters() {
+        PayloadDecoder.decodeBase64("G0A*", new byte[3]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTruncatedInput() {
+        PayloadDecoder.decodeBase64("G0AgQ", new byte[4]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDataAfterPadding() {
+        PayloadDecoder.decodeBase64("G0A=G0A=", new byte[6]);
+    }
+
+    @Test
+    public void decodesLegacyJsonArray() {
+        JSONArray array = new JSONArray();
+        array.put(0x1B);
+        array.put(0x40);
+        array.put(255);
+        array.put(256 + 0x0A);
+
+        byte[] dst = new byte[16];
+        int length = PayloadDecoder.decodeJsonArray(array, dst);
+
+        assertEquals(4, length);
+        assertArrayEquals(new byte[] { 0x1B, 0x40, (byte) 0xFF, 0x0A }, Arrays.copyOf(dst, length));
+    }
+
+    @Test
+    public void poolReusesBestFitBuffers() {
+        BytePool pool = new BytePool();
+        byte[] small = pool.acquire(100);
+        byte[] large = pool.acquire(200 * 1024);
+        assertEquals(4 * 1024, small.length);
+        assertEquals(256 * 1024, large.length);
+
+        pool.release(large);
+        pool.release(small);
+
+        assertSame(small, pool.acquire(1000));
+        assertSame(large, pool.acquire(150 * 1024));
+    }
+
+    @Test
+    public void poolDoesNotRetainOversizedBuffers() {
+        BytePool pool = new BytePool();
+        byte[] huge = pool.acquire(3 * 1024 * 1024);
+        assertEquals(3 * 1024 * 1024, huge.length);
+
+        pool.release(huge);
+
+        byte[] next = pool.acquire(3 * 1024 * 1024);
+        assertNotSame(huge, next);
+        assertTrue(next.length >= 3 * 1024 * 1024);
+    }
+}
@@ -0,0 +1,103 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.getcapacitor.community.escposprinter.printers.BasePrinter;
+import com.getcapacitor.community.escposprinter.printers.PrintJob;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PrintJobTests {
+
+    /** In-memory printer: records the output stream and every send(). */
+    private static class FakePrinter extends BasePrinter {
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        final List<byte[]> sends = new ArrayList<>();
+        final boolean persistent;
+
+        FakePrinter(boolean persistent) {
+            this.persistent = persistent;
+        }
+
+        @Override
+        public void connect() {
+            inputStream = new ByteArrayInputStream(new byte[0]);
+            outputStream = written;
+        }
+
+        @Override
+        public boolean supportsStreaming() {
+            return persistent && isConnected();
+        }
+
+        @Override
+        public void send(byte[] data, int offset, int length, int addWaitingTime) {
+            byte[] copy = new byte[length];
+            System.arraycopy(data, offset, copy, 0, length);
+            sends.add(copy);
+        }
+    }
+
+    @Test
+    public void streamsChunksToConnectedPrinter() throws Exception {
+        FakePrinter printer = new FakePrinter(true);
+        printer.connect();
+        PrintJob job = new PrintJob("job-1", printer);
+        job.start();
+
+        assertTrue(job.isStreaming());
+        job.append(new byte[] { 0x1B, 0x40, 0x41 }, 0, 2);
+        assertArrayEquals(new byte[] { 0x1B, 0x40 }, printer.written.toByteArray());
+        job.append(new byte[] { 0x0A }, 0, 1);
+        job.commit(0);
+
+        assertArrayEquals(new byte[] { 0x1B, 0x40, 0x0A }, printer.written.toByteArray());
+        assertEquals(3, job.getTotalBytes());
+        assertTrue(printer.sends.isEmpty());
+    }
+
+    @Test
+    public void stagesChunksUntilCommit() throws Exception {
+        FakePrinter printer = new FakePrinter(false);
+        PrintJob job = new PrintJob("job-2", printer);
+        job.start();
+
+        assertFalse(job.isStreaming());
+        job.append(new byte[] { 0x00, 0x1B, 0x40 }, 1, 2);
+        job.append(new byte[] { 0x0A }, 0, 1);
+        assertTrue(printer.sends.isEmpty());
+
+        job.commit(0);
+
+        assertEquals(1, printer.sends.size());
+        assertArrayEquals(new byte[] { 0x1B, 0x40, 0x0A }, printer.sends.get(0));
+    }
+
+    @Test
+    public void stagedJobGrowsPastInitialCapacity() throws Exception {
+        FakePrinter printer = new FakePrinter(false);
+        PrintJob job = new PrintJob("job-3", printer);
+        job.start();
+
+        byte[] chunk = new byte[3000];
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = (byte) i;
+        }
+        for (int i = 0; i < 10; i++) {
+            job.append(chunk, 0, chunk.length);
+        }
+        job.commit(0);
+
+        byte[] sent = printer.sends.get(0);
+        assertEquals(30000, sent.length);
+        assertEquals((byte) 2999, sent[29999]);
+    }
+}
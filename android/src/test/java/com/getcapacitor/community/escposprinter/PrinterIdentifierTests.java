@@ -0,0 +1,127 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.getcapacitor.community.escposprinter.printers.PrinterIdentifier;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+public class PrinterIdentifierTests {
+
+    /**
+     * Printer on 127.0.0.1 answering each request as it comes: answers[0]
+     * to DLE EOT, then GS I n=66, 67 and 65 in the order asked (empty: silent).
+     */
+    private static class ScriptedPrinter implements AutoCloseable {
+        final ServerSocket server;
+
+        ScriptedPrinter(byte[]... answers) throws IOException {
+            server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread thread = new Thread(() -> {
+                try (Socket client = server.accept()) {
+                    InputStream in = client.getInputStream();
+                    for (byte[] answer : answers) {
+                        for (int i = 0; i < 3; i++) {
+                            in.read();
+                        }
+                        client.getOutputStream().write(answer);
+                        client.getOutputStream().flush();
+                    }
+                    in.read(); // hold the connection until the client is done
+                } catch (IOException e) {
+                    // client gone
+                }
+            }, "scripted-printer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+
+    private static final byte[] SILENT = new byte[0];
+
+    private static byte[] status(int status) {
+        return new byte[] { (byte) status };
+    }
+
+    private static byte[] block(String text) {
+        return ("_" + text + "\0").getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    public void readsMakerModelFirmwareAndStatus() throws IOException {
+        try (ScriptedPrinter printer = new ScriptedPrinter(status(0x12), block("EPSON"), block("TM-T20II"), block("1.01 ESC/POS"))) {
+            PrinterIdentifier.Identity identity = PrinterIdentifier.identify("127.0.0.1", printer.port(), 1000, 1000);
+
+            assertEquals("EPSON", identity.maker);
+            assertEquals("TM-T20II", identity.model);
+            assertEquals("1.01 ESC/POS", identity.firmware);
+            assertTrue(identity.supportsDleEot);
+            assertEquals("EPSON TM-T20II", identity.label());
+        }
+    }
+
+    @Test
+    public void statusAfterTheBlocksIsStillRecognized() throws IOException {
+        byte[] firmwareThenStatus = { '_', '2', '.', '0', 0, 0x16 }; // cover open bit set, fixed bits intact
+        try (ScriptedPrinter printer = new ScriptedPrinter(SILENT, block("Star"), block("Star TSP143"), firmwareThenStatus)) {
+            PrinterIdentifier.Identity identity = PrinterIdentifier.identify("127.0.0.1", printer.port(), 1000, 1000);
+
+            assertTrue(identity.supportsDleEot);
+            assertEquals("Star TSP143", identity.label());
+        }
+    }
+
+    @Test
+    public void silentPrinterEndsAfterTheReplyWindow() throws IOException {
+        try (ScriptedPrinter printer = new ScriptedPrinter(status(0x12), SILENT, SILENT, SILENT)) {
+            long start = System.nanoTime();
+            PrinterIdentifier.Identity identity = PrinterIdentifier.identify("127.0.0.1", printer.port(), 1000, 200);
+
+            assertTrue((System.nanoTime() - start) / 1_000_000L < 1000);
+            assertTrue(identity.supportsDleEot);
+            assertNull(identity.model);
+            assertNull(identity.label());
+        }
+    }
+
+    @Test
+    public void noStatusByteMeansNoDleEot() throws IOException {
+        try (ScriptedPrinter printer = new ScriptedPrinter(SILENT, block("ACME"), block("POS-80"), block("V1"))) {
+            PrinterIdentifier.Identity identity = PrinterIdentifier.identify("127.0.0.1", printer.port(), 1000, 200);
+
+            assertFalse(identity.supportsDleEot);
+            assertEquals("ACME POS-80", identity.label());
+        }
+    }
+
+    @Test
+    public void firmwareOnlyPrinterIsNotTakenForItsMaker() throws IOException {
+        try (ScriptedPrinter printer = new ScriptedPrinter(status(0x12), SILENT, SILENT, block("1.00 ESC/POS"))) {
+            PrinterIdentifier.Identity identity = PrinterIdentifier.identify("127.0.0.1", printer.port(), 1000, 200);
+
+            assertNull(identity.maker);
+            assertNull(identity.model);
+            assertEquals("1.00 ESC/POS", identity.firmware);
+            assertTrue(identity.supportsDleEot);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.getcapacitor.community.escposprinter.printers.PrinterStatus;
+import com.getcapacitor.community.escposprinter.printers.StatusFlag;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+
+public class PrinterStatusTests {
+
+    @Test
+    public void decodesPrinterStatusFlags() {
+        assertEquals(0, PrinterStatus.decode(1, 0x12));
+        assertEquals(StatusFlag.OFFLINE.bit, PrinterStatus.decode(1, 0x12 | 0x08));
+        assertEquals(StatusFlag.PAPER_OUT.bit, PrinterStatus.decode(1, 0x12 | 0x20));
+        assertEquals(EnumSet.of(StatusFlag.OFFLINE, StatusFlag.PAPER_OUT, StatusFlag.ERROR),
+                StatusFlag.of(PrinterStatus.decode(1, 0x08 | 0x20 | 0x40)));
+        assertEquals(0, PrinterStatus.decode(1, -1));
+    }
+
+    @Test
+    public void tellsNearEndFromCoverOpenFromCutterJam() {
+        PrinterStatus nearEnd = new PrinterStatus(new int[] { 0x12, 0x12, 0x12, 0x1E });
+        PrinterStatus coverOpen = new PrinterStatus(new int[] { 0x1A, 0x16, 0x12, 0x12 });
+        PrinterStatus cutterJam = new PrinterStatus(new int[] { 0x1A, 0x52, 0x1A, 0x12 });
+
+        assertEquals(EnumSet.of(StatusFlag.PAPER_NEAR_END), StatusFlag.of(nearEnd.flags()));
+        assertFalse(nearEnd.hasProblem());
+        assertEquals(EnumSet.of(StatusFlag.OFFLINE, StatusFlag.COVER_OPEN), StatusFlag.of(coverOpen.flags()));
+        assertEquals(EnumSet.of(StatusFlag.OFFLINE, StatusFlag.ERROR, StatusFlag.CUTTER_ERROR),
+                StatusFlag.of(cutterJam.flags()));
+        assertTrue(cutterJam.hasProblem());
+    }
+
+    @Test
+    public void paperEndIsReportedOnceWhateverTheSource() {
+        PrinterStatus paperEnd = new PrinterStatus(new int[] { 0x1E, 0x32, 0x12, 0x72 });
+
+        assertEquals(EnumSet.of(StatusFlag.DRAWER_SIGNAL, StatusFlag.OFFLINE, StatusFlag.PAPER_OUT),
+                StatusFlag.of(paperEnd.flags()));
+        assertEquals(paperEnd.flags(), PrinterStatus.fromAsb(0x1C, 0x00, 0x0C).flags());
+    }
+
+    @Test
+    public void epsonFeedButtonIsNotAnError() {
+        PrinterStatus feeding = new PrinterStatus(new int[] { 0x5A, 0x1A, 0x12, 0x12 });
+
+        assertEquals(EnumSet.of(StatusFlag.OFFLINE, StatusFlag.FEED_BUTTON), StatusFlag.of(feeding.flags()));
+        assertFalse(feeding.hasProblem());
+        assertEquals(feeding.flags(), PrinterStatus.fromAsb(0x48, 0x00, 0x00).flags());
+        assertEquals(StatusFlag.ERROR.bit, PrinterStatus.decode(1, 0x52)); // n=1 alone can't tell
+    }
+
+    @Test
+    public void unansweredRequestsDecodeToNothing() {
+        PrinterStatus onlyPrinter = new PrinterStatus(new int[] { 0x16, -1, -1, -1 });
+
+        assertEquals(StatusFlag.DRAWER_SIGNAL.bit, onlyPrinter.flags());
+        assertFalse(onlyPrinter.hasProblem());
+    }
+}
@@ -0,0 +1,144 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.getcapacitor.community.escposprinter.image.DitherMode;
+import com.getcapacitor.community.escposprinter.image.PixelSource;
+import com.getcapacitor.community.escposprinter.image.RasterCache;
+import com.getcapacitor.community.escposprinter.image.RasterImage;
+import com.getcapacitor.community.escposprinter.image.RasterImageResolver;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.Base64;
+
+public class RasterCacheTests {
+
+    /** 80 dots wide = 10 bytes per row. */
+    private static RasterImage raster(int rows) {
+        return new RasterImage(80, rows, new byte[10 * rows]);
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedWithinByteBudget() {
+        RasterCache cache = new RasterCache(300);
+        cache.put("a", raster(10));
+        cache.put("b", raster(10));
+        cache.put("c", raster(10));
+        assertTrue(cache.get("a") != null); // a is now the most recent
+
+        cache.put("d", raster(10));
+
+        assertNull(cache.get("b"));
+        assertTrue(cache.get("a") != null);
+        RasterCache.Stats stats = cache.stats();
+        assertEquals(3, stats.entries);
+        assertEquals(300, stats.bytes);
+        assertEquals(1, stats.evictions);
+        assertEquals(2, stats.hits);
+        assertEquals(1, stats.misses);
+    }
+
+    @Test
+    public void rejectsImagesLargerThanTheBudget() {
+        RasterCache cache = new RasterCache(100);
+        assertFalse(cache.put("big", raster(11)));
+        assertEquals(0, cache.stats().entries);
+    }
+
+    @Test
+    public void shrinkingTheBudgetEvicts() {
+        RasterCache cache = new RasterCache(1000);
+        for (int i = 0; i < 5; i++) {
+            cache.put("k" + i, raster(10));
+        }
+        cache.setMaxBytes(200);
+
+        RasterCache.Stats stats = cache.stats();
+        assertEquals(2, stats.entries);
+        assertEquals(3, stats.evictions);
+        assertNull(cache.get("k0"));
+        assertTrue(cache.get("k4") != null);
+    }
+
+    @Test
+    public void inlineImagesNeverEvictStoredOnes() {
+        RasterCache cache = new RasterCache(300);
+        cache.store("logo", raster(10));
+        for (int i = 0; i < 5; i++) {
+            cache.put("inline" + i, raster(10));
+        }
+        assertTrue(cache.get("logo") != null);
+        assertNull(cache.get("inline2"));
+
+        // Stored images still evict each other once they fill the budget alone.
+        cache.store("b", raster(10));
+        cache.store("c", raster(10));
+        cache.store("d", raster(10));
+        assertNull(cache.get("inline4"));
+        assertNull(cache.get("logo"));
+        assertEquals(300, cache.stats().bytes);
+    }
+
+    @Test
+    public void keyCoversContentAndEncodeParameters() {
+        byte[] data = { 1, 2, 3, 4 };
+        String key = RasterCache.key(data, 0, 4, "file", 384, DitherMode.ATKINSON, 128);
+
+        assertEquals(32, key.length());
+        assertEquals(key, RasterCache.key(new byte[] { 9, 1, 2, 3, 4 }, 1, 4, "file", 384, DitherMode.ATKINSON, 128));
+        assertNotEquals(key, RasterCache.key(new byte[] { 1, 2, 3, 5 }, 0, 4, "file", 384, DitherMode.ATKINSON, 128));
+        assertNotEquals(key, RasterCache.key(data, 0, 4, "file", 576, DitherMode.ATKINSON, 128));
+        assertNotEquals(key, RasterCache.key(data, 0, 4, "file", 384, DitherMode.ORDERED, 128));
+        assertNotEquals(key, RasterCache.key(data, 0, 4, "file", 384, DitherMode.ATKINSON, 100));
+        assertNotEquals(key, RasterCache.key(data, 0, 4, "rgba:1x1", 384, DitherMode.ATKINSON, 128));
+    }
+
+    @Test
+    public void resolverEncodesRepeatedImagesOnce() {
+        int[] decodes = new int[1];
+        RasterCache cache = new RasterCache(RasterCache.DEFAULT_MAX_BYTES);
+        RasterImageResolver resolver = new RasterImageResolver((data, offset, length, width) -> {
+            decodes[0]++;
+            return PixelSource.argb(new int[16 * 4], 16, 4);
+        }, cache);
+        JSONObject op = new JSONObject().put("type", "image").put("dataBase64", "iVBORw0KGgo=");
+
+        RasterImage first = resolver.resolve(op);
+        RasterImage second = resolver.resolve(op);
+
+        assertSame(first, second);
+        assertEquals(1, decodes[0]);
+        assertEquals(1, cache.stats().hits);
+    }
+
+    @Test
+    public void storedImagesResolveById() {
+        RasterCache cache = new RasterCache(RasterCache.DEFAULT_MAX_BYTES);
+        RasterImageResolver resolver = new RasterImageResolver((data, offset, length, width) -> {
+            throw new IllegalArgumentException("unused");
+        }, cache);
+        JSONObject op = new JSONObject()
+                .put("rgbaBase64", Base64.getEncoder().encodeToString(new byte[8 * 2 * 4]))
+                .put("pixelWidth", 8)
+                .put("pixelHeight", 2);
+
+        String id = resolver.store(op);
+        assertEquals(1, cache.stats().misses);
+        assertEquals(1, cache.stats().entries);
+        RasterImage image = resolver.resolve(new JSONObject().put("type", "image").put("imageId", id));
+        assertEquals(8, image.width);
+        assertEquals(2, image.height);
+
+        cache.clear();
+        assertThrows(IllegalArgumentException.class,
+                () -> resolver.resolve(new JSONObject().put("type", "image").put("imageId", id)));
+    }
+}
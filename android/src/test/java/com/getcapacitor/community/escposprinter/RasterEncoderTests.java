@@ -0,0 +1,219 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.getcapacitor.community.escposprinter.document.DocumentCompiler;
+import com.getcapacitor.community.escposprinter.document.GraphicsStore;
+import com.getcapacitor.community.escposprinter.document.PrinterProfile;
+import com.getcapacitor.community.escposprinter.document.TextEncoder;
+import com.getcapacitor.community.escposprinter.image.DitherMode;
+import com.getcapacitor.community.escposprinter.image.PixelSource;
+import com.getcapacitor.community.escposprinter.image.RasterEncoder;
+import com.getcapacitor.community.escposprinter.image.RasterImage;
+import com.getcapacitor.community.escposprinter.image.RasterImageResolver;
+import com.getcapacitor.community.escposprinter.payload.GrowableByteBuffer;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+public class RasterEncoderTests {
+
+    private static PixelSource solid(int width, int height, int argb) {
+        int[] pixels = new int[width * height];
+        Arrays.fill(pixels, argb);
+        return PixelSource.argb(pixels, width, height);
+    }
+
+    private static int countBlack(RasterImage image) {
+        int black = 0;
+        for (int y = 0; y < image.height; y++) {
+            for (int x = 0; x < image.width; x++) {
+                if (image.isBlack(x, y)) {
+                    black++;
+                }
+            }
+        }
+        return black;
+    }
+
+    @Test
+    public void scalesToTargetWidthKeepingAspectRatio() {
+        RasterImage image = new RasterEncoder(384, DitherMode.THRESHOLD, 128).encode(solid(1200, 900, 0xFF000000));
+        assertEquals(384, image.width);
+        assertEquals(288, image.height);
+        assertEquals(48, image.widthBytes);
+        assertEquals(384 * 288, countBlack(image));
+    }
+
+    @Test
+    public void thresholdSplitsAGradient() {
+        int[] pixels = new int[256 * 4];
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 256; x++) {
+                pixels[y * 256 + x] = 0xFF000000 | x << 16 | x << 8 | x;
+            }
+        }
+        RasterImage image = new RasterEncoder(0, DitherMode.THRESHOLD, 128).encode(PixelSource.argb(pixels, 256, 4));
+        assertTrue(image.isBlack(127, 0));
+        assertFalse(image.isBlack(128, 0));
+        assertEquals(128 * 4, countBlack(image));
+    }
+
+    @Test
+    public void transparentPixelsPrintAsPaper() {
+        byte[] rgba = new byte[8 * 2 * 4]; // all zero: transparent black
+        RasterImage image = new RasterEncoder(0, DitherMode.THRESHOLD, 128).encode(PixelSource.rgba(rgba, 0, 8, 2));
+        assertEquals(0, countBlack(image));
+    }
+
+    @Test
+    public void ditheringPreservesMidGrayDensityAcrossBands() {
+        // 300 rows = several parallel bands
+        PixelSource gray = solid(200, 300, 0xFF808080);
+        for (DitherMode mode : new DitherMode[] { DitherMode.FLOYD_STEINBERG, DitherMode.ORDERED }) {
+            RasterImage image = new RasterEncoder(0, mode, 128).encode(gray);
+            double density = countBlack(image) / (double) (200 * 300);
+            assertEquals(mode.jsName, 0.5, density, 0.03);
+        }
+        // Atkinson drops 1/4 of the error, so mid gray comes out lighter.
+        RasterImage atkinson = new RasterEncoder(0, DitherMode.ATKINSON, 128).encode(gray);
+        double density = countBlack(atkinson) / (double) (200 * 300);
+        assertTrue("atkinson density " + density, density > 0.25 && density < 0.55);
+    }
+
+    @Test
+    public void writesGsV0InStripes() {
+        RasterImage image = new RasterEncoder(0, DitherMode.THRESHOLD, 128).encode(solid(16, 300, 0xFF000000));
+        GrowableByteBuffer out = new GrowableByteBuffer();
+        image.writeGsV0(out);
+
+        byte[] bytes = out.toByteArray();
+        assertEquals(2 * 8 + 2 * 300, bytes.length);
+        assertArrayEquals(new byte[] { 0x1D, 'v', '0', 0, 2, 0, 0, 1 }, Arrays.copyOf(bytes, 8));
+        int second = 8 + 2 * 256;
+        assertArrayEquals(new byte[] { 0x1D, 'v', '0', 0, 2, 0, 44, 0 }, Arrays.copyOfRange(bytes, second, second + 8));
+    }
+
+    @Test
+    public void writesEscStarColumns() {
+        // 2x3 image, left column black
+        int[] pixels = { 0xFF000000, 0xFFFFFFFF, 0xFF000000, 0xFFFFFFFF, 0xFF000000, 0xFFFFFFFF };
+        RasterImage image = new RasterEncoder(0, DitherMode.THRESHOLD, 128).encode(PixelSource.argb(pixels, 2, 3));
+        GrowableByteBuffer out = new GrowableByteBuffer();
+        image.writeEscStar(out);
+
+        assertArrayEquals(new byte[] {
+                0x1B, '3', 24,
+                0x1B, '*', 33, 2, 0, (byte) 0xE0, 0, 0, 0, 0, 0, 0x0A,
+                0x1B, '2'
+        }, out.toByteArray());
+    }
+
+    @Test
+    public void compactGsV0FeedsBlankRowsAndTrimsWhiteColumns() {
+        // 64 dots wide: 2 black rows (first 2 bytes only), 40 blank rows, 1 black row
+        byte[] data = new byte[8 * 43];
+        data[0] = (byte) 0xFF;
+        data[1] = (byte) 0x80;
+        data[8] = (byte) 0x01;
+        data[42 * 8] = (byte) 0xF0;
+        RasterImage image = new RasterImage(64, 43, data);
+
+        GrowableByteBuffer out = new GrowableByteBuffer();
+        image.writeGsV0Compact(out, true);
+
+        assertArrayEquals(new byte[] {
+                0x1D, 'v', '0', 0, 2, 0, 2, 0, (byte) 0xFF, (byte) 0x80, 0x01, 0x00,
+                0x1B, 'J', 40,
+                0x1D, 'v', '0', 0, 1, 0, 1, 0, (byte) 0xF0
+        }, out.toByteArray());
+
+        out = new GrowableByteBuffer();
+        image.writeGsV0Compact(out, false);
+        assertEquals(8 + 2 * 8 + 3 + 8 + 8, out.size());
+    }
+
+    @Test
+    public void compactGsV0KeepsShortBlankRunsInline() {
+        // 1 byte wide: a blank row costs 1 byte, a feed 11
+        RasterImage image = new RasterImage(8, 3, new byte[] { 1, 0, 1 });
+        GrowableByteBuffer out = new GrowableByteBuffer();
+        image.writeGsV0Compact(out, true);
+        assertArrayEquals(new byte[] { 0x1D, 'v', '0', 0, 1, 0, 3, 0, 1, 0, 1 }, out.toByteArray());
+    }
+
+    @Test
+    public void compactGsV0FeedsLongRunsInSteps() {
+        RasterImage image = new RasterImage(8, 300, new byte[300]);
+        GrowableByteBuffer out = new GrowableByteBuffer();
+        image.writeGsV0Compact(out, true);
+        assertArrayEquals(new byte[] { 0x1B, 'J', (byte) 255, 0x1B, 'J', 45 }, out.toByteArray());
+    }
+
+    @Test
+    public void compactEscStarSkipsBlankStripes() {
+        byte[] data = new byte[2 * 48];
+        data[0] = (byte) 0x80; // top-left dot in the first stripe only
+        RasterImage image = new RasterImage(16, 48, data);
+        GrowableByteBuffer out = new GrowableByteBuffer();
+        image.writeEscStarCompact(out, true);
+
+        assertArrayEquals(new byte[] {
+                0x1B, '3', 24,
+                0x1B, '*', 33, 8, 0,
+                (byte) 0x80, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+                0x0A,
+                0x0A,
+                0x1B, '2'
+        }, out.toByteArray());
+    }
+
+    @Test
+    public void compilerCompactsRasterPerPrinterProfile() {
+        // 2 bytes wide, 10 rows: one black row then 9 blank rows
+        byte[] raster = new byte[20];
+        raster[0] = (byte) 0xFF;
+        JSONArray document = new JSONArray()
+                .put(new JSONObject().put("type", "init"))
+                .put(new JSONObject().put("type", "raster").put("widthBytes", 2).put("height", 10)
+                        .put("dataBase64", Base64.getEncoder().encodeToString(raster)));
+
+        byte[] compact = new DocumentCompiler().compile(document, new PrinterProfile(true, null), GraphicsStore.NONE).toByteArray();
+        assertArrayEquals(new byte[] {
+                0x1B, '@',
+                0x1D, 'v', '0', 0, 1, 0, 1, 0, (byte) 0xFF,
+                0x1B, 'J', 9
+        }, compact);
+
+        byte[] plain = new DocumentCompiler().compile(document, PrinterProfile.DEFAULT, GraphicsStore.NONE).toByteArray();
+        assertEquals(2 + 8 + 20, plain.length);
+    }
+
+    @Test
+    public void compilesImageOperationFromRgba() {
+        byte[] rgba = new byte[8 * 1 * 4];
+        for (int i = 3; i < rgba.length; i += 4) {
+            rgba[i] = (byte) 0xFF; // opaque black
+        }
+        JSONObject op = new JSONObject()
+                .put("type", "image")
+                .put("rgbaBase64", Base64.getEncoder().encodeToString(rgba))
+                .put("pixelWidth", 8)
+                .put("pixelHeight", 1)
+                .put("dither", "threshold");
+        DocumentCompiler compiler = new DocumentCompiler(TextEncoder.ASCII, new RasterImageResolver((data, offset, length, width) -> {
+            throw new IllegalArgumentException("unused");
+        }));
+
+        byte[] bytes = compiler.compile(new JSONArray().put(op)).toByteArray();
+
+        assertArrayEquals(new byte[] { 0x1D, 'v', '0', 0, 1, 0, 1, 0, (byte) 0xFF }, bytes);
+    }
+}
@@ -0,0 +1,70 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.getcapacitor.community.escposprinter.printers.RttEstimator;
+
+import org.junit.Test;
+
+public class RttEstimatorTests {
+    private final RttEstimator rtt = new RttEstimator();
+
+    @Test
+    public void unknownPrinterGetsTheCeiling() {
+        assertEquals(-1, rtt.rtoMs("192.168.1.120:9100"));
+        assertEquals(300, rtt.timeoutMs("192.168.1.120:9100", 50, 300));
+    }
+
+    @Test
+    public void firstAnswerSetsTheEstimate() {
+        rtt.sample("p", 10);
+
+        assertEquals(30, rtt.rtoMs("p")); // 10 + 4 * 5
+        assertEquals(50, rtt.timeoutMs("p", 50, 300));
+        assertEquals(30, rtt.timeoutMs("p", 1, 300));
+    }
+
+    @Test
+    public void steadyPrinterConvergesOnItsRoundTrip() {
+        for (int i = 0; i < 50; i++) {
+            rtt.sample("p", 2);
+        }
+
+        assertTrue(rtt.rtoMs("p") <= 4);
+    }
+
+    @Test
+    public void jitterWidensTheWindow() {
+        for (int i = 0; i < 50; i++) {
+            rtt.sample("p", i % 2 == 0 ? 5 : 100);
+        }
+
+        assertTrue(rtt.rtoMs("p") > 100);
+        assertEquals(200, rtt.timeoutMs("p", 50, 200));
+    }
+
+    @Test
+    public void timeoutsDoubleUntilAnAnswer() {
+        rtt.sample("p", 10);
+        rtt.timedOut("p");
+        assertEquals(60, rtt.rtoMs("p"));
+        for (int i = 0; i < 5; i++) {
+            rtt.timedOut("p");
+        }
+        assertEquals(240, rtt.rtoMs("p"));
+
+        rtt.sample("p", 10);
+        assertEquals(25, rtt.rtoMs("p")); // 10 + 4 * 3.75, backoff reset
+    }
+
+    @Test
+    public void leastRecentlyUsedPrintersFallOff() {
+        for (int i = 0; i <= 256; i++) {
+            rtt.sample("10.0.0." + i + ":9100", 5);
+        }
+
+        assertEquals(-1, rtt.rtoMs("10.0.0.0:9100"));
+        assertEquals(15, rtt.rtoMs("10.0.0.256:9100"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.getcapacitor.community.escposprinter.printers.PrinterStatus;
+import com.getcapacitor.community.escposprinter.printers.StatusMonitor;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StatusMonitorTests {
+    private static final PrinterStatus OK = new PrinterStatus(new int[] { 0x12, 0x12, 0x12, 0x12 });
+    private static final PrinterStatus PAPER_OUT = new PrinterStatus(new int[] { 0x12, 0x12, 0x12, 0x72 });
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<String> changes = Collections.synchronizedList(new ArrayList<>());
+    private final StatusMonitor monitor = new StatusMonitor(scheduler,
+            (key, status) -> changes.add(key + " " + (status == OK ? "ok" : status == PAPER_OUT ? "paper out" : "unreachable")));
+
+    /** Answers its statuses in turn (the last one from then on) and counts polls. */
+    private static class ScriptedTarget implements StatusMonitor.Target {
+        final PrinterStatus[] statuses;
+        final AtomicInteger polls = new AtomicInteger();
+        final AtomicBoolean busy = new AtomicBoolean();
+
+        ScriptedTarget(PrinterStatus... statuses) {
+            this.statuses = statuses;
+        }
+
+        @Override
+        public boolean busy() {
+            return busy.get();
+        }
+
+        @Override
+        public void poll(StatusMonitor.Callback callback) {
+            int poll = polls.getAndIncrement();
+            callback.done(statuses[Math.min(poll, statuses.length - 1)]);
+        }
+    }
+
+    @After
+    public void shutDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void onlyChangesAreReported() throws InterruptedException {
+        ScriptedTarget target = new ScriptedTarget(OK, OK, PAPER_OUT, PAPER_OUT, null);
+        monitor.subscribe("p1", 10, target);
+        Thread.sleep(300);
+        monitor.unsubscribe("p1");
+
+        List<String> expected = new ArrayList<>();
+        expected.add("p1 ok");
+        expected.add("p1 paper out");
+        expected.add("p1 unreachable");
+        assertEquals(expected, changes);
+    }
+
+    @Test
+    public void busyPrinterIsNotPolled() throws InterruptedException {
+        ScriptedTarget target = new ScriptedTarget(OK);
+        target.busy.set(true);
+        monitor.subscribe("p1", 10, target);
+        Thread.sleep(150);
+
+        assertEquals(0, target.polls.get());
+        target.busy.set(false);
+        Thread.sleep(150);
+        assertTrue(target.polls.get() > 0);
+        assertEquals(OK, monitor.current("p1"));
+    }
+
+    @Test
+    public void unreachablePrinterIsPolledLessOften() throws InterruptedException {
+        ScriptedTarget reachable = new ScriptedTarget(OK);
+        ScriptedTarget unreachable = new ScriptedTarget((PrinterStatus) null);
+        monitor.subscribe("up", 20, reachable);
+        monitor.subscribe("down", 20, unreachable);
+        Thread.sleep(700);
+
+        // Backoff: polls at about 0, 40, 120, 280, 600 ms.
+        assertTrue(unreachable.polls.get() <= 6);
+        assertTrue(reachable.polls.get() >= 15);
+        assertNull(monitor.current("down"));
+    }
+
+    @Test
+    public void unsubscribedPrinterIsNoLongerPolled() throws InterruptedException {
+        ScriptedTarget target = new ScriptedTarget(OK);
+        monitor.subscribe("p1", 10, target);
+        Thread.sleep(100);
+        assertTrue(monitor.unsubscribe("p1"));
+        int polls = target.polls.get();
+        Thread.sleep(100);
+
+        assertEquals(polls, target.polls.get());
+        assertFalse(monitor.isSubscribed("p1"));
+        assertFalse(monitor.unsubscribe("p1"));
+    }
+}
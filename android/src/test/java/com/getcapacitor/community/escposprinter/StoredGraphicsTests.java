@@ -0,0 +1,122 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.getcapacitor.community.escposprinter.document.DocumentCompiler;
+import com.getcapacitor.community.escposprinter.document.PrinterProfile;
+import com.getcapacitor.community.escposprinter.image.GraphicsStorage;
+import com.getcapacitor.community.escposprinter.image.RasterImage;
+import com.getcapacitor.community.escposprinter.image.StoredGraphics;
+import com.getcapacitor.community.escposprinter.payload.GrowableByteBuffer;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class StoredGraphicsTests {
+    private static final String PRINTER = "network:10.0.0.5:9100";
+
+    private static final byte[] PRINT_DOWNLOAD_L1 = { 0x1D, '(', 'L', 6, 0, 48, 85, 'L', '1', 1, 1 };
+
+    private static RasterImage logo() {
+        return new RasterImage(16, 2, new byte[] { (byte) 0xFF, 0x00, 0x0F, (byte) 0xF0 });
+    }
+
+    private static byte[] compile(StoredGraphics.Session graphics) {
+        JSONArray document = new JSONArray().put(new JSONObject().put("type", "storedImage").put("key", "L1"));
+        return new DocumentCompiler().compile(document, PrinterProfile.DEFAULT, graphics).toByteArray();
+    }
+
+    @Test
+    public void writesGsParenLCommands() {
+        GrowableByteBuffer out = new GrowableByteBuffer();
+        GraphicsStorage.NV.writeDefine(out, "L1", logo());
+        assertArrayEquals(new byte[] {
+                0x1D, '(', 'L', 15, 0, 48, 67, 48, 'L', '1', 1, 16, 0, 2, 0, 49,
+                (byte) 0xFF, 0x00, 0x0F, (byte) 0xF0
+        }, out.toByteArray());
+
+        out = new GrowableByteBuffer();
+        GraphicsStorage.DOWNLOAD.writePrint(out, "L1");
+        assertArrayEquals(PRINT_DOWNLOAD_L1, out.toByteArray());
+
+        out = new GrowableByteBuffer();
+        GraphicsStorage.DOWNLOAD.writeDelete(out, "L1");
+        assertArrayEquals(new byte[] { 0x1D, '(', 'L', 4, 0, 48, 82, 'L', '1' }, out.toByteArray());
+    }
+
+    @Test
+    public void usesGs8LForLargeDefinitions() {
+        RasterImage big = new RasterImage(576, 1000, new byte[72 * 1000]);
+        GrowableByteBuffer out = new GrowableByteBuffer();
+        GraphicsStorage.DOWNLOAD.writeDefine(out, "L1", big);
+
+        int params = 11 + 72 * 1000;
+        assertArrayEquals(new byte[] { 0x1D, '8', 'L', (byte) params, (byte) (params >> 8), (byte) (params >> 16), 0, 48, 83 },
+                Arrays.copyOf(out.toByteArray(), 9));
+        assertEquals(7 + params, out.size());
+    }
+
+    @Test
+    public void definesLazilyUntilAJobWasSent() {
+        StoredGraphics registry = new StoredGraphics();
+        registry.register(PRINTER, "L1", GraphicsStorage.DOWNLOAD, logo());
+
+        // Not committed (e.g. the send failed): still defined by the next job.
+        assertTrue(compile(registry.session(PRINTER)).length > PRINT_DOWNLOAD_L1.length);
+
+        StoredGraphics.Session session = registry.session(PRINTER);
+        assertTrue(compile(session).length > PRINT_DOWNLOAD_L1.length);
+        session.commit();
+
+        assertArrayEquals(PRINT_DOWNLOAD_L1, compile(registry.session(PRINTER)));
+    }
+
+    @Test
+    public void invalidationRedefinesDownloadGraphicsOnly() {
+        StoredGraphics registry = new StoredGraphics();
+        registry.register(PRINTER, "L1", GraphicsStorage.DOWNLOAD, logo());
+        registry.register(PRINTER, "N1", GraphicsStorage.NV, logo());
+        StoredGraphics.Session session = registry.session(PRINTER);
+        session.writeDefineIfNeeded("L1", new GrowableByteBuffer());
+        session.writeDefineIfNeeded("N1", new GrowableByteBuffer());
+        session.commit();
+
+        registry.invalidate(PRINTER, false);
+
+        session = registry.session(PRINTER);
+        assertTrue(session.writeDefineIfNeeded("L1", new GrowableByteBuffer()));
+        assertFalse(session.writeDefineIfNeeded("N1", new GrowableByteBuffer()));
+    }
+
+    @Test
+    public void reRegisteringTheSameImageKeepsItResident() {
+        StoredGraphics registry = new StoredGraphics();
+        registry.register(PRINTER, "L1", GraphicsStorage.DOWNLOAD, logo());
+        StoredGraphics.Session session = registry.session(PRINTER);
+        session.writeDefineIfNeeded("L1", new GrowableByteBuffer());
+        session.commit();
+
+        registry.register(PRINTER, "L1", GraphicsStorage.DOWNLOAD, logo());
+        assertFalse(registry.session(PRINTER).writeDefineIfNeeded("L1", new GrowableByteBuffer()));
+
+        registry.register(PRINTER, "L1", GraphicsStorage.DOWNLOAD, new RasterImage(8, 1, new byte[] { 1 }));
+        assertTrue(registry.session(PRINTER).writeDefineIfNeeded("L1", new GrowableByteBuffer()));
+    }
+
+    @Test
+    public void graphicsAreTrackedPerPrinter() {
+        StoredGraphics registry = new StoredGraphics();
+        registry.register(PRINTER, "L1", GraphicsStorage.DOWNLOAD, logo());
+
+        assertThrows(IllegalArgumentException.class, () -> compile(registry.session("network:10.0.0.6:9100")));
+        assertThrows(IllegalArgumentException.class,
+                () -> registry.register(PRINTER, "LOGO", GraphicsStorage.DOWNLOAD, logo()));
+    }
+}
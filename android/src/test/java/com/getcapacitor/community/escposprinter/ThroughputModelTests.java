@@ -0,0 +1,140 @@
+package com.getcapacitor.community.escposprinter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.getcapacitor.community.escposprinter.printers.BasePrinter;
+import com.getcapacitor.community.escposprinter.printers.ThroughputModel;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+
+public class ThroughputModelTests {
+    private static final String PRINTER = "usb:1234:5678";
+    private static final long SAMPLE = ThroughputModel.MIN_SAMPLE_BYTES;
+
+    /** Store keeping the last snapshot in memory. */
+    private static class MemoryStore implements ThroughputModel.Store {
+        String snapshot;
+        int saves;
+
+        @Override
+        public String load() {
+            return snapshot;
+        }
+
+        @Override
+        public void save(String snapshot) {
+            this.snapshot = snapshot;
+            saves++;
+        }
+    }
+
+    /** In-memory printer taking 50 ms per write, whose writes count as throughput samples like USB. */
+    private static class PacedPrinter extends BasePrinter {
+        @Override
+        public void connect() {
+            inputStream = new ByteArrayInputStream(new byte[0]);
+            outputStream = new OutputStream() {
+                @Override
+                public void write(int b) {
+                }
+
+                @Override
+                public void write(byte[] data, int offset, int length) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+        }
+
+        @Override
+        protected boolean writeTakesPrinterPace() {
+            return true;
+        }
+    }
+
+    @Test
+    public void firstSampleSetsTheEstimate() {
+        ThroughputModel model = new ThroughputModel(null);
+        assertTrue(model.record(PRINTER, SAMPLE, 1000));
+
+        ThroughputModel.Estimate estimate = model.get(PRINTER);
+        assertEquals(SAMPLE, estimate.bytesPerSecond, 0.001);
+        assertEquals(1, estimate.samples);
+        assertEquals(1000, model.printTimeMs(PRINTER, SAMPLE));
+    }
+
+    @Test
+    public void laterSamplesAreWeighted() {
+        ThroughputModel model = new ThroughputModel(null);
+        model.record(PRINTER, SAMPLE, 1000);
+        model.record(PRINTER, SAMPLE, 500); // twice as fast
+
+        // 0.7 * old + 0.3 * new
+        assertEquals(SAMPLE * 1.3, model.get(PRINTER).bytesPerSecond, 0.001);
+        assertEquals(2, model.get(PRINTER).samples);
+    }
+
+    @Test
+    public void smallJobsOnlyMeasureTheBuffer() {
+        ThroughputModel model = new ThroughputModel(null);
+        assertFalse(model.record(PRINTER, SAMPLE - 1, 10));
+        assertFalse(model.record(PRINTER, SAMPLE, 0));
+
+        assertNull(model.get(PRINTER));
+        assertEquals(-1, model.printTimeMs(PRINTER, 1000));
+    }
+
+    @Test
+    public void estimatesSurviveARestart() {
+        MemoryStore store = new MemoryStore();
+        ThroughputModel model = new ThroughputModel(store);
+        model.record(PRINTER, SAMPLE, 1000);
+        model.record("network:10.0.0.5:9100", SAMPLE * 4, 1000);
+        assertEquals(2, store.saves);
+
+        ThroughputModel restored = new ThroughputModel(store);
+        assertEquals(2, restored.all().size());
+        assertEquals(SAMPLE * 4, restored.get("network:10.0.0.5:9100").bytesPerSecond, 0.001);
+        assertEquals(model.get(PRINTER).updatedAt, restored.get(PRINTER).updatedAt);
+    }
+
+    @Test
+    public void malformedSnapshotsAreSkipped() {
+        MemoryStore store = new MemoryStore();
+        store.snapshot = "garbage\nusb:1:2\tfast\t1\t0\nusb:3:4\t2048.0\t3\t42\n";
+
+        ThroughputModel model = new ThroughputModel(store);
+        assertEquals(1, model.all().size());
+        assertEquals(3, model.get("usb:3:4").samples);
+    }
+
+    @Test
+    public void printerLearnsFromWritesAndWaitsByTheEstimate() throws Exception {
+        ThroughputModel model = new ThroughputModel(null);
+        PacedPrinter printer = new PacedPrinter();
+        printer.setThroughputModel(model, PRINTER);
+        printer.connect();
+
+        // 64 KB in ~50 ms: about 1.3 MB/s.
+        byte[] data = new byte[(int) SAMPLE * 4];
+        printer.send(data, 0);
+        assertNotNull(model.get(PRINTER));
+
+        // The heuristic would sleep 65536 / 16 = 4 s; by the estimate the
+        // printer was done when the write returned.
+        long start = System.nanoTime();
+        printer.send(data, 0);
+        assertTrue((System.nanoTime() - start) / 1_000_000L < 1000);
+        assertEquals(2, model.get(PRINTER).samples);
+    }
+}
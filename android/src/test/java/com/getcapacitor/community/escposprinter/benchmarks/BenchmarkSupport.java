@@ -0,0 +1,56 @@
+package com.getcapacitor.community.escposprinter.benchmarks;
+
+import org.junit.Assume;
+
+/**
+ * Minimal JVM benchmark harness for hot native paths.
+ *
+ * Benchmarks live next to the unit tests so they build against the same
+ * sources, but are skipped unless requested:
+ *   ./gradlew testDebugUnitTest -Pbenchmark --tests '*Benchmark'
+ *
+ * Numbers are indicative (JIT-warmed, single thread, desktop JVM), meant
+ * for before/after comparisons rather than absolute device throughput.
+ */
+final class BenchmarkSupport {
+    private static final long WARMUP_NANOS = 300_000_000L;
+    private static final long MEASURE_NANOS = 1_000_000_000L;
+
+    /** Keeps results observable so the JIT can't drop the measured work. */
+    static volatile long sink;
+
+    private BenchmarkSupport() {}
+
+    static void assumeEnabled() {
+        Assume.assumeTrue("benchmarks disabled (run with -Pbenchmark)", Boolean.getBoolean("escpos.benchmark"));
+    }
+
+    interface Operation {
+        /** Runs once and returns a value derived from the result. */
+        long run() throws Exception;
+    }
+
+    /** Runs op repeatedly and returns the mean operations per second. */
+    static double opsPerSecond(Operation op) throws Exception {
+        runFor(op, WARMUP_NANOS);
+        long start = System.nanoTime();
+        long ops = runFor(op, MEASURE_NANOS);
+        return ops / ((System.nanoTime() - start) / 1e9);
+    }
+
+    static void report(String name, String unit, double value) {
+        System.out.printf("%-48s %14.1f %s%n", name, value, unit);
+    }
+
+    private static long runFor(Operation op, long nanos) throws Exception {
+        long deadline = System.nanoTime() + nanos;
+        long ops = 0;
+        long acc = 0;
+        do {
+            acc += op.run();
+            ops++;
+        } while (System.nanoTime() < deadline);
+        sink = acc;
+        return ops;
+    }
+}
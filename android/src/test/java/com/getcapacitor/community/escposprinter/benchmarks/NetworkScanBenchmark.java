@@ -0,0 +1,109 @@
+package com.getcapacitor.community.escposprinter.benchmarks;
+
+import com.getcapacitor.community.escposprinter.printers.NetworkScanner;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A /24 sweep over loopback: 127.0.0.1-254 on one port, with every fourth
+ * address listening. The selector sweep against the previous design, a
+ * pool of 64 threads each blocking in Socket.connect per host.
+ *
+ * Loopback refuses closed ports at once, so this measures the sweep's own
+ * overhead rather than silent-host timeouts (where keeping hundreds of
+ * connects in flight instead of 64 wins by far more). Needs the whole
+ * 127/8 on loopback, as on Linux.
+ */
+public class NetworkScanBenchmark {
+    private static final int LEGACY_THREADS = 64;
+    private static final int TIMEOUT_MS = 500;
+
+    private final List<ServerSocket> listeners = new ArrayList<>();
+    private final List<String> hosts = new ArrayList<>();
+    private int port;
+
+    @Before
+    public void setup() throws Exception {
+        BenchmarkSupport.assumeEnabled();
+        ServerSocket first = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.4"));
+        listeners.add(first);
+        port = first.getLocalPort();
+        for (int host = 1; host <= 254; host++) {
+            hosts.add("127.0.0." + host);
+            if (host % 4 == 0 && host != 4) {
+                listeners.add(new ServerSocket(port, 50, InetAddress.getByName("127.0.0." + host)));
+            }
+        }
+        // Accept and drop: a full backlog would turn listeners silent.
+        for (ServerSocket listener : listeners) {
+            Thread acceptor = new Thread(() -> {
+                while (!listener.isClosed()) {
+                    try {
+                        listener.accept().close();
+                    } catch (IOException e) {
+                        // closed in tearDown
+                    }
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (ServerSocket listener : listeners) {
+            listener.close();
+        }
+    }
+
+    @Test
+    public void sweepThroughput() throws Exception {
+        double legacy = BenchmarkSupport.opsPerSecond(() -> threadPerConnectSweep().size());
+        BenchmarkSupport.report("/24 sweep, 64 blocking threads", "hosts/s", legacy * hosts.size());
+
+        double selector = BenchmarkSupport.opsPerSecond(() -> NetworkScanner.scan(hosts, port, TIMEOUT_MS).size());
+        BenchmarkSupport.report("/24 sweep, one selector", "hosts/s", selector * hosts.size());
+    }
+
+    /** The sweep as it was: worker threads pulling hosts and connecting one at a time. */
+    private List<String> threadPerConnectSweep() throws InterruptedException {
+        List<String> found = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger nextIndex = new AtomicInteger();
+        List<Thread> workers = new ArrayList<>();
+        for (int w = 0; w < LEGACY_THREADS; w++) {
+            Thread worker = new Thread(() -> {
+                for (;;) {
+                    int i = nextIndex.getAndIncrement();
+                    if (i >= hosts.size()) {
+                        return;
+                    }
+                    try (Socket socket = new Socket()) {
+                        socket.connect(new InetSocketAddress(hosts.get(i), port), TIMEOUT_MS);
+                        found.add(hosts.get(i));
+                    } catch (IOException e) {
+                        // not listening
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return found;
+    }
+}
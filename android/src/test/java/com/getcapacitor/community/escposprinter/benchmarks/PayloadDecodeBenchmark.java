@@ -0,0 +1,68 @@
+package com.getcapacitor.community.escposprinter.benchmarks;
+
+import com.getcapacitor.community.escposprinter.payload.BytePool;
+import com.getcapacitor.community.escposprinter.payload.PayloadDecoder;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Base64;
+import java.util.Random;
+
+/**
+ * sendToPrinter payload decoding: legacy JSON number array vs base64, at
+ * 1 KB, 64 KB and 1 MB. Both forms start from the options JSON text the
+ * bridge receives, so each pays for its own parse just like on device.
+ */
+public class PayloadDecodeBenchmark {
+    private static final int[] SIZES = { 1024, 64 * 1024, 1024 * 1024 };
+
+    @Before
+    public void setup() {
+        BenchmarkSupport.assumeEnabled();
+    }
+
+    @Test
+    public void decodeThroughput() throws Exception {
+        BytePool pool = new BytePool();
+        Random random = new Random(7);
+
+        for (int size : SIZES) {
+            byte[] payload = new byte[size];
+            random.nextBytes(payload);
+
+            StringBuilder json = new StringBuilder(size * 4 + 16);
+            json.append("{\"data\":[");
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append(payload[i] & 0xFF);
+            }
+            json.append("]}");
+            final String arrayJson = json.toString();
+            final String base64Json = "{\"dataBase64\":\"" + Base64.getEncoder().encodeToString(payload) + "\"}";
+
+            double arrayOps = BenchmarkSupport.opsPerSecond(() -> {
+                JSONArray array = new JSONObject(arrayJson).getJSONArray("data");
+                byte[] buffer = pool.acquire(array.length());
+                int length = PayloadDecoder.decodeJsonArray(array, buffer);
+                pool.release(buffer);
+                return length;
+            });
+            double base64Ops = BenchmarkSupport.opsPerSecond(() -> {
+                String base64 = new JSONObject(base64Json).getString("dataBase64");
+                byte[] buffer = pool.acquire(PayloadDecoder.maxDecodedLength(base64));
+                int length = PayloadDecoder.decodeBase64(base64, buffer);
+                pool.release(buffer);
+                return length;
+            });
+
+            String label = size / 1024 + " KB";
+            BenchmarkSupport.report("json array  " + label + " (" + arrayJson.length() + " chars)", "MB/s", arrayOps * size / 1e6);
+            BenchmarkSupport.report("base64      " + label + " (" + base64Json.length() + " chars)", "MB/s", base64Ops * size / 1e6);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.getcapacitor.community.escposprinter.benchmarks;
+
+import com.getcapacitor.community.escposprinter.image.DitherMode;
+import com.getcapacitor.community.escposprinter.image.PixelSource;
+import com.getcapacitor.community.escposprinter.image.RasterEncoder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Raster encoding of a 1200x1600 photo-like source down to the two common
+ * thermal head widths (58 mm = 384 dots, 80 mm = 576 dots), per dither mode.
+ */
+public class RasterEncodeBenchmark {
+    private static final int[] WIDTHS = { 384, 576 };
+
+    @Before
+    public void setup() {
+        BenchmarkSupport.assumeEnabled();
+    }
+
+    @Test
+    public void encodeThroughput() throws Exception {
+        int srcWidth = 1200;
+        int srcHeight = 1600;
+        int[] pixels = new int[srcWidth * srcHeight];
+        for (int y = 0; y < srcHeight; y++) {
+            for (int x = 0; x < srcWidth; x++) {
+                int v = ((x * 255 / srcWidth) + (y * 255 / srcHeight) + ((x ^ y) & 31)) / 2 & 0xFF;
+                pixels[y * srcWidth + x] = 0xFF000000 | v << 16 | v << 8 | v;
+            }
+        }
+        PixelSource source = PixelSource.argb(pixels, srcWidth, srcHeight);
+
+        for (int width : WIDTHS) {
+            for (DitherMode mode : DitherMode.values()) {
+                RasterEncoder encoder = new RasterEncoder(width, mode, RasterEncoder.DEFAULT_THRESHOLD);
+                double ops = BenchmarkSupport.opsPerSecond(() -> encoder.encode(source).byteCount());
+                BenchmarkSupport.report(width + " dots " + mode.jsName, "images/s", ops);
+            }
+        }
+    }
+}
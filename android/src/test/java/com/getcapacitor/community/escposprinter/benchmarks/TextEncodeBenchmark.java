@@ -0,0 +1,66 @@
+package com.getcapacitor.community.escposprinter.benchmarks;
+
+import com.getcapacitor.community.escposprinter.document.Codepage;
+import com.getcapacitor.community.escposprinter.document.CodepageTextEncoder;
+import com.getcapacitor.community.escposprinter.document.TextEncoder;
+import com.getcapacitor.community.escposprinter.payload.GrowableByteBuffer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+
+/**
+ * Receipt text (Spanish/Portuguese lines, 48 columns) through the code page
+ * transcoder, against plain ASCII and the allocating String.getBytes path.
+ */
+public class TextEncodeBenchmark {
+    private static final String[] LINES = {
+            "Café con leche                          2,50 €",
+            "Pão de queijo (x2)                      3,80 €",
+            "Ñoquis à bolonhesa                     11,90 €",
+            "Água com gás                            1,20 €",
+            "TOTAL                                  19,40 €",
+            "¡Gracias por su visita! Obrigado, volte sempre",
+    };
+
+    private String receipt;
+
+    @Before
+    public void setup() {
+        BenchmarkSupport.assumeEnabled();
+        var builder = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            for (String line : LINES) {
+                builder.append(line).append('\n');
+            }
+        }
+        receipt = builder.toString();
+    }
+
+    @Test
+    public void encodeThroughput() throws Exception {
+        var out = new GrowableByteBuffer();
+        var codepages = new CodepageTextEncoder(Codepage.PC850, Codepage.PC858, Codepage.PC437);
+        double chars = receipt.length();
+
+        double ascii = BenchmarkSupport.opsPerSecond(() -> {
+            out.reset(1 << 20);
+            TextEncoder.ASCII.encode(receipt, out);
+            return out.size();
+        });
+        BenchmarkSupport.report("ascii", "Mchars/s", ascii * chars / 1e6);
+
+        double transcoded = BenchmarkSupport.opsPerSecond(() -> {
+            out.reset(1 << 20);
+            codepages.resetState();
+            codepages.encode(receipt, out);
+            return out.size();
+        });
+        BenchmarkSupport.report("codepage transcoder (850/858/437)", "Mchars/s", transcoded * chars / 1e6);
+
+        Charset cp858 = Charset.forName("IBM00858");
+        double jdk = BenchmarkSupport.opsPerSecond(() -> receipt.getBytes(cp858).length);
+        BenchmarkSupport.report("String.getBytes(IBM00858), allocating", "Mchars/s", jdk * chars / 1e6);
+    }
+}
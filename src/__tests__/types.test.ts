@@ -19,6 +19,8 @@ import {
   BasePrinter,
   BluetoothPrinter,
   UsbPrinter,
+  PrintJob,
+  EscPosDocument,
   
   // Errors
   PrinterError,
@@ -35,6 +37,17 @@ import type {
   UsbDeviceInfo,
   CreatePrinterOptions,
   SendToPrinterOptions,
+  BeginJobResult,
+  CacheImageResult,
+  ImageCacheStats,
+  PrinterThroughputResult,
+  PrinterStatusEvent,
+  PrinterStatusFlag,
+  CurrentPrinterStatusResult,
+  NetworkDeviceInfo,
+  NetworkDevicesResult,
+  CachedNetworkDevice,
+  CachedNetworkDevicesResult,
 } from '../index';
 
 // ==========================================================================
@@ -123,6 +136,14 @@ async function testPluginMethods(): Promise<void> {
   const createResult: ValueResult<string> = await EscPosPrinter.createPrinter({
     connectionType: PrinterConnectionType.Usb,
     address: '1234:5678:001',
+    compactRaster: true,
+    codepages: ['cp858', 'cp437'],
+  });
+  const networkResult: ValueResult<string> = await EscPosPrinter.createPrinter({
+    connectionType: PrinterConnectionType.Network,
+    address: '192.168.1.100:9100',
+    keepAliveMs: 5000,
+    flowControl: 'status',
   });
   
   const hashKey: string = createResult.value;
@@ -130,7 +151,81 @@ async function testPluginMethods(): Promise<void> {
   const isConnected: ValueResult<boolean> = await EscPosPrinter.isPrinterConnected({ hashKey });
   await EscPosPrinter.connectPrinter({ hashKey });
   await EscPosPrinter.sendToPrinter({ hashKey, data: [0x1B, 0x40] });
+  await EscPosPrinter.sendToPrinter({ hashKey, dataBase64: 'G0A=' });
   const readData: ValueResult<number[]> = await EscPosPrinter.readFromPrinter({ hashKey });
+
+  // Native document compiler
+  await EscPosPrinter.printDocument({
+    hashKey,
+    document: [
+      { type: 'init' },
+      { type: 'text', value: 'Hello', bold: true, align: 'center', newline: true },
+      { type: 'qr', data: 'https://example.com', size: 6 },
+      { type: 'image', dataBase64: 'iVBORw0KGgo=', width: 384, dither: 'atkinson', align: 'center' },
+      { type: 'cut', feed: 3 },
+    ],
+  });
+
+  await EscPosPrinter.printImage({ hashKey, rgbaBase64: 'AAAA/w==', pixelWidth: 1, pixelHeight: 1, format: 'escStar' });
+
+  const { imageId }: CacheImageResult = await EscPosPrinter.cacheImage({ hashKey, dataBase64: 'iVBORw0KGgo=', width: 384 });
+  await EscPosPrinter.printImage({ hashKey, imageId, align: 'center' });
+  await EscPosPrinter.configureImageCache({ maxBytes: 512 * 1024 });
+  const cacheStats: ImageCacheStats = await EscPosPrinter.getImageCacheStats();
+  await EscPosPrinter.clearImageCache();
+  console.log(cacheStats.hits, cacheStats.evictions);
+
+  await EscPosPrinter.storeImage({ hashKey, key: 'L1', dataBase64: 'iVBORw0KGgo=', width: 384, storage: 'download' });
+  await EscPosPrinter.printDocument({ hashKey, document: [{ type: 'storedImage', key: 'L1', align: 'center' }] });
+  await EscPosPrinter.invalidateStoredImages({ hashKey, includeNv: false });
+  const removed: ValueResult<boolean> = await EscPosPrinter.removeStoredImage({ hashKey, key: 'L1' });
+  console.log(removed);
+
+  // Chunked jobs
+  const { jobId, streaming }: BeginJobResult = await EscPosPrinter.beginJob({ hashKey });
+  await EscPosPrinter.appendJobChunk({ hashKey, jobId, dataBase64: 'G0A=' });
+  await EscPosPrinter.commitJob({ hashKey, jobId, waitingTime: 0 });
+  const aborted: ValueResult<boolean> = await EscPosPrinter.abortJob({ hashKey, jobId });
+  console.log(streaming, aborted);
+
+  // Network discovery
+  const found = await EscPosPrinter.addListener('networkDeviceFound', (device: NetworkDeviceInfo) => {
+    console.log(device.ip, device.port);
+  });
+  const scan: NetworkDevicesResult = await EscPosPrinter.getNetworkPrinterDevices({ maxDevices: 1, maxDurationMs: 3000 });
+  const cancelled: ValueResult<boolean> = await EscPosPrinter.cancelNetworkScan();
+  await found.remove();
+  console.log(scan.cancelled, cancelled.value);
+  const changed = await EscPosPrinter.addListener('cachedNetworkPrinterChanged', (device: CachedNetworkDevice) => {
+    console.log(device.id, device.reachable, device.lastSeen, device.supportsDleEot, device.model, device.firmware);
+  });
+  const cached: CachedNetworkDevicesResult = await EscPosPrinter.getCachedNetworkPrinters();
+  await EscPosPrinter.getCachedNetworkPrinters({ revalidate: false });
+  const identified: NetworkDevicesResult = await EscPosPrinter.getNetworkPrinterDevices({ identify: true });
+  console.log(identified.devices[0]?.model);
+  await EscPosPrinter.clearNetworkPrinterCache();
+  await changed.remove();
+  console.log(cached.devices[0]?.reachable);
+
+  // Diagnostics
+  const throughput: PrinterThroughputResult = await EscPosPrinter.getPrinterThroughput({ hashKey });
+  const allThroughput: PrinterThroughputResult = await EscPosPrinter.getPrinterThroughput();
+  console.log(throughput.printers[0]?.bytesPerSecond, allThroughput.printers.length);
+
+  // Status monitor
+  const statusListener = await EscPosPrinter.addListener('printerStatusChanged', (event: PrinterStatusEvent) => {
+    console.log(event.hashKey, event.source, event.reachable, event.statusBytes, event.statusDetail);
+  });
+  await EscPosPrinter.startStatusMonitor({ hashKey, intervalMs: 10000 });
+  await EscPosPrinter.setAutomaticStatusBack({ hashKey });
+  const current: CurrentPrinterStatusResult = await EscPosPrinter.getCurrentPrinterStatus({ hashKey });
+  await EscPosPrinter.setAutomaticStatusBack({ hashKey, enabled: false });
+  const flags: PrinterStatusFlag[] = current.status?.statusDetail ?? [];
+  console.log(flags.includes('PAPER_NEAR_END'));
+  const stopped: ValueResult<boolean> = await EscPosPrinter.stopStatusMonitor({ hashKey });
+  await statusListener.remove();
+  console.log(stopped.value);
+
   await EscPosPrinter.disconnectPrinter({ hashKey });
   const disposed: ValueResult<boolean> = await EscPosPrinter.disposePrinter({ hashKey });
   
@@ -156,6 +251,17 @@ async function testPrinterClasses(): Promise<void> {
   await usbPrinter.connect();
   await usbPrinter.send([0x1B, 0x40]);
   const response: number[] = await usbPrinter.read();
+  await usbPrinter.printDocument(new EscPosDocument().init().line('Hello', { bold: true }).cut());
+  await usbPrinter.printImage({ dataBase64: 'iVBORw0KGgo=', width: 576, dither: 'ordered' });
+  const logoId: string = await usbPrinter.cacheImage({ dataBase64: 'iVBORw0KGgo=', width: 384 });
+  await usbPrinter.printDocument(new EscPosDocument().image({ imageId: logoId }).cut());
+  await usbPrinter.storeImage({ key: 'L1', imageId: logoId, storage: 'nv' });
+  await usbPrinter.printDocument(new EscPosDocument().storedImage('L1', 'center').cut());
+  const logoRemoved: boolean = await usbPrinter.removeStoredImage('L1');
+  console.log(logoRemoved);
+  const job: PrintJob = await usbPrinter.beginJob();
+  await job.append(new Uint8Array([0x1B, 0x40]));
+  await job.commit();
   await usbPrinter.disconnect();
   await usbPrinter.dispose();
   
@@ -205,9 +311,10 @@ function useCreatePrinterOptions(opts: CreatePrinterOptions): void {
 // Verify SendToPrinterOptions interface
 function useSendToPrinterOptions(opts: SendToPrinterOptions): void {
   const key: string = opts.hashKey;
-  const data: number[] = opts.data;
+  const data: number[] | undefined = opts.data;
+  const dataBase64: string | undefined = opts.dataBase64;
   const wait: number | undefined = opts.waitingTime;
-  console.log(key, data, wait);
+  console.log(key, data, dataBase64, wait);
 }
 
 // ==========================================================================
@@ -1,4 +1,4 @@
-import type { PermissionState } from '@capacitor/core';
+import type { PermissionState, PluginListenerHandle } from '@capacitor/core';
 
 import type { PrinterConnectionType } from './enums/printer-connection-type';
 
@@ -12,6 +12,10 @@ export interface WithAddress {
   address: string;
 }
 
+export interface WithJobId extends WithHashKey {
+  jobId: string;
+}
+
 /* Results */
 
 export interface ValueResult<T> {
@@ -66,6 +70,8 @@ export interface UsbDeviceInfo {
  */
 export interface NetworkDevicesResult {
   devices: NetworkDeviceInfo[];
+  /** True when cancelNetworkScan stopped the scan; devices holds what was found until then */
+  cancelled?: boolean;
 }
 
 /**
@@ -80,6 +86,29 @@ export interface NetworkDeviceInfo {
   ip: string;
   /** TCP port the device answered on */
   port: number;
+  /** Printer model (e.g. "EPSON TM-T20II"); only when identified and the printer reports it */
+  model?: string;
+  /** Firmware version; only when identified and the printer reports it */
+  firmware?: string;
+  /** Whether the device answered DLE EOT; only when identified or probed */
+  supportsDleEot?: boolean;
+}
+
+/**
+ * Result from getCachedNetworkPrinters().
+ */
+export interface CachedNetworkDevicesResult {
+  devices: CachedNetworkDevice[];
+}
+
+/**
+ * A network printer found before, by a scan or a probe.
+ */
+export interface CachedNetworkDevice extends NetworkDeviceInfo {
+  /** When the printer last answered (ms since the epoch) */
+  lastSeen: number;
+  /** Whether the printer answered at the last check */
+  reachable: boolean;
 }
 
 /**
@@ -92,7 +121,7 @@ export interface NetworkProbeResult {
   /** Whether the device answered the DLE EOT status request */
   supportsDleEot: boolean;
   /** Decoded status flags when the device answered (e.g. "PAPER_OUT", "OFFLINE", "ERROR") */
-  statusDetail?: string[];
+  statusDetail?: PrinterStatusFlag[];
 }
 
 /**
@@ -106,18 +135,151 @@ export interface PrinterCapabilities {
   /** Supported printer transports */
   transports: ('usb' | 'bluetooth' | 'network')[];
   /** Supported optional features */
-  features: ('networkScan' | 'networkProbe' | 'dleEotStatusCheck')[];
+  features: ('networkScan' | 'networkProbe' | 'dleEotStatusCheck' | 'binaryPayload' | 'chunkedJobs' | 'documentCompiler' | 'imageEncoder' | 'imageCache' | 'storedGraphics' | 'compactRaster' | 'codepages' | 'networkKeepAlive' | 'flowControl' | 'throughputModel' | 'networkScanEvents' | 'discoveryCache' | 'printerIdentification' | 'statusMonitor' | 'automaticStatusBack')[];
 }
 
+/**
+ * Result from beginJob().
+ */
+export interface BeginJobResult {
+  /** Id to pass to appendJobChunk / commitJob / abortJob */
+  jobId: string;
+  /**
+   * Whether chunks are written to the printer as they arrive (USB/Bluetooth
+   * with an open connection) or staged natively and sent on commit (network).
+   */
+  streaming: boolean;
+}
+
+/* Documents (compiled natively into ESC/POS, see printDocument) */
+
+export type TextAlign = 'left' | 'center' | 'right';
+
+export interface TextStyle {
+  align?: TextAlign;
+  bold?: boolean;
+  /** 0 = off, 1 = thin, 2 = thick */
+  underline?: 0 | 1 | 2;
+  /** White on black */
+  invert?: boolean;
+  /** Character width multiplier (1-8) */
+  width?: number;
+  /** Character height multiplier (1-8) */
+  height?: number;
+}
+
+export type BarcodeSymbology =
+  | 'UPC_A'
+  | 'UPC_E'
+  | 'EAN13'
+  | 'EAN8'
+  | 'CODE39'
+  | 'ITF'
+  | 'CODABAR'
+  | 'CODE93'
+  | 'CODE128';
+
+export type DitherMode = 'threshold' | 'floyd-steinberg' | 'atkinson' | 'ordered';
+
+/**
+ * Image pixels plus encoding options. Pixels are downscaled, dithered and
+ * packed natively (requires the 'imageEncoder' capability).
+ */
+export interface ImageSource {
+  /**
+   * Id returned by cacheImage(): prints the cached raster (encode options
+   * are those it was cached with). Requires the 'imageCache' capability.
+   */
+  imageId?: string;
+  /** PNG or JPEG file contents */
+  dataBase64?: string;
+  /** Raw RGBA pixels (4 bytes per pixel, row-major), e.g. canvas ImageData */
+  rgbaBase64?: string;
+  /** Width of rgbaBase64 in pixels */
+  pixelWidth?: number;
+  /** Height of rgbaBase64 in pixels */
+  pixelHeight?: number;
+  /** Target width in dots (e.g. 384 for 58mm, 576 for 80mm); never upscales. Default: source width */
+  width?: number;
+  /** Default 'floyd-steinberg' */
+  dither?: DitherMode;
+  /** Gray level 0-255 below which a dot is black (default 128) */
+  threshold?: number;
+  /** 'gsv0' (GS v 0 raster, default) or 'escStar' (ESC * 24-dot columns, for older printers) */
+  format?: 'gsv0' | 'escStar';
+  align?: TextAlign;
+}
+
+export type DocumentOperation =
+  /** ESC @: reset the printer to its defaults */
+  | { type: 'init' }
+  | ({ type: 'text'; value: string; newline?: boolean } & TextStyle)
+  | ({ type: 'style' } & TextStyle)
+  | { type: 'align'; value: TextAlign }
+  /** Feed `lines` lines (default 1) or `dots` motion units */
+  | { type: 'feed'; lines?: number; dots?: number }
+  /** Cut, optionally feeding `feed` lines first */
+  | { type: 'cut'; partial?: boolean; feed?: number }
+  | {
+      type: 'barcode';
+      data: string;
+      /** Default CODE128 (code set B is selected unless data starts with "{") */
+      symbology?: BarcodeSymbology;
+      /** Bar height in dots (default 80) */
+      height?: number;
+      /** Module width 2-6 (default 2) */
+      moduleWidth?: number;
+      /** Human-readable text position (default 'none') */
+      hri?: 'none' | 'above' | 'below' | 'both';
+      align?: TextAlign;
+    }
+  | {
+      type: 'qr';
+      /** Stored as UTF-8 */
+      data: string;
+      /** Module size 1-16 (default 6) */
+      size?: number;
+      /** Default 'M' */
+      errorCorrection?: 'L' | 'M' | 'Q' | 'H';
+      align?: TextAlign;
+    }
+  /** Pre-encoded 1-bit raster (GS v 0), MSB = leftmost dot */
+  | { type: 'raster'; widthBytes: number; height: number; dataBase64: string; align?: TextAlign }
+  | ({ type: 'image' } & ImageSource)
+  /** Prints a graphic defined on the printer with storeImage() */
+  | { type: 'storedImage'; key: string; align?: TextAlign }
+  /** Raw bytes passed through unchanged */
+  | { type: 'raw'; data?: number[]; dataBase64?: string };
+
 /* Options */
 
+/** Printer code pages (ESC t): PC437, PC850, PC858 (PC850 + euro) and WPC1252 */
+export type Codepage = 'cp437' | 'cp850' | 'cp858' | 'cp1252' | 'wpc1252';
+
+/** How a printer paces jobs: 'heuristic' sleeps after writing, 'status' waits for DLE EOT answers between windows */
+export type FlowControl = 'heuristic' | 'status';
+
+/** Condition decoded from DLE EOT status replies. PAPER_NEAR_END and DRAWER_SIGNAL are informational; the others stop the printer */
+export type PrinterStatusFlag =
+  | 'OFFLINE'
+  | 'PAPER_OUT'
+  | 'ERROR'
+  | 'COVER_OPEN'
+  | 'FEED_BUTTON'
+  | 'MECHANICAL_ERROR'
+  | 'CUTTER_ERROR'
+  | 'UNRECOVERABLE_ERROR'
+  | 'AUTO_RECOVERABLE_ERROR'
+  | 'PAPER_NEAR_END'
+  | 'DRAWER_SIGNAL';
+
 export interface CreatePrinterOptions {
   connectionType: PrinterConnectionType;
   /**
    * Address/identifier for the printer:
    * - Bluetooth: MAC address (e.g., "00:11:22:33:44:55")
    * - USB: Device identifier (e.g., "1234:5678:002")
-   * - Network: IP address and optional port, "host[:port]" (e.g., "192.168.1.100:9100", default port 9100)
+   * - Network: host and optional port, "host[:port]" or "[ipv6][:port]" (e.g., "192.168.1.100:9100", "[fe80::1]:9100", default port 9100)
    */
   address: string;
   /**
@@ -128,6 +290,40 @@ export interface CreatePrinterOptions {
    * without a probe adds a pointless 300ms wait per job.
    */
   statusCheck?: boolean;
+  /**
+   * Send images without their white space: blank rows become ESC J feeds
+   * and left-aligned images are trimmed after their last black dot
+   * (default false). Enable only for printers whose ESC J motion unit
+   * equals their dot pitch: many move in 1/360" units, and blank gaps
+   * inside images would come out too short or too long. Requires the
+   * 'compactRaster' capability.
+   */
+  compactRaster?: boolean;
+  /**
+   * Code pages the printer supports, in order of preference. Text is
+   * transcoded natively, switching code pages with ESC t only where needed;
+   * unprintable characters become '?'. Default ['cp850', 'cp437'] (Spanish
+   * and Portuguese); [] keeps text 7-bit ASCII. Requires the 'codepages'
+   * capability.
+   */
+  codepages?: Codepage[];
+  /**
+   * Network only: keep the connection open for this many ms after a job so
+   * the next job can reuse it (default 0 = connect per job). A parked
+   * connection is checked with a DLE EOT round-trip before reuse and
+   * replaced by a fresh one when stale. While parked it holds the printer's
+   * only TCP session, so keep it short when other devices print to the same
+   * printer. Requires the 'networkKeepAlive' capability.
+   */
+  keepAliveMs?: number;
+  /**
+   * How jobs are paced (default 'heuristic'). 'status' writes in 4 KB
+   * windows and waits for a DLE EOT answer between them, so the job runs at
+   * the printer's real drain rate instead of sleeping length/16 ms; printers
+   * that never answer fall back to 'heuristic'. USB/Bluetooth need an input
+   * channel from the printer. Requires the 'flowControl' capability.
+   */
+  flowControl?: FlowControl;
   [key: string]: unknown;
 }
 
@@ -136,17 +332,157 @@ export interface GetNetworkPrinterDevicesOptions {
   port?: number;
   /** Per-host connect timeout in ms (default 500) */
   timeoutMs?: number;
+  /** Stop once this many devices answered (default 0 = sweep everything). Requires the 'networkScanEvents' capability. */
+  maxDevices?: number;
+  /** Stop after this many ms, with what was found so far (default 0 = no limit). Requires the 'networkScanEvents' capability. */
+  maxDurationMs?: number;
+  /**
+   * Ask each device that answers for its model, firmware and DLE EOT
+   * support (GS I / DLE EOT) before reporting it (default false). Results
+   * are cached, so printers identified lately are not asked again. Requires
+   * the 'printerIdentification' capability.
+   */
+  identify?: boolean;
+}
+
+export interface GetCachedNetworkPrintersOptions {
+  /** Check each cached printer in the background with a quick connect (default true) */
+  revalidate?: boolean;
 }
 
 export interface ProbeNetworkPrinterOptions {
-  /** Network printer address, "host[:port]" (default port 9100) */
+  /** Network printer address, "host[:port]" or "[ipv6][:port]" (default port 9100) */
   address: string;
   /** Bytes to send as the status probe (default DLE EOT n=1: [0x10, 0x04, 0x01]) */
   probeBytes?: number[];
 }
 
 export interface SendToPrinterOptions extends WithHashKey {
-  data: number[];
+  /** Job bytes as a JSON number array (legacy form, ~4 bytes of JSON per byte) */
+  data?: number[];
+  /**
+   * Job bytes as a base64 string (binary form, ~1.33 bytes of JSON per byte).
+   * Takes precedence over `data`. Requires the 'binaryPayload' capability.
+   */
+  dataBase64?: string;
+  waitingTime?: number;
+}
+
+export interface PrintDocumentOptions extends WithHashKey {
+  document: DocumentOperation[];
+  waitingTime?: number;
+}
+
+export interface PrintImageOptions extends WithHashKey, ImageSource {
+  waitingTime?: number;
+}
+
+export type CacheImageOptions = WithHashKey & Omit<ImageSource, 'imageId'>;
+
+/**
+ * Result from cacheImage().
+ */
+export interface CacheImageResult {
+  /** Content id (hash of the source and encode options); stable across calls */
+  imageId: string;
+}
+
+/**
+ * Raster cache counters, for sizing maxBytes.
+ */
+export interface ImageCacheStats {
+  entries: number;
+  /** Bytes of cached 1-bit raster data */
+  bytes: number;
+  maxBytes: number;
+  hits: number;
+  misses: number;
+  evictions: number;
+}
+
+export interface GetPrinterThroughputOptions {
+  /** Only this printer (by its address); all measured printers when omitted */
+  hashKey?: string;
+}
+
+export interface PrinterThroughput {
+  /** Connection type and address, e.g. "network:192.168.1.100:9100" */
+  printerId: string;
+  /** Exponentially weighted average of the measured jobs */
+  bytesPerSecond: number;
+  samples: number;
+  /** Time of the last measurement (ms since the epoch) */
+  updatedAt: number;
+}
+
+export interface PrinterThroughputResult {
+  printers: PrinterThroughput[];
+}
+
+export interface StartStatusMonitorOptions extends WithHashKey {
+  /** Time between status polls in ms (default 5000, minimum 1000) */
+  intervalMs?: number;
+}
+
+export interface SetAutomaticStatusBackOptions extends WithHashKey {
+  /** Subscribe (default) or unsubscribe */
+  enabled?: boolean;
+}
+
+/**
+ * A monitored printer's status, emitted whenever it changes.
+ */
+export interface PrinterStatusEvent {
+  hashKey: string;
+  /** Where the status came from: a status monitor poll or automatic status back; absent in getCurrentPrinterStatus */
+  source?: 'poll' | 'asb';
+  /** False when the printer could not be reached or left DLE EOT unanswered */
+  reachable: boolean;
+  /** Raw replies to DLE EOT n=1..4 (-1 where the printer didn't answer); only when reachable */
+  statusBytes?: number[];
+  /** Flags decoded from all four replies (e.g. "PAPER_NEAR_END", "COVER_OPEN", "CUTTER_ERROR"); only when reachable */
+  statusDetail?: PrinterStatusFlag[];
+}
+
+export interface CurrentPrinterStatusResult {
+  /** Last known status; absent while unknown or unreachable */
+  status?: PrinterStatusEvent;
+}
+
+export interface StoreImageOptions extends WithHashKey, Omit<ImageSource, 'format' | 'align'> {
+  /** Key code: two printable ASCII characters, e.g. "L1" */
+  key: string;
+  /**
+   * 'download' (default): printer RAM, lost when the printer is switched off
+   * (the plugin then defines it again lazily). 'nv': survives power cycles,
+   * but writes flash memory with limited write cycles; only for images that
+   * rarely change.
+   */
+  storage?: 'download' | 'nv';
+}
+
+export interface StoredImageKeyOptions extends WithHashKey {
+  key: string;
+}
+
+export interface InvalidateStoredImagesOptions extends WithHashKey {
+  /** Also define NV graphics again (e.g. after the NV memory was cleared) */
+  includeNv?: boolean;
+}
+
+export interface ConfigureImageCacheOptions {
+  /** Budget in bytes of 1-bit raster data (default 1 MiB); 0 disables caching */
+  maxBytes: number;
+}
+
+export interface AppendJobChunkOptions extends WithJobId {
+  /** Chunk bytes as a JSON number array (legacy form) */
+  data?: number[];
+  /** Chunk bytes as a base64 string. Takes precedence over `data`. */
+  dataBase64?: string;
+}
+
+export interface CommitJobOptions extends WithJobId {
   waitingTime?: number;
 }
 
@@ -192,11 +528,59 @@ export interface EscPosPrinterPlugin {
 
   /* Network methods (Android only) */
   /**
-   * Discovers network printers by sweeping each local /24 subnet on the given
-   * port (default 9100). Only one scan may run at a time.
+   * Discovers network printers by sweeping each local IPv4 subnet on the given
+   * port (default 9100). Hosts where printers were found before go first,
+   * then the rest nearest to the device and the gateway (at most 1024 hosts
+   * per scan). Each device is also emitted as a
+   * 'networkDeviceFound' event as soon as it answers (with identify, once
+   * it was identified). Only one scan may run at a time.
    * @platform Android
    */
   getNetworkPrinterDevices(options?: GetNetworkPrinterDevicesOptions): Promise<NetworkDevicesResult>;
+  /**
+   * Stops the running network scan; its getNetworkPrinterDevices call
+   * resolves with the devices found so far. Resolves false when no scan was
+   * running. Requires the 'networkScanEvents' capability.
+   * @platform Android
+   */
+  cancelNetworkScan(): Promise<ValueResult<boolean>>;
+  /**
+   * Called for each device of a running network scan as soon as it answers,
+   * long before the sweep completes. Requires the 'networkScanEvents'
+   * capability.
+   * @platform Android
+   */
+  addListener(
+    eventName: 'networkDeviceFound',
+    listenerFunc: (device: NetworkDeviceInfo) => void,
+  ): Promise<PluginListenerHandle>;
+  /**
+   * Returns the network printers found before (by scans and probes, kept
+   * across app restarts) at once, most recently seen first. Unless
+   * revalidate is false, each is then checked in the background with a
+   * quick connect; changes are emitted as 'cachedNetworkPrinterChanged'
+   * events. Requires the 'discoveryCache' capability.
+   * @platform Android
+   */
+  getCachedNetworkPrinters(options?: GetCachedNetworkPrintersOptions): Promise<CachedNetworkDevicesResult>;
+  /**
+   * Forgets every cached network printer. Requires the 'discoveryCache'
+   * capability.
+   * @platform Android
+   */
+  clearNetworkPrinterCache(): Promise<void>;
+  /**
+   * Called when what is known about a cached network printer changes: found
+   * for the first time, reachable again or gone, DLE EOT support or model
+   * learned. Requires the 'discoveryCache' capability.
+   * @platform Android
+   */
+  addListener(
+    eventName: 'cachedNetworkPrinterChanged',
+    listenerFunc: (device: CachedNetworkDevice) => void,
+  ): Promise<PluginListenerHandle>;
+  /** Removes all listeners of this plugin. */
+  removeAllListeners(): Promise<void>;
   /**
    * Probes a network printer: TCP connect + status request (DLE EOT by
    * default). Never rejects for unreachable devices.
@@ -219,4 +603,105 @@ export interface EscPosPrinterPlugin {
   disconnectPrinter(options: WithHashKey): Promise<void>;
   sendToPrinter(options: SendToPrinterOptions): Promise<void>;
   readFromPrinter(options: WithHashKey): Promise<ValueResult<number[]>>;
+  /**
+   * Compiles a structured document into ESC/POS bytes natively (off the JS
+   * thread) and sends it. Much smaller over the bridge than raw bytes.
+   */
+  printDocument(options: PrintDocumentOptions): Promise<void>;
+  /**
+   * Encodes an image natively (scaling, dithering, bit packing) and prints
+   * it. Equivalent to a one-operation printDocument with an image operation.
+   */
+  printImage(options: PrintImageOptions): Promise<void>;
+
+  /* Image cache */
+  /**
+   * Encodes an image into the native raster cache and returns its id, so
+   * documents can reference it ({ type: 'image', imageId }) instead of
+   * sending the pixels with every job. Identical images with identical
+   * options are also served from the cache when sent inline. Inline images
+   * never evict cached ones, but cached images evict each other (LRU) once
+   * they fill the budget: printing an evicted id fails, cache it again.
+   */
+  cacheImage(options: CacheImageOptions): Promise<CacheImageResult>;
+  getImageCacheStats(): Promise<ImageCacheStats>;
+  configureImageCache(options: ConfigureImageCacheOptions): Promise<void>;
+  clearImageCache(): Promise<void>;
+
+  /* Stored graphics (GS ( L) */
+  /**
+   * Defines an image on the printer under a key code, so documents print it
+   * with { type: 'storedImage', key } (11 bytes) instead of raster data.
+   * Tracked per physical printer (by address): storing an image the printer
+   * already holds sends nothing, and after a failed job (possible reset)
+   * the next job using it defines it again first.
+   */
+  storeImage(options: StoreImageOptions): Promise<void>;
+  /** Deletes a stored image from the printer. Resolves false for unknown keys. */
+  removeStoredImage(options: StoredImageKeyOptions): Promise<ValueResult<boolean>>;
+  /** Marks the printer's stored images as lost (e.g. after a power cycle), so jobs define them again */
+  invalidateStoredImages(options: InvalidateStoredImagesOptions): Promise<void>;
+
+  /* Chunked jobs */
+  /**
+   * Opens a chunked job (one open job per printer), so long reports never
+   * have to be held in full on either side of the bridge. While a streaming
+   * job is open, sendToPrinter on the same printer is rejected.
+   */
+  beginJob(options: WithHashKey): Promise<BeginJobResult>;
+  /** Appends bytes to an open job. A failed write closes the job. */
+  appendJobChunk(options: AppendJobChunkOptions): Promise<void>;
+  /** Sends (staged) or finishes (streaming) the job and closes it. */
+  commitJob(options: CommitJobOptions): Promise<void>;
+  /**
+   * Discards an open job. Bytes already streamed to the printer can't be
+   * recalled. Resolves false when the job was no longer open.
+   */
+  abortJob(options: WithJobId): Promise<ValueResult<boolean>>;
+
+  /* Diagnostics */
+  /**
+   * Learned throughput of every printer this app has measured (kept across
+   * app restarts), or only of the given printer. Measured on jobs of 16 KB
+   * or more that are status-paced (flowControl: 'status') or sent over USB;
+   * a printer getting slower than its peers is due for a check.
+   */
+  getPrinterThroughput(options?: GetPrinterThroughputOptions): Promise<PrinterThroughputResult>;
+
+  /* Status monitor */
+  /**
+   * Polls the printer's status (DLE EOT n=1..4) in the background and emits
+   * each change as a 'printerStatusChanged' event, so an out-of-paper
+   * printer is noticed before a job fails on it. Polls wait while the
+   * printer is busy with jobs; unreachable printers are polled less and
+   * less often. USB and Bluetooth printers must be connected. Calling it
+   * again changes the interval. Requires the 'statusMonitor' capability.
+   */
+  startStatusMonitor(options: StartStatusMonitorOptions): Promise<void>;
+  /** Stops monitoring the printer; resolves false if it wasn't monitored. */
+  stopStatusMonitor(options: WithHashKey): Promise<ValueResult<boolean>>;
+  /**
+   * Called when a monitored printer's status changes, and once after its
+   * first poll; also for each change pushed by automatic status back.
+   * Requires the 'statusMonitor' capability.
+   */
+  addListener(
+    eventName: 'printerStatusChanged',
+    listenerFunc: (event: PrinterStatusEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  /**
+   * Subscribes to the printer's automatic status back (GS a): the printer
+   * pushes its status whenever it changes, emitted as 'printerStatusChanged'
+   * events without polling. USB and Bluetooth printers read it off their
+   * connection in the background (from the next connect if not connected);
+   * network printers enable it on each new connection and report between
+   * jobs only with keepAlive. Needs a printer that supports GS a. Requires
+   * the 'automaticStatusBack' capability.
+   */
+  setAutomaticStatusBack(options: SetAutomaticStatusBackOptions): Promise<void>;
+  /**
+   * The printer's last known status, from the status monitor or automatic
+   * status back, without asking the printer.
+   */
+  getCurrentPrinterStatus(options: WithHashKey): Promise<CurrentPrinterStatusResult>;
 }
@@ -0,0 +1,101 @@
+import type { BarcodeSymbology, DocumentOperation, ImageSource, TextAlign, TextStyle } from '../definitions';
+
+/**
+ * Fluent builder for printDocument(). Produces the compact operation list
+ * the native compiler turns into ESC/POS bytes.
+ *
+ * @example
+ * ```typescript
+ * const doc = new EscPosDocument()
+ *   .init()
+ *   .text('Mesa 4', { align: 'center', bold: true, width: 2, height: 2 })
+ *   .newline()
+ *   .text('1x Milanesa', { bold: false, width: 1, height: 1, align: 'left' })
+ *   .newline()
+ *   .qr('https://example.com/t/123', { align: 'center' })
+ *   .cut({ feed: 3 });
+ * await printer.printDocument(doc);
+ * ```
+ */
+export class EscPosDocument {
+  readonly operations: DocumentOperation[] = [];
+
+  init(): this {
+    return this.push({ type: 'init' });
+  }
+
+  text(value: string, style?: TextStyle): this {
+    return this.push({ type: 'text', value, ...style });
+  }
+
+  line(value: string, style?: TextStyle): this {
+    return this.push({ type: 'text', value, newline: true, ...style });
+  }
+
+  newline(count = 1): this {
+    return this.push({ type: 'text', value: '\n'.repeat(count) });
+  }
+
+  style(style: TextStyle): this {
+    return this.push({ type: 'style', ...style });
+  }
+
+  align(value: TextAlign): this {
+    return this.push({ type: 'align', value });
+  }
+
+  feed(lines = 1): this {
+    return this.push({ type: 'feed', lines });
+  }
+
+  feedDots(dots: number): this {
+    return this.push({ type: 'feed', dots });
+  }
+
+  cut(options?: { partial?: boolean; feed?: number }): this {
+    return this.push({ type: 'cut', ...options });
+  }
+
+  barcode(
+    data: string,
+    options?: {
+      symbology?: BarcodeSymbology;
+      height?: number;
+      moduleWidth?: number;
+      hri?: 'none' | 'above' | 'below' | 'both';
+      align?: TextAlign;
+    },
+  ): this {
+    return this.push({ type: 'barcode', data, ...options });
+  }
+
+  qr(data: string, options?: { size?: number; errorCorrection?: 'L' | 'M' | 'Q' | 'H'; align?: TextAlign }): this {
+    return this.push({ type: 'qr', data, ...options });
+  }
+
+  raster(widthBytes: number, height: number, dataBase64: string, align?: TextAlign): this {
+    return this.push({ type: 'raster', widthBytes, height, dataBase64, align });
+  }
+
+  /**
+   * Image encoded natively: PNG/JPEG (dataBase64), RGBA pixels (rgbaBase64 +
+   * pixelWidth/pixelHeight) or a cached raster (imageId, see printer.cacheImage)
+   */
+  image(source: ImageSource): this {
+    return this.push({ type: 'image', ...source });
+  }
+
+  /** Graphic defined on the printer with printer.storeImage() */
+  storedImage(key: string, align?: TextAlign): this {
+    return this.push({ type: 'storedImage', key, align });
+  }
+
+  raw(data: number[]): this {
+    return this.push({ type: 'raw', data });
+  }
+
+  private push(operation: DocumentOperation): this {
+    this.operations.push(operation);
+    return this;
+  }
+}
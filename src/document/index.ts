@@ -0,0 +1 @@
+export * from './esc-pos-document';
@@ -1,4 +1,5 @@
 export * from './printers/index';
+export * from './document/index';
 export * from './enums/index';
 export * from './errors/index';
 export * from './definitions';
@@ -1,7 +1,11 @@
+import type { CacheImageOptions, ImageSource, PrinterThroughput, StoreImageOptions } from '../definitions';
+import type { EscPosDocument } from '../document/esc-pos-document';
 import { PrinterError } from '../errors/printer-error';
 import { EscPosPrinter } from '../plugin';
+import { encodePayload } from '../utils/payload';
 
 import { CapacitorLinkedPrinter } from './capacitor-linked-printer';
+import { PrintJob } from './print-job';
 
 export abstract class BasePrinter extends CapacitorLinkedPrinter {
   protected writeBuffer: number[] | undefined;
@@ -49,7 +53,7 @@ export abstract class BasePrinter extends CapacitorLinkedPrinter {
     this.writeBuffer = undefined;
   }
 
-  async write(data: number[]): Promise<void> {
+  async write(data: number[] | Uint8Array): Promise<void> {
     if (!this.internalHashKey) {
       throw new Error('Printer not linked to native');
     }
@@ -63,9 +67,9 @@ export abstract class BasePrinter extends CapacitorLinkedPrinter {
   }
 
   async send(waitingTime?: number): Promise<void>;
-  async send(data: number[]): Promise<void>;
-  async send(data: number[], waitingTime: number): Promise<void>;
-  async send(timeOrData?: number | number[], waitingTime?: number): Promise<void> {
+  async send(data: number[] | Uint8Array): Promise<void>;
+  async send(data: number[] | Uint8Array, waitingTime: number): Promise<void>;
+  async send(timeOrData?: number | number[] | Uint8Array, waitingTime?: number): Promise<void> {
     if (!this.internalHashKey) {
       throw new Error('Printer not linked to native');
     }
@@ -74,7 +78,7 @@ export abstract class BasePrinter extends CapacitorLinkedPrinter {
       throw new Error('Printer not connected');
     }
 
-    if (Array.isArray(timeOrData)) {
+    if (Array.isArray(timeOrData) || timeOrData instanceof Uint8Array) {
       const clampedBytes = new Uint8ClampedArray(timeOrData);
       this.writeBuffer.push(...clampedBytes);
     } else if (typeof timeOrData === 'number') {
@@ -82,9 +86,11 @@ export abstract class BasePrinter extends CapacitorLinkedPrinter {
     }
 
     try {
+      const payload = await encodePayload(this.writeBuffer);
+
       await EscPosPrinter.sendToPrinter({
         hashKey: this.internalHashKey,
-        data: this.writeBuffer,
+        ...payload,
         waitingTime,
       });
   
@@ -94,6 +100,127 @@ export abstract class BasePrinter extends CapacitorLinkedPrinter {
     }
   }
 
+  /**
+   * Sends a document compiled natively into ESC/POS. Independent of the
+   * write buffer: anything written but not yet sent stays buffered.
+   */
+  async printDocument(document: EscPosDocument, waitingTime?: number): Promise<void> {
+    if (!this.internalHashKey) {
+      throw new Error('Printer not linked to native');
+    }
+
+    try {
+      await EscPosPrinter.printDocument({
+        hashKey: this.internalHashKey,
+        document: document.operations,
+        waitingTime,
+      });
+    } catch (e) {
+      throw this.parseError(e);
+    }
+  }
+
+  /**
+   * Prints an image encoded natively (scaled to `width` dots and dithered).
+   * Independent of the write buffer, like printDocument().
+   */
+  async printImage(image: ImageSource, waitingTime?: number): Promise<void> {
+    if (!this.internalHashKey) {
+      throw new Error('Printer not linked to native');
+    }
+
+    try {
+      await EscPosPrinter.printImage({
+        ...image,
+        hashKey: this.internalHashKey,
+        waitingTime,
+      });
+    } catch (e) {
+      throw this.parseError(e);
+    }
+  }
+
+  /**
+   * Encodes an image into the native raster cache and returns its id, for
+   * use as `{ imageId }` in printImage() or EscPosDocument.image().
+   *
+   * @example
+   * ```typescript
+   * const logo = await printer.cacheImage({ dataBase64: logoPng, width: 384 });
+   * await printer.printDocument(new EscPosDocument().image({ imageId: logo, align: 'center' }).line('Thanks!'));
+   * ```
+   */
+  async cacheImage(image: Omit<CacheImageOptions, 'hashKey'>): Promise<string> {
+    if (!this.internalHashKey) {
+      throw new Error('Printer not linked to native');
+    }
+
+    try {
+      const { imageId } = await EscPosPrinter.cacheImage({ ...image, hashKey: this.internalHashKey });
+      return imageId;
+    } catch (e) {
+      throw this.parseError(e);
+    }
+  }
+
+  /**
+   * Defines an image on the printer under a two-character key code, printed
+   * afterwards with EscPosDocument.storedImage(key). Safe to call on every
+   * app start: nothing is sent while the printer still holds the image.
+   */
+  async storeImage(image: Omit<StoreImageOptions, 'hashKey'>): Promise<void> {
+    if (!this.internalHashKey) {
+      throw new Error('Printer not linked to native');
+    }
+
+    try {
+      await EscPosPrinter.storeImage({ ...image, hashKey: this.internalHashKey });
+    } catch (e) {
+      throw this.parseError(e);
+    }
+  }
+
+  async removeStoredImage(key: string): Promise<boolean> {
+    if (!this.internalHashKey) {
+      throw new Error('Printer not linked to native');
+    }
+
+    try {
+      const { value } = await EscPosPrinter.removeStoredImage({ hashKey: this.internalHashKey, key });
+      return value;
+    } catch (e) {
+      throw this.parseError(e);
+    }
+  }
+
+  /**
+   * Opens a chunked job: append bytes as they are rendered instead of
+   * building the whole job in the write buffer first.
+   *
+   * @example
+   * ```typescript
+   * const job = await printer.beginJob();
+   * for (const section of report) {
+   *   await job.append(render(section));
+   * }
+   * await job.commit();
+   * ```
+   */
+  async beginJob(): Promise<PrintJob> {
+    if (!this.internalHashKey) {
+      throw new Error('Printer not linked to native');
+    }
+
+    try {
+      const { jobId, streaming } = await EscPosPrinter.beginJob({
+        hashKey: this.internalHashKey,
+      });
+      return new PrintJob(this.internalHashKey, jobId, streaming, e => this.parseError(e));
+    } catch (e) {
+      throw this.parseError(e);
+    }
+  }
+
   async read(): Promise<number[]> {
     if (!this.internalHashKey) {
       throw new Error('Printer not linked to native');
@@ -109,6 +236,25 @@ export abstract class BasePrinter extends CapacitorLinkedPrinter {
     }
   }
 
+  /**
+   * What the plugin learned about this printer's speed, or undefined until
+   * it measured a large enough job (see getPrinterThroughput).
+   */
+  async getThroughput(): Promise<PrinterThroughput | undefined> {
+    if (!this.internalHashKey) {
+      throw new Error('Printer not linked to native');
+    }
+
+    try {
+      const { printers } = await EscPosPrinter.getPrinterThroughput({
+        hashKey: this.internalHashKey,
+      });
+      return printers[0];
+    } catch (e) {
+      throw this.parseError(e);
+    }
+  }
+
   protected parseError(e: any): any {
     if (!e.data) {
       return e;
@@ -1,3 +1,4 @@
 export * from './base-printer';
 export * from './bluetooth-printer';
+export * from './print-job';
 export * from './usb-printer';
@@ -0,0 +1,47 @@
+import { EscPosPrinter } from '../plugin';
+import { encodePayload } from '../utils/payload';
+
+/**
+ * Handle for a chunked job opened with BasePrinter.beginJob().
+ */
+export class PrintJob {
+  constructor(
+    private readonly hashKey: string,
+    public readonly jobId: string,
+    /** Whether chunks reach the printer as they are appended (vs staged until commit) */
+    public readonly streaming: boolean,
+    private readonly parseError: (e: any) => any,
+  ) {}
+
+  async append(data: number[] | Uint8Array): Promise<void> {
+    try {
+      await EscPosPrinter.appendJobChunk({
+        hashKey: this.hashKey,
+        jobId: this.jobId,
+        ...(await encodePayload(data)),
+      });
+    } catch (e) {
+      throw this.parseError(e);
+    }
+  }
+
+  async commit(waitingTime?: number): Promise<void> {
+    try {
+      await EscPosPrinter.commitJob({
+        hashKey: this.hashKey,
+        jobId: this.jobId,
+        waitingTime,
+      });
+    } catch (e) {
+      throw this.parseError(e);
+    }
+  }
+
+  async abort(): Promise<boolean> {
+    const { value } = await EscPosPrinter.abortJob({
+      hashKey: this.hashKey,
+      jobId: this.jobId,
+    });
+    return value;
+  }
+}
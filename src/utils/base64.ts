@@ -0,0 +1,14 @@
+/**
+ * Encodes bytes as base64 for the sendToPrinter binary payload.
+ * Converts in slices so large receipts never hit argument-count limits of
+ * String.fromCharCode.apply.
+ */
+export function bytesToBase64(bytes: ArrayLike<number>): string {
+  const sliceSize = 0x8000;
+  const view = bytes instanceof Uint8Array ? bytes : Uint8Array.from(bytes);
+  let binary = '';
+  for (let i = 0; i < view.length; i += sliceSize) {
+    binary += String.fromCharCode.apply(null, Array.from(view.subarray(i, i + sliceSize)));
+  }
+  return btoa(binary);
+}
@@ -0,0 +1,31 @@
+import { EscPosPrinter } from '../plugin';
+
+import { bytesToBase64 } from './base64';
+
+let binaryPayloadSupport: Promise<boolean> | undefined;
+
+/**
+ * Whether the installed native build accepts base64 payloads. Resolved once
+ * per app session: the native side can only change with an app update.
+ */
+function supportsBinaryPayload(): Promise<boolean> {
+  if (!binaryPayloadSupport) {
+    binaryPayloadSupport = EscPosPrinter.getCapabilities()
+      .then(({ features }) => features.includes('binaryPayload'))
+      .catch(() => false);
+  }
+  return binaryPayloadSupport;
+}
+
+/**
+ * Bytes in the cheapest wire form the native side understands: base64 when
+ * available, the legacy number array otherwise.
+ */
+export async function encodePayload(
+  bytes: number[] | Uint8Array,
+): Promise<{ data: number[] } | { dataBase64: string }> {
+  if (await supportsBinaryPayload()) {
+    return { dataBase64: bytesToBase64(bytes) };
+  }
+  return { data: Array.isArray(bytes) ? bytes : Array.from(bytes) };
+}
@@ -1,18 +1,38 @@
 import { WebPlugin } from '@capacitor/core';
 
 import type {
+  AppendJobChunkOptions,
+  BeginJobResult,
+  CacheImageOptions,
+  CacheImageResult,
+  CachedNetworkDevicesResult,
+  CommitJobOptions,
+  ConfigureImageCacheOptions,
   CreatePrinterOptions,
+  CurrentPrinterStatusResult,
   EscPosPrinterPlugin,
+  GetCachedNetworkPrintersOptions,
   GetNetworkPrinterDevicesOptions,
+  GetPrinterThroughputOptions,
+  ImageCacheStats,
+  InvalidateStoredImagesOptions,
   NetworkDevicesResult,
   NetworkProbeResult,
   PrinterCapabilities,
   PrinterPermissionStatus,
+  PrinterThroughputResult,
+  PrintDocumentOptions,
+  PrintImageOptions,
   ProbeNetworkPrinterOptions,
   ValueResult,
   WithHashKey,
   WithAddress,
+  WithJobId,
   SendToPrinterOptions,
+  SetAutomaticStatusBackOptions,
+  StartStatusMonitorOptions,
+  StoreImageOptions,
+  StoredImageKeyOptions,
   BluetoothDevicesResult,
   UsbDevicesResult,
 } from './definitions';
@@ -56,6 +76,20 @@ export class EscPosPrinterWeb extends WebPlugin implements EscPosPrinterPlugin {
     return { devices: [] };
   }
 
+  async cancelNetworkScan(): Promise<ValueResult<boolean>> {
+    // No scan ever runs on web
+    return { value: false };
+  }
+
+  async getCachedNetworkPrinters(_options?: GetCachedNetworkPrintersOptions): Promise<CachedNetworkDevicesResult> {
+    // Nothing is ever discovered on web
+    return { devices: [] };
+  }
+
+  async clearNetworkPrinterCache(): Promise<void> {
+    // Nothing is ever cached on web
+  }
+
   async probeNetworkPrinter(_options: ProbeNetworkPrinterOptions): Promise<NetworkProbeResult> {
     // Raw TCP sockets are not available on web platform
     console.log('probeNetworkPrinter: network printing not supported on web');
@@ -97,4 +131,84 @@ export class EscPosPrinterWeb extends WebPlugin implements EscPosPrinterPlugin {
     console.log('readFromPrinter', JSON.stringify(options));
     return { value: [] };
   }
+
+  async printDocument(options: PrintDocumentOptions): Promise<void> {
+    console.log('printDocument', JSON.stringify(options));
+  }
+
+  async printImage(options: PrintImageOptions): Promise<void> {
+    console.log('printImage', JSON.stringify(options));
+  }
+
+  async cacheImage(options: CacheImageOptions): Promise<CacheImageResult> {
+    console.log('cacheImage', JSON.stringify(options));
+    return { imageId: '' };
+  }
+
+  async getImageCacheStats(): Promise<ImageCacheStats> {
+    console.log('getImageCacheStats');
+    return { entries: 0, bytes: 0, maxBytes: 0, hits: 0, misses: 0, evictions: 0 };
+  }
+
+  async configureImageCache(options: ConfigureImageCacheOptions): Promise<void> {
+    console.log('configureImageCache', JSON.stringify(options));
+  }
+
+  async clearImageCache(): Promise<void> {
+    console.log('clearImageCache');
+  }
+
+  async storeImage(options: StoreImageOptions): Promise<void> {
+    console.log('storeImage', JSON.stringify(options));
+  }
+
+  async removeStoredImage(options: StoredImageKeyOptions): Promise<ValueResult<boolean>> {
+    console.log('removeStoredImage', JSON.stringify(options));
+    return { value: false };
+  }
+
+  async invalidateStoredImages(options: InvalidateStoredImagesOptions): Promise<void> {
+    console.log('invalidateStoredImages', JSON.stringify(options));
+  }
+
+  async beginJob(options: WithHashKey): Promise<BeginJobResult> {
+    console.log('beginJob', JSON.stringify(options));
+    return { jobId: '', streaming: false };
+  }
+
+  async appendJobChunk(options: AppendJobChunkOptions): Promise<void> {
+    console.log('appendJobChunk', JSON.stringify({ hashKey: options.hashKey, jobId: options.jobId }));
+  }
+
+  async commitJob(options: CommitJobOptions): Promise<void> {
+    console.log('commitJob', JSON.stringify(options));
+  }
+
+  async abortJob(options: WithJobId): Promise<ValueResult<boolean>> {
+    console.log('abortJob', JSON.stringify(options));
+    return { value: false };
+  }
+
+  async getPrinterThroughput(options?: GetPrinterThroughputOptions): Promise<PrinterThroughputResult> {
+    console.log('getPrinterThroughput', JSON.stringify(options));
+    return { printers: [] };
+  }
+
+  async startStatusMonitor(options: StartStatusMonitorOptions): Promise<void> {
+    console.log('startStatusMonitor', JSON.stringify(options));
+  }
+
+  async stopStatusMonitor(options: WithHashKey): Promise<ValueResult<boolean>> {
+    console.log('stopStatusMonitor', JSON.stringify(options));
+    return { value: false };
+  }
+
+  async setAutomaticStatusBack(options: SetAutomaticStatusBackOptions): Promise<void> {
+    console.log('setAutomaticStatusBack', JSON.stringify(options));
+  }
+
+  async getCurrentPrinterStatus(options: WithHashKey): Promise<CurrentPrinterStatusResult> {
+    console.log('getCurrentPrinterStatus', JSON.stringify(options));
+    return {};
+  }
 }